@@ -0,0 +1,17 @@
+package ru.tutorplatform.gateway.config;
+
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+public class AggregationConfig {
+
+    // Построитель Spring Boot уже наблюдается (трассировка); балансировка — по тем же сервисам, что и маршруты lb://
+    @Bean
+    public WebClient aggregationWebClient(WebClient.Builder webClientBuilder,
+                                          ReactorLoadBalancerExchangeFilterFunction loadBalancer) {
+        return webClientBuilder.filter(loadBalancer).build();
+    }
+}
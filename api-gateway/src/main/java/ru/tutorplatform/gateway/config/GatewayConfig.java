@@ -2,6 +2,7 @@ package ru.tutorplatform.gateway.config;
 
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -27,9 +28,21 @@ public class GatewayConfig {
                         .path("/api/payments/**")
                         .uri("lb://payment-service"))
 
-                .route("calendar-service", r -> r
+                // Календарь и поиск свободного времени обслуживает lesson-service
+                .route("calendar", r -> r
                         .path("/api/calendar/**")
-                        .uri("lb://calendar-service"))
+                        .uri("lb://lesson-service"))
+
+                // Повтор сообщений из dead.letter.queue; роль ADMIN проверяет lesson-service
+                .route("dead-letters", r -> r
+                        .path("/api/admin/dead-letters/**")
+                        .uri("lb://lesson-service"))
+
+                // SSE-поток живёт долго, общий response-timeout к нему не применяем
+                .route("notification-stream", r -> r
+                        .path("/api/notifications/stream")
+                        .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, -1)
+                        .uri("lb://notification-service"))
 
                 .route("swagger", r -> r
                         .path("/v3/api-docs/**")
@@ -0,0 +1,48 @@
+package ru.tutorplatform.gateway.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import ru.tutorplatform.common.dto.ApiResponse;
+import ru.tutorplatform.gateway.dto.LessonDetailsDTO;
+import ru.tutorplatform.gateway.service.LessonDetailsAggregator;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Составные ответы шлюза: несколько запросов к сервисам за один запрос клиента.
+ */
+@RestController
+@RequestMapping("/api/aggregate")
+public class LessonDetailsController {
+
+    private final LessonDetailsAggregator lessonDetailsAggregator;
+
+    public LessonDetailsController(LessonDetailsAggregator lessonDetailsAggregator) {
+        this.lessonDetailsAggregator = lessonDetailsAggregator;
+    }
+
+    @GetMapping("/lessons/{id}")
+    public Mono<ResponseEntity<ApiResponse<LessonDetailsDTO>>> getLessonDetails(@PathVariable Long id,
+                                                                                 ServerHttpRequest request) {
+        return lessonDetailsAggregator.aggregate(id, request.getHeaders())
+                .map(details -> ResponseEntity.ok(ApiResponse.success(details)))
+                .switchIfEmpty(Mono.fromSupplier(() -> error(HttpStatus.NOT_FOUND, "Урок не найден")))
+                // Статус lesson-service (404, 403) передаётся клиенту как есть
+                .onErrorResume(WebClientResponseException.class, e ->
+                        Mono.just(error(HttpStatus.valueOf(e.getStatusCode().value()), "Урок недоступен")))
+                .onErrorResume(TimeoutException.class, e ->
+                        Mono.just(error(HttpStatus.GATEWAY_TIMEOUT, "lesson-service не ответил вовремя")))
+                .onErrorResume(e -> Mono.just(error(HttpStatus.BAD_GATEWAY, "lesson-service недоступен")));
+    }
+
+    private static ResponseEntity<ApiResponse<LessonDetailsDTO>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(ApiResponse.error(message, status.name()));
+    }
+}
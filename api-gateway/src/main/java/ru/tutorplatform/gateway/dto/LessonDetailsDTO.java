@@ -0,0 +1,17 @@
+package ru.tutorplatform.gateway.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Данные страницы урока одним ответом. Урок и пользователи передаются в том виде, в каком их
+ * вернули сервисы. {@code unavailable} — части, которые не удалось получить вовремя; они равны
+ * {@code null}, остальной ответ полный.
+ */
+public record LessonDetailsDTO(JsonNode lesson,
+                               JsonNode tutor,
+                               JsonNode student,
+                               String joinUrl,
+                               List<String> unavailable) {
+}
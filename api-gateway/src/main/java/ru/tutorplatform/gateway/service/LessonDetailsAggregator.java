@@ -0,0 +1,133 @@
+package ru.tutorplatform.gateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.gateway.dto.LessonDetailsDTO;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Собирает страницу урока за один запрос к шлюзу: урок из lesson-service, затем параллельно
+ * репетитора и студента из user-service и ссылку на подключение. У каждого запроса свой таймаут.
+ * Без урока ответа нет; остальные части при ошибке или таймауте возвращаются пустыми и
+ * перечисляются в {@link LessonDetailsDTO#unavailable()}.
+ */
+@Service
+public class LessonDetailsAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(LessonDetailsAggregator.class);
+
+    // Сервисы доверяют заголовкам пользователя, поэтому передаются те же, что пришли в шлюз
+    private static final List<String> FORWARDED_HEADERS = List.of(
+            HttpHeaders.AUTHORIZATION, "X-User-Id", "X-User-Role", "X-Username");
+    private static final Set<String> JOINABLE_STATUSES = Set.of(
+            Constants.LessonStatus.SCHEDULED, Constants.LessonStatus.IN_PROGRESS);
+
+    private final WebClient webClient;
+    private final String lessonServiceUri;
+    private final String userServiceUri;
+    private final Duration lessonTimeout;
+    private final Duration userTimeout;
+    private final Duration joinUrlTimeout;
+
+    public LessonDetailsAggregator(WebClient aggregationWebClient,
+                                   @Value("${aggregation.lesson-service-uri:http://lesson-service}") String lessonServiceUri,
+                                   @Value("${aggregation.user-service-uri:http://user-service}") String userServiceUri,
+                                   @Value("${aggregation.timeouts.lesson:PT2S}") Duration lessonTimeout,
+                                   @Value("${aggregation.timeouts.user:PT1S}") Duration userTimeout,
+                                   @Value("${aggregation.timeouts.join-url:PT3S}") Duration joinUrlTimeout) {
+        this.webClient = aggregationWebClient;
+        this.lessonServiceUri = lessonServiceUri;
+        this.userServiceUri = userServiceUri;
+        this.lessonTimeout = lessonTimeout;
+        this.userTimeout = userTimeout;
+        this.joinUrlTimeout = joinUrlTimeout;
+    }
+
+    /**
+     * Ошибка запроса урока (нет урока, нет доступа, таймаут) завершает результат с этой ошибкой.
+     */
+    public Mono<LessonDetailsDTO> aggregate(Long lessonId, HttpHeaders headers) {
+        return fetchData(lessonServiceUri + "/api/lessons/{id}", lessonId, headers)
+                .timeout(lessonTimeout)
+                .flatMap(lesson -> Mono.zip(
+                                user("tutor", lesson.path("tutorId"), headers),
+                                user("student", lesson.path("studentId"), headers),
+                                joinUrl(lessonId, lesson, headers))
+                        .map(parts -> new LessonDetailsDTO(
+                                lesson,
+                                parts.getT1().value(),
+                                parts.getT2().value(),
+                                parts.getT3().value() != null ? parts.getT3().value().asText() : null,
+                                Stream.of(parts.getT1(), parts.getT2(), parts.getT3())
+                                        .filter(Part::unavailable)
+                                        .map(Part::name)
+                                        .toList())));
+    }
+
+    private Mono<Part> user(String name, JsonNode userId, HttpHeaders headers) {
+        if (!userId.canConvertToLong()) {
+            return Mono.just(Part.empty(name));
+        }
+        return part(name, fetchData(userServiceUri + "/api/users/{id}", userId.asLong(), headers), userTimeout);
+    }
+
+    // Та же логика, что на странице урока: ссылка только для активного урока, готовая ссылка без запроса
+    private Mono<Part> joinUrl(Long lessonId, JsonNode lesson, HttpHeaders headers) {
+        if (!JOINABLE_STATUSES.contains(lesson.path("status").asText())) {
+            return Mono.just(Part.empty("joinUrl"));
+        }
+        JsonNode meetingUrl = lesson.path("meetingUrl");
+        if (meetingUrl.isTextual() && !meetingUrl.asText().isEmpty()) {
+            return Mono.just(new Part("joinUrl", meetingUrl, false));
+        }
+        return part("joinUrl", fetchData(lessonServiceUri + "/api/lessons/{id}/join-url", lessonId, headers),
+                joinUrlTimeout);
+    }
+
+    private Mono<Part> part(String name, Mono<JsonNode> request, Duration timeout) {
+        return request
+                .timeout(timeout)
+                .map(value -> new Part(name, value, false))
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.just(Part.empty(name)))
+                .onErrorResume(e -> {
+                    log.warn("Страница урока: {} не получен: {}", name, e.toString());
+                    return Mono.just(new Part(name, null, true));
+                })
+                .defaultIfEmpty(Part.empty(name));
+    }
+
+    // Сервисы отвечают в обёртке ApiResponse
+    private Mono<JsonNode> fetchData(String uri, Long id, HttpHeaders headers) {
+        return webClient.get()
+                .uri(uri, id)
+                .headers(target -> FORWARDED_HEADERS.forEach(header -> {
+                    List<String> values = headers.get(header);
+                    if (values != null) {
+                        target.put(header, values);
+                    }
+                }))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(body -> body.path("data"))
+                .filter(data -> !data.isMissingNode() && !data.isNull());
+    }
+
+    private record Part(String name, JsonNode value, boolean unavailable) {
+
+        static Part empty(String name) {
+            return new Part(name, null, false);
+        }
+    }
+}
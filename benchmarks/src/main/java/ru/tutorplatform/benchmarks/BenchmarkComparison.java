@@ -0,0 +1,95 @@
+package ru.tutorplatform.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Сравнение двух JSON-результатов JMH (например, двух релизов): время на операцию
+ * и аллокации на операцию по каждому бенчмарку с его параметрами.
+ */
+public final class BenchmarkComparison {
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Использование: compare <базовый.json> <новый.json>");
+            System.exit(1);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> before = index(objectMapper.readTree(Path.of(args[0]).toFile()));
+        Map<String, JsonNode> after = index(objectMapper.readTree(Path.of(args[1]).toFile()));
+
+        System.out.printf("%-90s %14s %14s %9s %14s %14s%n",
+                "Бенчмарк", "было", "стало", "Δ", "B/op было", "B/op стало");
+        Set<String> keys = new TreeSet<>(before.keySet());
+        keys.addAll(after.keySet());
+
+        for (String key : keys) {
+            JsonNode old = before.get(key);
+            JsonNode current = after.get(key);
+            System.out.printf("%-90s %14s %14s %9s %14s %14s%n",
+                    key,
+                    format(score(old)), format(score(current)),
+                    delta(score(old), score(current)),
+                    format(allocation(old)), format(allocation(current)));
+        }
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> indexed = new TreeMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            key.append(" [").append(result.path("primaryMetric").path("scoreUnit").asText()).append(']');
+            indexed.put(key.toString(), result);
+        }
+        return indexed;
+    }
+
+    private static Double score(JsonNode result) {
+        return result != null ? result.path("primaryMetric").path("score").asDouble() : null;
+    }
+
+    private static Double allocation(JsonNode result) {
+        if (result == null) {
+            return null;
+        }
+        // В старых версиях JMH имена вторичных метрик начинаются с «·»
+        Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().endsWith(ALLOC_METRIC)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return null;
+    }
+
+    private static String format(Double value) {
+        return value != null ? String.format("%.3f", value) : "-";
+    }
+
+    private static String delta(Double before, Double after) {
+        if (before == null || after == null || before == 0) {
+            return "-";
+        }
+        return String.format("%+.1f%%", (after - before) / before * 100);
+    }
+}
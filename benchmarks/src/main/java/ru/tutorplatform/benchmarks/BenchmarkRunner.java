@@ -0,0 +1,65 @@
+package ru.tutorplatform.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Точка входа benchmarks.jar.
+ * <p>
+ * По умолчанию включает профилировщик gc (аллокации на операцию) и пишет результаты в
+ * {@code jmh-results/benchmarks-<версия>.json}. Опции JMH из командной строки имеют приоритет.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar                      # все бенчмарки
+ * java -jar benchmarks/target/benchmarks.jar LessonMapper -p lessonCount=100
+ * java -jar benchmarks/target/benchmarks.jar compare old.json new.json
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    private static final Path RESULTS_DIR = Path.of("jmh-results");
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "compare".equals(args[0])) {
+            BenchmarkComparison.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            Files.createDirectories(RESULTS_DIR);
+            options.result(RESULTS_DIR.resolve("benchmarks-" + version() + ".json").toString());
+        }
+
+        new Runner(options.build()).run();
+    }
+
+    private static String version() {
+        String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+        return version != null ? version : "dev";
+    }
+}
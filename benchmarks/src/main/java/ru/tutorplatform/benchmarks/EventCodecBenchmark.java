@@ -0,0 +1,94 @@
+package ru.tutorplatform.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+import ru.tutorplatform.common.codec.EventMessageConverter;
+import ru.tutorplatform.common.event.IntegrationEvent;
+import ru.tutorplatform.common.event.NotificationEvent;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кодирование событий для RabbitMQ: прежняя Java-сериализация (SimpleMessageConverter)
+ * против JSON и бинарного формата {@link EventMessageConverter}. Размер сообщения печатается при подготовке.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventCodecBenchmark {
+
+    @Param({"java", "json", "binary"})
+    private String format;
+
+    @Param({"payment", "notification", "lessonChanged", "integration"})
+    private String event;
+
+    private MessageConverter converter;
+    private Object payload;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        converter = converter(format);
+        payload = switch (event) {
+            case "payment" -> Fixtures.paymentEvent();
+            case "notification" -> Fixtures.notificationEvent();
+            case "lessonChanged" -> Fixtures.lessonChangedEvent();
+            case "integration" -> Fixtures.integrationEvent();
+            default -> throw new IllegalArgumentException(event);
+        };
+        message = converter.toMessage(payload, new MessageProperties());
+        System.out.printf("%n%s/%s: %d байт%n", format, event, message.getBody().length);
+    }
+
+    @Benchmark
+    public Message encode() {
+        return converter.toMessage(payload, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object decode() {
+        return converter.fromMessage(message);
+    }
+
+    /**
+     * Декодирование с обращением к данным: у бинарного формата их разбор отложен до первого чтения.
+     */
+    @Benchmark
+    public Object decodeWithPayload() {
+        Object decoded = converter.fromMessage(message);
+        if (decoded instanceof NotificationEvent notification) {
+            return notification.getPayload();
+        }
+        if (decoded instanceof IntegrationEvent integration) {
+            return integration.getPayload();
+        }
+        return decoded;
+    }
+
+    private static MessageConverter converter(String format) {
+        if ("java".equals(format)) {
+            SimpleMessageConverter converter = new SimpleMessageConverter();
+            converter.setAllowedListPatterns(List.of("ru.tutorplatform.*", "java.*", "[Ljava.lang.Object;"));
+            return converter;
+        }
+        return EventMessageConverter.forFormat(format);
+    }
+}
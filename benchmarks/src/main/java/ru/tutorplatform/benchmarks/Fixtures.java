@@ -0,0 +1,91 @@
+package ru.tutorplatform.benchmarks;
+
+import org.springframework.util.ReflectionUtils;
+import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.common.event.IntegrationEvent;
+import ru.tutorplatform.common.event.LessonChangedEvent;
+import ru.tutorplatform.common.event.NotificationEvent;
+import ru.tutorplatform.common.event.PaymentEvent;
+import ru.tutorplatform.common.event.payload.InvoicePayload;
+import ru.tutorplatform.common.event.payload.LessonNotificationPayload;
+import ru.tutorplatform.lesson.model.Lesson;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Тестовые данные бенчмарков. Значения фиксированы, чтобы размер сериализованных
+ * объектов не менялся от запуска к запуску.
+ */
+public final class Fixtures {
+
+    public static final String JWT_SECRET = "benchmark-secret-key-min-256-bits-for-hmac-sha-signing";
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    private Fixtures() {
+    }
+
+    public static Lesson lesson(long id) {
+        return Lesson.builder()
+                .id(id)
+                .studentId(1000 + id % 97)
+                .tutorId(2000 + id % 13)
+                .subjectId(id % 7)
+                .scheduledTime(BASE_TIME.plusHours(id))
+                .durationMinutes(60)
+                .price(new BigDecimal("1500.00"))
+                .status(Constants.LessonStatus.SCHEDULED)
+                .meetingUrl("https://zoom.us/j/" + (8_000_000_000L + id))
+                .createdAt(BASE_TIME.minusDays(1))
+                .updatedAt(BASE_TIME.minusDays(1))
+                .version(0L)
+                .build();
+    }
+
+    public static List<Lesson> lessons(int count) {
+        List<Lesson> lessons = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            lessons.add(lesson(id));
+        }
+        return lessons;
+    }
+
+    public static PaymentEvent paymentEvent() {
+        return new PaymentEvent(UUID.nameUUIDFromBytes("payment".getBytes()).toString(), 1L, 1001L, 2001L,
+                new BigDecimal("1500.00"), "RUB", Constants.PaymentStatus.PENDING, BASE_TIME, "PLATFORM", 3L);
+    }
+
+    public static NotificationEvent notificationEvent() {
+        return new NotificationEvent(UUID.nameUUIDFromBytes("notification".getBytes()).toString(), "EMAIL",
+                "student@example.com", "LESSON_CREATED",
+                new LessonNotificationPayload(1L, BASE_TIME, 60, 3L),
+                BASE_TIME);
+    }
+
+    public static LessonChangedEvent lessonChangedEvent() {
+        return new LessonChangedEvent(UUID.nameUUIDFromBytes("lesson".getBytes()).toString(), "LESSON_UPDATED",
+                1L, 1001L, 2001L, Constants.LessonStatus.SCHEDULED, BASE_TIME, 60, BASE_TIME);
+    }
+
+    public static IntegrationEvent integrationEvent() {
+        return new IntegrationEvent(UUID.nameUUIDFromBytes("integration".getBytes()).toString(), "1C",
+                "CREATE_INVOICE", new InvoicePayload(1L, 1001L, new BigDecimal("1500.00"), "RUB"), BASE_TIME);
+    }
+
+    /**
+     * Заполняет поле, которое в приложении внедряет Spring через {@code @Value}.
+     */
+    public static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException("Поле " + name + " не найдено в " + target.getClass().getName());
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,137 @@
+package ru.tutorplatform.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.tutorplatform.common.dto.ApiResponse;
+import ru.tutorplatform.common.event.IntegrationEvent;
+import ru.tutorplatform.common.event.LessonChangedEvent;
+import ru.tutorplatform.common.event.NotificationEvent;
+import ru.tutorplatform.common.event.PaymentEvent;
+import ru.tutorplatform.lesson.dto.LessonDTO;
+import ru.tutorplatform.lesson.mapper.LessonMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson-сериализация ответов API и событий common-lib. ObjectMapper собирается тем же
+ * builder'ом, что и в Spring Boot, поэтому настройки (даты ISO-строками и т.п.) совпадают с сервисами.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final TypeReference<ApiResponse<List<LessonDTO>>> LESSONS_RESPONSE = new TypeReference<>() {
+    };
+
+    @State(Scope.Benchmark)
+    public static class LessonsState {
+
+        @Param({"1", "100", "1000"})
+        private int lessonCount;
+
+        private ObjectMapper objectMapper;
+        private ApiResponse<List<LessonDTO>> response;
+        private byte[] json;
+
+        @Setup
+        public void setUp() throws IOException {
+            objectMapper = Jackson2ObjectMapperBuilder.json().build();
+            response = ApiResponse.success(new LessonMapper().toDTOs(Fixtures.lessons(lessonCount)));
+            json = objectMapper.writeValueAsBytes(response);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class EventsState {
+
+        private ObjectMapper objectMapper;
+        private PaymentEvent paymentEvent;
+        private NotificationEvent notificationEvent;
+        private LessonChangedEvent lessonChangedEvent;
+        private IntegrationEvent integrationEvent;
+        private byte[] paymentJson;
+        private byte[] notificationJson;
+        private byte[] lessonChangedJson;
+        private byte[] integrationJson;
+
+        @Setup
+        public void setUp() throws IOException {
+            objectMapper = Jackson2ObjectMapperBuilder.json().build();
+            paymentEvent = Fixtures.paymentEvent();
+            notificationEvent = Fixtures.notificationEvent();
+            lessonChangedEvent = Fixtures.lessonChangedEvent();
+            integrationEvent = Fixtures.integrationEvent();
+            paymentJson = objectMapper.writeValueAsBytes(paymentEvent);
+            notificationJson = objectMapper.writeValueAsBytes(notificationEvent);
+            lessonChangedJson = objectMapper.writeValueAsBytes(lessonChangedEvent);
+            integrationJson = objectMapper.writeValueAsBytes(integrationEvent);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeLessonsResponse(LessonsState state) throws IOException {
+        return state.objectMapper.writeValueAsBytes(state.response);
+    }
+
+    @Benchmark
+    public ApiResponse<List<LessonDTO>> deserializeLessonsResponse(LessonsState state) throws IOException {
+        return state.objectMapper.readValue(state.json, LESSONS_RESPONSE);
+    }
+
+    @Benchmark
+    public byte[] serializePaymentEvent(EventsState state) throws IOException {
+        return state.objectMapper.writeValueAsBytes(state.paymentEvent);
+    }
+
+    @Benchmark
+    public PaymentEvent deserializePaymentEvent(EventsState state) throws IOException {
+        return state.objectMapper.readValue(state.paymentJson, PaymentEvent.class);
+    }
+
+    @Benchmark
+    public byte[] serializeNotificationEvent(EventsState state) throws IOException {
+        return state.objectMapper.writeValueAsBytes(state.notificationEvent);
+    }
+
+    @Benchmark
+    public NotificationEvent deserializeNotificationEvent(EventsState state) throws IOException {
+        return state.objectMapper.readValue(state.notificationJson, NotificationEvent.class);
+    }
+
+    @Benchmark
+    public byte[] serializeLessonChangedEvent(EventsState state) throws IOException {
+        return state.objectMapper.writeValueAsBytes(state.lessonChangedEvent);
+    }
+
+    @Benchmark
+    public LessonChangedEvent deserializeLessonChangedEvent(EventsState state) throws IOException {
+        return state.objectMapper.readValue(state.lessonChangedJson, LessonChangedEvent.class);
+    }
+
+    @Benchmark
+    public byte[] serializeIntegrationEvent(EventsState state) throws IOException {
+        return state.objectMapper.writeValueAsBytes(state.integrationEvent);
+    }
+
+    @Benchmark
+    public IntegrationEvent deserializeIntegrationEvent(EventsState state) throws IOException {
+        return state.objectMapper.readValue(state.integrationJson, IntegrationEvent.class);
+    }
+}
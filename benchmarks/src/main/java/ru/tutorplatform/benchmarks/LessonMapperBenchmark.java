@@ -0,0 +1,85 @@
+package ru.tutorplatform.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.tutorplatform.lesson.dto.LessonDTO;
+import ru.tutorplatform.lesson.mapper.LessonMapper;
+import ru.tutorplatform.lesson.model.Lesson;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг урока в DTO: {@link LessonMapper} через конструктор против прежнего варианта через builder.
+ * Разница видна в gc.alloc.rate.norm профилировщика gc, который BenchmarkRunner включает по умолчанию.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LessonMapperBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int lessonCount;
+
+    private final LessonMapper lessonMapper = new LessonMapper();
+    private Lesson lesson;
+    private List<Lesson> lessons;
+
+    @Setup
+    public void setUp() {
+        lesson = Fixtures.lesson(1);
+        lessons = Fixtures.lessons(lessonCount);
+    }
+
+    @Benchmark
+    public LessonDTO toDTO() {
+        return lessonMapper.toDTO(lesson);
+    }
+
+    @Benchmark
+    public List<LessonDTO> toDTOs() {
+        return lessonMapper.toDTOs(lessons);
+    }
+
+    @Benchmark
+    public LessonDTO toDTOWithBuilder() {
+        return withBuilder(lesson);
+    }
+
+    @Benchmark
+    public List<LessonDTO> toDTOsWithBuilder() {
+        return lessons.stream()
+                .map(LessonMapperBenchmark::withBuilder)
+                .toList();
+    }
+
+    // Маппинг до перехода LessonMapper на конструктор — точка отсчёта
+    private static LessonDTO withBuilder(Lesson lesson) {
+        return LessonDTO.builder()
+                .id(lesson.getId())
+                .studentId(lesson.getStudentId())
+                .tutorId(lesson.getTutorId())
+                .subjectId(lesson.getSubjectId())
+                .scheduledTime(lesson.getScheduledTime())
+                .durationMinutes(lesson.getDurationMinutes())
+                .price(lesson.getPrice())
+                .status(lesson.getStatus())
+                .meetingUrl(lesson.getMeetingUrl())
+                .createdAt(lesson.getCreatedAt())
+                .updatedAt(lesson.getUpdatedAt())
+                .completedAt(lesson.getCompletedAt())
+                .build();
+    }
+}
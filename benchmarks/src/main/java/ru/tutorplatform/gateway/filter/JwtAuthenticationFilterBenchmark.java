@@ -0,0 +1,62 @@
+package ru.tutorplatform.gateway.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import ru.tutorplatform.benchmarks.Fixtures;
+import ru.tutorplatform.user.util.JwtUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка токена в шлюзе через фильтр целиком: разбор заголовка, проверка подписи и
+ * добавление заголовков пользователя в запрос к сервису.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    private final JwtAuthenticationFilter filterFactory = new JwtAuthenticationFilter();
+    private GatewayFilter filter;
+    private String authorization;
+
+    // Цепочка дальше фильтра ничего не делает: измеряется только сам фильтр
+    private final GatewayFilterChain chain = exchange -> Mono.empty();
+
+    @Setup
+    public void setUp() {
+        Fixtures.setField(filterFactory, "jwtSecret", Fixtures.JWT_SECRET);
+        filter = filterFactory.apply(new JwtAuthenticationFilter.Config());
+
+        // Токен выпускается так же, как в user-service
+        JwtUtil jwtUtil = new JwtUtil();
+        Fixtures.setField(jwtUtil, "secret", Fixtures.JWT_SECRET);
+        Fixtures.setField(jwtUtil, "expiration", 86_400_000L);
+        authorization = "Bearer " + jwtUtil.generateToken("student@example.com", 1001L, "STUDENT", "student");
+    }
+
+    @Benchmark
+    public MockServerWebExchange validateToken() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/lessons")
+                .header(HttpHeaders.AUTHORIZATION, authorization));
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+}
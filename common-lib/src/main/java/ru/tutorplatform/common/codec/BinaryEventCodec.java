@@ -0,0 +1,49 @@
+package ru.tutorplatform.common.codec;
+
+/**
+ * Компактный бинарный формат по схемам из {@link EventSchemas}.
+ * <p>
+ * Сообщение: байт формата, номер схемы, версия схемы отправителя, затем поля в порядке схемы.
+ * Имён полей и классов в сообщении нет — их заменяет схема.
+ */
+public class BinaryEventCodec implements EventCodec {
+
+    public static final String NAME = "binary";
+    public static final String CONTENT_TYPE = "application/vnd.tutorplatform.event+binary";
+
+    private static final int FORMAT_MARKER = 0xE1;
+    private static final int INITIAL_BUFFER_SIZE = 128;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(EventSchema<?> schema, int version, Object event) {
+        BinaryWriter writer = new BinaryWriter(INITIAL_BUFFER_SIZE);
+        writer.writeByte(FORMAT_MARKER);
+        writer.writeVarint(schema.id());
+        writer.writeVarint(version);
+        schema.write(event, writer, version);
+        return writer.toByteArray();
+    }
+
+    @Override
+    public Object decode(EventSchema<?> schema, byte[] body) {
+        BinaryReader reader = new BinaryReader(body);
+        if (reader.readByte() != FORMAT_MARKER) {
+            throw new IllegalArgumentException("Сообщение не в бинарном формате событий");
+        }
+        int schemaId = (int) reader.readVarint();
+        int version = (int) reader.readVarint();
+        EventSchema<?> bodySchema = EventSchemas.byId(schemaId)
+                .orElseThrow(() -> new IllegalArgumentException("Неизвестная схема события: " + schemaId));
+        return bodySchema.read(reader, version);
+    }
+}
@@ -0,0 +1,146 @@
+package ru.tutorplatform.common.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Чтение полей, записанных {@link BinaryWriter}.
+ */
+public class BinaryReader {
+
+    private final byte[] buffer;
+    private int position;
+
+    public BinaryReader(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    public boolean hasRemaining() {
+        return position < buffer.length;
+    }
+
+    public int readByte() {
+        if (position >= buffer.length) {
+            throw new IllegalArgumentException("Неожиданный конец сообщения");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    public long readVarint() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Некорректный varint");
+    }
+
+    public long readSignedVarint() {
+        long raw = readVarint();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public byte[] readBytes() {
+        int length = readLength(readVarint());
+        byte[] bytes = new byte[length];
+        System.arraycopy(buffer, position, bytes, 0, length);
+        position += length;
+        return bytes;
+    }
+
+    public String readString() {
+        long encodedLength = readVarint();
+        if (encodedLength == 0) {
+            return null;
+        }
+        int length = readLength(encodedLength - 1);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public Long readOptionalLong() {
+        return readBoolean() ? readSignedVarint() : null;
+    }
+
+    public Integer readOptionalInt() {
+        return readBoolean() ? Math.toIntExact(readSignedVarint()) : null;
+    }
+
+    public BigDecimal readOptionalDecimal() {
+        if (!readBoolean()) {
+            return null;
+        }
+        int scale = Math.toIntExact(readSignedVarint());
+        return new BigDecimal(new BigInteger(readBytes()), scale);
+    }
+
+    public LocalDateTime readOptionalDateTime() {
+        if (!readBoolean()) {
+            return null;
+        }
+        long epochSecond = readSignedVarint();
+        int nano = Math.toIntExact(readVarint());
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    public Object readValue() {
+        int tag = readByte();
+        return switch (tag) {
+            case ValueTag.NULL -> null;
+            case ValueTag.STRING -> readString();
+            case ValueTag.INT -> Math.toIntExact(readSignedVarint());
+            case ValueTag.LONG -> readSignedVarint();
+            case ValueTag.DOUBLE -> Double.longBitsToDouble(readSignedVarint());
+            case ValueTag.BOOLEAN -> readBoolean();
+            case ValueTag.DECIMAL -> readOptionalDecimal();
+            case ValueTag.DATE_TIME -> readOptionalDateTime();
+            case ValueTag.DATE -> LocalDate.ofEpochDay(readSignedVarint());
+            case ValueTag.MAP -> readMap();
+            case ValueTag.LIST -> {
+                int size = readLength(readVarint());
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue());
+                }
+                yield list;
+            }
+            default -> throw new IllegalArgumentException("Неизвестный тег значения: " + tag);
+        };
+    }
+
+    public Map<String, Object> readMap() {
+        long encodedSize = readVarint();
+        if (encodedSize == 0) {
+            return null;
+        }
+        int size = readLength(encodedSize - 1);
+        Map<String, Object> map = new LinkedHashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            map.put(readString(), readValue());
+        }
+        return map;
+    }
+
+    private int readLength(long length) {
+        if (length < 0 || length > buffer.length - position) {
+            throw new IllegalArgumentException("Некорректная длина поля: " + length);
+        }
+        return (int) length;
+    }
+}
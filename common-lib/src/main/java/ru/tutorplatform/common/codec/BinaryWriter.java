@@ -0,0 +1,162 @@
+package ru.tutorplatform.common.codec;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запись полей бинарного формата событий. Целые — varint (знаковые через zigzag),
+ * строки — длина + UTF-8, необязательные значения — с признаком наличия.
+ */
+public class BinaryWriter {
+
+    private byte[] buffer;
+    private int position;
+
+    public BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeSignedVarint(long value) {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    public void writeBytes(byte[] bytes) {
+        writeVarint(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /**
+     * Длина пишется со сдвигом на единицу: 0 означает null.
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarint(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length + 1L);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    public void writeOptionalLong(Long value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeSignedVarint(value);
+        }
+    }
+
+    public void writeOptionalInt(Integer value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeSignedVarint(value);
+        }
+    }
+
+    public void writeOptionalDecimal(BigDecimal value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeSignedVarint(value.scale());
+            writeBytes(value.unscaledValue().toByteArray());
+        }
+    }
+
+    public void writeOptionalDateTime(LocalDateTime value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeSignedVarint(value.toEpochSecond(ZoneOffset.UTC));
+            writeVarint(value.getNano());
+        }
+    }
+
+    /**
+     * Значение заранее неизвестного типа: байт-тег и само значение.
+     */
+    public void writeValue(Object value) {
+        if (value == null) {
+            writeByte(ValueTag.NULL);
+        } else if (value instanceof String string) {
+            writeByte(ValueTag.STRING);
+            writeString(string);
+        } else if (value instanceof Integer number) {
+            writeByte(ValueTag.INT);
+            writeSignedVarint(number);
+        } else if (value instanceof Long number) {
+            writeByte(ValueTag.LONG);
+            writeSignedVarint(number);
+        } else if (value instanceof Double number) {
+            writeByte(ValueTag.DOUBLE);
+            writeSignedVarint(Double.doubleToRawLongBits(number));
+        } else if (value instanceof Boolean flag) {
+            writeByte(ValueTag.BOOLEAN);
+            writeBoolean(flag);
+        } else if (value instanceof BigDecimal decimal) {
+            writeByte(ValueTag.DECIMAL);
+            writeOptionalDecimal(decimal);
+        } else if (value instanceof LocalDateTime dateTime) {
+            writeByte(ValueTag.DATE_TIME);
+            writeOptionalDateTime(dateTime);
+        } else if (value instanceof LocalDate date) {
+            writeByte(ValueTag.DATE);
+            writeSignedVarint(date.toEpochDay());
+        } else if (value instanceof Map<?, ?> map) {
+            writeByte(ValueTag.MAP);
+            writeMap(map);
+        } else if (value instanceof List<?> list) {
+            writeByte(ValueTag.LIST);
+            writeVarint(list.size());
+            list.forEach(this::writeValue);
+        } else {
+            throw new IllegalArgumentException("Тип " + value.getClass().getName() + " не поддерживается бинарным форматом");
+        }
+    }
+
+    public void writeMap(Map<?, ?> map) {
+        if (map == null) {
+            writeVarint(0);
+            return;
+        }
+        writeVarint(map.size() + 1L);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeString(String.valueOf(entry.getKey()));
+            writeValue(entry.getValue());
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.tutorplatform.common.codec;
+
+/**
+ * Формат тела сообщения с событием.
+ */
+public interface EventCodec {
+
+    /**
+     * Имя формата в настройке {@code messaging.codec}.
+     */
+    String name();
+
+    String contentType();
+
+    /**
+     * @param version версия схемы, в раскладке которой пишется событие
+     */
+    byte[] encode(EventSchema<?> schema, int version, Object event);
+
+    /**
+     * @param schema схема из заголовка {@code event-type}; форматы, которые несут тип в теле, могут её не требовать
+     */
+    Object decode(EventSchema<?> schema, byte[] body);
+}
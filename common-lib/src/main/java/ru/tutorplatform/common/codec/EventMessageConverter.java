@@ -0,0 +1,158 @@
+package ru.tutorplatform.common.codec;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Конвертер событий для RabbitTemplate и контейнеров слушателей.
+ * <p>
+ * Отправляет в одном настроенном формате, а принимает любой известный формат по content-type.
+ * Поэтому формат переключается без остановки обмена: сначала обновляются получатели, затем отправители.
+ * Сообщения, отправленные до перехода Java-сериализацией, ещё читаются, но только для классов
+ * из разрешённого списка.
+ * <p>
+ * Новая версия схемы выкатывается так же: получатели читают все версии, а отправители до их
+ * обновления пишут прежнюю, закреплённую через {@link #setSchemaVersions(Map)}.
+ */
+public class EventMessageConverter implements MessageConverter {
+
+    public static final String EVENT_TYPE_HEADER = "event-type";
+    public static final String EVENT_VERSION_HEADER = "event-version";
+
+    /**
+     * Точные имена классов, которые встречаются в событиях, записанных Java-сериализацией: сами
+     * события, их данные и типы полей, включая суперклассы ({@code Number}) и прокси сериализации
+     * ({@code java.time.Ser} для дат, {@code CollSer} для {@code Map.of}). Целые пакеты не
+     * разрешаются: иначе по сообщению можно собрать цепочку из любого сериализуемого класса пакета.
+     */
+    private static final List<String> LEGACY_ALLOWED_CLASSES = List.of(
+            "ru.tutorplatform.common.event.NotificationEvent",
+            "ru.tutorplatform.common.event.PaymentEvent",
+            "ru.tutorplatform.common.event.LessonChangedEvent",
+            "ru.tutorplatform.common.event.IntegrationEvent",
+            "ru.tutorplatform.common.event.payload.LessonNotificationPayload",
+            "ru.tutorplatform.common.event.payload.InvoicePayload",
+            "ru.tutorplatform.common.event.payload.OrderUpdatePayload",
+            "java.lang.String",
+            "java.lang.Number",
+            "java.lang.Long",
+            "java.lang.Integer",
+            "java.lang.Boolean",
+            "java.lang.Double",
+            "java.math.BigDecimal",
+            "java.math.BigInteger",
+            "java.time.Ser",
+            "java.util.ArrayList",
+            "java.util.HashMap",
+            "java.util.LinkedHashMap",
+            "java.util.CollSer",
+            "[Ljava.lang.Object;");
+
+    private final EventCodec outgoing;
+    private final Map<String, EventCodec> codecsByContentType;
+    private final SimpleMessageConverter legacyConverter = new SimpleMessageConverter();
+    private Map<String, Integer> schemaVersions = Map.of();
+
+    public EventMessageConverter(EventCodec outgoing, EventCodec... accepted) {
+        this.outgoing = outgoing;
+        this.codecsByContentType = Stream.concat(Stream.of(outgoing), Stream.of(accepted))
+                .collect(Collectors.toMap(EventCodec::contentType, Function.identity(), (first, second) -> first));
+        this.legacyConverter.setAllowedListPatterns(LEGACY_ALLOWED_CLASSES);
+    }
+
+    /**
+     * Конвертер, который отправляет в формате {@code format} ({@code binary} или {@code json})
+     * и принимает оба.
+     */
+    public static EventMessageConverter forFormat(String format) {
+        EventCodec binary = new BinaryEventCodec();
+        EventCodec json = new JsonEventCodec();
+        return switch (format) {
+            case BinaryEventCodec.NAME -> new EventMessageConverter(binary, json);
+            case JsonEventCodec.NAME -> new EventMessageConverter(json, binary);
+            default -> throw new IllegalArgumentException("Неизвестный формат событий: " + format);
+        };
+    }
+
+    public static EventMessageConverter forFormat(String format, Map<String, Integer> schemaVersions) {
+        EventMessageConverter converter = forFormat(format);
+        converter.setSchemaVersions(schemaVersions);
+        return converter;
+    }
+
+    /**
+     * Версии схем, которыми писать события вместо текущих: имя схемы → версия.
+     */
+    public void setSchemaVersions(Map<String, Integer> schemaVersions) {
+        schemaVersions.forEach((name, version) -> EventSchemas.byName(name)
+                .orElseThrow(() -> new IllegalArgumentException("Неизвестная схема события: " + name))
+                .checkVersion(version));
+        this.schemaVersions = Map.copyOf(schemaVersions);
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        EventSchema<?> schema = EventSchemas.byType(object.getClass())
+                .orElseThrow(() -> new MessageConversionException(
+                        "Тип " + object.getClass().getName() + " не зарегистрирован в EventSchemas"));
+
+        int version = schemaVersions.getOrDefault(schema.name(), schema.version());
+        byte[] body;
+        try {
+            body = outgoing.encode(schema, version, object);
+        } catch (RuntimeException e) {
+            throw new MessageConversionException("Не удалось закодировать " + schema.name(), e);
+        }
+        messageProperties.setContentType(outgoing.contentType());
+        messageProperties.setContentLength(body.length);
+        messageProperties.setHeader(EVENT_TYPE_HEADER, schema.name());
+        messageProperties.setHeader(EVENT_VERSION_HEADER, version);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        String contentType = baseContentType(properties.getContentType());
+
+        if (MessageProperties.CONTENT_TYPE_SERIALIZED_OBJECT.equals(contentType)) {
+            try {
+                return legacyConverter.fromMessage(message);
+            } catch (SecurityException e) {
+                throw new MessageConversionException("Класс не входит в разрешённый список", e);
+            }
+        }
+
+        EventCodec codec = codecsByContentType.get(contentType);
+        if (codec == null) {
+            throw new MessageConversionException("Неподдерживаемый формат сообщения: " + contentType);
+        }
+        EventSchema<?> schema = EventSchemas.byName(properties.getHeader(EVENT_TYPE_HEADER)).orElse(null);
+        try {
+            return codec.decode(schema, message.getBody());
+        } catch (RuntimeException e) {
+            throw new MessageConversionException("Не удалось декодировать сообщение " + contentType, e);
+        }
+    }
+
+    public EventCodec getOutgoing() {
+        return outgoing;
+    }
+
+    private static String baseContentType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        int parameters = contentType.indexOf(';');
+        return (parameters >= 0 ? contentType.substring(0, parameters) : contentType).trim();
+    }
+}
@@ -0,0 +1,36 @@
+package ru.tutorplatform.common.codec;
+
+/**
+ * Схема события для бинарного формата: порядок и типы полей.
+ * <p>
+ * Поля только дописываются в конец с повышением {@code version}. Читатель получает версию
+ * отправителя: старые сообщения читаются без новых полей, а из новых старый читатель
+ * берёт известные ему поля и игнорирует хвост. На время выката отправитель может писать
+ * более старую версию, пока не обновлены все получатели.
+ *
+ * @param id      номер схемы в сообщении, не меняется и не переиспользуется
+ * @param name    имя типа в заголовке {@code event-type}
+ * @param version текущая версия, с которой пишутся сообщения
+ */
+public record EventSchema<T>(int id,
+                             String name,
+                             int version,
+                             Class<T> type,
+                             SchemaWriter<T> writer,
+                             SchemaReader<T> reader) {
+
+    public void write(Object event, BinaryWriter out, int writtenVersion) {
+        checkVersion(writtenVersion);
+        writer.write(type.cast(event), out, writtenVersion);
+    }
+
+    public T read(BinaryReader in, int writtenVersion) {
+        return reader.read(in, writtenVersion);
+    }
+
+    public void checkVersion(int writtenVersion) {
+        if (writtenVersion < 1 || writtenVersion > version) {
+            throw new IllegalArgumentException("Схема " + name + " не знает версию " + writtenVersion);
+        }
+    }
+}
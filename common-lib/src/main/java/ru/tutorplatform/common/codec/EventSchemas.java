@@ -0,0 +1,179 @@
+package ru.tutorplatform.common.codec;
+
+import ru.tutorplatform.common.event.IntegrationEvent;
+import ru.tutorplatform.common.event.LessonChangedEvent;
+import ru.tutorplatform.common.event.NotificationEvent;
+import ru.tutorplatform.common.event.PaymentEvent;
+import ru.tutorplatform.common.event.payload.EventPayload;
+import ru.tutorplatform.common.event.payload.PayloadSchemas;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Реестр схем событий, которыми обмениваются сервисы. Декодеры создают только
+ * зарегистрированные здесь типы.
+ */
+public final class EventSchemas {
+
+    private static final Map<Integer, EventSchema<?>> BY_ID = new HashMap<>();
+    private static final Map<String, EventSchema<?>> BY_NAME = new HashMap<>();
+    private static final Map<Class<?>, EventSchema<?>> BY_TYPE = new HashMap<>();
+
+    static {
+        // Версия 2: предмет урока для аналитики
+        register(new EventSchema<>(1, "PaymentEvent", 2, PaymentEvent.class,
+                (event, out, version) -> {
+                    out.writeString(event.getEventId());
+                    out.writeOptionalLong(event.getLessonId());
+                    out.writeOptionalLong(event.getStudentId());
+                    out.writeOptionalLong(event.getTutorId());
+                    out.writeOptionalDecimal(event.getAmount());
+                    out.writeString(event.getCurrency());
+                    out.writeString(event.getStatus());
+                    out.writeOptionalDateTime(event.getEventTime());
+                    out.writeString(event.getPaymentMethod());
+                    if (version >= 2) {
+                        out.writeOptionalLong(event.getSubjectId());
+                    }
+                },
+                (in, version) -> {
+                    PaymentEvent event = new PaymentEvent();
+                    event.setEventId(in.readString());
+                    event.setLessonId(in.readOptionalLong());
+                    event.setStudentId(in.readOptionalLong());
+                    event.setTutorId(in.readOptionalLong());
+                    event.setAmount(in.readOptionalDecimal());
+                    event.setCurrency(in.readString());
+                    event.setStatus(in.readString());
+                    event.setEventTime(in.readOptionalDateTime());
+                    event.setPaymentMethod(in.readString());
+                    if (version >= 2) {
+                        event.setSubjectId(in.readOptionalLong());
+                    }
+                    return event;
+                }));
+
+        // Версия 2: типизированные данные вместо Map параметров
+        register(new EventSchema<>(2, "NotificationEvent", 2, NotificationEvent.class,
+                (event, out, version) -> {
+                    out.writeString(event.getEventId());
+                    out.writeString(event.getType());
+                    out.writeString(event.getRecipient());
+                    out.writeString(event.getTemplateId());
+                    out.writeMap(version == 1 && event.getParameters() == null
+                            ? PayloadSchemas.toParameters(event.getPayload())
+                            : event.getParameters());
+                    out.writeOptionalDateTime(event.getEventTime());
+                    if (version >= 2) {
+                        PayloadSchemas.write(out, event.getPayload());
+                    }
+                },
+                (in, version) -> {
+                    NotificationEvent event = new NotificationEvent();
+                    event.setEventId(in.readString());
+                    event.setType(in.readString());
+                    event.setRecipient(in.readString());
+                    event.setTemplateId(in.readString());
+                    event.setParameters(in.readMap());
+                    event.setEventTime(in.readOptionalDateTime());
+                    if (version >= 2) {
+                        Supplier<EventPayload> payload = PayloadSchemas.read(in);
+                        if (payload != null) {
+                            event.deferPayload(payload);
+                        }
+                    }
+                    return event;
+                }));
+
+        // Версия 2: типизированные данные; место прежнего payload (значение с тегом) остаётся пустым
+        register(new EventSchema<>(3, "IntegrationEvent", 2, IntegrationEvent.class,
+                (event, out, version) -> {
+                    out.writeString(event.getOperationId());
+                    out.writeString(event.getSystemName());
+                    out.writeString(event.getOperationType());
+                    out.writeValue(version == 1 ? PayloadSchemas.toParameters(event.getPayload()) : null);
+                    out.writeOptionalDateTime(event.getTimestamp());
+                    if (version >= 2) {
+                        PayloadSchemas.write(out, event.getPayload());
+                    }
+                },
+                (in, version) -> {
+                    IntegrationEvent event = new IntegrationEvent();
+                    event.setOperationId(in.readString());
+                    event.setSystemName(in.readString());
+                    event.setOperationType(in.readString());
+                    Object legacyPayload = in.readValue();
+                    event.setTimestamp(in.readOptionalDateTime());
+                    if (version >= 2) {
+                        Supplier<EventPayload> payload = PayloadSchemas.read(in);
+                        if (payload != null) {
+                            event.deferPayload(payload);
+                        }
+                    } else if (legacyPayload instanceof Map<?, ?> parameters) {
+                        event.setPayload(PayloadSchemas.fromParameters(event.getOperationType(), castParameters(parameters)));
+                    }
+                    return event;
+                }));
+
+        register(new EventSchema<>(4, "LessonChangedEvent", 1, LessonChangedEvent.class,
+                (event, out, version) -> {
+                    out.writeString(event.getEventId());
+                    out.writeString(event.getChangeType());
+                    out.writeOptionalLong(event.getLessonId());
+                    out.writeOptionalLong(event.getStudentId());
+                    out.writeOptionalLong(event.getTutorId());
+                    out.writeString(event.getStatus());
+                    out.writeOptionalDateTime(event.getScheduledTime());
+                    out.writeOptionalInt(event.getDurationMinutes());
+                    out.writeOptionalDateTime(event.getEventTime());
+                },
+                (in, version) -> {
+                    LessonChangedEvent event = new LessonChangedEvent();
+                    event.setEventId(in.readString());
+                    event.setChangeType(in.readString());
+                    event.setLessonId(in.readOptionalLong());
+                    event.setStudentId(in.readOptionalLong());
+                    event.setTutorId(in.readOptionalLong());
+                    event.setStatus(in.readString());
+                    event.setScheduledTime(in.readOptionalDateTime());
+                    event.setDurationMinutes(in.readOptionalInt());
+                    event.setEventTime(in.readOptionalDateTime());
+                    return event;
+                }));
+    }
+
+    private EventSchemas() {
+    }
+
+    public static Optional<EventSchema<?>> byId(int id) {
+        return Optional.ofNullable(BY_ID.get(id));
+    }
+
+    public static Optional<EventSchema<?>> byName(String name) {
+        return Optional.ofNullable(name).map(BY_NAME::get);
+    }
+
+    public static Optional<EventSchema<?>> byType(Class<?> type) {
+        return Optional.ofNullable(BY_TYPE.get(type));
+    }
+
+    public static List<EventSchema<?>> all() {
+        return List.copyOf(BY_ID.values());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, ?> castParameters(Map<?, ?> parameters) {
+        return (Map<String, ?>) parameters;
+    }
+
+    private static void register(EventSchema<?> schema) {
+        if (BY_ID.putIfAbsent(schema.id(), schema) != null || BY_NAME.putIfAbsent(schema.name(), schema) != null) {
+            throw new IllegalStateException("Схема " + schema.name() + " (" + schema.id() + ") уже зарегистрирована");
+        }
+        BY_TYPE.put(schema.type(), schema);
+    }
+}
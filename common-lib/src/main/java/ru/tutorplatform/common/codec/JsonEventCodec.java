@@ -0,0 +1,55 @@
+package ru.tutorplatform.common.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * JSON-формат: удобен для отладки и внешних потребителей. Тип события передаётся в заголовке.
+ * Версия схемы на раскладку не влияет: поля именованы, незнакомые получатель пропускает.
+ */
+public class JsonEventCodec implements EventCodec {
+
+    public static final String NAME = "json";
+    public static final String CONTENT_TYPE = "application/json";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(EventSchema<?> schema, int version, Object event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Object decode(EventSchema<?> schema, byte[] body) {
+        if (schema == null) {
+            throw new IllegalArgumentException("Для JSON не указан тип события");
+        }
+        try {
+            return objectMapper.readValue(body, schema.type());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
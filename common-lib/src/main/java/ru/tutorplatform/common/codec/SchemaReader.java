@@ -0,0 +1,10 @@
+package ru.tutorplatform.common.codec;
+
+/**
+ * Чтение полей структуры, записанной отправителем в версии {@code version}.
+ */
+@FunctionalInterface
+public interface SchemaReader<T> {
+
+    T read(BinaryReader in, int version);
+}
@@ -0,0 +1,10 @@
+package ru.tutorplatform.common.codec;
+
+/**
+ * Запись полей структуры в раскладке указанной версии схемы.
+ */
+@FunctionalInterface
+public interface SchemaWriter<T> {
+
+    void write(T value, BinaryWriter out, int version);
+}
@@ -0,0 +1,22 @@
+package ru.tutorplatform.common.codec;
+
+/**
+ * Теги значений заранее неизвестного типа в бинарном формате. Номера не переиспользуются.
+ */
+final class ValueTag {
+
+    static final int NULL = 0;
+    static final int STRING = 1;
+    static final int INT = 2;
+    static final int LONG = 3;
+    static final int DOUBLE = 4;
+    static final int BOOLEAN = 5;
+    static final int DECIMAL = 6;
+    static final int DATE_TIME = 7;
+    static final int DATE = 8;
+    static final int MAP = 9;
+    static final int LIST = 10;
+
+    private ValueTag() {
+    }
+}
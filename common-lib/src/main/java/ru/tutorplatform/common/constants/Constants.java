@@ -9,6 +9,10 @@ public class Constants {
         public static final String DEAD_LETTER_QUEUE = "dead.letter.queue";
     }
 
+    public static class ExchangeNames {
+        public static final String LESSON_EVENTS = "lesson.events"; // fanout: изменения уроков
+    }
+
     public static class LessonStatus {
         public static final String SCHEDULED = "SCHEDULED";
         public static final String IN_PROGRESS = "IN_PROGRESS";
@@ -1,20 +1,84 @@
 package ru.tutorplatform.common.event;
 
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import ru.tutorplatform.common.event.payload.EventPayload;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.function.Supplier;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class IntegrationEvent implements Serializable {
     private String operationId;
     private String systemName; // "1C", "CRM", "ERP" — внешняя система
     private String operationType; // "CREATE_INVOICE", "UPDATE_ORDER" — тип операции
-    private Object payload;
+    private EventPayload payload; // тип данных определяется operationType, см. PayloadSchemas
     private LocalDateTime timestamp;
-}
\ No newline at end of file
+
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient Supplier<EventPayload> payloadLoader;
+
+    public IntegrationEvent(String operationId, String systemName, String operationType,
+                            EventPayload payload, LocalDateTime timestamp) {
+        this.operationId = operationId;
+        this.systemName = systemName;
+        this.operationType = operationType;
+        this.payload = payload;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Данные операции; разбираются при первом обращении.
+     */
+    public EventPayload getPayload() {
+        if (payload == null && payloadLoader != null) {
+            payload = payloadLoader.get();
+            payloadLoader = null;
+        }
+        return payload;
+    }
+
+    public <P extends EventPayload> P getPayload(Class<P> payloadType) {
+        EventPayload value = getPayload();
+        if (value != null && !payloadType.isInstance(value)) {
+            throw new IllegalStateException("Операция " + operationType + " несёт " + value.getClass().getSimpleName()
+                    + ", а не " + payloadType.getSimpleName());
+        }
+        return payloadType.cast(value);
+    }
+
+    public void setPayload(EventPayload payload) {
+        this.payload = payload;
+        this.payloadLoader = null;
+    }
+
+    /**
+     * Откладывает разбор данных до первого {@link #getPayload()}.
+     */
+    public void deferPayload(Supplier<EventPayload> loader) {
+        this.payload = null;
+        this.payloadLoader = loader;
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getPayload();
+        out.defaultWriteObject();
+    }
+}
@@ -0,0 +1,23 @@
+package ru.tutorplatform.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonChangedEvent implements Serializable {
+    private String eventId;
+    private String changeType; // LESSON_CREATED, LESSON_UPDATED, LESSON_STARTED, LESSON_COMPLETED, LESSON_CANCELLED
+    private Long lessonId;
+    private Long studentId;
+    private Long tutorId;
+    private String status;
+    private LocalDateTime scheduledTime;
+    private Integer durationMinutes;
+    private LocalDateTime eventTime;
+}
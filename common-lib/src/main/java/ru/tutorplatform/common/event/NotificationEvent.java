@@ -1,21 +1,97 @@
 package ru.tutorplatform.common.event;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import ru.tutorplatform.common.event.payload.EventPayload;
+import ru.tutorplatform.common.event.payload.PayloadSchemas;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class NotificationEvent implements Serializable {
+
+    // Прежнее вычисленное значение: Java-сериализованные сообщения, оставшиеся в очереди, читаются после добавления полей
+    @Serial
+    private static final long serialVersionUID = 7959169441116061637L;
+
     private String eventId;
     private String type; // EMAIL, SMS, PUSH — тип уведомления
     private String recipient;
     private String templateId;
-    private Map<String, Object> parameters;
+    private Map<String, Object> parameters; // версия 1; новые отправители заполняют payload
+    private EventPayload payload; // тип данных определяется templateId, см. PayloadSchemas
     private LocalDateTime eventTime;
+
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient Supplier<EventPayload> payloadLoader;
+
+    public NotificationEvent(String eventId, String type, String recipient, String templateId,
+                             EventPayload payload, LocalDateTime eventTime) {
+        this.eventId = eventId;
+        this.type = type;
+        this.recipient = recipient;
+        this.templateId = templateId;
+        this.payload = payload;
+        this.eventTime = eventTime;
+    }
+
+    /**
+     * Данные шаблона. Разбираются при первом обращении; у сообщений версии 1 собираются из {@code parameters}.
+     */
+    public EventPayload getPayload() {
+        if (payload == null) {
+            if (payloadLoader != null) {
+                payload = payloadLoader.get();
+                payloadLoader = null;
+            } else if (parameters != null) {
+                payload = PayloadSchemas.fromParameters(templateId, parameters);
+            }
+        }
+        return payload;
+    }
+
+    public <P extends EventPayload> P getPayload(Class<P> payloadType) {
+        EventPayload value = getPayload();
+        if (value != null && !payloadType.isInstance(value)) {
+            throw new IllegalStateException("Шаблон " + templateId + " несёт " + value.getClass().getSimpleName()
+                    + ", а не " + payloadType.getSimpleName());
+        }
+        return payloadType.cast(value);
+    }
+
+    public void setPayload(EventPayload payload) {
+        this.payload = payload;
+        this.payloadLoader = null;
+    }
+
+    /**
+     * Откладывает разбор данных до первого {@link #getPayload()}.
+     */
+    public void deferPayload(Supplier<EventPayload> loader) {
+        this.payload = null;
+        this.payloadLoader = loader;
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getPayload();
+        out.defaultWriteObject();
+    }
 }
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serial;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,6 +13,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class PaymentEvent implements Serializable {
+
+    // Значение до добавления subjectId: сообщения, сериализованные Java, ещё могут лежать в очередях
+    @Serial
+    private static final long serialVersionUID = 6775976613603522388L;
+
     private String eventId;
     private Long lessonId;
     private Long studentId;
@@ -21,4 +27,5 @@ public class PaymentEvent implements Serializable {
     private String status;
     private LocalDateTime eventTime;
     private String paymentMethod;
+    private Long subjectId;
 }
\ No newline at end of file
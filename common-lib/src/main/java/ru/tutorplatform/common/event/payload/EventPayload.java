@@ -0,0 +1,19 @@
+package ru.tutorplatform.common.event.payload;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.io.Serializable;
+
+/**
+ * Типизированные данные события: параметры шаблона уведомления или операции интеграции.
+ * Каждый тип зарегистрирован в {@link PayloadSchemas} со своей схемой и версией.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "payloadType")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = LessonNotificationPayload.class, name = LessonNotificationPayload.NAME),
+        @JsonSubTypes.Type(value = InvoicePayload.class, name = InvoicePayload.NAME),
+        @JsonSubTypes.Type(value = OrderUpdatePayload.class, name = OrderUpdatePayload.NAME)
+})
+public interface EventPayload extends Serializable {
+}
@@ -0,0 +1,14 @@
+package ru.tutorplatform.common.event.payload;
+
+import java.math.BigDecimal;
+
+/**
+ * Данные операции {@code CREATE_INVOICE}: счёт за урок во внешней учётной системе.
+ */
+public record InvoicePayload(Long lessonId,
+                             Long studentId,
+                             BigDecimal amount,
+                             String currency) implements EventPayload {
+
+    public static final String NAME = "Invoice";
+}
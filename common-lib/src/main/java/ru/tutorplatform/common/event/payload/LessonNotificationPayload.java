@@ -0,0 +1,14 @@
+package ru.tutorplatform.common.event.payload;
+
+import java.time.LocalDateTime;
+
+/**
+ * Параметры уведомлений об уроке: создание, изменение, завершение, отмена и напоминания.
+ */
+public record LessonNotificationPayload(Long lessonId,
+                                        LocalDateTime scheduledTime,
+                                        Integer durationMinutes,
+                                        Long subjectId) implements EventPayload {
+
+    public static final String NAME = "LessonNotification";
+}
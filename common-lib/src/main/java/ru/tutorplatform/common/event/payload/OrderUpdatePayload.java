@@ -0,0 +1,11 @@
+package ru.tutorplatform.common.event.payload;
+
+/**
+ * Данные операции {@code UPDATE_ORDER}: смена статуса заказа во внешней системе.
+ */
+public record OrderUpdatePayload(String orderId,
+                                 Long lessonId,
+                                 String status) implements EventPayload {
+
+    public static final String NAME = "OrderUpdate";
+}
@@ -0,0 +1,44 @@
+package ru.tutorplatform.common.event.payload;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Чтение значений из нетипизированных параметров. Java-сериализация и бинарный формат
+ * сохраняют типы, а из JSON числа приходят как Integer/Long/Double, даты — строками.
+ */
+final class Parameters {
+
+    private Parameters() {
+    }
+
+    static Long longValue(Map<String, ?> parameters, String key) {
+        return parameters.get(key) instanceof Number number ? number.longValue() : null;
+    }
+
+    static Integer intValue(Map<String, ?> parameters, String key) {
+        return parameters.get(key) instanceof Number number ? number.intValue() : null;
+    }
+
+    static String string(Map<String, ?> parameters, String key) {
+        Object value = parameters.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    static BigDecimal decimal(Map<String, ?> parameters, String key) {
+        Object value = parameters.get(key);
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return value != null ? new BigDecimal(value.toString()) : null;
+    }
+
+    static LocalDateTime dateTime(Map<String, ?> parameters, String key) {
+        Object value = parameters.get(key);
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime;
+        }
+        return value != null ? LocalDateTime.parse(value.toString()) : null;
+    }
+}
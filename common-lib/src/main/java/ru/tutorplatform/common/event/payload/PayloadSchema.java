@@ -0,0 +1,38 @@
+package ru.tutorplatform.common.event.payload;
+
+import ru.tutorplatform.common.codec.BinaryReader;
+import ru.tutorplatform.common.codec.BinaryWriter;
+import ru.tutorplatform.common.codec.SchemaReader;
+import ru.tutorplatform.common.codec.SchemaWriter;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Схема типизированных данных события. Правила версий те же, что у
+ * {@link ru.tutorplatform.common.codec.EventSchema}: поля только дописываются в конец.
+ *
+ * @param fromParameters разбор параметров из {@code Map}, в которой данные передавались до типизации
+ * @param toParameters   обратное преобразование для получателей, которые ещё ждут {@code Map}
+ */
+public record PayloadSchema<P extends EventPayload>(int id,
+                                                    String name,
+                                                    int version,
+                                                    Class<P> type,
+                                                    SchemaWriter<P> writer,
+                                                    SchemaReader<P> reader,
+                                                    Function<Map<String, ?>, P> fromParameters,
+                                                    Function<P, Map<String, Object>> toParameters) {
+
+    public void write(EventPayload payload, BinaryWriter out) {
+        writer.write(type.cast(payload), out, version);
+    }
+
+    public P read(BinaryReader in, int writtenVersion) {
+        return reader.read(in, writtenVersion);
+    }
+
+    public Map<String, Object> parametersOf(EventPayload payload) {
+        return toParameters.apply(type.cast(payload));
+    }
+}
@@ -0,0 +1,184 @@
+package ru.tutorplatform.common.event.payload;
+
+import ru.tutorplatform.common.codec.BinaryReader;
+import ru.tutorplatform.common.codec.BinaryWriter;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Реестр схем типизированных данных и их привязка к шаблонам уведомлений и типам операций интеграции.
+ * <p>
+ * В бинарном формате данные пишутся отдельным блоком с длиной: номер схемы, версия, поля.
+ * Получатель читает блок целиком, а разбирает поля только при первом обращении, поэтому
+ * маршрутизация по полям конверта не платит за разбор данных, а неизвестная получателю схема
+ * мешает только тому коду, который к ней обращается.
+ */
+public final class PayloadSchemas {
+
+    private static final Map<Integer, PayloadSchema<?>> BY_ID = new HashMap<>();
+    private static final Map<Class<?>, PayloadSchema<?>> BY_TYPE = new HashMap<>();
+    private static final Map<String, PayloadSchema<?>> BY_KEY = new HashMap<>();
+
+    static {
+        register(new PayloadSchema<>(1, LessonNotificationPayload.NAME, 1, LessonNotificationPayload.class,
+                (payload, out, version) -> {
+                    out.writeOptionalLong(payload.lessonId());
+                    out.writeOptionalDateTime(payload.scheduledTime());
+                    out.writeOptionalInt(payload.durationMinutes());
+                    out.writeOptionalLong(payload.subjectId());
+                },
+                (in, version) -> new LessonNotificationPayload(
+                        in.readOptionalLong(),
+                        in.readOptionalDateTime(),
+                        in.readOptionalInt(),
+                        in.readOptionalLong()),
+                parameters -> new LessonNotificationPayload(
+                        Parameters.longValue(parameters, "lessonId"),
+                        Parameters.dateTime(parameters, "date"),
+                        Parameters.intValue(parameters, "duration"),
+                        Parameters.longValue(parameters, "subjectId")),
+                payload -> parameters(
+                        "lessonId", payload.lessonId(),
+                        "date", payload.scheduledTime(),
+                        "duration", payload.durationMinutes(),
+                        "subjectId", payload.subjectId())),
+                "LESSON_CREATED", "LESSON_UPDATED", "LESSON_STARTED", "LESSON_COMPLETED", "LESSON_CANCELLED",
+                "LESSON_REMINDER_24H", "LESSON_REMINDER_15M");
+
+        register(new PayloadSchema<>(2, InvoicePayload.NAME, 1, InvoicePayload.class,
+                (payload, out, version) -> {
+                    out.writeOptionalLong(payload.lessonId());
+                    out.writeOptionalLong(payload.studentId());
+                    out.writeOptionalDecimal(payload.amount());
+                    out.writeString(payload.currency());
+                },
+                (in, version) -> new InvoicePayload(
+                        in.readOptionalLong(),
+                        in.readOptionalLong(),
+                        in.readOptionalDecimal(),
+                        in.readString()),
+                parameters -> new InvoicePayload(
+                        Parameters.longValue(parameters, "lessonId"),
+                        Parameters.longValue(parameters, "studentId"),
+                        Parameters.decimal(parameters, "amount"),
+                        Parameters.string(parameters, "currency")),
+                payload -> parameters(
+                        "lessonId", payload.lessonId(),
+                        "studentId", payload.studentId(),
+                        "amount", payload.amount(),
+                        "currency", payload.currency())),
+                "CREATE_INVOICE");
+
+        register(new PayloadSchema<>(3, OrderUpdatePayload.NAME, 1, OrderUpdatePayload.class,
+                (payload, out, version) -> {
+                    out.writeString(payload.orderId());
+                    out.writeOptionalLong(payload.lessonId());
+                    out.writeString(payload.status());
+                },
+                (in, version) -> new OrderUpdatePayload(
+                        in.readString(),
+                        in.readOptionalLong(),
+                        in.readString()),
+                parameters -> new OrderUpdatePayload(
+                        Parameters.string(parameters, "orderId"),
+                        Parameters.longValue(parameters, "lessonId"),
+                        Parameters.string(parameters, "status")),
+                payload -> parameters(
+                        "orderId", payload.orderId(),
+                        "lessonId", payload.lessonId(),
+                        "status", payload.status())),
+                "UPDATE_ORDER");
+    }
+
+    private PayloadSchemas() {
+    }
+
+    public static Optional<PayloadSchema<?>> byId(int id) {
+        return Optional.ofNullable(BY_ID.get(id));
+    }
+
+    public static Optional<PayloadSchema<?>> byType(Class<?> type) {
+        return Optional.ofNullable(BY_TYPE.get(type));
+    }
+
+    /**
+     * Схема данных для шаблона уведомления или типа операции интеграции.
+     */
+    public static Optional<PayloadSchema<?>> forKey(String key) {
+        return Optional.ofNullable(key).map(BY_KEY::get);
+    }
+
+    /**
+     * Типизированные данные из параметров в виде {@code Map}; {@code null}, если ключ не привязан к схеме.
+     */
+    public static EventPayload fromParameters(String key, Map<String, ?> parameters) {
+        if (parameters == null) {
+            return null;
+        }
+        return forKey(key).map(schema -> (EventPayload) schema.fromParameters().apply(parameters)).orElse(null);
+    }
+
+    public static Map<String, Object> toParameters(EventPayload payload) {
+        return payload != null ? schemaOf(payload).parametersOf(payload) : null;
+    }
+
+    public static void write(BinaryWriter out, EventPayload payload) {
+        if (payload == null) {
+            out.writeVarint(0);
+            return;
+        }
+        PayloadSchema<?> schema = schemaOf(payload);
+        BinaryWriter fields = new BinaryWriter(64);
+        schema.write(payload, fields);
+        out.writeVarint(schema.id());
+        out.writeVarint(schema.version());
+        out.writeBytes(fields.toByteArray());
+    }
+
+    /**
+     * Читает блок данных и откладывает разбор полей до вызова {@link Supplier#get()}.
+     *
+     * @return {@code null}, если данных в сообщении нет
+     */
+    public static Supplier<EventPayload> read(BinaryReader in) {
+        int schemaId = Math.toIntExact(in.readVarint());
+        if (schemaId == 0) {
+            return null;
+        }
+        int version = Math.toIntExact(in.readVarint());
+        byte[] fields = in.readBytes();
+        return () -> byId(schemaId)
+                .orElseThrow(() -> new IllegalArgumentException("Неизвестная схема данных события: " + schemaId))
+                .read(new BinaryReader(fields), version);
+    }
+
+    private static PayloadSchema<?> schemaOf(EventPayload payload) {
+        return byType(payload.getClass())
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Тип " + payload.getClass().getName() + " не зарегистрирован в PayloadSchemas"));
+    }
+
+    private static Map<String, Object> parameters(Object... keysAndValues) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            if (keysAndValues[i + 1] != null) {
+                parameters.put((String) keysAndValues[i], keysAndValues[i + 1]);
+            }
+        }
+        return parameters;
+    }
+
+    private static void register(PayloadSchema<?> schema, String... keys) {
+        if (BY_ID.putIfAbsent(schema.id(), schema) != null) {
+            throw new IllegalStateException("Схема данных " + schema.name() + " (" + schema.id() + ") уже зарегистрирована");
+        }
+        BY_TYPE.put(schema.type(), schema);
+        for (String key : keys) {
+            BY_KEY.put(key, schema);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.tutorplatform.common.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Обёртка пула соединений, которая замеряет выполнение каждого запроса и передаёт его в
+ * {@link QueryInstrumentation}. Пул остаётся доступен через {@code unwrap}, поэтому метрики
+ * HikariCP из Spring Boot продолжают работать.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private final QueryInstrumentation instrumentation;
+
+    public InstrumentedDataSource(DataSource target, QueryInstrumentation instrumentation) {
+        super(target);
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection connection(Connection target) {
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> statement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                case "prepareCall" -> statement(CallableStatement.class, (Statement) result, (String) args[0]);
+                case "createStatement" -> statement(Statement.class, (Statement) result, null);
+                default -> result;
+            };
+        });
+    }
+
+    // sql == null — обычный Statement: текст приходит аргументом execute*
+    private <T extends Statement> T statement(Class<T> type, Statement target, String sql) {
+        return proxy(type, target, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+            String executed = sql != null ? sql
+                    : args != null && args.length > 0 && args[0] instanceof String text ? text
+                    : null;
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                Object result = invoke(target, method, args);
+                success = true;
+                return result;
+            } finally {
+                instrumentation.record(executed, System.nanoTime() - start, success);
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.tutorplatform.common.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+/**
+ * Оборачивает пулы соединений приложения в {@link InstrumentedDataSource}.
+ * Регистрируется статическим {@code @Bean}-методом.
+ */
+public class InstrumentedDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<QueryInstrumentation> instrumentation;
+
+    public InstrumentedDataSourcePostProcessor(ObjectProvider<QueryInstrumentation> instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)) {
+            return new InstrumentedDataSource(dataSource, instrumentation.getObject());
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.tutorplatform.common.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Метрики запросов для сервисов с базой данных: подключается сама, если в приложении есть
+ * {@link DataSource}. Настройки — {@code db.metrics.*}.
+ */
+@AutoConfiguration(after = DataSourceAutoConfiguration.class)
+@ConditionalOnClass({DelegatingDataSource.class, MeterRegistry.class})
+@ConditionalOnBean(DataSource.class)
+public class JdbcMetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public QueryInstrumentation queryInstrumentation(MeterRegistry meterRegistry,
+                                                     @Value("${db.metrics.slow-query-threshold:PT0.2S}") Duration slowQueryThreshold,
+                                                     @Value("${db.metrics.slow-query-sample-rate:0.1}") double slowQuerySampleRate,
+                                                     @Value("${db.metrics.repeated-query-threshold:10}") int repeatedQueryThreshold) {
+        return new QueryInstrumentation(meterRegistry, slowQueryThreshold, slowQuerySampleRate, repeatedQueryThreshold);
+    }
+
+    // Статический: постпроцессор создаётся раньше остальных бинов конфигурации
+    @Bean
+    public static InstrumentedDataSourcePostProcessor instrumentedDataSourcePostProcessor(
+            ObjectProvider<QueryInstrumentation> queryInstrumentation) {
+        return new InstrumentedDataSourcePostProcessor(queryInstrumentation);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public QueryScopeFilter queryScopeFilter(QueryInstrumentation queryInstrumentation) {
+        return new QueryScopeFilter(queryInstrumentation);
+    }
+}
@@ -0,0 +1,167 @@
+package ru.tutorplatform.common.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики запросов к базе вместо печати каждого SQL в лог:
+ * <ul>
+ *     <li>{@code db.query} — гистограмма времени выполнения по операции, таблице и исходу;</li>
+ *     <li>{@code db.query.slow} — запросы дольше порога; выборка из них пишется в лог;</li>
+ *     <li>{@code db.query.repeated} — один и тот же запрос, выполненный в рамках одного
+ *     HTTP-запроса не меньше порога раз (признак N+1).</li>
+ * </ul>
+ * Рамки HTTP-запроса задаёт {@link QueryScopeFilter}; вне их повторы не считаются.
+ */
+@Slf4j
+public class QueryInstrumentation {
+
+    private static final int MAX_CACHED_STATEMENTS = 2000;
+    private static final int MAX_LOGGED_SQL_LENGTH = 500;
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final long slowQueryNanos;
+    private final double slowQuerySampleRate;
+    private final int repeatedQueryThreshold;
+    private final Map<String, QueryType> types = new ConcurrentHashMap<>();
+    private final Map<Meters.Key, Meters> meters = new ConcurrentHashMap<>();
+
+    public QueryInstrumentation(MeterRegistry meterRegistry,
+                                Duration slowQueryThreshold,
+                                double slowQuerySampleRate,
+                                int repeatedQueryThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryNanos = slowQueryThreshold.toNanos();
+        this.slowQuerySampleRate = slowQuerySampleRate;
+        this.repeatedQueryThreshold = repeatedQueryThreshold;
+    }
+
+    public void record(String sql, long nanos, boolean success) {
+        QueryType type = type(sql);
+        Meters typeMeters = meters(type, success);
+        typeMeters.timer.record(nanos, TimeUnit.NANOSECONDS);
+
+        if (nanos >= slowQueryNanos) {
+            typeMeters.slow.increment();
+            if (ThreadLocalRandom.current().nextDouble() < slowQuerySampleRate) {
+                log.warn("Медленный запрос {} мс [{} {}]: {}",
+                        TimeUnit.NANOSECONDS.toMillis(nanos), type.operation(), type.table(), abbreviate(sql));
+            }
+        }
+
+        Scope scope = SCOPE.get();
+        if (scope != null && sql != null) {
+            scope.counts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Начинает подсчёт повторов в текущем потоке. Вложенный вызов продолжает внешнюю рамку.
+     *
+     * @return {@code true}, если рамка открыта этим вызовом и его нужно закрыть
+     */
+    public boolean openScope(String name) {
+        if (SCOPE.get() != null) {
+            return false;
+        }
+        SCOPE.set(new Scope(name));
+        return true;
+    }
+
+    public void closeScope() {
+        Scope scope = SCOPE.get();
+        SCOPE.remove();
+        if (scope == null) {
+            return;
+        }
+        scope.counts.forEach((sql, count) -> {
+            if (count >= repeatedQueryThreshold) {
+                QueryType type = type(sql);
+                meters(type, true).repeated.increment();
+                log.warn("Запрос выполнен {} раз за {} (вероятно, N+1) [{} {}]: {}",
+                        count, scope.name, type.operation(), type.table(), abbreviate(sql));
+            }
+        });
+    }
+
+    private QueryType type(String sql) {
+        if (sql == null) {
+            return new QueryType("batch", QueryType.UNKNOWN);
+        }
+        QueryType type = types.get(sql);
+        if (type == null) {
+            type = QueryType.of(sql);
+            // Текст запросов с разным числом параметров IN различается — кэш ограничен
+            if (types.size() < MAX_CACHED_STATEMENTS) {
+                types.put(sql, type);
+            }
+        }
+        return type;
+    }
+
+    private Meters meters(QueryType type, boolean success) {
+        return meters.computeIfAbsent(new Meters.Key(type, success), key -> new Meters(meterRegistry, key));
+    }
+
+    private static String abbreviate(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        String singleLine = sql.replaceAll("\\s+", " ").strip();
+        return singleLine.length() <= MAX_LOGGED_SQL_LENGTH
+                ? singleLine
+                : singleLine.substring(0, MAX_LOGGED_SQL_LENGTH) + "...";
+    }
+
+    private static final class Scope {
+
+        private final String name;
+        private final Map<String, Integer> counts = new HashMap<>();
+
+        private Scope(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class Meters {
+
+        private final Timer timer;
+        private final Counter slow;
+        private final Counter repeated;
+
+        private Meters(MeterRegistry meterRegistry, Key key) {
+            String operation = key.type().operation();
+            String table = key.type().table();
+            this.timer = Timer.builder("db.query")
+                    .description("Время выполнения запросов к базе")
+                    .tag("operation", operation)
+                    .tag("table", table)
+                    .tag("outcome", key.success() ? "success" : "error")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.slow = Counter.builder("db.query.slow")
+                    .description("Запросы дольше порога медленного запроса")
+                    .tag("operation", operation)
+                    .tag("table", table)
+                    .register(meterRegistry);
+            this.repeated = Counter.builder("db.query.repeated")
+                    .description("Запросы, повторённые в рамках одного HTTP-запроса не меньше порога раз")
+                    .tag("operation", operation)
+                    .tag("table", table)
+                    .register(meterRegistry);
+        }
+
+        private record Key(QueryType type, boolean success) {
+        }
+    }
+}
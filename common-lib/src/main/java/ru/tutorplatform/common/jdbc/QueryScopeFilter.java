@@ -0,0 +1,35 @@
+package ru.tutorplatform.common.jdbc;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Рамка подсчёта повторяющихся запросов на время обработки HTTP-запроса.
+ */
+public class QueryScopeFilter extends OncePerRequestFilter {
+
+    private final QueryInstrumentation instrumentation;
+
+    public QueryScopeFilter(QueryInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean opened = instrumentation.openScope(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (opened) {
+                instrumentation.closeScope();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ru.tutorplatform.common.jdbc;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Тип запроса для тегов метрик: операция и основная таблица. Параметры в SQL не попадают —
+ * Hibernate передаёт их через {@code ?}, — поэтому число типов ограничено схемой.
+ */
+public record QueryType(String operation, String table) {
+
+    static final String UNKNOWN = "unknown";
+
+    private static final Pattern TABLE = Pattern.compile(
+            "\\b(?:from|into|update|join)\\s+\"?([a-z_][a-z0-9_$]*)\"?(?:\\.\"?([a-z_][a-z0-9_$]*)\"?)?");
+
+    public static QueryType of(String sql) {
+        String normalized = sql.strip().toLowerCase(Locale.ROOT);
+        String operation = operation(normalized);
+        return new QueryType(operation, table(normalized, operation));
+    }
+
+    private static String operation(String sql) {
+        int end = 0;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        String keyword = sql.substring(0, end);
+        return switch (keyword) {
+            case "select", "insert", "update", "delete", "merge", "call" -> keyword;
+            // CTE: операция — изменяющее выражение внутри, если оно есть
+            case "with" -> sql.contains(" insert into ") ? "insert"
+                    : sql.contains(" delete from ") ? "delete"
+                    : sql.contains(" update ") ? "update"
+                    : "select";
+            default -> "other";
+        };
+    }
+
+    private static String table(String sql, String operation) {
+        String target = switch (operation) {
+            case "insert" -> "into";
+            case "update" -> "update";
+            default -> "from";
+        };
+        Matcher matcher = TABLE.matcher(sql);
+        String first = null;
+        while (matcher.find()) {
+            String table = matcher.group(2) != null ? matcher.group(2) : matcher.group(1);
+            if (first == null) {
+                first = table;
+            }
+            if (matcher.group().startsWith(target)) {
+                return table;
+            }
+        }
+        return first != null ? first : UNKNOWN;
+    }
+}
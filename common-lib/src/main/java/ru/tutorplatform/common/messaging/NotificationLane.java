@@ -0,0 +1,84 @@
+package ru.tutorplatform.common.messaging;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Полосы уведомлений по срочности. Срочные не стоят в очереди за массовыми рассылками.
+ * <p>
+ * У каждой полосы своя exchange типа {@code x-consistent-hash} (плагин
+ * {@code rabbitmq_consistent_hash_exchange}) и несколько шард-очередей. Ключ маршрутизации —
+ * получатель, поэтому все его уведомления попадают в одну шард-очередь. У шард-очереди
+ * один активный потребитель ({@code x-single-active-consumer}) на все экземпляры сервиса,
+ * так что порядок уведомлений одного получателя сохраняется. Параллельность полосы задаёт
+ * число шардов. При добавлении шарда consistent hash переносит на него только часть получателей.
+ */
+public enum NotificationLane {
+
+    URGENT("urgent"),
+    NORMAL("normal"),
+    BULK("bulk");
+
+    public static final String CONSISTENT_HASH_EXCHANGE = "x-consistent-hash";
+
+    // Вес привязки для x-consistent-hash: у всех шардов одинаковая доля получателей
+    private static final String SHARD_WEIGHT = "1";
+
+    private final String key;
+
+    NotificationLane(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String exchangeName() {
+        return "notification." + key;
+    }
+
+    public String queueName(int shard) {
+        return "notification." + key + "." + shard;
+    }
+
+    public List<String> queueNames(int shards) {
+        List<String> names = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            names.add(queueName(shard));
+        }
+        return names;
+    }
+
+    public CustomExchange exchange() {
+        return new CustomExchange(exchangeName(), CONSISTENT_HASH_EXCHANGE, true, false);
+    }
+
+    /**
+     * Exchange полосы, её шард-очереди и привязки. Уменьшение числа шардов не удаляет уже
+     * объявленные очереди: их нужно отвязать вручную после того, как они опустеют.
+     */
+    public Declarables declarables(int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("У полосы " + key + " должен быть хотя бы один шард");
+        }
+        CustomExchange exchange = exchange();
+        List<Declarable> declarables = new ArrayList<>(1 + shards * 2);
+        declarables.add(exchange);
+        for (String name : queueNames(shards)) {
+            Queue queue = QueueBuilder.durable(name).singleActiveConsumer().build();
+            Binding binding = BindingBuilder.bind(queue).to(exchange).with(SHARD_WEIGHT).noargs();
+            declarables.add(queue);
+            declarables.add(binding);
+        }
+        return new Declarables(declarables);
+    }
+}
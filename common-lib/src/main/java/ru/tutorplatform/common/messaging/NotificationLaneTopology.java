@@ -0,0 +1,73 @@
+package ru.tutorplatform.common.messaging;
+
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.core.env.PropertyResolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Число шардов каждой полосы уведомлений и построенная по нему топология. У шарда один
+ * активный потребитель, поэтому число шардов и есть параллельность обработки полосы.
+ * <p>
+ * Топологию объявляют и lesson-service (отправитель), и notification-service (получатель):
+ * exchange x-consistent-hash без привязок молча отбрасывает сообщения, поэтому очереди должны
+ * существовать до первой публикации, какой бы сервис ни поднялся первым. Число шардов читается
+ * из {@code notification.lanes.<полоса>.shards} — одинаковых в обоих сервисах.
+ */
+public class NotificationLaneTopology {
+
+    private static final Map<NotificationLane, Integer> DEFAULT_SHARDS = Map.of(
+            NotificationLane.URGENT, 4,
+            NotificationLane.NORMAL, 2,
+            NotificationLane.BULK, 1
+    );
+
+    private final Map<NotificationLane, Integer> shards = new EnumMap<>(NotificationLane.class);
+
+    public NotificationLaneTopology(Map<NotificationLane, Integer> shards) {
+        for (NotificationLane lane : NotificationLane.values()) {
+            this.shards.put(lane, shards.getOrDefault(lane, DEFAULT_SHARDS.get(lane)));
+        }
+    }
+
+    public static NotificationLaneTopology fromProperties(PropertyResolver properties) {
+        Map<NotificationLane, Integer> shards = new EnumMap<>(NotificationLane.class);
+        for (NotificationLane lane : NotificationLane.values()) {
+            shards.put(lane, properties.getProperty("notification.lanes." + lane.getKey() + ".shards",
+                    Integer.class, DEFAULT_SHARDS.get(lane)));
+        }
+        return new NotificationLaneTopology(shards);
+    }
+
+    public int shards(NotificationLane lane) {
+        return shards.get(lane);
+    }
+
+    // Для выражений в @RabbitListener
+    public String[] queues(String lane) {
+        NotificationLane notificationLane = NotificationLane.valueOf(lane);
+        return notificationLane.queueNames(shards(notificationLane)).toArray(String[]::new);
+    }
+
+    public List<String> allQueues() {
+        return Arrays.stream(NotificationLane.values())
+                .flatMap(lane -> lane.queueNames(shards(lane)).stream())
+                .toList();
+    }
+
+    /**
+     * Exchange всех полос, их шард-очереди и привязки.
+     */
+    public Declarables declarables() {
+        List<Declarable> declarables = new ArrayList<>();
+        for (NotificationLane lane : NotificationLane.values()) {
+            declarables.addAll(lane.declarables(shards(lane)).getDeclarables());
+        }
+        return new Declarables(declarables);
+    }
+}
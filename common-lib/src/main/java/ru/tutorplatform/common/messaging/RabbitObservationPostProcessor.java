@@ -0,0 +1,25 @@
+package ru.tutorplatform.common.messaging;
+
+import org.springframework.amqp.rabbit.config.AbstractRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Включает наблюдения Micrometer для отправки ({@link RabbitTemplate}) и приёма (фабрики
+ * контейнеров слушателей) сообщений: через них в заголовках передаётся контекст трассы.
+ * Контейнеры разбирают пачки через {@link TracedBatchingStrategy}, чтобы каждый фрагмент
+ * обрабатывался в своей трассе. Регистрируется статическим {@code @Bean}-методом.
+ */
+public class RabbitObservationPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof RabbitTemplate rabbitTemplate) {
+            rabbitTemplate.setObservationEnabled(true);
+        } else if (bean instanceof AbstractRabbitListenerContainerFactory<?> factory) {
+            factory.setObservationEnabled(true);
+            factory.setBatchingStrategy(new TracedBatchingStrategy());
+        }
+        return bean;
+    }
+}
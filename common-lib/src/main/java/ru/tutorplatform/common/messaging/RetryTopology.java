@@ -0,0 +1,49 @@
+package ru.tutorplatform.common.messaging;
+
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import ru.tutorplatform.common.constants.Constants;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Очереди отложенного повтора для рабочей очереди.
+ * <p>
+ * На каждую задержку — своя очередь без потребителей с TTL: сообщение лежит в ней заданное время,
+ * а затем брокер возвращает его в рабочую очередь через dead-letter по умолчанию.
+ * Задержка входит в имя очереди, поэтому смена настроек объявляет новые очереди
+ * вместо конфликта аргументов с уже существующими.
+ */
+public final class RetryTopology {
+
+    public static final String ATTEMPT_HEADER = "x-retry-attempt";
+    public static final String ORIGINAL_QUEUE_HEADER = "x-original-queue";
+    public static final String EXCEPTION_HEADER = "x-exception-message";
+
+    private RetryTopology() {
+    }
+
+    public static Declarables forQueue(String queue, List<Duration> delays) {
+        List<Declarable> queues = new ArrayList<>(delays.size());
+        for (Duration delay : delays) {
+            queues.add(QueueBuilder.durable(retryQueueName(queue, delay))
+                    .ttl(Math.toIntExact(delay.toMillis()))
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(queue)
+                    .build());
+        }
+        return new Declarables(queues);
+    }
+
+    public static Queue deadLetterQueue() {
+        return QueueBuilder.durable(Constants.QueueNames.DEAD_LETTER_QUEUE).build();
+    }
+
+    public static String retryQueueName(String queue, Duration delay) {
+        return queue + ".retry." + delay.toMillis() + "ms";
+    }
+}
@@ -0,0 +1,90 @@
+package ru.tutorplatform.common.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageBuilderSupport;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.listener.ConditionalRejectingErrorHandler;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import ru.tutorplatform.common.constants.Constants;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Обработка сообщения, на котором упал слушатель: перекладывает его в очередь отложенного
+ * повтора следующей ступени, а после последней — в {@link Constants.QueueNames#DEAD_LETTER_QUEUE}.
+ * <p>
+ * Подключается как {@link MessageRecoverer} к повтору слушателей Spring Boot с
+ * {@code max-attempts: 1}: поток потребителя не ждёт между попытками и сразу берёт следующее
+ * сообщение. Ошибки, которые повтор не исправит (не удалось преобразовать сообщение), сразу
+ * уходят в DLQ. Сообщения временных очередей экземпляра не повторяются: очередь может
+ * исчезнуть раньше, чем сообщение вернётся.
+ * <p>
+ * Заголовки повтора пишутся в копию сообщения: свойства полученного сообщения видят и другие
+ * участники обработки (обработчик ошибок контейнера, трассировка), их менять нельзя.
+ */
+@Slf4j
+public class TieredRetryRecoverer implements MessageRecoverer {
+
+    private static final int MAX_EXCEPTION_MESSAGE_LENGTH = 1000;
+
+    private final AmqpTemplate amqpTemplate;
+    private final List<Duration> delays;
+    private final Set<String> retriedQueues;
+    private final ConditionalRejectingErrorHandler.DefaultExceptionStrategy fatalExceptions =
+            new ConditionalRejectingErrorHandler.DefaultExceptionStrategy();
+
+    public TieredRetryRecoverer(AmqpTemplate amqpTemplate, List<Duration> delays, Set<String> retriedQueues) {
+        this.amqpTemplate = amqpTemplate;
+        this.delays = List.copyOf(delays);
+        this.retriedQueues = Set.copyOf(retriedQueues);
+    }
+
+    @Override
+    public void recover(Message message, Throwable cause) {
+        MessageProperties properties = message.getMessageProperties();
+        String queue = properties.getConsumerQueue();
+        if (!retriedQueues.contains(queue)) {
+            log.error("Сообщение из {} не обработано и отброшено", queue, cause);
+            return;
+        }
+
+        int attempt = attempt(properties);
+        MessageBuilderSupport<Message> copy = MessageBuilder.withBody(message.getBody())
+                .copyProperties(properties)
+                .setHeader(RetryTopology.ORIGINAL_QUEUE_HEADER, queue)
+                .setHeader(RetryTopology.EXCEPTION_HEADER, exceptionMessage(cause))
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+
+        if (attempt < delays.size() && !fatalExceptions.isFatal(cause)) {
+            Duration delay = delays.get(attempt);
+            copy.setHeader(RetryTopology.ATTEMPT_HEADER, attempt + 1);
+            amqpTemplate.send("", RetryTopology.retryQueueName(queue, delay), copy.build());
+            log.warn("Сообщение из {} не обработано, попытка {} через {}: {}", queue, attempt + 1, delay,
+                    cause.getMessage());
+        } else {
+            amqpTemplate.send("", Constants.QueueNames.DEAD_LETTER_QUEUE, copy.build());
+            log.error("Сообщение из {} отправлено в {} после {} повторов", queue,
+                    Constants.QueueNames.DEAD_LETTER_QUEUE, attempt, cause);
+        }
+    }
+
+    private static int attempt(MessageProperties properties) {
+        Object attempt = properties.getHeader(RetryTopology.ATTEMPT_HEADER);
+        return attempt instanceof Number number ? number.intValue() : 0;
+    }
+
+    private static String exceptionMessage(Throwable cause) {
+        Throwable root = cause;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String message = root.getClass().getName() + ": " + root.getMessage();
+        return message.length() > MAX_EXCEPTION_MESSAGE_LENGTH ? message.substring(0, MAX_EXCEPTION_MESSAGE_LENGTH) : message;
+    }
+}
@@ -0,0 +1,80 @@
+package ru.tutorplatform.common.messaging;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.batch.MessageBatch;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import ru.tutorplatform.common.tracing.TraceContext;
+import ru.tutorplatform.common.tracing.TraceContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Пачка Spring AMQP ({@code springBatchFormat=lengthHeader4}), которая сохраняет контекст трассы
+ * каждого фрагмента. Формат пачки хранит только тела, а заголовки пачки берутся у первого
+ * фрагмента, поэтому {@code traceparent} фрагментов по порядку записываются в заголовок
+ * {@value #FRAGMENT_TRACEPARENTS}. При разборе каждый фрагмент снова получает свой
+ * {@code traceparent}, и слушатель обрабатывает его в этом контексте (трасса в логах).
+ * <p>
+ * Отправитель собирает все добавленные сообщения в одну пачку до {@link #releaseBatches()};
+ * получателю стратегия ставится в фабрики контейнеров ({@link RabbitObservationPostProcessor}).
+ * Пачки без заголовка разбираются как обычные.
+ */
+public class TracedBatchingStrategy extends SimpleBatchingStrategy {
+
+    public static final String FRAGMENT_TRACEPARENTS = "x-fragment-traceparents";
+
+    private final List<String> traceparents = new ArrayList<>();
+
+    public TracedBatchingStrategy() {
+        super(Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    @Override
+    public MessageBatch addToBatch(String exchange, String routingKey, Message message) {
+        Object traceparent = message.getMessageProperties().getHeader(TraceContext.TRACEPARENT);
+        traceparents.add(traceparent != null ? traceparent.toString() : "");
+        return super.addToBatch(exchange, routingKey, message);
+    }
+
+    @Override
+    public Collection<MessageBatch> releaseBatches() {
+        Collection<MessageBatch> batches = super.releaseBatches();
+        for (MessageBatch batch : batches) {
+            MessageProperties properties = batch.getMessage().getMessageProperties();
+            if (properties.getHeader(MessageProperties.SPRING_BATCH_FORMAT) != null) {
+                properties.setHeader(FRAGMENT_TRACEPARENTS, List.copyOf(traceparents));
+            }
+        }
+        traceparents.clear();
+        return batches;
+    }
+
+    @Override
+    public void deBatch(Message message, Consumer<Message> fragmentListener) {
+        if (!(message.getMessageProperties().getHeader(FRAGMENT_TRACEPARENTS) instanceof List<?> traceparents)) {
+            super.deBatch(message, fragmentListener);
+            return;
+        }
+        AtomicInteger index = new AtomicInteger();
+        super.deBatch(message, fragment -> {
+            MessageProperties properties = fragment.getMessageProperties();
+            properties.getHeaders().remove(FRAGMENT_TRACEPARENTS);
+            int position = index.getAndIncrement();
+            String traceparent = position < traceparents.size() ? String.valueOf(traceparents.get(position)) : null;
+            TraceContext trace = TraceContext.parse(traceparent).orElse(null);
+            if (trace == null) {
+                fragmentListener.accept(fragment);
+                return;
+            }
+            properties.setHeader(TraceContext.TRACEPARENT, traceparent);
+            try (TraceContextHolder.Restored ignored = TraceContextHolder.restore(trace)) {
+                fragmentListener.accept(fragment);
+            }
+        });
+    }
+}
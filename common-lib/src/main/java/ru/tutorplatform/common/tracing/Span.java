@@ -0,0 +1,22 @@
+package ru.tutorplatform.common.tracing;
+
+import java.util.Map;
+
+/**
+ * Завершённый спан для экспорта.
+ *
+ * @param timestampMicros начало, микросекунды от эпохи
+ * @param durationMicros  длительность в микросекундах
+ */
+public record Span(TraceContext context,
+                   String parentSpanId,
+                   String name,
+                   Kind kind,
+                   long timestampMicros,
+                   long durationMicros,
+                   Map<String, String> tags) {
+
+    public enum Kind {
+        SERVER, CLIENT, PRODUCER, CONSUMER, INTERNAL
+    }
+}
@@ -0,0 +1,177 @@
+package ru.tutorplatform.common.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Экспорт спанов в формате Zipkin v2 JSON: в файл (строка на спан) и/или на адрес коллектора
+ * ({@code /api/v2/spans} Zipkin или приёмник zipkin в OpenTelemetry Collector).
+ * <p>
+ * Поток запроса только кладёт спан в ограниченную очередь; отдельный поток отправляет пачками.
+ * При переполнении спаны отбрасываются — трассировка не замедляет обработку запросов.
+ */
+@Slf4j
+public class SpanExporter implements AutoCloseable {
+
+    private static final int BATCH_SIZE = 512;
+
+    private final String serviceName;
+    private final Path file;
+    private final URI endpoint;
+    private final Duration flushInterval;
+    private final BlockingQueue<Span> queue;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    /**
+     * @param file     файл для спанов, {@code null} — не писать
+     * @param endpoint адрес коллектора, {@code null} — не отправлять
+     */
+    public SpanExporter(String serviceName, Path file, URI endpoint, int queueCapacity, Duration flushInterval) {
+        this.serviceName = serviceName;
+        this.file = file;
+        this.endpoint = endpoint;
+        this.flushInterval = flushInterval;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.httpClient = endpoint != null
+                ? HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build()
+                : null;
+        this.worker = new Thread(this::run, "span-exporter");
+        this.worker.setDaemon(true);
+        if (isEnabled()) {
+            worker.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return file != null || endpoint != null;
+    }
+
+    public void export(Span span) {
+        if (isEnabled() && !queue.offer(span)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(flushInterval.toMillis() + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Span> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                Span first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // Остановка: дописываем то, что осталось в очереди
+                queue.drainTo(batch);
+                write(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Span> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<Map<String, Object>> spans = batch.stream().map(this::toZipkin).toList();
+            if (file != null) {
+                writeFile(spans);
+            }
+            if (endpoint != null) {
+                send(spans);
+            }
+        } catch (Exception e) {
+            log.warn("Не удалось экспортировать {} спанов: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void writeFile(List<Map<String, Object>> spans) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Map<String, Object> span : spans) {
+                writer.write(objectMapper.writeValueAsString(span));
+                writer.write('\n');
+            }
+        }
+    }
+
+    private void send(List<Map<String, Object>> spans) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(spans)))
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 300) {
+            log.warn("Коллектор трасс ответил {} на {} спанов", response.statusCode(), spans.size());
+        }
+    }
+
+    private Map<String, Object> toZipkin(Span span) {
+        Map<String, Object> zipkin = new LinkedHashMap<>();
+        zipkin.put("traceId", span.context().traceId());
+        zipkin.put("id", span.context().spanId());
+        if (span.parentSpanId() != null) {
+            zipkin.put("parentId", span.parentSpanId());
+        }
+        zipkin.put("name", span.name());
+        if (span.kind() != Span.Kind.INTERNAL) {
+            zipkin.put("kind", span.kind().name());
+        }
+        zipkin.put("timestamp", span.timestampMicros());
+        zipkin.put("duration", span.durationMicros());
+        zipkin.put("localEndpoint", Map.of("serviceName", serviceName));
+        if (!span.tags().isEmpty()) {
+            zipkin.put("tags", span.tags());
+        }
+        return zipkin;
+    }
+}
@@ -0,0 +1,61 @@
+package ru.tutorplatform.common.tracing;
+
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Идентификаторы трассы и спана в формате W3C Trace Context. Между сервисами передаются
+ * заголовком {@value #TRACEPARENT}: {@code 00-<traceId>-<spanId>-<flags>}.
+ */
+public record TraceContext(String traceId, String spanId, boolean sampled) {
+
+    public static final String TRACEPARENT = "traceparent";
+
+    private static final String VERSION = "00";
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final String INVALID_SPAN_ID = "0".repeat(16);
+
+    public static TraceContext root(boolean sampled) {
+        return new TraceContext(randomHex(16), randomHex(8), sampled);
+    }
+
+    public TraceContext child() {
+        return new TraceContext(traceId, randomHex(8), sampled);
+    }
+
+    public String traceparent() {
+        return VERSION + "-" + traceId + "-" + spanId + "-" + (sampled ? "01" : "00");
+    }
+
+    public static Optional<TraceContext> parse(String traceparent) {
+        if (traceparent == null || traceparent.length() != 55) {
+            return Optional.empty();
+        }
+        String[] parts = traceparent.split("-");
+        if (parts.length != 4 || !VERSION.equals(parts[0])
+                || !isHex(parts[1]) || !isHex(parts[2]) || !isHex(parts[3])
+                || INVALID_TRACE_ID.equals(parts[1]) || INVALID_SPAN_ID.equals(parts[2])) {
+            return Optional.empty();
+        }
+        boolean sampled = (HexFormat.fromHexDigits(parts[3]) & 1) == 1;
+        return Optional.of(new TraceContext(parts[1], parts[2], sampled));
+    }
+
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String randomHex(int bytes) {
+        byte[] random = new byte[bytes];
+        ThreadLocalRandom.current().nextBytes(random);
+        random[0] |= 1; // идентификатор из одних нулей недопустим
+        return HexFormat.of().formatHex(random);
+    }
+}
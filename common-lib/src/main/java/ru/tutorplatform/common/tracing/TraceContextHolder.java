@@ -0,0 +1,66 @@
+package ru.tutorplatform.common.tracing;
+
+import org.slf4j.MDC;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Контекст трассы текущего потока. Заполняется {@link TracingObservationHandler} на время
+ * области наблюдения и попадает в MDC ({@code traceId}, {@code spanId}) для связи логов с трассой.
+ * <p>
+ * Работа, переданная в другой поток, продолжает трассу явно: контекст запоминается через
+ * {@link #current()} и восстанавливается через {@link #restore(TraceContext)}.
+ */
+public final class TraceContextHolder {
+
+    static final String MDC_TRACE_ID = "traceId";
+    static final String MDC_SPAN_ID = "spanId";
+
+    private static final ThreadLocal<Deque<TraceContext>> STACK = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private TraceContextHolder() {
+    }
+
+    public static TraceContext current() {
+        return STACK.get().peek();
+    }
+
+    /**
+     * Делает {@code context} текущим до закрытия результата. {@code null} — ничего не меняет.
+     */
+    public static Restored restore(TraceContext context) {
+        if (context == null) {
+            return () -> {
+            };
+        }
+        push(context);
+        return TraceContextHolder::pop;
+    }
+
+    static void push(TraceContext context) {
+        STACK.get().push(context);
+        MDC.put(MDC_TRACE_ID, context.traceId());
+        MDC.put(MDC_SPAN_ID, context.spanId());
+    }
+
+    static void pop() {
+        Deque<TraceContext> stack = STACK.get();
+        stack.poll();
+        TraceContext previous = stack.peek();
+        if (previous != null) {
+            MDC.put(MDC_TRACE_ID, previous.traceId());
+            MDC.put(MDC_SPAN_ID, previous.spanId());
+        } else {
+            MDC.remove(MDC_TRACE_ID);
+            MDC.remove(MDC_SPAN_ID);
+            STACK.remove();
+        }
+    }
+
+    public interface Restored extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,54 @@
+package ru.tutorplatform.common.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.tutorplatform.common.messaging.RabbitObservationPostProcessor;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Трассировка для всех сервисов платформы. Настройки — {@code tracing.sampling.*} и
+ * {@code tracing.export.*}; без файла и адреса экспорта спаны не выгружаются, но контекст
+ * трассы всё равно передаётся дальше и попадает в логи.
+ */
+@AutoConfiguration
+public class TracingAutoConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public SpanExporter spanExporter(@Value("${spring.application.name:application}") String serviceName,
+                                     @Value("${tracing.export.file:}") String file,
+                                     @Value("${tracing.export.endpoint:}") String endpoint,
+                                     @Value("${tracing.export.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${tracing.export.flush-interval:PT1S}") Duration flushInterval) {
+        return new SpanExporter(serviceName,
+                file.isBlank() ? null : Path.of(file),
+                endpoint.isBlank() ? null : URI.create(endpoint),
+                queueCapacity, flushInterval);
+    }
+
+    // Spring Boot подключает обработчик к ObservationRegistry, через который наблюдаются
+    // входящие запросы, RestTemplate, прокси шлюза и RabbitMQ
+    @Bean
+    @ConditionalOnMissingBean
+    public TracingObservationHandler tracingObservationHandler(SpanExporter spanExporter,
+                                                               @Value("${tracing.sampling.probability:0.1}") double samplingProbability) {
+        return new TracingObservationHandler(spanExporter, samplingProbability);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.amqp.rabbit.core.RabbitTemplate")
+    static class RabbitTracingConfiguration {
+
+        @Bean
+        public static RabbitObservationPostProcessor rabbitObservationPostProcessor() {
+            return new RabbitObservationPostProcessor();
+        }
+    }
+}
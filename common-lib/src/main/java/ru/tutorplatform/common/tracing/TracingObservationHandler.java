@@ -0,0 +1,132 @@
+package ru.tutorplatform.common.tracing;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationView;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.observation.transport.RequestReplyReceiverContext;
+import io.micrometer.observation.transport.RequestReplySenderContext;
+import io.micrometer.observation.transport.SenderContext;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Превращает наблюдения Micrometer в спаны: входящие HTTP-запросы, вызовы RestTemplate,
+ * прокси шлюза, отправку и приём сообщений RabbitMQ. Эти наблюдения создаёт сам Spring,
+ * обработчик только продолжает трассу и передаёт её дальше:
+ * <ul>
+ *     <li>родитель — родительское наблюдение, иначе заголовок {@code traceparent} входящего
+ *     запроса или сообщения, иначе контекст, восстановленный в потоке через {@link TraceContextHolder};</li>
+ *     <li>исходящим запросам и сообщениям заголовок {@code traceparent} проставляется здесь же.</li>
+ * </ul>
+ * Решение о выборке принимается в корне трассы с вероятностью {@code samplingProbability} и
+ * наследуется. Невыбранные трассы всё равно получают идентификаторы — для заголовков и MDC, —
+ * но не экспортируются.
+ */
+public class TracingObservationHandler implements ObservationHandler<Observation.Context> {
+
+    private final SpanExporter exporter;
+    private final double samplingProbability;
+
+    public TracingObservationHandler(SpanExporter exporter, double samplingProbability) {
+        this.exporter = exporter;
+        this.samplingProbability = samplingProbability;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void onStart(Observation.Context context) {
+        TraceContext parent = parent(context);
+        TraceContext trace = parent != null
+                ? parent.child()
+                : TraceContext.root(ThreadLocalRandom.current().nextDouble() < samplingProbability);
+        context.put(ActiveSpan.class, new ActiveSpan(trace, parent != null ? parent.spanId() : null,
+                Instant.now(), System.nanoTime()));
+
+        if (context instanceof SenderContext sender && sender.getCarrier() != null) {
+            sender.getSetter().set(sender.getCarrier(), TraceContext.TRACEPARENT, trace.traceparent());
+        }
+    }
+
+    @Override
+    public void onScopeOpened(Observation.Context context) {
+        ActiveSpan span = context.get(ActiveSpan.class);
+        if (span != null) {
+            TraceContextHolder.push(span.context());
+        }
+    }
+
+    @Override
+    public void onScopeClosed(Observation.Context context) {
+        if (context.get(ActiveSpan.class) != null) {
+            TraceContextHolder.pop();
+        }
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        ActiveSpan span = context.get(ActiveSpan.class);
+        if (span == null || !span.context().sampled()) {
+            return;
+        }
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (KeyValue keyValue : context.getAllKeyValues()) {
+            tags.put(keyValue.getKey(), keyValue.getValue());
+        }
+        if (context.getError() != null) {
+            tags.put("error", String.valueOf(context.getError().getMessage()));
+        }
+        String name = context.getContextualName() != null ? context.getContextualName() : context.getName();
+        exporter.export(new Span(span.context(), span.parentSpanId(), name, kind(context),
+                ChronoUnit.MICROS.between(Instant.EPOCH, span.start()),
+                Math.max(1, (System.nanoTime() - span.startNanos()) / 1000), tags));
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return true;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static TraceContext parent(Observation.Context context) {
+        ObservationView parentObservation = context.getParentObservation();
+        if (parentObservation != null) {
+            ActiveSpan parent = parentObservation.getContextView().get(ActiveSpan.class);
+            if (parent != null) {
+                return parent.context();
+            }
+        }
+        if (context instanceof ReceiverContext receiver && receiver.getCarrier() != null) {
+            Object traceparent = receiver.getGetter().get(receiver.getCarrier(), TraceContext.TRACEPARENT);
+            TraceContext remote = TraceContext.parse(traceparent != null ? traceparent.toString() : null).orElse(null);
+            if (remote != null) {
+                return remote;
+            }
+        }
+        return TraceContextHolder.current();
+    }
+
+    private static Span.Kind kind(Observation.Context context) {
+        if (context instanceof RequestReplySenderContext<?, ?>) {
+            return Span.Kind.CLIENT;
+        }
+        if (context instanceof SenderContext<?>) {
+            return Span.Kind.PRODUCER;
+        }
+        if (context instanceof RequestReplyReceiverContext<?, ?>) {
+            return Span.Kind.SERVER;
+        }
+        if (context instanceof ReceiverContext<?>) {
+            return Span.Kind.CONSUMER;
+        }
+        return Span.Kind.INTERNAL;
+    }
+
+    private record ActiveSpan(TraceContext context, String parentSpanId, Instant start, long startNanos) {
+    }
+}
@@ -0,0 +1,181 @@
+package ru.tutorplatform.common.codec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import ru.tutorplatform.common.event.IntegrationEvent;
+import ru.tutorplatform.common.event.LessonChangedEvent;
+import ru.tutorplatform.common.event.NotificationEvent;
+import ru.tutorplatform.common.event.PaymentEvent;
+import ru.tutorplatform.common.event.payload.InvoicePayload;
+import ru.tutorplatform.common.event.payload.LessonNotificationPayload;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventMessageConverterTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2026, 3, 14, 15, 30, 0, 123_000_000);
+
+    // PaymentEvent до добавления subjectId, сериализованный Java: так выглядят сообщения, оставшиеся в payment.queue
+    private static final String LEGACY_PAYMENT_EVENT = ""
+            + "rO0ABXNyACpydS50dXRvcnBsYXRmb3JtLmNvbW1vbi5ldmVudC5QYXltZW50RXZlbnReCRrUVDE3VAIACUwABmFtb3VudHQA"
+            + "FkxqYXZhL21hdGgvQmlnRGVjaW1hbDtMAAhjdXJyZW5jeXQAEkxqYXZhL2xhbmcvU3RyaW5nO0wAB2V2ZW50SWRxAH4AAkwA"
+            + "CWV2ZW50VGltZXQAGUxqYXZhL3RpbWUvTG9jYWxEYXRlVGltZTtMAAhsZXNzb25JZHQAEExqYXZhL2xhbmcvTG9uZztMAA1w"
+            + "YXltZW50TWV0aG9kcQB+AAJMAAZzdGF0dXNxAH4AAkwACXN0dWRlbnRJZHEAfgAETAAHdHV0b3JJZHEAfgAEeHBzcgAUamF2"
+            + "YS5tYXRoLkJpZ0RlY2ltYWxUxxVX+YEoTwMAAkkABXNjYWxlTAAGaW50VmFsdAAWTGphdmEvbWF0aC9CaWdJbnRlZ2VyO3hy"
+            + "ABBqYXZhLmxhbmcuTnVtYmVyhqyVHQuU4IsCAAB4cAAAAAJzcgAUamF2YS5tYXRoLkJpZ0ludGVnZXKM/J8fqTv7HQMABkkA"
+            + "CGJpdENvdW50SQAJYml0TGVuZ3RoSQATZmlyc3ROb256ZXJvQnl0ZU51bUkADGxvd2VzdFNldEJpdEkABnNpZ251bVsACW1h"
+            + "Z25pdHVkZXQAAltCeHEAfgAI///////////////+/////gAAAAF1cgACW0Ks8xf4BghU4AIAAHhwAAAAAwJJ8Hh4dAADUlVC"
+            + "dAAObGVnYWN5LXBheW1lbnRzcgANamF2YS50aW1lLlNlcpVdhLobIkiyDAAAeHB3DgUAAAfqAw4PHgAHVNTAeHNyAA5qYXZh"
+            + "LmxhbmcuTG9uZzuL5JDMjyPfAgABSgAFdmFsdWV4cQB+AAgAAAAAAAAAKnQACFBMQVRGT1JNdAAHUEVORElOR3NxAH4AEwAA"
+            + "AAAAAAAHc3EAfgATAAAAAAAAAAk=";
+
+    @ParameterizedTest
+    @ValueSource(strings = {BinaryEventCodec.NAME, JsonEventCodec.NAME})
+    void roundTripsEveryEventType(String format) {
+        EventMessageConverter converter = EventMessageConverter.forFormat(format);
+
+        for (Object event : events()) {
+            Message message = converter.toMessage(event, new MessageProperties());
+
+            assertThat(message.getMessageProperties().getContentType()).isEqualTo(converter.getOutgoing().contentType());
+            assertThat(message.getMessageProperties().<String>getHeader(EventMessageConverter.EVENT_TYPE_HEADER))
+                    .isEqualTo(event.getClass().getSimpleName());
+            assertThat(converter.fromMessage(message)).usingRecursiveComparison().isEqualTo(event);
+        }
+    }
+
+    @Test
+    void readsTheOtherFormatDuringSwitch() {
+        EventMessageConverter binary = EventMessageConverter.forFormat(BinaryEventCodec.NAME);
+        EventMessageConverter json = EventMessageConverter.forFormat(JsonEventCodec.NAME);
+
+        for (Object event : events()) {
+            assertThat(json.fromMessage(binary.toMessage(event, new MessageProperties())))
+                    .usingRecursiveComparison().isEqualTo(event);
+            assertThat(binary.fromMessage(json.toMessage(event, new MessageProperties())))
+                    .usingRecursiveComparison().isEqualTo(event);
+        }
+    }
+
+    @Test
+    void writesPinnedSchemaVersionReadableByNewReceivers() {
+        EventMessageConverter pinned = EventMessageConverter.forFormat(BinaryEventCodec.NAME, Map.of("NotificationEvent", 1));
+        NotificationEvent event = notificationEvent();
+
+        Message message = pinned.toMessage(event, new MessageProperties());
+        NotificationEvent decoded = (NotificationEvent) EventMessageConverter.forFormat(BinaryEventCodec.NAME)
+                .fromMessage(message);
+
+        assertThat(message.getMessageProperties().<Integer>getHeader(EventMessageConverter.EVENT_VERSION_HEADER))
+                .isEqualTo(1);
+        assertThat(decoded.getParameters()).containsEntry("lessonId", 42L);
+        assertThat(decoded.getPayload()).isEqualTo(event.getPayload());
+    }
+
+    @Test
+    void rejectsUnknownSchemaVersionWhenPinned() {
+        assertThatThrownBy(() -> EventMessageConverter.forFormat(BinaryEventCodec.NAME, Map.of("NotificationEvent", 99)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void readsLegacyJavaSerializedEvents() throws IOException {
+        NotificationEvent event = new NotificationEvent();
+        event.setEventId("legacy");
+        event.setTemplateId("LESSON_CREATED");
+        event.setParameters(Map.of("lessonId", 42L, "date", TIME, "duration", 60, "subject", "Математика"));
+        event.setEventTime(TIME);
+
+        Object decoded = EventMessageConverter.forFormat(BinaryEventCodec.NAME).fromMessage(serialized(event));
+
+        assertThat(decoded).isInstanceOf(NotificationEvent.class);
+        assertThat(((NotificationEvent) decoded).getParameters()).isEqualTo(event.getParameters());
+    }
+
+    @Test
+    void readsLegacyPaymentEventWrittenBeforeSubjectId() {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_SERIALIZED_OBJECT);
+        Message message = new Message(Base64.getDecoder().decode(LEGACY_PAYMENT_EVENT), properties);
+
+        Object decoded = EventMessageConverter.forFormat(BinaryEventCodec.NAME).fromMessage(message);
+
+        assertThat(decoded).isEqualTo(new PaymentEvent("legacy-payment", 42L, 7L, 9L, new BigDecimal("1500.00"), "RUB",
+                "PENDING", TIME, "PLATFORM", null));
+    }
+
+    @Test
+    void rejectsLegacyMessagesWithClassesOutsideAllowList() throws IOException {
+        NotificationEvent event = new NotificationEvent();
+        event.setParameters(new HashMap<>(Map.of("nested", new TreeMap<>(Map.of("a", 1)))));
+
+        assertThatThrownBy(() -> EventMessageConverter.forFormat(BinaryEventCodec.NAME).fromMessage(serialized(event)))
+                .isInstanceOf(MessageConversionException.class);
+    }
+
+    @Test
+    void rejectsUnknownContentType() {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType("text/plain");
+
+        assertThatThrownBy(() -> EventMessageConverter.forFormat(BinaryEventCodec.NAME)
+                .fromMessage(new Message("{}".getBytes(), properties)))
+                .isInstanceOf(MessageConversionException.class);
+    }
+
+    private static List<Object> events() {
+        PaymentEvent payment = new PaymentEvent("payment-1", 42L, 7L, 9L, new BigDecimal("1500.00"), "RUB",
+                "PENDING", TIME, "PLATFORM", 3L);
+
+        LessonChangedEvent changed = new LessonChangedEvent();
+        changed.setEventId("changed-1");
+        changed.setChangeType("LESSON_UPDATED");
+        changed.setLessonId(42L);
+        changed.setStudentId(7L);
+        changed.setTutorId(9L);
+        changed.setStatus("SCHEDULED");
+        changed.setScheduledTime(TIME);
+        changed.setDurationMinutes(60);
+        changed.setEventTime(TIME);
+
+        IntegrationEvent integration = new IntegrationEvent();
+        integration.setOperationId("operation-1");
+        integration.setSystemName("1C");
+        integration.setOperationType("CREATE_INVOICE");
+        integration.setPayload(new InvoicePayload(42L, 7L, new BigDecimal("1500.00"), "RUB"));
+        integration.setTimestamp(TIME);
+
+        return List.of(payment, notificationEvent(), changed, integration);
+    }
+
+    private static NotificationEvent notificationEvent() {
+        return new NotificationEvent("notification-1", "EMAIL", "student@example.com", "LESSON_CREATED",
+                new LessonNotificationPayload(42L, TIME, 60, 3L), TIME);
+    }
+
+    private static Message serialized(Object event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(event);
+        }
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_SERIALIZED_OBJECT);
+        return new Message(bytes.toByteArray(), properties);
+    }
+}
@@ -0,0 +1,91 @@
+package ru.tutorplatform.common.messaging;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.support.ListenerExecutionFailedException;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import ru.tutorplatform.common.constants.Constants;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TieredRetryRecovererTest {
+
+    private static final String QUEUE = "payment.queue";
+    private static final List<Duration> DELAYS = List.of(Duration.ofSeconds(10), Duration.ofMinutes(1));
+
+    private final AmqpTemplate amqpTemplate = mock(AmqpTemplate.class);
+    private final TieredRetryRecoverer recoverer = new TieredRetryRecoverer(amqpTemplate, DELAYS, Set.of(QUEUE));
+
+    @Test
+    void sendsCopyToNextRetryTierWithoutTouchingReceivedMessage() {
+        Message received = received(QUEUE, null);
+
+        recoverer.recover(received, new IllegalStateException("сбой"));
+
+        Message sent = sent(RetryTopology.retryQueueName(QUEUE, DELAYS.get(0)));
+        assertThat(sent).isNotSameAs(received);
+        assertThat(sent.getBody()).isEqualTo(received.getBody());
+        assertThat(sent.getMessageProperties().<Integer>getHeader(RetryTopology.ATTEMPT_HEADER)).isEqualTo(1);
+        assertThat(sent.getMessageProperties().<String>getHeader(RetryTopology.ORIGINAL_QUEUE_HEADER)).isEqualTo(QUEUE);
+        assertThat(sent.getMessageProperties().<String>getHeader(RetryTopology.EXCEPTION_HEADER))
+                .isEqualTo("java.lang.IllegalStateException: сбой");
+        assertThat(sent.getMessageProperties().getDeliveryMode()).isEqualTo(MessageDeliveryMode.PERSISTENT);
+        assertThat(sent.getMessageProperties().<String>getHeader("traceparent")).isEqualTo("00-trace");
+
+        assertThat(received.getMessageProperties().getHeaders()).containsOnlyKeys("traceparent");
+    }
+
+    @Test
+    void sendsToDeadLetterQueueAfterLastTier() {
+        recoverer.recover(received(QUEUE, DELAYS.size()), new IllegalStateException("сбой"));
+
+        Message sent = sent(Constants.QueueNames.DEAD_LETTER_QUEUE);
+        assertThat(sent.getMessageProperties().<Integer>getHeader(RetryTopology.ATTEMPT_HEADER)).isEqualTo(DELAYS.size());
+    }
+
+    @Test
+    void sendsFatalErrorsStraightToDeadLetterQueue() {
+        Message received = received(QUEUE, null);
+        recoverer.recover(received, new ListenerExecutionFailedException("ошибка слушателя",
+                new MessageConversionException("не читается"), received));
+
+        sent(Constants.QueueNames.DEAD_LETTER_QUEUE);
+    }
+
+    @Test
+    void dropsMessagesOfQueuesWithoutRetry() {
+        recoverer.recover(received("instance.queue", null), new IllegalStateException("сбой"));
+
+        verify(amqpTemplate, never()).send(anyString(), anyString(), any(Message.class));
+    }
+
+    private Message sent(String routingKey) {
+        ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+        verify(amqpTemplate).send(eq(""), eq(routingKey), captor.capture());
+        return captor.getValue();
+    }
+
+    private static Message received(String queue, Integer attempt) {
+        MessageProperties properties = new MessageProperties();
+        properties.setConsumerQueue(queue);
+        properties.setHeader("traceparent", "00-trace");
+        if (attempt != null) {
+            properties.setHeader(RetryTopology.ATTEMPT_HEADER, attempt);
+        }
+        return new Message("{}".getBytes(), properties);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.tutorplatform.common.messaging;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import ru.tutorplatform.common.tracing.TraceContext;
+import ru.tutorplatform.common.tracing.TraceContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TracedBatchingStrategyTest {
+
+    @Test
+    void restoresTraceOfEachFragment() {
+        TraceContext first = TraceContext.root(true);
+        TraceContext third = TraceContext.root(false);
+        TracedBatchingStrategy batching = new TracedBatchingStrategy();
+        batching.addToBatch("exchange", "", message("one", first));
+        batching.addToBatch("exchange", "", message("two", null));
+        batching.addToBatch("exchange", "", message("three", third));
+        Message batch = batching.releaseBatches().iterator().next().getMessage();
+
+        List<String> bodies = new ArrayList<>();
+        List<Object> headers = new ArrayList<>();
+        List<TraceContext> traces = new ArrayList<>();
+        new TracedBatchingStrategy().deBatch(batch, fragment -> {
+            bodies.add(new String(fragment.getBody(), StandardCharsets.UTF_8));
+            headers.add(fragment.getMessageProperties().getHeader(TraceContext.TRACEPARENT));
+            traces.add(TraceContextHolder.current());
+            assertThat(fragment.getMessageProperties().getHeaders())
+                    .doesNotContainKey(TracedBatchingStrategy.FRAGMENT_TRACEPARENTS);
+        });
+
+        assertThat(bodies).containsExactly("one", "two", "three");
+        // Без своего контекста фрагмент получает заголовки пачки, то есть первого фрагмента
+        assertThat(headers).containsExactly(first.traceparent(), first.traceparent(), third.traceparent());
+        assertThat(traces).containsExactly(first, null, third);
+        assertThat(TraceContextHolder.current()).isNull();
+    }
+
+    @Test
+    void sendsSingleMessageAsIs() {
+        TraceContext trace = TraceContext.root(true);
+        TracedBatchingStrategy batching = new TracedBatchingStrategy();
+        batching.addToBatch("exchange", "", message("one", trace));
+
+        Message message = batching.releaseBatches().iterator().next().getMessage();
+
+        assertThat(batching.canDebatch(message.getMessageProperties())).isFalse();
+        assertThat(message.getMessageProperties().getHeaders())
+                .doesNotContainKey(TracedBatchingStrategy.FRAGMENT_TRACEPARENTS)
+                .containsEntry(TraceContext.TRACEPARENT, trace.traceparent());
+    }
+
+    @Test
+    void debatchesPlainBatch() {
+        SimpleBatchingStrategy plain = new SimpleBatchingStrategy(Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE);
+        plain.addToBatch("exchange", "", message("one", null));
+        plain.addToBatch("exchange", "", message("two", null));
+        Message batch = plain.releaseBatches().iterator().next().getMessage();
+
+        List<String> bodies = new ArrayList<>();
+        new TracedBatchingStrategy().deBatch(batch, fragment -> {
+            bodies.add(new String(fragment.getBody(), StandardCharsets.UTF_8));
+            assertThat(TraceContextHolder.current()).isNull();
+        });
+
+        assertThat(bodies).containsExactly("one", "two");
+    }
+
+    private static Message message(String body, TraceContext trace) {
+        MessageProperties properties = new MessageProperties();
+        if (trace != null) {
+            properties.setHeader(TraceContext.TRACEPARENT, trace.traceparent());
+        }
+        return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
@@ -32,6 +32,7 @@ import {
 } from '@mui/icons-material';
 import { Outlet, useNavigate, useLocation } from 'react-router-dom';
 import { useAppSelector } from '../../hooks/redux';
+import { useLiveUpdates } from '../../hooks/useLiveUpdates';
 
 const drawerWidth = 240;
 
@@ -43,6 +44,8 @@ const Dashboard: React.FC = () => {
     const { user } = useAppSelector((state) => state.auth);
     const { notifications } = useAppSelector((state) => state.notifications);
 
+    useLiveUpdates(user?.id);
+
     const menuItems = [
         { text: 'Панель управления', icon: <DashboardIcon />, path: '/dashboard' },
         { text: 'Календарь', icon: <CalendarToday />, path: '/calendar' },
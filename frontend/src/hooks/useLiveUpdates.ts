@@ -0,0 +1,51 @@
+import { useEffect } from 'react';
+import api from '../services/api';
+import { useAppDispatch } from './redux';
+import { lessonChanged } from '../store/slices/lessonSlice';
+import { addNotification } from '../store/slices/notificationSlice';
+import { LessonChangedEvent, Notification } from '../types';
+
+const NOTIFICATION_TITLES: Partial<Record<LessonChangedEvent['changeType'], string>> = {
+    LESSON_CREATED: 'Урок создан',
+    LESSON_UPDATED: 'Урок изменён',
+    LESSON_CANCELLED: 'Урок отменён',
+};
+
+/**
+ * Подписка на изменения уроков, пока пользователь авторизован: списки и карточка урока
+ * обновляются без опроса, изменения расписания попадают в центр уведомлений.
+ */
+export const useLiveUpdates = (userId?: number) => {
+    const dispatch = useAppDispatch();
+
+    useEffect(() => {
+        if (!userId) {
+            return;
+        }
+        return api.liveUpdates.subscribe((event) => {
+            if (event.event !== 'lesson') {
+                return;
+            }
+            let change: LessonChangedEvent;
+            try {
+                change = JSON.parse(event.data);
+            } catch {
+                return;
+            }
+            dispatch(lessonChanged(change));
+
+            const title = NOTIFICATION_TITLES[change.changeType];
+            if (title) {
+                dispatch(addNotification({
+                    id: Date.now(),
+                    userId,
+                    type: change.changeType as Notification['type'],
+                    title,
+                    message: `Урок #${change.lessonId}`,
+                    read: false,
+                    createdAt: change.eventTime || new Date().toISOString(),
+                }));
+            }
+        });
+    }, [userId, dispatch]);
+};
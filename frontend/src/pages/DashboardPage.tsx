@@ -1,21 +1,30 @@
-import React, { useEffect } from 'react';
+import React, { useEffect, useState } from 'react';
 import { Box, Button, Card, CardContent, Grid, Typography } from '@mui/material';
 import { useNavigate } from 'react-router-dom';
-import { useAppDispatch, useAppSelector } from '../hooks/redux';
-import { fetchLessons } from '../store/slices/lessonSlice';
+import { useAppSelector } from '../hooks/redux';
+import api from '../services/api';
+import { LessonSummary } from '../types';
 
 const DashboardPage: React.FC = () => {
     const navigate = useNavigate();
-    const dispatch = useAppDispatch();
-    const { lessons } = useAppSelector((state) => state.lessons);
     const { user } = useAppSelector((state) => state.auth);
+    const [summary, setSummary] = useState<LessonSummary | null>(null);
 
+    // Сводка считается на сервере: страница не загружает все уроки пользователя
     useEffect(() => {
-        dispatch(fetchLessons(undefined));
-    }, [dispatch]);
+        api.lessons.getSummary()
+            .then((response) => setSummary(response.data.data))
+            .catch(() => setSummary(null));
+    }, []);
 
-    const scheduled = lessons.filter((l) => l.status === 'SCHEDULED').length;
-    const completed = lessons.filter((l) => l.status === 'COMPLETED').length;
+    const nextLesson = summary?.nextLessonTime
+        ? new Date(summary.nextLessonTime).toLocaleString('ru-RU', {
+            day: 'numeric',
+            month: 'long',
+            hour: '2-digit',
+            minute: '2-digit',
+        })
+        : '—';
 
     return (
         <Box>
@@ -34,27 +43,40 @@ const DashboardPage: React.FC = () => {
             </Box>
 
             <Grid container spacing={2}>
-                <Grid item xs={12} md={4}>
+                <Grid item xs={12} md={3}>
                     <Card>
                         <CardContent>
-                            <Typography color="textSecondary">Всего уроков</Typography>
-                            <Typography variant="h4">{lessons.length}</Typography>
+                            <Typography color="textSecondary">Запланировано</Typography>
+                            <Typography variant="h4">{summary?.upcomingCount ?? 0}</Typography>
                         </CardContent>
                     </Card>
                 </Grid>
-                <Grid item xs={12} md={4}>
+                <Grid item xs={12} md={3}>
+                    <Card
+                        sx={{ cursor: summary?.nextLessonId ? 'pointer' : 'default' }}
+                        onClick={() => summary?.nextLessonId && navigate(`/lessons/${summary.nextLessonId}`)}
+                    >
+                        <CardContent>
+                            <Typography color="textSecondary">Ближайший урок</Typography>
+                            <Typography variant="h5">{nextLesson}</Typography>
+                        </CardContent>
+                    </Card>
+                </Grid>
+                <Grid item xs={12} md={3}>
                     <Card>
                         <CardContent>
-                            <Typography color="textSecondary">Запланировано</Typography>
-                            <Typography variant="h4">{scheduled}</Typography>
+                            <Typography color="textSecondary">Завершено в этом месяце</Typography>
+                            <Typography variant="h4">{summary?.completedThisMonth ?? 0}</Typography>
                         </CardContent>
                     </Card>
                 </Grid>
-                <Grid item xs={12} md={4}>
+                <Grid item xs={12} md={3}>
                     <Card>
                         <CardContent>
-                            <Typography color="textSecondary">Завершено</Typography>
-                            <Typography variant="h4">{completed}</Typography>
+                            <Typography color="textSecondary">
+                                {user?.role === 'TUTOR' ? 'Заработано в этом месяце' : 'Оплачено в этом месяце'}
+                            </Typography>
+                            <Typography variant="h4">{summary?.earningsThisMonth ?? 0} ₽</Typography>
                         </CardContent>
                     </Card>
                 </Grid>
@@ -64,4 +86,3 @@ const DashboardPage: React.FC = () => {
 };
 
 export default DashboardPage;
-
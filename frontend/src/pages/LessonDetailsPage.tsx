@@ -68,30 +68,15 @@ const LessonDetailsPage: React.FC = () => {
                 setError(null);
 
                 if (id) {
-                    const response = await api.lessons.getById(parseInt(id));
-                    console.log('Lesson details:', response.data.data);
-                    dispatch(setCurrentLesson(response.data.data));
-
-                    // Загружаем информацию о репетиторе и студенте
-                    if (response.data.data.tutorId) {
-                        const tutorResponse = await api.users.getById(response.data.data.tutorId);
-                        setTutor(tutorResponse.data.data);
-                    }
-
-                    if (response.data.data.studentId) {
-                        const studentResponse = await api.users.getById(response.data.data.studentId);
-                        setStudent(studentResponse.data.data);
-                    }
-
-                    // Получаем ссылку для подключения
-                    if (response.data.data.status === 'IN_PROGRESS' || response.data.data.status === 'SCHEDULED') {
-                        try {
-                            const joinResponse = await api.lessons.getJoinUrl(parseInt(id));
-                            setJoinUrl(joinResponse.data.data || response.data.data.meetingUrl);
-                        } catch (err) {
-                            // Если API не возвращает joinUrl, используем meetingUrl из урока
-                            setJoinUrl(response.data.data.meetingUrl || '');
-                        }
+                    // Шлюз собирает урок, участников и ссылку параллельно; недоступные части приходят пустыми
+                    const response = await api.lessons.getDetails(parseInt(id));
+                    const details = response.data.data;
+                    dispatch(setCurrentLesson(details.lesson));
+                    setTutor(details.tutor);
+                    setStudent(details.student);
+
+                    if (details.lesson.status === 'IN_PROGRESS' || details.lesson.status === 'SCHEDULED') {
+                        setJoinUrl(details.joinUrl || details.lesson.meetingUrl || '');
                     }
                 }
             } catch (error: any) {
@@ -7,6 +7,86 @@ const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080
 
 type CustomRequestConfig = AxiosRequestConfig & { _retry?: boolean };
 
+// Токен и заголовки из контекста пользователя; читаются на каждый запрос, чтобы подхватить обновлённый токен
+const authHeaders = (): Record<string, string> => {
+    const headers: Record<string, string> = {};
+    const token = localStorage.getItem('accessToken');
+    if (token) {
+        headers.Authorization = `Bearer ${token}`;
+    }
+
+    const userId = localStorage.getItem('userId');
+    const userRole = localStorage.getItem('userRole');
+    const username = localStorage.getItem('username');
+
+    if (userId) {
+        headers['X-User-Id'] = userId;
+    }
+    if (userRole) {
+        headers['X-User-Role'] = userRole;
+    }
+    if (username) {
+        headers['X-Username'] = username;
+    }
+    return headers;
+};
+
+export interface LiveEvent {
+    id?: string;
+    event: string;
+    data: string;
+}
+
+/*
+ * Поток SSE читается через fetch, а не EventSource: EventSource не умеет передавать заголовок
+ * Authorization, а токен в адресе попал бы в журналы шлюза и прокси. Поэтому переподключение,
+ * которое EventSource делает сам, здесь сделано вручную: пауза из поля retry сервера, затем
+ * растущая до минуты при ошибках. Заголовки берутся заново при каждом подключении, так что после
+ * обновления токена (см. перехватчик 401 ниже) поток подключается с новым.
+ */
+const MAX_RECONNECT_DELAY_MS = 60000;
+
+async function readEventStream(response: Response, onEvent: (event: LiveEvent) => void, onRetry: (ms: number) => void) {
+    const reader = response.body!.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    for (;;) {
+        const { value, done } = await reader.read();
+        if (done) {
+            return;
+        }
+        buffer += value.replace(/\r\n?/g, '\n');
+        let boundary;
+        while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, boundary);
+            buffer = buffer.slice(boundary + 2);
+
+            const event: LiveEvent = { event: 'message', data: '' };
+            const data: string[] = [];
+            for (const line of block.split('\n')) {
+                if (line === '' || line.startsWith(':')) {
+                    continue; // комментарии: приветствие и heartbeat
+                }
+                const colon = line.indexOf(':');
+                const field = colon >= 0 ? line.slice(0, colon) : line;
+                const fieldValue = colon >= 0 ? line.slice(colon + 1).replace(/^ /, '') : '';
+                if (field === 'data') {
+                    data.push(fieldValue);
+                } else if (field === 'event') {
+                    event.event = fieldValue;
+                } else if (field === 'id') {
+                    event.id = fieldValue;
+                } else if (field === 'retry' && /^\d+$/.test(fieldValue)) {
+                    onRetry(parseInt(fieldValue, 10));
+                }
+            }
+            if (data.length > 0) {
+                event.data = data.join('\n');
+                onEvent(event);
+            }
+        }
+    }
+}
+
 class ApiService {
     private api: AxiosInstance;
     private isRefreshing = false;
@@ -32,26 +112,7 @@ class ApiService {
         this.api.interceptors.request.use(
             (config) => {
                 config.headers = (config.headers || {}) as any;
-                const token = localStorage.getItem('accessToken');
-                if (token) {
-                    config.headers.Authorization = `Bearer ${token}`;
-                }
-
-                // Добавляем заголовки из контекста пользователя
-                const userId = localStorage.getItem('userId');
-                const userRole = localStorage.getItem('userRole');
-                const username = localStorage.getItem('username');
-
-                if (userId) {
-                    config.headers['X-User-Id'] = userId;
-                }
-                if (userRole) {
-                    config.headers['X-User-Role'] = userRole;
-                }
-                if (username) {
-                    config.headers['X-Username'] = username;
-                }
-
+                Object.assign(config.headers, authHeaders());
                 return config;
             },
             (error) => {
@@ -140,6 +201,9 @@ class ApiService {
         update: (id: number, data: UpdateLessonRequest) =>
             this.api.put(`/api/lessons/${id}`, data),
 
+        start: (id: number) =>
+            this.api.post(`/api/lessons/${id}/start`),
+
         complete: (id: number) =>
             this.api.post(`/api/lessons/${id}/complete`),
 
@@ -148,6 +212,20 @@ class ApiService {
 
         getJoinUrl: (id: number) =>
             this.api.get(`/api/lessons/${id}/join-url`),
+
+        // Урок, репетитор, студент и ссылка на подключение одним запросом к шлюзу
+        getDetails: (id: number) =>
+            this.api.get(`/api/aggregate/lessons/${id}`),
+
+        getSummary: () =>
+            this.api.get('/api/lessons/summary'),
+
+        // Групповые операции: либо lessonIds, либо tutorId с периодом [from, to)
+        bulkCancel: (data: { lessonIds?: number[]; tutorId?: number; from?: string; to?: string; reason?: string }) =>
+            this.api.post('/api/lessons/bulk/cancel', data),
+
+        bulkReschedule: (data: { lessonIds?: number[]; tutorId?: number; from?: string; to?: string; shiftMinutes: number }) =>
+            this.api.post('/api/lessons/bulk/reschedule', data),
     };
 
     // Users API
@@ -181,6 +259,56 @@ class ApiService {
 
         createEvent: (data: any) =>
             this.api.post('/api/calendar/events', data),
+
+        getAvailability: (tutorIds: number[], from: string, to: string, durationMinutes?: number) =>
+            this.api.get('/api/calendar/availability', {
+                params: { tutorIds: tutorIds.join(','), from, to, durationMinutes },
+            }),
+
+        getWorkingHours: (tutorId: number) =>
+            this.api.get(`/api/calendar/tutors/${tutorId}/working-hours`),
+
+        updateWorkingHours: (tutorId: number, intervals: any[]) =>
+            this.api.put(`/api/calendar/tutors/${tutorId}/working-hours`, { intervals }),
+    };
+
+    // Живые обновления: поток /api/notifications/stream до вызова возвращённой функции отписки.
+    // Поток не возобновляется с места разрыва: события, пришедшие во время переподключения, теряются
+    public liveUpdates = {
+        subscribe: (onEvent: (event: LiveEvent) => void): (() => void) => {
+            const controller = new AbortController();
+            let retryMs = 3000;
+            let delayMs = retryMs;
+
+            const run = async () => {
+                while (!controller.signal.aborted) {
+                    try {
+                        const response = await fetch(`${API_BASE_URL}/api/notifications/stream`, {
+                            headers: { ...authHeaders(), Accept: 'text/event-stream' },
+                            signal: controller.signal,
+                        });
+                        if (response.ok && response.body) {
+                            delayMs = retryMs;
+                            await readEventStream(response, onEvent, (ms) => {
+                                retryMs = ms;
+                                delayMs = ms;
+                            });
+                        } else {
+                            delayMs = Math.min(delayMs * 2, MAX_RECONNECT_DELAY_MS);
+                        }
+                    } catch (error) {
+                        if (controller.signal.aborted) {
+                            return;
+                        }
+                        delayMs = Math.min(delayMs * 2, MAX_RECONNECT_DELAY_MS);
+                    }
+                    await new Promise((resolve) => setTimeout(resolve, delayMs));
+                }
+            };
+
+            run();
+            return () => controller.abort();
+        },
     };
 
     // Auth API
@@ -1,6 +1,6 @@
 import { createSlice, createAsyncThunk, PayloadAction } from '@reduxjs/toolkit';
 import api from '../../services/api';
-import { Lesson, CreateLessonRequest, UpdateLessonRequest } from '../../types';
+import { Lesson, CreateLessonRequest, UpdateLessonRequest, LessonChangedEvent } from '../../types';
 
 interface LessonState {
     lessons: Lesson[];
@@ -97,6 +97,18 @@ const lessonSlice = createSlice({
         clearError: (state) => {
             state.error = null;
         },
+        // Изменение из потока живых обновлений; новые уроки появятся при следующей загрузке списка
+        lessonChanged: (state, action: PayloadAction<LessonChangedEvent>) => {
+            const { lessonId, status, scheduledTime, durationMinutes } = action.payload;
+            const apply = (lesson: Lesson) => ({ ...lesson, status, scheduledTime, durationMinutes });
+            const index = state.lessons.findIndex(lesson => lesson.id === lessonId);
+            if (index !== -1) {
+                state.lessons[index] = apply(state.lessons[index]);
+            }
+            if (state.currentLesson?.id === lessonId) {
+                state.currentLesson = apply(state.currentLesson);
+            }
+        },
     },
     extraReducers: (builder) => {
         builder
@@ -139,5 +151,5 @@ const lessonSlice = createSlice({
     },
 });
 
-export const { setCurrentLesson, setFilters, clearError } = lessonSlice.actions;
+export const { setCurrentLesson, setFilters, clearError, lessonChanged } = lessonSlice.actions;
 export default lessonSlice.reducer;
\ No newline at end of file
@@ -22,6 +22,16 @@ export interface Lesson {
     materials?: string[];
 }
 
+// Сводка уроков пользователя для главной страницы
+export interface LessonSummary {
+    userId: number;
+    upcomingCount: number;
+    nextLessonId?: number | null;
+    nextLessonTime?: string | null;
+    completedThisMonth: number;
+    earningsThisMonth: number;
+}
+
 export interface CreateLessonRequest {
     studentId: number;
     tutorId: number;
@@ -63,6 +73,19 @@ export interface Payment {
     createdAt: string;
 }
 
+// Событие lesson.events из потока живых обновлений
+export interface LessonChangedEvent {
+    eventId: string;
+    changeType: 'LESSON_CREATED' | 'LESSON_UPDATED' | 'LESSON_STARTED' | 'LESSON_COMPLETED' | 'LESSON_CANCELLED';
+    lessonId: number;
+    studentId: number;
+    tutorId: number;
+    status: Lesson['status'];
+    scheduledTime: string;
+    durationMinutes: number;
+    eventTime: string;
+}
+
 export interface ApiResponse<T> {
     success: boolean;
     data: T;
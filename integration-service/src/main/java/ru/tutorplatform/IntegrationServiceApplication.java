@@ -2,12 +2,17 @@ package ru.tutorplatform;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import ru.tutorplatform.integration.config.IntegrationProperties;
 
 @SpringBootApplication
 @EnableDiscoveryClient
 @ComponentScan(basePackages = "ru.tutorplatform")
+@EnableConfigurationProperties(IntegrationProperties.class)
+@EnableScheduling
 public class IntegrationServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(IntegrationServiceApplication.class, args);
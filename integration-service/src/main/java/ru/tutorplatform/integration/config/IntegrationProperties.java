@@ -0,0 +1,34 @@
+package ru.tutorplatform.integration.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Внешние системы интеграции. Ключ — {@code systemName} события ("1C", "CRM", "ERP").
+ */
+@Data
+@ConfigurationProperties(prefix = "integration")
+public class IntegrationProperties {
+
+    private Map<String, SystemSettings> systems = new LinkedHashMap<>();
+
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    @Data
+    public static class SystemSettings {
+        private String baseUrl;
+        private int queueCapacity = 1000;
+        private int workers = 2;
+        private double requestsPerSecond = 10; // запросов к системе в секунду на экземпляр сервиса
+        private int batchSize = 50;
+        private Duration linger = Duration.ofMillis(200);
+        private int maxAttempts = 3;
+        private Duration retryDelay = Duration.ofSeconds(1);
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(10);
+    }
+}
@@ -1,17 +1,52 @@
 package ru.tutorplatform.integration.config;
 
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import ru.tutorplatform.common.codec.EventMessageConverter;
 import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.common.messaging.RetryTopology;
+import ru.tutorplatform.common.messaging.TieredRetryRecoverer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Configuration
 public class MessagingConfig {
 
+    @Bean
+    public MessageConverter eventMessageConverter(@Value("${messaging.codec:binary}") String codec,
+                                                  @Value("#{${messaging.schema-versions:{:}}}") Map<String, Integer> schemaVersions) {
+        return EventMessageConverter.forFormat(codec, schemaVersions);
+    }
+
     @Bean
     public Queue integrationQueue() {
         return new Queue(Constants.QueueNames.INTEGRATION_QUEUE, true);
     }
+
+    @Bean
+    public Declarables integrationQueueRetry(@Value("${messaging.retry.delays:PT5S,PT30S,PT5M}") List<Duration> retryDelays) {
+        return RetryTopology.forQueue(Constants.QueueNames.INTEGRATION_QUEUE, retryDelays);
+    }
+
+    @Bean
+    public Queue deadLetterQueue() {
+        return RetryTopology.deadLetterQueue();
+    }
+
+    @Bean
+    public MessageRecoverer messageRecoverer(RabbitTemplate rabbitTemplate,
+                                             @Value("${messaging.retry.delays:PT5S,PT30S,PT5M}") List<Duration> retryDelays) {
+        return new TieredRetryRecoverer(rabbitTemplate, retryDelays, Set.of(Constants.QueueNames.INTEGRATION_QUEUE));
+    }
 }
 
 
@@ -0,0 +1,16 @@
+package ru.tutorplatform.integration.journal;
+
+import java.time.Instant;
+
+/**
+ * Выполненная операция: что ответила внешняя система на пачку, в которую она входила.
+ */
+public record JournalEntry(
+        String operationId,
+        String systemName,
+        String operationType,
+        Instant completedAt,
+        int httpStatus,
+        String response
+) {
+}
@@ -0,0 +1,336 @@
+package ru.tutorplatform.integration.journal;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.tutorplatform.common.codec.BinaryReader;
+import ru.tutorplatform.common.codec.BinaryWriter;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал выполненных операций интеграции по {@code operationId}: повтор уже выполненной
+ * операции получает ответ из журнала, а не уходит во внешнюю систему ещё раз.
+ * <p>
+ * Записи дописываются в конец локального файла (длина, CRC32, запись в бинарном формате событий)
+ * одним {@code fsync} на пачку; индекс целиком в памяти. При старте файл перечитывается, а
+ * недописанный при сбое хвост обрезается по последней целой записи. Записи старше
+ * {@code retention} выпадают из индекса; когда мёртвые записи занимают больше половины файла,
+ * он переписывается во временный и атомарно подменяется.
+ */
+@Component
+@Slf4j
+public class OperationJournal {
+
+    private static final int MAGIC = 0x54504A31; // "TPJ1"
+    private static final int FRAME_HEADER_BYTES = 8; // длина + CRC32
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+    private static final int MAX_RESPONSE_LENGTH = 256;
+    private static final long MIN_COMPACTION_BYTES = 1024 * 1024;
+
+    private final Path path;
+    private final Duration retention;
+    private final Map<String, Indexed> completed = new ConcurrentHashMap<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    // Изменяются под блокировкой журнала
+    private FileChannel channel;
+    private long fileBytes;
+    private long liveBytes;
+
+    public OperationJournal(@Value("${integration.journal.path:data/integration-journal.bin}") Path path,
+                            @Value("${integration.journal.retention:P7D}") Duration retention,
+                            MeterRegistry meterRegistry) throws IOException {
+        this.path = path;
+        this.retention = retention;
+        replay();
+
+        Gauge.builder("integration.journal.entries", completed, Map::size)
+                .description("Выполненные операции в индексе журнала")
+                .register(meterRegistry);
+        Gauge.builder("integration.journal.size", this, journal -> journal.fileBytes)
+                .description("Размер файла журнала операций")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public Optional<JournalEntry> find(String operationId) {
+        if (operationId == null) {
+            return Optional.empty();
+        }
+        Indexed indexed = completed.get(operationId);
+        return indexed == null ? Optional.empty() : Optional.of(indexed.entry());
+    }
+
+    /**
+     * Принимает операцию в работу, если она ещё не выполнена и не обрабатывается.
+     * <p>
+     * Проверка и отметка — один шаг: {@link #complete} сначала пишет операцию в индекс и только
+     * потом снимает отметку, поэтому после успешной отметки достаточно проверить индекс, чтобы не
+     * пропустить операцию, завершённую между ними.
+     */
+    public Claim claim(String operationId) {
+        if (operationId == null) {
+            return Claim.CLAIMED;
+        }
+        if (!inFlight.add(operationId)) {
+            return Claim.IN_PROGRESS;
+        }
+        Indexed indexed = completed.get(operationId);
+        if (indexed != null) {
+            inFlight.remove(operationId);
+            return Claim.completed(indexed.entry());
+        }
+        return Claim.CLAIMED;
+    }
+
+    // Операция не выполнена и уйдёт на повтор: следующая доставка должна пройти
+    public void release(String operationId) {
+        if (operationId != null) {
+            inFlight.remove(operationId);
+        }
+    }
+
+    /**
+     * Записывает выполненные операции одной записью на диск. Ошибка диска не отменяет отправку:
+     * операции остаются в индексе до перезапуска.
+     */
+    public void complete(List<JournalEntry> entries) {
+        List<JournalEntry> identified = entries.stream().filter(entry -> entry.operationId() != null).toList();
+        if (identified.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            byte[][] frames = new byte[identified.size()][];
+            int total = 0;
+            for (int i = 0; i < frames.length; i++) {
+                frames[i] = frame(identified.get(i));
+                total += frames[i].length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(total);
+            for (byte[] frame : frames) {
+                buffer.put(frame);
+            }
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+                fileBytes += total;
+            } catch (IOException e) {
+                log.error("Не удалось записать {} операций в журнал {}", identified.size(), path, e);
+            }
+            for (int i = 0; i < frames.length; i++) {
+                index(identified.get(i), frames[i].length);
+            }
+        }
+        identified.forEach(entry -> inFlight.remove(entry.operationId()));
+    }
+
+    @Scheduled(fixedDelayString = "${integration.journal.compaction-interval:PT1H}")
+    public synchronized void compact() {
+        Instant expiredBefore = Instant.now().minus(retention);
+        completed.values().removeIf(indexed -> {
+            boolean expired = indexed.entry().completedAt().isBefore(expiredBefore);
+            if (expired) {
+                liveBytes -= indexed.frameBytes();
+            }
+            return expired;
+        });
+        if (fileBytes < MIN_COMPACTION_BYTES || fileBytes < liveBytes * 2) {
+            return;
+        }
+
+        long before = fileBytes;
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long written = writeFully(target, ByteBuffer.allocate(4).putInt(0, MAGIC));
+            for (Indexed indexed : completed.values()) {
+                written += writeFully(target, ByteBuffer.wrap(frame(indexed.entry())));
+            }
+            target.force(true);
+            channel.close();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Журнал операций сжат: {} -> {} байт, записей {}", before, written, completed.size());
+        } catch (IOException e) {
+            log.error("Не удалось сжать журнал операций {}", path, e);
+        } finally {
+            if (!channel.isOpen()) {
+                reopenForAppend();
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void replay() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            try (FileChannel created = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                writeFully(created, ByteBuffer.allocate(4).putInt(0, MAGIC));
+                created.force(true);
+            }
+        }
+
+        Instant expiredBefore = Instant.now().minus(retention);
+        long validBytes;
+        int records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalStateException("Файл " + path + " не является журналом операций");
+            }
+            validBytes = 4;
+            while (true) {
+                byte[] payload = readFrame(in);
+                if (payload == null) {
+                    break;
+                }
+                JournalEntry entry = decode(payload);
+                if (!entry.completedAt().isBefore(expiredBefore)) {
+                    index(entry, FRAME_HEADER_BYTES + payload.length);
+                }
+                validBytes += FRAME_HEADER_BYTES + payload.length;
+                records++;
+            }
+        }
+
+        channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (validBytes < size) {
+            log.warn("Журнал операций {}: обрезан недописанный хвост {} байт", path, size - validBytes);
+            channel.truncate(validBytes);
+            channel.force(true);
+        }
+        channel.position(validBytes);
+        fileBytes = validBytes;
+        log.info("Журнал операций {} прочитан: записей {}, в индексе {}", path, records, completed.size());
+    }
+
+    // null — конец файла или повреждённая запись, после которой читать нечего
+    private byte[] readFrame(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES) {
+                return null;
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            return crc(payload) == checksum ? payload : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private void index(JournalEntry entry, int frameBytes) {
+        Indexed previous = completed.put(entry.operationId(), new Indexed(entry, frameBytes));
+        liveBytes += frameBytes - (previous == null ? 0 : previous.frameBytes());
+    }
+
+    private void reopenForAppend() {
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            fileBytes = channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть журнал операций " + path, e);
+        }
+    }
+
+    private static byte[] frame(JournalEntry entry) {
+        BinaryWriter writer = new BinaryWriter(128);
+        writer.writeString(entry.operationId());
+        writer.writeString(entry.systemName());
+        writer.writeString(entry.operationType());
+        writer.writeVarint(entry.completedAt().toEpochMilli());
+        writer.writeVarint(entry.httpStatus());
+        writer.writeString(truncate(entry.response()));
+        byte[] payload = writer.toByteArray();
+
+        return ByteBuffer.allocate(FRAME_HEADER_BYTES + payload.length)
+                .putInt(payload.length)
+                .putInt(crc(payload))
+                .put(payload)
+                .array();
+    }
+
+    private static JournalEntry decode(byte[] payload) {
+        BinaryReader reader = new BinaryReader(payload);
+        return new JournalEntry(
+                reader.readString(),
+                reader.readString(),
+                reader.readString(),
+                Instant.ofEpochMilli(reader.readVarint()),
+                (int) reader.readVarint(),
+                reader.readString()
+        );
+    }
+
+    private static String truncate(String response) {
+        return response == null || response.length() <= MAX_RESPONSE_LENGTH
+                ? response
+                : response.substring(0, MAX_RESPONSE_LENGTH);
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static long writeFully(FileChannel target, ByteBuffer buffer) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += target.write(buffer);
+        }
+        return written;
+    }
+
+    private record Indexed(JournalEntry entry, int frameBytes) {
+    }
+
+    public enum ClaimStatus {
+        CLAIMED,     // Операция принята в работу
+        IN_PROGRESS, // Её уже обрабатывает другая доставка
+        COMPLETED    // Уже выполнена, ответ — в completed
+    }
+
+    public record Claim(ClaimStatus status, JournalEntry completed) {
+
+        static final Claim CLAIMED = new Claim(ClaimStatus.CLAIMED, null);
+        static final Claim IN_PROGRESS = new Claim(ClaimStatus.IN_PROGRESS, null);
+
+        static Claim completed(JournalEntry entry) {
+            return new Claim(ClaimStatus.COMPLETED, entry);
+        }
+    }
+}
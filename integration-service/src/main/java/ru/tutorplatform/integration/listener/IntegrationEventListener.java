@@ -2,20 +2,25 @@ package ru.tutorplatform.integration.listener;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 import ru.tutorplatform.common.constants.Constants;
 import ru.tutorplatform.common.event.IntegrationEvent;
+import ru.tutorplatform.integration.pipeline.IntegrationDispatcher;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class IntegrationEventListener {
 
+    private final IntegrationDispatcher integrationDispatcher;
+
+    // Исходное сообщение нужно конвейеру, чтобы передать операцию на повтор, если система её не приняла
     @RabbitListener(queues = Constants.QueueNames.INTEGRATION_QUEUE)
-    public void handleIntegration(IntegrationEvent event) {
-        // Заглушка интеграции с внешними системами
-        log.info("Обрабатываю событие интеграции: {}", event);
+    public void handleIntegration(IntegrationEvent event, Message message) {
+        log.debug("Событие интеграции {} для {}: {}", event.getOperationId(), event.getSystemName(), event.getOperationType());
+        integrationDispatcher.dispatch(event, message);
     }
 }
 
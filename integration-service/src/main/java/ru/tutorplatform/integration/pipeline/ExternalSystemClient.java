@@ -0,0 +1,57 @@
+package ru.tutorplatform.integration.pipeline;
+
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import ru.tutorplatform.common.event.IntegrationEvent;
+import ru.tutorplatform.integration.config.IntegrationProperties;
+
+import java.util.List;
+
+/**
+ * HTTP-клиент внешней системы: пачка операций одного типа уходит одним запросом
+ * {@code POST {base-url}/operations/{operationType}} с массивом событий в теле.
+ */
+public class ExternalSystemClient {
+
+    private final String systemName;
+    private final RestTemplate restTemplate;
+
+    public ExternalSystemClient(String systemName, IntegrationProperties.SystemSettings settings,
+                                RestTemplateBuilder restTemplateBuilder) {
+        if (settings.getBaseUrl() == null || settings.getBaseUrl().isBlank()) {
+            throw new IllegalStateException("Не задан integration.systems." + systemName + ".base-url");
+        }
+        this.systemName = systemName;
+        this.restTemplate = restTemplateBuilder
+                .rootUri(settings.getBaseUrl())
+                .setConnectTimeout(settings.getConnectTimeout())
+                .setReadTimeout(settings.getReadTimeout())
+                .build();
+    }
+
+    public ResponseEntity<String> send(String operationType, List<IntegrationEvent> operations) {
+        return restTemplate.postForEntity("/operations/{operationType}", operations, String.class, operationType);
+    }
+
+    /**
+     * Ошибки клиента, кроме 429 и 408, повтор не исправит: такие пачки сразу уходят дальше по
+     * ступеням повтора брокера, не занимая поток системы.
+     */
+    public boolean isRetryable(Exception e) {
+        if (e instanceof HttpStatusCodeException statusError) {
+            HttpStatus status = HttpStatus.resolve(statusError.getStatusCode().value());
+            return status == null
+                    || status.is5xxServerError()
+                    || status == HttpStatus.TOO_MANY_REQUESTS
+                    || status == HttpStatus.REQUEST_TIMEOUT;
+        }
+        return true;
+    }
+
+    public String getSystemName() {
+        return systemName;
+    }
+}
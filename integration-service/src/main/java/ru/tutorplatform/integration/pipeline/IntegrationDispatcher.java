@@ -0,0 +1,112 @@
+package ru.tutorplatform.integration.pipeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.tutorplatform.common.event.IntegrationEvent;
+import ru.tutorplatform.integration.config.IntegrationProperties;
+import ru.tutorplatform.integration.journal.JournalEntry;
+import ru.tutorplatform.integration.journal.OperationJournal;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Раздаёт события интеграции по конвейерам внешних систем ({@link SystemPipeline}).
+ * <p>
+ * Слушатель только кладёт операцию в очередь системы и подтверждает сообщение. Если система не
+ * настроена или её очередь заполнена, {@link #dispatch} бросает исключение и сообщение уходит
+ * в очереди отложенного повтора, не занимая поток потребителя. Повтор уже выполненной или
+ * ещё обрабатываемой операции ({@link OperationJournal}) подтверждается без отправки.
+ */
+@Component
+@Slf4j
+public class IntegrationDispatcher implements SmartLifecycle {
+
+    private final Map<String, SystemPipeline> pipelines = new LinkedHashMap<>();
+    private final OperationJournal operationJournal;
+    private final Counter duplicates;
+    private final Duration shutdownTimeout;
+
+    private volatile boolean running;
+
+    public IntegrationDispatcher(IntegrationProperties properties,
+                                 RestTemplateBuilder restTemplateBuilder,
+                                 MessageRecoverer messageRecoverer,
+                                 OperationJournal operationJournal,
+                                 MeterRegistry meterRegistry) {
+        properties.getSystems().forEach((systemName, settings) -> {
+            ExternalSystemClient client = new ExternalSystemClient(systemName, settings, restTemplateBuilder);
+            pipelines.put(systemName, new SystemPipeline(systemName, settings, client, messageRecoverer,
+                    operationJournal, meterRegistry));
+        });
+        this.operationJournal = operationJournal;
+        this.duplicates = Counter.builder("integration.pipeline.duplicates")
+                .description("Повторные операции, на которые ответил журнал")
+                .register(meterRegistry);
+        this.shutdownTimeout = properties.getShutdownTimeout();
+    }
+
+    public void dispatch(IntegrationEvent event, Message message) {
+        SystemPipeline pipeline = pipelines.get(event.getSystemName());
+        if (pipeline == null) {
+            throw new IllegalStateException("Внешняя система " + event.getSystemName() + " не настроена");
+        }
+        if (!pipeline.isRunning()) {
+            throw new IllegalStateException("Конвейер " + event.getSystemName() + " остановлен");
+        }
+
+        OperationJournal.Claim claim = operationJournal.claim(event.getOperationId());
+        if (claim.status() == OperationJournal.ClaimStatus.COMPLETED) {
+            duplicates.increment();
+            JournalEntry entry = claim.completed();
+            log.info("Операция {} уже выполнена {} в {}: HTTP {} {}", entry.operationId(), entry.completedAt(),
+                    entry.systemName(), entry.httpStatus(), entry.response());
+            return;
+        }
+        if (claim.status() == OperationJournal.ClaimStatus.IN_PROGRESS) {
+            duplicates.increment();
+            log.info("Операция {} уже обрабатывается, повтор пропущен", event.getOperationId());
+            return;
+        }
+        if (!pipeline.offer(event, message)) {
+            operationJournal.release(event.getOperationId());
+            throw new IllegalStateException("Очередь системы " + event.getSystemName() + " переполнена");
+        }
+    }
+
+    @Override
+    public void start() {
+        pipelines.values().forEach(SystemPipeline::start);
+        running = true;
+        log.info("Запущены конвейеры внешних систем: {}", pipelines.keySet());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        pipelines.values().forEach(SystemPipeline::beginStop);
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        pipelines.values().forEach(pipeline -> pipeline.awaitStop(deadline));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Запускается раньше и останавливается позже контейнеров слушателей, которые наполняют конвейеры
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 1000;
+    }
+}
@@ -0,0 +1,270 @@
+package ru.tutorplatform.integration.pipeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.http.ResponseEntity;
+import ru.tutorplatform.common.event.IntegrationEvent;
+import ru.tutorplatform.integration.config.IntegrationProperties;
+import ru.tutorplatform.integration.journal.JournalEntry;
+import ru.tutorplatform.integration.journal.OperationJournal;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Конвейер одной внешней системы: своя ограниченная очередь, свои потоки и свой лимит запросов,
+ * поэтому медленная система не задерживает остальные.
+ * <p>
+ * Поток забирает операции из очереди, ждёт попутные не дольше {@code linger} и отправляет их
+ * пачками по {@code operationType}. Пачку, которую не удалось доставить за {@code max-attempts}
+ * попыток, {@link MessageRecoverer} перекладывает в очереди отложенного повтора брокера.
+ * Выполненные операции записываются в {@link OperationJournal}.
+ */
+@Slf4j
+public class SystemPipeline {
+
+    private final String systemName;
+    private final ExternalSystemClient client;
+    private final MessageRecoverer messageRecoverer;
+    private final OperationJournal operationJournal;
+    private final BlockingQueue<PendingOperation> queue;
+    private final TokenBucket rateLimit;
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final int batchSize;
+    private final Duration linger;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+    private final Counter failed;
+
+    private volatile boolean running;
+
+    public SystemPipeline(String systemName, IntegrationProperties.SystemSettings settings, ExternalSystemClient client,
+                          MessageRecoverer messageRecoverer, OperationJournal operationJournal, MeterRegistry meterRegistry) {
+        this.systemName = systemName;
+        this.client = client;
+        this.messageRecoverer = messageRecoverer;
+        this.operationJournal = operationJournal;
+        this.queue = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+        this.rateLimit = new TokenBucket(settings.getRequestsPerSecond());
+        this.workerCount = settings.getWorkers();
+        this.batchSize = settings.getBatchSize();
+        this.linger = settings.getLinger();
+        this.maxAttempts = settings.getMaxAttempts();
+        this.retryDelay = settings.getRetryDelay();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "integration-" + systemName + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("integration.pipeline.queued", queue, BlockingQueue::size)
+                .description("Операции, ожидающие отправки во внешнюю систему")
+                .tag("system", systemName)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("integration.pipeline.rejected")
+                .description("Операции, не принятые из-за переполнения очереди системы")
+                .tag("system", systemName)
+                .register(meterRegistry);
+        this.failed = Counter.builder("integration.pipeline.failed")
+                .description("Операции, переданные на повтор через брокер")
+                .tag("system", systemName)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code false}, если очередь системы заполнена
+     */
+    public boolean offer(IntegrationEvent event, Message message) {
+        if (queue.offer(new PendingOperation(event, message))) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::run);
+        }
+    }
+
+    // Потоки дописывают уже принятые операции и завершаются
+    public void beginStop() {
+        running = false;
+        workers.shutdown();
+    }
+
+    public void awaitStop(long deadlineNanos) {
+        try {
+            long remaining = deadlineNanos - System.nanoTime();
+            if (!workers.awaitTermination(Math.max(remaining, 0), TimeUnit.NANOSECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        List<PendingOperation> left = new ArrayList<>();
+        queue.drainTo(left);
+        if (!left.isEmpty()) {
+            log.warn("Остановка: {} операций для {} не отправлено, передаю на повтор", left.size(), systemName);
+            recover(left, new IllegalStateException("Сервис остановлен до отправки операции"));
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public String getSystemName() {
+        return systemName;
+    }
+
+    private void run() {
+        List<PendingOperation> drained = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOperation first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                drained.add(first);
+                collect(drained);
+                dispatch(drained);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                recover(drained, e);
+                return;
+            } catch (Exception e) {
+                log.error("Ошибка отправки пачки из {} операций в {}", drained.size(), systemName, e);
+                recover(drained, e);
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+
+    // Пока операции идут потоком, короткое ожидание собирает пачку побольше
+    private void collect(List<PendingOperation> drained) throws InterruptedException {
+        long deadline = System.nanoTime() + linger.toNanos();
+        while (drained.size() < batchSize) {
+            queue.drainTo(drained, batchSize - drained.size());
+            long remaining = deadline - System.nanoTime();
+            if (drained.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            PendingOperation next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            drained.add(next);
+        }
+    }
+
+    private void dispatch(List<PendingOperation> operations) throws InterruptedException {
+        Map<String, List<PendingOperation>> byType = new LinkedHashMap<>();
+        for (PendingOperation operation : operations) {
+            byType.computeIfAbsent(operation.event().getOperationType(), type -> new ArrayList<>()).add(operation);
+        }
+        for (Map.Entry<String, List<PendingOperation>> entry : byType.entrySet()) {
+            send(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void send(String operationType, List<PendingOperation> operations) throws InterruptedException {
+        List<IntegrationEvent> events = operations.stream().map(PendingOperation::event).toList();
+        ResponseEntity<String> response = deliver(operationType, operations, events);
+        if (response == null) {
+            return;
+        }
+        // Система уже приняла пачку: сбой журнала не должен отправить её ещё раз
+        try {
+            journal(operationType, events, response);
+        } catch (RuntimeException e) {
+            log.error("{}: {} операций {} выполнены, но не записаны в журнал", systemName, events.size(), operationType, e);
+            events.forEach(event -> operationJournal.release(event.getOperationId()));
+            return;
+        }
+        log.debug("{}: отправлено {} операций {}", systemName, events.size(), operationType);
+    }
+
+    // null — пачка не доставлена и передана на повтор через брокер
+    private ResponseEntity<String> deliver(String operationType, List<PendingOperation> operations,
+                                           List<IntegrationEvent> events) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            rateLimit.acquire();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                ResponseEntity<String> response = client.send(operationType, events);
+                sample.stop(requestTimer(operationType, "success"));
+                return response;
+            } catch (RuntimeException e) {
+                sample.stop(requestTimer(operationType, "error"));
+                if (attempt >= maxAttempts || !client.isRetryable(e)) {
+                    log.error("{}: пачка из {} операций {} не отправлена за {} попыток",
+                            systemName, events.size(), operationType, attempt, e);
+                    recover(operations, e);
+                    return null;
+                }
+                log.warn("{}: ошибка отправки {} (попытка {}): {}", systemName, operationType, attempt, e.getMessage());
+                Thread.sleep(retryDelay.multipliedBy(attempt).toMillis());
+            }
+        }
+    }
+
+    private void journal(String operationType, List<IntegrationEvent> events, ResponseEntity<String> response) {
+        Instant completedAt = Instant.now();
+        operationJournal.complete(events.stream()
+                .map(event -> new JournalEntry(event.getOperationId(), systemName, operationType, completedAt,
+                        response.getStatusCode().value(), response.getBody()))
+                .toList());
+    }
+
+    private void recover(List<PendingOperation> operations, Throwable cause) {
+        failed.increment(operations.size());
+        for (PendingOperation operation : operations) {
+            operationJournal.release(operation.event().getOperationId());
+            try {
+                messageRecoverer.recover(operation.message(), cause);
+            } catch (RuntimeException e) {
+                log.error("Операция {} для {} потеряна: не удалось передать её на повтор",
+                        operation.event().getOperationId(), systemName, e);
+            }
+        }
+    }
+
+    private Timer requestTimer(String operationType, String outcome) {
+        return Timer.builder("integration.pipeline.request")
+                .description("Запросы к внешней системе")
+                .tag("system", systemName)
+                .tag("operation", operationType)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record PendingOperation(IntegrationEvent event, Message message) {
+    }
+}
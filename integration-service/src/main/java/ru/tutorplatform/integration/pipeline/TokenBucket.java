@@ -0,0 +1,47 @@
+package ru.tutorplatform.integration.pipeline;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ограничение частоты запросов: {@code permitsPerSecond} разрешений в секунду, запас не больше
+ * одной секунды. {@link #acquire()} ждёт разрешения в вызывающем потоке.
+ */
+public class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private double available;
+    private long refilledAt;
+
+    public TokenBucket(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Частота запросов должна быть положительной");
+        }
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.capacity = Math.max(1, permitsPerSecond);
+        this.available = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = tryAcquire()) > 0) {
+            LockSupport.parkNanos(waitNanos);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    // 0, если разрешение получено, иначе сколько ждать следующего
+    private synchronized long tryAcquire() {
+        long now = System.nanoTime();
+        available = Math.min(capacity, available + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        if (available >= 1) {
+            available -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - available) / permitsPerNano);
+    }
+}
@@ -0,0 +1,161 @@
+package ru.tutorplatform.integration.journal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OperationJournalTest {
+
+    private static final Duration RETENTION = Duration.ofDays(7);
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    @TempDir
+    Path directory;
+
+    private OperationJournal journal;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void restoresCompletedOperationsAfterRestart() throws IOException {
+        Path path = directory.resolve("journal.bin");
+        journal = open(path);
+        journal.complete(List.of(entry("operation-1", NOW), entry("operation-2", NOW)));
+        journal.complete(List.of(entry("operation-3", NOW)));
+        journal.close();
+
+        journal = open(path);
+
+        assertThat(journal.find("operation-1")).contains(entry("operation-1", NOW));
+        assertThat(journal.find("operation-3")).contains(entry("operation-3", NOW));
+        assertThat(journal.claim("operation-2").status()).isEqualTo(OperationJournal.ClaimStatus.COMPLETED);
+    }
+
+    @Test
+    void truncatesTornTailAndKeepsAppending() throws IOException {
+        Path path = directory.resolve("journal.bin");
+        journal = open(path);
+        journal.complete(List.of(entry("operation-1", NOW)));
+        long intact = Files.size(path);
+        journal.complete(List.of(entry("operation-2", NOW)));
+        journal.close();
+        // Сбой посреди записи: на диске осталась только часть последней записи
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(intact + 6);
+        }
+
+        journal = open(path);
+
+        assertThat(journal.find("operation-1")).isPresent();
+        assertThat(journal.find("operation-2")).isEmpty();
+        assertThat(Files.size(path)).isEqualTo(intact);
+
+        journal.complete(List.of(entry("operation-3", NOW)));
+        journal.close();
+        journal = open(path);
+        assertThat(journal.find("operation-1")).isPresent();
+        assertThat(journal.find("operation-3")).isPresent();
+    }
+
+    @Test
+    void dropsTailRecordWithBadChecksum() throws IOException {
+        Path path = directory.resolve("journal.bin");
+        journal = open(path);
+        journal.complete(List.of(entry("operation-1", NOW)));
+        long intact = Files.size(path);
+        journal.complete(List.of(entry("operation-2", NOW)));
+        journal.close();
+        // Последний байт записи испорчен: длина цела, CRC32 не сходится
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) (last.get(0) ^ 0x5A)}), channel.size() - 1);
+        }
+
+        journal = open(path);
+
+        assertThat(journal.find("operation-1")).isPresent();
+        assertThat(journal.find("operation-2")).isEmpty();
+        assertThat(Files.size(path)).isEqualTo(intact);
+        assertThat(journal.claim("operation-2").status()).isEqualTo(OperationJournal.ClaimStatus.CLAIMED);
+    }
+
+    @Test
+    void compactsExpiredRecordsAndSurvivesRestart() throws IOException {
+        Path path = directory.resolve("journal.bin");
+        journal = open(path);
+        Instant expired = NOW.minus(RETENTION).minus(Duration.ofDays(1));
+        String response = "x".repeat(200);
+        // Больше порога сжатия в 1 МиБ, почти всё — устаревшие записи
+        for (int batch = 0; batch < 60; batch++) {
+            List<JournalEntry> entries = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                entries.add(new JournalEntry("old-" + batch + "-" + i, "1C", "CREATE_INVOICE", expired, 200, response));
+            }
+            journal.complete(entries);
+        }
+        journal.complete(List.of(entry("fresh-1", NOW), entry("fresh-2", NOW)));
+        long before = Files.size(path);
+        assertThat(before).isGreaterThan(1024 * 1024);
+
+        journal.compact();
+
+        assertThat(Files.size(path)).isLessThan(1024);
+        assertThat(journal.find("old-0-0")).isEmpty();
+        assertThat(journal.find("fresh-1")).isPresent();
+        assertThat(directory.resolve("journal.bin.compact")).doesNotExist();
+
+        // После сжатия журнал дописывается в новый файл и читается при перезапуске
+        journal.complete(List.of(entry("fresh-3", NOW)));
+        journal.close();
+        journal = open(path);
+        assertThat(journal.find("fresh-1")).isPresent();
+        assertThat(journal.find("fresh-2")).isPresent();
+        assertThat(journal.find("fresh-3")).isPresent();
+        assertThat(journal.find("old-59-99")).isEmpty();
+    }
+
+    @Test
+    void claimsOperationOnce() throws IOException {
+        journal = open(directory.resolve("journal.bin"));
+
+        assertThat(journal.claim("operation-1").status()).isEqualTo(OperationJournal.ClaimStatus.CLAIMED);
+        assertThat(journal.claim("operation-1").status()).isEqualTo(OperationJournal.ClaimStatus.IN_PROGRESS);
+
+        journal.release("operation-1");
+        assertThat(journal.claim("operation-1").status()).isEqualTo(OperationJournal.ClaimStatus.CLAIMED);
+
+        journal.complete(List.of(entry("operation-1", NOW)));
+        OperationJournal.Claim claim = journal.claim("operation-1");
+        assertThat(claim.status()).isEqualTo(OperationJournal.ClaimStatus.COMPLETED);
+        assertThat(claim.completed()).isEqualTo(entry("operation-1", NOW));
+    }
+
+    private static OperationJournal open(Path path) throws IOException {
+        return new OperationJournal(path, RETENTION, new SimpleMeterRegistry());
+    }
+
+    private static JournalEntry entry(String operationId, Instant completedAt) {
+        return new JournalEntry(operationId, "1C", "CREATE_INVOICE", completedAt, 200, "{\"id\":\"" + operationId + "\"}");
+    }
+}
@@ -0,0 +1,277 @@
+package ru.tutorplatform.integration.pipeline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import ru.tutorplatform.common.event.IntegrationEvent;
+import ru.tutorplatform.integration.config.IntegrationProperties;
+import ru.tutorplatform.integration.journal.JournalEntry;
+import ru.tutorplatform.integration.journal.OperationJournal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Конвейер внешней системы целиком: {@link IntegrationDispatcher}, {@link SystemPipeline},
+ * {@link TokenBucket} и {@link ExternalSystemClient} против HTTP-заглушки системы.
+ */
+class SystemPipelineTest {
+
+    private static final String SYSTEM = "1C";
+    private static final long WAIT_MILLIS = 5000;
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    private final StubSystem stub = new StubSystem();
+    private final MessageRecoverer messageRecoverer = mock(MessageRecoverer.class);
+    private final IntegrationProperties.SystemSettings settings = new IntegrationProperties.SystemSettings();
+    private OperationJournal operationJournal;
+    private IntegrationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub.start();
+        settings.setBaseUrl(stub.url());
+        settings.setWorkers(1);
+        settings.setBatchSize(10);
+        settings.setLinger(Duration.ofMillis(300));
+        settings.setRequestsPerSecond(100);
+        settings.setMaxAttempts(3);
+        settings.setRetryDelay(Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+        if (operationJournal != null) {
+            operationJournal.close();
+        }
+        stub.stop();
+    }
+
+    @Test
+    void sendsQueuedOperationsInBatchesByType() throws Exception {
+        start();
+        for (int i = 1; i <= 3; i++) {
+            dispatch("invoice-" + i, "CREATE_INVOICE");
+        }
+        dispatch("order-1", "UPDATE_ORDER");
+        dispatch("order-2", "UPDATE_ORDER");
+
+        List<StubRequest> requests = List.of(stub.next(), stub.next());
+
+        assertThat(requests).extracting(StubRequest::path)
+                .containsExactly("/operations/CREATE_INVOICE", "/operations/UPDATE_ORDER");
+        assertThat(requests.get(0).operationIds()).containsExactly("invoice-1", "invoice-2", "invoice-3");
+        assertThat(requests.get(1).operationIds()).containsExactly("order-1", "order-2");
+        awaitJournaled("invoice-1", "invoice-2", "invoice-3", "order-1", "order-2");
+        assertThat(stub.requests).isEmpty();
+    }
+
+    @Test
+    void limitsRequestRateOfSystem() throws Exception {
+        settings.setRequestsPerSecond(2);
+        settings.setBatchSize(1);
+        settings.setLinger(Duration.ZERO);
+        long startedAt = System.nanoTime();
+        start();
+        for (int i = 1; i <= 6; i++) {
+            dispatch("operation-" + i, "CREATE_INVOICE");
+        }
+
+        StubRequest last = null;
+        for (int i = 0; i < 6; i++) {
+            last = stub.next();
+        }
+
+        // Запас ведра — одна секунда: две операции сразу, остальные четыре — по одной каждые 500 мс
+        assertThat(TimeUnit.NANOSECONDS.toMillis(last.receivedAt() - startedAt)).isGreaterThanOrEqualTo(1900);
+        awaitJournaled("operation-1", "operation-2", "operation-3", "operation-4", "operation-5", "operation-6");
+    }
+
+    @Test
+    void retriesRetryableStatusesInPipeline() throws Exception {
+        stub.respond(503, 429);
+        start();
+
+        dispatch("operation-1", "CREATE_INVOICE");
+
+        awaitJournaled("operation-1");
+        assertThat(stub.requests).hasSize(3);
+        assertThat(operationJournal.find("operation-1")).get().extracting(JournalEntry::httpStatus).isEqualTo(200);
+        verify(messageRecoverer, never()).recover(any(), any());
+    }
+
+    @Test
+    void passesNonRetryableStatusToBrokerRetryAtOnce() throws Exception {
+        stub.respond(400);
+        start();
+
+        Message message = dispatch("operation-1", "CREATE_INVOICE");
+
+        verify(messageRecoverer, timeout(WAIT_MILLIS)).recover(eq(message), isA(HttpClientErrorException.class));
+        assertThat(stub.requests).hasSize(1);
+        assertThat(operationJournal.find("operation-1")).isEmpty();
+    }
+
+    @Test
+    void recoversRedeliveredOperationAfterRetriesAreExhausted() throws Exception {
+        stub.respond(500, 500, 500);
+        start();
+
+        Message message = dispatch("operation-1", "CREATE_INVOICE");
+        verify(messageRecoverer, timeout(WAIT_MILLIS)).recover(eq(message), isA(HttpServerErrorException.class));
+        assertThat(stub.requests).hasSize(3);
+        stub.requests.clear();
+
+        // Брокер вернул операцию после задержки: система снова отвечает
+        dispatch("operation-1", "CREATE_INVOICE");
+        awaitJournaled("operation-1");
+        assertThat(stub.requests).hasSize(1);
+
+        // Повтор выполненной операции не уходит в систему
+        dispatch("operation-1", "CREATE_INVOICE");
+        Thread.sleep(settings.getLinger().toMillis() * 2);
+        assertThat(stub.requests).hasSize(1);
+    }
+
+    @Test
+    void doesNotResendBatchWhenJournalFails() throws Exception {
+        OperationJournal journal = spy(new OperationJournal(directory.resolve("journal.bin"), Duration.ofDays(7),
+                new SimpleMeterRegistry()));
+        doThrow(new IllegalStateException("журнал недоступен")).when(journal).complete(anyList());
+        start(journal);
+
+        dispatch("operation-1", "CREATE_INVOICE");
+
+        verify(journal, timeout(WAIT_MILLIS)).release("operation-1");
+        assertThat(stub.requests).hasSize(1);
+        verify(messageRecoverer, never()).recover(any(), any());
+    }
+
+    private void start() throws IOException {
+        start(new OperationJournal(directory.resolve("journal.bin"), Duration.ofDays(7), new SimpleMeterRegistry()));
+    }
+
+    private void start(OperationJournal journal) {
+        IntegrationProperties properties = new IntegrationProperties();
+        properties.getSystems().put(SYSTEM, settings);
+        properties.setShutdownTimeout(Duration.ofSeconds(5));
+        operationJournal = journal;
+        dispatcher = new IntegrationDispatcher(properties, new RestTemplateBuilder(), messageRecoverer,
+                operationJournal, new SimpleMeterRegistry());
+        dispatcher.start();
+    }
+
+    private Message dispatch(String operationId, String operationType) {
+        IntegrationEvent event = new IntegrationEvent(operationId, SYSTEM, operationType, null, LocalDateTime.now());
+        Message message = new Message(operationId.getBytes(StandardCharsets.UTF_8), new MessageProperties());
+        dispatcher.dispatch(event, message);
+        return message;
+    }
+
+    private void awaitJournaled(String... operationIds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MILLIS);
+        for (String operationId : operationIds) {
+            while (operationJournal.find(operationId).isEmpty()) {
+                assertThat(System.nanoTime()).as("операция %s не записана в журнал", operationId).isLessThan(deadline);
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private record StubRequest(String path, List<String> operationIds, long receivedAt) {
+    }
+
+    /**
+     * Внешняя система: отвечает заданными статусами по очереди, затем 200.
+     */
+    private static class StubSystem {
+
+        private final BlockingQueue<StubRequest> requests = new LinkedBlockingQueue<>();
+        private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+        private HttpServer server;
+
+        void start() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/operations/", this::handle);
+            server.start();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        void respond(Integer... statuses) {
+            this.statuses.addAll(List.of(statuses));
+        }
+
+        StubRequest next() throws InterruptedException {
+            StubRequest request = requests.poll(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            assertThat(request).as("система не получила запрос").isNotNull();
+            return request;
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            List<String> operationIds = new ArrayList<>();
+            try (InputStream body = exchange.getRequestBody()) {
+                JSON.readTree(body).forEach(operation -> operationIds.add(operation.get("operationId").asText()));
+            }
+            requests.add(new StubRequest(exchange.getRequestURI().getPath(), operationIds, System.nanoTime()));
+
+            Integer scripted = statuses.poll();
+            int status = scripted != null ? scripted : 200;
+            byte[] response = (status == 200 ? "{\"accepted\":" + operationIds.size() + "}" : "{\"error\":\"stub\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ru.tutorplatform.lesson;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.web.client.RestTemplate;
@@ -14,8 +15,9 @@ public class LessonServiceApplication {
         SpringApplication.run(LessonServiceApplication.class, args);
     }
 
+    // Через RestTemplateBuilder: вызовы наблюдаются и передают контекст трассы
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder) {
+        return restTemplateBuilder.build();
     }
 }
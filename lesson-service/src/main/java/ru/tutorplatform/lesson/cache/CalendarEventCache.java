@@ -0,0 +1,79 @@
+package ru.tutorplatform.lesson.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.tutorplatform.lesson.dto.CalendarEventDTO;
+import ru.tutorplatform.lesson.model.Lesson;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Кэш событий календаря по пользователю и неделе (неделя начинается с понедельника).
+ * <p>
+ * Записи сбрасываются при любом изменении урока в этом экземпляре сервиса;
+ * TTL ограничивает устаревание данных, изменённых другими экземплярами.
+ */
+@Component
+public class CalendarEventCache {
+
+    private final Cache<WeekBucket, List<CalendarEventDTO>> cache;
+
+    public CalendarEventCache(@Value("${calendar.cache.max-entries:10000}") long maxEntries,
+                              @Value("${calendar.cache.ttl:PT1M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Map<WeekBucket, List<CalendarEventDTO>> getAll(Set<WeekBucket> buckets) {
+        return cache.getAllPresent(buckets);
+    }
+
+    public void putAll(Map<WeekBucket, List<CalendarEventDTO>> weeks) {
+        cache.putAll(weeks);
+    }
+
+    public void evict(Lesson lesson) {
+        evict(lesson, lesson.getScheduledTime());
+    }
+
+    public void evict(Lesson lesson, LocalDateTime scheduledTime) {
+        if (scheduledTime == null) {
+            return;
+        }
+        LocalDate weekStart = weekStart(scheduledTime.toLocalDate());
+        List<WeekBucket> buckets = List.of(
+                new WeekBucket(lesson.getStudentId(), weekStart),
+                new WeekBucket(lesson.getTutorId(), weekStart));
+        cache.invalidateAll(buckets);
+
+        // Параллельный запрос мог перечитать неделю до коммита — сбрасываем ещё раз после него
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidateAll(buckets);
+                }
+            });
+        }
+    }
+
+    public static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    public record WeekBucket(Long userId, LocalDate weekStart) {
+    }
+}
@@ -0,0 +1,111 @@
+package ru.tutorplatform.lesson.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.tutorplatform.lesson.model.Lesson;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Локальный кэш уроков по id для чтения (карточка урока, ссылка на подключение).
+ * <p>
+ * Изменения в этом экземпляре сбрасывают запись сразу и ещё раз после коммита. Изменения в других
+ * экземплярах приходят событиями {@code lesson.events} после коммита, но загрузка, начатая до него,
+ * может закончиться позже события, поэтому урок, сброшенный за последние {@code invalidation-grace},
+ * читается из базы, но не кэшируется.
+ * TTL ограничивает устаревание, если событие не дошло. Закэшированные уроки только читаются.
+ */
+@Component
+public class LessonCache {
+
+    private final Cache<Long, Lesson> cache;
+    private final Cache<Long, Boolean> recentlyInvalidated;
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+    private final Timer invalidationLag;
+
+    public LessonCache(@Value("${lesson.cache.max-entries:10000}") long maxEntries,
+                       @Value("${lesson.cache.ttl:PT5M}") Duration ttl,
+                       @Value("${lesson.cache.invalidation-grace:PT2S}") Duration invalidationGrace,
+                       MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.recentlyInvalidated = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(invalidationGrace)
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "lesson");
+        this.localInvalidations = invalidationCounter(meterRegistry, "local");
+        this.remoteInvalidations = invalidationCounter(meterRegistry, "remote");
+        this.invalidationLag = Timer.builder("lesson.cache.invalidation.lag")
+                .description("Задержка между изменением урока в другом экземпляре и сбросом записи здесь")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    public Optional<Lesson> get(Long lessonId, Function<Long, Optional<Lesson>> loader) {
+        Lesson cached = cache.getIfPresent(lessonId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Lesson> loaded = loader.apply(lessonId);
+        loaded.ifPresent(lesson -> cache.asMap().compute(lessonId, (id, current) ->
+                recentlyInvalidated.getIfPresent(id) != null ? current : lesson));
+        return loaded;
+    }
+
+    public void evict(Long lessonId) {
+        localInvalidations.increment();
+        invalidate(lessonId);
+
+        // Параллельное чтение могло взять урок до коммита — сбрасываем ещё раз после него
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(lessonId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Сброс по событию изменения урока, в том числе пришедшему из другого экземпляра.
+     */
+    public void evictChanged(Long lessonId, LocalDateTime changedAt) {
+        remoteInvalidations.increment();
+        invalidate(lessonId);
+        if (changedAt != null) {
+            Duration lag = Duration.between(changedAt, LocalDateTime.now());
+            invalidationLag.record(lag.isNegative() ? Duration.ZERO : lag);
+        }
+    }
+
+    // Метка ставится до сброса: загрузка, начатая до изменения, не вернёт старую запись в кэш
+    private void invalidate(Long lessonId) {
+        recentlyInvalidated.put(lessonId, Boolean.TRUE);
+        cache.invalidate(lessonId);
+    }
+
+    private static Counter invalidationCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("lesson.cache.invalidations")
+                .description("Сброшенные записи кэша уроков")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
@@ -1,32 +1,96 @@
 package ru.tutorplatform.lesson.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import ru.tutorplatform.common.codec.EventMessageConverter;
 import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.common.messaging.NotificationLaneTopology;
+import ru.tutorplatform.common.messaging.RetryTopology;
+import ru.tutorplatform.common.messaging.TieredRetryRecoverer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Configuration
 public class MessagingConfig {
 
+    // Один бин MessageConverter Spring Boot подставит и в RabbitTemplate, и в контейнеры слушателей
+    @Bean
+    public MessageConverter eventMessageConverter(@Value("${messaging.codec:binary}") String codec,
+                                                  @Value("#{${messaging.schema-versions:{:}}}") Map<String, Integer> schemaVersions) {
+        return EventMessageConverter.forFormat(codec, schemaVersions);
+    }
+
     @Bean
     public Queue paymentQueue() {
         return new Queue(Constants.QueueNames.PAYMENT_QUEUE, true);
     }
 
+    // Очереди полос объявляются и здесь: exchange без привязанных шардов отбросил бы уведомления,
+    // отправленные до первого запуска notification-service
     @Bean
-    public Queue notificationQueue() {
-        return new Queue(Constants.QueueNames.NOTIFICATION_QUEUE, true);
+    public Declarables notificationLanesTopology(Environment environment) {
+        return NotificationLaneTopology.fromProperties(environment).declarables();
     }
 
     @Bean
     public Queue integrationQueue() {
         return new Queue(Constants.QueueNames.INTEGRATION_QUEUE, true);
     }
-}
 
+    @Bean
+    public FanoutExchange lessonEventsExchange() {
+        return new FanoutExchange(Constants.ExchangeNames.LESSON_EVENTS, true, false);
+    }
 
+    @Bean
+    public Queue deadLetterQueue() {
+        return RetryTopology.deadLetterQueue();
+    }
 
+    // Сервис слушает только временную очередь напоминаний: её сообщения не повторяются
+    @Bean
+    public MessageRecoverer messageRecoverer(RabbitTemplate rabbitTemplate) {
+        return new TieredRetryRecoverer(rabbitTemplate, List.of(), Set.of());
+    }
 
+    // Каждый экземпляр держит своё колесо напоминаний, поэтому получает все изменения уроков
+    @Bean
+    @ConditionalOnProperty(value = "lesson.reminders.enabled", havingValue = "true", matchIfMissing = true)
+    public Queue lessonRemindersQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("lesson.reminders."));
+    }
 
+    @Bean
+    @ConditionalOnProperty(value = "lesson.reminders.enabled", havingValue = "true", matchIfMissing = true)
+    public Binding lessonRemindersBinding(Queue lessonRemindersQueue, FanoutExchange lessonEventsExchange) {
+        return BindingBuilder.bind(lessonRemindersQueue).to(lessonEventsExchange);
+    }
 
+    // Сброс кэша уроков по изменениям из других экземпляров
+    @Bean
+    @ConditionalOnProperty(value = "lesson.cache.shared-invalidation", havingValue = "true", matchIfMissing = true)
+    public Queue lessonCacheInvalidationQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("lesson.cache."));
+    }
 
+    @Bean
+    @ConditionalOnProperty(value = "lesson.cache.shared-invalidation", havingValue = "true", matchIfMissing = true)
+    public Binding lessonCacheInvalidationBinding(Queue lessonCacheInvalidationQueue, FanoutExchange lessonEventsExchange) {
+        return BindingBuilder.bind(lessonCacheInvalidationQueue).to(lessonEventsExchange);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.tutorplatform.lesson.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
+import java.time.ZoneId;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Часы в поясе платформы. Время урока хранится как местное время без пояса, поэтому «сейчас»
+     * для сравнения с ним и перевод его в момент времени делаются в {@code app.timezone}, а не в
+     * поясе JVM, который на разных узлах может отличаться.
+     */
+    @Bean
+    public Clock clock(@Value("${app.timezone:Europe/Moscow}") ZoneId timezone) {
+        return Clock.system(timezone);
+    }
+}
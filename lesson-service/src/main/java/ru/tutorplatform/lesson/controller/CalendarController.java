@@ -0,0 +1,68 @@
+package ru.tutorplatform.lesson.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.tutorplatform.common.dto.ApiResponse;
+import ru.tutorplatform.lesson.dto.CalendarEventDTO;
+import ru.tutorplatform.lesson.dto.TutorAvailabilityDTO;
+import ru.tutorplatform.lesson.dto.UpdateWorkingHoursRequest;
+import ru.tutorplatform.lesson.dto.WorkingHoursDTO;
+import ru.tutorplatform.lesson.service.AvailabilityService;
+import ru.tutorplatform.lesson.service.CalendarService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/calendar")
+@RequiredArgsConstructor
+@Tag(name = "Календарь", description = "API для расписания репетиторов и поиска свободного времени")
+public class CalendarController {
+
+    private final AvailabilityService availabilityService;
+    private final CalendarService calendarService;
+
+    @GetMapping("/events")
+    @Operation(summary = "Получить уроки пользователя за период [start, end)")
+    public ResponseEntity<ApiResponse<List<CalendarEventDTO>>> getEvents(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestHeader("X-User-Id") Long userId) {
+        return ResponseEntity.ok(ApiResponse.success(calendarService.getEvents(userId, start, end)));
+    }
+
+    @GetMapping("/tutors/{tutorId}/working-hours")
+    @Operation(summary = "Получить рабочее время репетитора")
+    public ResponseEntity<ApiResponse<List<WorkingHoursDTO>>> getWorkingHours(@PathVariable Long tutorId) {
+        return ResponseEntity.ok(ApiResponse.success(availabilityService.getWorkingHours(tutorId)));
+    }
+
+    @PutMapping("/tutors/{tutorId}/working-hours")
+    @Operation(summary = "Заменить рабочее время репетитора")
+    public ResponseEntity<ApiResponse<List<WorkingHoursDTO>>> replaceWorkingHours(
+            @PathVariable Long tutorId,
+            @Valid @RequestBody UpdateWorkingHoursRequest request,
+            @RequestHeader("X-User-Id") Long userId,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        List<WorkingHoursDTO> workingHours = availabilityService.replaceWorkingHours(
+                tutorId, request.getIntervals(), userId, role);
+        return ResponseEntity.ok(ApiResponse.success(workingHours));
+    }
+
+    @GetMapping("/availability")
+    @Operation(summary = "Найти свободное время у нескольких репетиторов")
+    public ResponseEntity<ApiResponse<List<TutorAvailabilityDTO>>> findFreeSlots(
+            @RequestParam List<Long> tutorIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "60") Integer durationMinutes) {
+        List<TutorAvailabilityDTO> availability = availabilityService.findFreeSlots(
+                tutorIds, from, to, durationMinutes);
+        return ResponseEntity.ok(ApiResponse.success(availability));
+    }
+}
@@ -0,0 +1,52 @@
+package ru.tutorplatform.lesson.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.tutorplatform.common.dto.ApiResponse;
+import ru.tutorplatform.lesson.dto.DeadLetterReplayDTO;
+import ru.tutorplatform.lesson.dto.DeadLetterStatusDTO;
+import ru.tutorplatform.lesson.exception.UnauthorizedAccessException;
+import ru.tutorplatform.lesson.service.DeadLetterReplayService;
+
+@RestController
+@RequestMapping("/api/admin/dead-letters")
+@RequiredArgsConstructor
+@Tag(name = "Dead letters", description = "API администратора для сообщений, не обработанных после всех повторов")
+public class DeadLetterController {
+
+    private final DeadLetterReplayService deadLetterReplayService;
+
+    @GetMapping
+    @Operation(summary = "Число сообщений в DLQ и состояние последнего повтора")
+    public ResponseEntity<ApiResponse<DeadLetterStatusDTO>> getStatus(
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        checkAdmin(role);
+        return ResponseEntity.ok(ApiResponse.success(deadLetterReplayService.getStatus()));
+    }
+
+    @PostMapping("/replay")
+    @Operation(summary = "Вернуть сообщения из DLQ в исходные очереди с ограничением скорости")
+    public ResponseEntity<ApiResponse<DeadLetterReplayDTO>> replay(
+            @RequestParam(required = false) String queue,
+            @RequestParam(defaultValue = "1000") int limit,
+            @RequestParam(defaultValue = "50") double rate,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        checkAdmin(role);
+        DeadLetterReplayDTO replay = deadLetterReplayService.startReplay(queue, limit, rate);
+        if (replay == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("Повтор сообщений уже выполняется", "REPLAY_IN_PROGRESS"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(replay));
+    }
+
+    private void checkAdmin(String role) {
+        if (!"ADMIN".equalsIgnoreCase(role)) {
+            throw new UnauthorizedAccessException("Доступно только администратору");
+        }
+    }
+}
@@ -9,10 +9,15 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.tutorplatform.common.dto.ApiResponse;
+import ru.tutorplatform.lesson.dto.BulkLessonRequest;
+import ru.tutorplatform.lesson.dto.BulkLessonResultDTO;
 import ru.tutorplatform.lesson.dto.CreateLessonRequest;
 import ru.tutorplatform.lesson.dto.LessonDTO;
+import ru.tutorplatform.lesson.dto.LessonSummaryDTO;
 import ru.tutorplatform.lesson.dto.UpdateLessonRequest;
+import ru.tutorplatform.lesson.service.LessonBulkService;
 import ru.tutorplatform.lesson.service.LessonService;
+import ru.tutorplatform.lesson.service.LessonSummaryService;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -24,6 +29,8 @@ import java.util.List;
 public class LessonController {
 
     private final LessonService lessonService;
+    private final LessonSummaryService lessonSummaryService;
+    private final LessonBulkService lessonBulkService;
 
     @PostMapping
     @Operation(summary = "Создать новый урок")
@@ -36,6 +43,14 @@ public class LessonController {
         return ResponseEntity.ok(ApiResponse.success(lesson));
     }
 
+    @GetMapping("/summary")
+    @Operation(summary = "Сводка уроков пользователя для главной страницы")
+    public ResponseEntity<ApiResponse<LessonSummaryDTO>> getSummary(
+            @RequestHeader("X-User-Id") Long userId) {
+        LessonSummaryDTO summary = lessonSummaryService.getSummary(userId);
+        return ResponseEntity.ok(ApiResponse.success(summary));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Получить урок по ID")
     public ResponseEntity<ApiResponse<LessonDTO>> getLesson(
@@ -71,6 +86,15 @@ public class LessonController {
         return ResponseEntity.ok(ApiResponse.success(lesson));
     }
 
+    @PostMapping("/{id}/start")
+    @Operation(summary = "Начать урок")
+    public ResponseEntity<ApiResponse<LessonDTO>> startLesson(
+            @PathVariable Long id,
+            @RequestHeader("X-User-Id") Long userId) {
+        LessonDTO lesson = lessonService.startLesson(id, userId);
+        return ResponseEntity.ok(ApiResponse.success(lesson));
+    }
+
     @PostMapping("/{id}/complete")
     @Operation(summary = "Завершить урок")
     public ResponseEntity<ApiResponse<LessonDTO>> completeLesson(
@@ -90,6 +114,24 @@ public class LessonController {
         return ResponseEntity.ok(ApiResponse.success(lesson));
     }
 
+    @PostMapping("/bulk/cancel")
+    @Operation(summary = "Отменить уроки по списку id или по репетитору и периоду")
+    public ResponseEntity<ApiResponse<BulkLessonResultDTO>> cancelLessons(
+            @Valid @RequestBody BulkLessonRequest request,
+            @RequestHeader("X-User-Id") Long userId) {
+        BulkLessonResultDTO result = lessonBulkService.cancelLessons(request, userId);
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+
+    @PostMapping("/bulk/reschedule")
+    @Operation(summary = "Перенести уроки по списку id или по репетитору и периоду на shiftMinutes")
+    public ResponseEntity<ApiResponse<BulkLessonResultDTO>> rescheduleLessons(
+            @Valid @RequestBody BulkLessonRequest request,
+            @RequestHeader("X-User-Id") Long userId) {
+        BulkLessonResultDTO result = lessonBulkService.rescheduleLessons(request, userId);
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+
     @GetMapping("/{id}/join-url")
     @Operation(summary = "Получить ссылку для подключения к уроку")
     public ResponseEntity<ApiResponse<String>> getJoinUrl(
@@ -0,0 +1,30 @@
+package ru.tutorplatform.lesson.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Групповая операция над уроками: либо список id, либо фильтр — репетитор и период [from, to).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkLessonRequest {
+
+    @Size(max = 500)
+    private List<Long> lessonIds;
+
+    private Long tutorId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    private String reason;         // отмена
+    private Integer shiftMinutes;  // перенос: сдвиг времени уроков, может быть отрицательным
+}
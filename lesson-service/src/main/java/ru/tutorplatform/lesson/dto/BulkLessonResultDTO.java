@@ -0,0 +1,36 @@
+package ru.tutorplatform.lesson.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkLessonResultDTO {
+
+    public static final String UPDATED = "UPDATED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String FORBIDDEN = "FORBIDDEN";
+    public static final String INVALID_STATE = "INVALID_STATE";
+    public static final String INVALID_TIME = "INVALID_TIME";
+
+    private int updated;
+    private List<Item> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long lessonId;
+        private String result;
+        private String status;               // статус урока после операции
+        private LocalDateTime scheduledTime;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.tutorplatform.lesson.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarEventDTO {
+    private Long id;
+    private Long studentId;
+    private Long tutorId;
+    private Long subjectId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Integer durationMinutes;
+    private String status;
+
+    // Используется JPQL-проекцией в LessonRepository
+    public CalendarEventDTO(Long id,
+                            Long studentId,
+                            Long tutorId,
+                            Long subjectId,
+                            LocalDateTime start,
+                            Integer durationMinutes,
+                            String status) {
+        this(id, studentId, tutorId, subjectId, start,
+                start != null && durationMinutes != null ? start.plusMinutes(durationMinutes) : null,
+                durationMinutes, status);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.tutorplatform.lesson.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterReplayDTO {
+    private String queue;          // Только сообщения из этой очереди; null — все
+    private Integer limit;
+    private Double ratePerSecond;
+    private Integer replayed;      // Возвращены в исходные очереди
+    private Integer skipped;       // Не подошли под фильтр или без исходной очереди, оставлены в DLQ
+    private Boolean running;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,15 @@
+package ru.tutorplatform.lesson.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterStatusDTO {
+    private Long waiting;                   // Сообщений в dead.letter.queue
+    private DeadLetterReplayDTO lastReplay; // Текущий или последний повтор
+}
@@ -28,4 +28,33 @@ public class LessonDTO {
     private String subjectName;      // Название предмета
     private String tutorName;        // Имя репетитора
     private String studentName;      // Имя студента
+
+    /**
+     * Поля урока без имён участников: для маппера и конструкторных проекций в запросах.
+     */
+    public LessonDTO(Long id,
+                     Long studentId,
+                     Long tutorId,
+                     Long subjectId,
+                     LocalDateTime scheduledTime,
+                     Integer durationMinutes,
+                     BigDecimal price,
+                     String status,
+                     String meetingUrl,
+                     LocalDateTime createdAt,
+                     LocalDateTime updatedAt,
+                     LocalDateTime completedAt) {
+        this.id = id;
+        this.studentId = studentId;
+        this.tutorId = tutorId;
+        this.subjectId = subjectId;
+        this.scheduledTime = scheduledTime;
+        this.durationMinutes = durationMinutes;
+        this.price = price;
+        this.status = status;
+        this.meetingUrl = meetingUrl;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.completedAt = completedAt;
+    }
 }
@@ -0,0 +1,22 @@
+package ru.tutorplatform.lesson.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonSummaryDTO {
+    private Long userId;
+    private long upcomingCount;
+    private Long nextLessonId;
+    private LocalDateTime nextLessonTime;
+    private long completedThisMonth;
+    private BigDecimal earningsThisMonth; // для ученика — стоимость завершённых уроков
+}
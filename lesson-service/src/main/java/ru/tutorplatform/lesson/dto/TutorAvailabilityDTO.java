@@ -0,0 +1,17 @@
+package ru.tutorplatform.lesson.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TutorAvailabilityDTO {
+    private Long tutorId;
+    private List<TimeSlotDTO> freeSlots;   // Свободные окна, в которые помещается урок
+}
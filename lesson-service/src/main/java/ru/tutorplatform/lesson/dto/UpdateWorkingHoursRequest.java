@@ -0,0 +1,17 @@
+package ru.tutorplatform.lesson.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class UpdateWorkingHoursRequest {
+
+    @NotNull
+    @Valid
+    private List<WorkingHoursDTO> intervals;
+}
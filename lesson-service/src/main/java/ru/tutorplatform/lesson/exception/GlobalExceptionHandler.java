@@ -1,7 +1,10 @@
 package ru.tutorplatform.lesson.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -46,6 +49,26 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage(), "NOT_FOUND"));
     }
 
+    @ExceptionHandler(InvalidLessonStateException.class)
+    public ResponseEntity<ApiResponse<String>> handleInvalidLessonStateException(InvalidLessonStateException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(ex.getMessage(), "INVALID_STATE"));
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<String>> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("Урок был изменён параллельно, повторите запрос", "CONCURRENT_MODIFICATION"));
+    }
+
+    // Пул соединений исчерпан: с виртуальными потоками запросов может быть больше, чем соединений
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ApiResponse<String>> handleCannotCreateTransaction(CannotCreateTransactionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error("Сервис перегружен, повторите запрос позже", "DATABASE_BUSY"));
+    }
+
     @ExceptionHandler(UnauthorizedAccessException.class)
     public ResponseEntity<ApiResponse<String>> handleUnauthorizedAccessException(UnauthorizedAccessException ex) {
         return ResponseEntity.status(HttpStatus.FORBIDDEN)
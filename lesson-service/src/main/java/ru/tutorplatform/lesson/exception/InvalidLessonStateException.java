@@ -0,0 +1,7 @@
+package ru.tutorplatform.lesson.exception;
+
+public class InvalidLessonStateException extends RuntimeException {
+    public InvalidLessonStateException(Long lessonId, String currentStatus, String targetStatus) {
+        super("Урок %d нельзя перевести из статуса %s в %s".formatted(lessonId, currentStatus, targetStatus));
+    }
+}
@@ -0,0 +1,24 @@
+package ru.tutorplatform.lesson.listener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.tutorplatform.common.event.LessonChangedEvent;
+import ru.tutorplatform.lesson.cache.LessonCache;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "lesson.cache.shared-invalidation", havingValue = "true", matchIfMissing = true)
+public class LessonCacheInvalidationListener {
+
+    private final LessonCache lessonCache;
+
+    @RabbitListener(queues = "#{lessonCacheInvalidationQueue.name}")
+    public void handleLessonChanged(LessonChangedEvent event) {
+        log.debug("Сброс кэша урока {}: {}", event.getLessonId(), event.getChangeType());
+        lessonCache.evictChanged(event.getLessonId(), event.getEventTime());
+    }
+}
@@ -0,0 +1,29 @@
+package ru.tutorplatform.lesson.listener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.common.event.LessonChangedEvent;
+import ru.tutorplatform.lesson.scheduler.LessonReminderScheduler;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "lesson.reminders.enabled", havingValue = "true", matchIfMissing = true)
+public class LessonReminderListener {
+
+    private final LessonReminderScheduler lessonReminderScheduler;
+
+    @RabbitListener(queues = "#{lessonRemindersQueue.name}")
+    public void handleLessonChanged(LessonChangedEvent event) {
+        log.debug("Изменение урока для напоминаний: {}", event);
+        if (Constants.LessonStatus.SCHEDULED.equals(event.getStatus())) {
+            lessonReminderScheduler.schedule(event.getLessonId(), event.getScheduledTime());
+        } else {
+            lessonReminderScheduler.cancel(event.getLessonId());
+        }
+    }
+}
@@ -4,8 +4,8 @@ import org.springframework.stereotype.Component;
 import ru.tutorplatform.lesson.dto.LessonDTO;
 import ru.tutorplatform.lesson.model.Lesson;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 @Component
 public class LessonMapper {
@@ -15,27 +15,31 @@ public class LessonMapper {
             return null;
         }
 
-        return LessonDTO.builder()
-                .id(lesson.getId())
-                .studentId(lesson.getStudentId())
-                .tutorId(lesson.getTutorId())
-                .subjectId(lesson.getSubjectId())
-                .scheduledTime(lesson.getScheduledTime())
-                .durationMinutes(lesson.getDurationMinutes())
-                .price(lesson.getPrice())
-                .status(lesson.getStatus())
-                .meetingUrl(lesson.getMeetingUrl())
-                .createdAt(lesson.getCreatedAt())
-                .updatedAt(lesson.getUpdatedAt())
-                .completedAt(lesson.getCompletedAt())
-                .build();
+        // Конструктор вместо builder: без промежуточного объекта на каждый урок списка
+        return new LessonDTO(
+                lesson.getId(),
+                lesson.getStudentId(),
+                lesson.getTutorId(),
+                lesson.getSubjectId(),
+                lesson.getScheduledTime(),
+                lesson.getDurationMinutes(),
+                lesson.getPrice(),
+                lesson.getStatus(),
+                lesson.getMeetingUrl(),
+                lesson.getCreatedAt(),
+                lesson.getUpdatedAt(),
+                lesson.getCompletedAt()
+        );
     }
 
     public List<LessonDTO> toDTOs(List<Lesson> lessons) {
-        return lessons.stream()
-                .filter(Objects::nonNull)
-                .map(this::toDTO)
-                .toList();
+        List<LessonDTO> dtos = new ArrayList<>(lessons.size());
+        for (Lesson lesson : lessons) {
+            if (lesson != null) {
+                dtos.add(toDTO(lesson));
+            }
+        }
+        return dtos;
     }
 }
 
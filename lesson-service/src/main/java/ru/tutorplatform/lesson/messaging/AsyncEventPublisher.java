@@ -0,0 +1,475 @@
+package ru.tutorplatform.lesson.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.tutorplatform.common.messaging.TracedBatchingStrategy;
+import ru.tutorplatform.common.tracing.TraceContext;
+import ru.tutorplatform.common.tracing.TraceContextHolder;
+import ru.tutorplatform.lesson.model.OutboxMessage;
+import ru.tutorplatform.lesson.repository.OutboxMessageRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Отправка событий в RabbitMQ через таблицу исходящих событий {@code lesson_outbox}.
+ * <p>
+ * {@link #publish} сохраняет готовое сообщение в текущей транзакции и передаёт его на отправку
+ * только после коммита: откаченное изменение урока не порождает события, а закоммиченное не
+ * теряется при падении процесса. Строка удаляется, когда брокер подтвердил сообщение.
+ * <p>
+ * Отправляет отдельный поток: забирает события из ограниченной очереди пачками, упаковывает
+ * сообщения в один адрес (exchange + routing key) в одно сообщение формата Spring AMQP batch —
+ * контейнеры слушателей распаковывают его сами — и публикует с correlated confirm. Nack
+ * повторяется в памяти до {@code max-attempts} раз, после этого, как и возврат (некуда доставить),
+ * строка откладывается в таблице на {@code outbox.retry-delay}.
+ * <p>
+ * Поток, закоммитивший изменение, ждёт места в очереди не дольше {@code enqueue-timeout}; если
+ * места так и нет, событие остаётся в таблице. Строки, до которых не дошла очередь, и строки
+ * упавшего экземпляра ({@code next_attempt_at} — срок аренды, {@code outbox.lease}) раз в
+ * {@code outbox.relay-interval} забирает {@link #relay()}. Доставка — «хотя бы один раз»:
+ * payment-service отсекает повторы по {@code eventId} в своей базе, notification-service — только
+ * среди недавних событий экземпляра, так что уведомление изредка может прийти дважды.
+ * <p>
+ * Контекст трассы запоминается при публикации (и в строке таблицы) и восстанавливается на время
+ * отправки. Каждое событие пачки несёт свой {@code traceparent}: {@link TracedBatchingStrategy}
+ * передаёт его в пачке, и получатель обрабатывает событие в его трассе. Спан отправки пачки
+ * один, он продолжает трассу первого события.
+ */
+@Component
+@Slf4j
+public class AsyncEventPublisher implements SmartLifecycle {
+
+    private static final ObjectMapper HEADERS_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> HEADERS_TYPE = new TypeReference<>() {
+    };
+
+    private final RabbitTemplate rabbitTemplate;
+    private final MessageConverter messageConverter;
+    private final OutboxMessageRepository outbox;
+    private final Clock clock;
+    private final BlockingQueue<PendingEvent> queue;
+    private final ScheduledExecutorService retryExecutor = Executors.newSingleThreadScheduledExecutor(
+            runnable -> daemon(runnable, "lesson-event-publisher-retry"));
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final int batchSize;
+    private final int batchBytes;
+    private final Duration linger;
+    private final Duration enqueueTimeout;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration lease;
+    private final Duration outboxRetryDelay;
+    private final Duration shutdownTimeout;
+
+    private final Timer confirmLatency;
+    private final Counter deferred;
+    private final Counter nacked;
+    private final Counter returned;
+    private final Counter postponed;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AsyncEventPublisher(RabbitTemplate rabbitTemplate,
+                               OutboxMessageRepository outbox,
+                               Clock clock,
+                               MeterRegistry meterRegistry,
+                               @Value("${lesson.publisher.queue-capacity:10000}") int queueCapacity,
+                               @Value("${lesson.publisher.batch-size:32}") int batchSize,
+                               @Value("${lesson.publisher.batch-bytes:65536}") int batchBytes,
+                               @Value("${lesson.publisher.linger:PT0.005S}") Duration linger,
+                               @Value("${lesson.publisher.enqueue-timeout:PT0.1S}") Duration enqueueTimeout,
+                               @Value("${lesson.publisher.max-attempts:5}") int maxAttempts,
+                               @Value("${lesson.publisher.retry-delay:PT1S}") Duration retryDelay,
+                               @Value("${lesson.publisher.outbox.lease:PT1M}") Duration lease,
+                               @Value("${lesson.publisher.outbox.retry-delay:PT1M}") Duration outboxRetryDelay,
+                               @Value("${lesson.publisher.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.messageConverter = rabbitTemplate.getMessageConverter();
+        this.outbox = outbox;
+        this.clock = clock;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.batchBytes = batchBytes;
+        this.linger = linger;
+        this.enqueueTimeout = enqueueTimeout;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.lease = lease;
+        this.outboxRetryDelay = outboxRetryDelay;
+        this.shutdownTimeout = shutdownTimeout;
+
+        Gauge.builder("lesson.events.publish.queued", queue, BlockingQueue::size)
+                .description("События, ожидающие отправки")
+                .register(meterRegistry);
+        Gauge.builder("lesson.events.publish.in-flight", inFlight, AtomicInteger::get)
+                .description("Отправленные события без подтверждения брокера")
+                .register(meterRegistry);
+        this.confirmLatency = Timer.builder("lesson.events.publish.confirm-latency")
+                .description("Время от публикации до подтверждения брокера")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.deferred = failures(meterRegistry, "queue-full");
+        this.nacked = failures(meterRegistry, "nack");
+        this.returned = failures(meterRegistry, "returned");
+        this.postponed = failures(meterRegistry, "postponed");
+    }
+
+    /**
+     * Сохраняет событие в текущей транзакции; без транзакции — сразу. Ошибка преобразования или
+     * записи выбрасывается вызывающему и откатывает его транзакцию.
+     */
+    public void publish(String exchange, String routingKey, Object event) {
+        Message message = messageConverter.toMessage(event, new MessageProperties());
+        TraceContext trace = TraceContextHolder.current();
+        LocalDateTime now = LocalDateTime.now(clock);
+        OutboxMessage stored = outbox.save(OutboxMessage.builder()
+                .exchange(exchange)
+                .routingKey(routingKey)
+                .contentType(message.getMessageProperties().getContentType())
+                .headers(writeHeaders(message.getMessageProperties().getHeaders()))
+                .body(message.getBody())
+                .traceparent(trace != null ? trace.traceparent() : null)
+                // Пока поток отправки не запущен, строку сразу может забрать relay
+                .nextAttemptAt(running ? now.plus(lease) : now)
+                .createdAt(now)
+                .build());
+
+        PendingEvent pending = new PendingEvent(stored.getId(), new Destination(exchange, routingKey), message, 1, trace);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(pending);
+                }
+            });
+        } else {
+            enqueue(pending);
+        }
+    }
+
+    /**
+     * Забирает из таблицы события, которые не попали в очередь или не были подтверждены: свои
+     * отложенные и строки упавших экземпляров. Берёт не больше, чем помещается в очередь.
+     */
+    @Scheduled(fixedDelayString = "${lesson.publisher.outbox.relay-interval:PT5S}",
+            initialDelayString = "${lesson.publisher.outbox.relay-interval:PT5S}")
+    public void relay() {
+        if (!running) {
+            return;
+        }
+        try {
+            int capacity = queue.remainingCapacity();
+            if (capacity == 0) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now(clock);
+            List<OutboxMessage> due = outbox.claimDue(now, now.plus(lease), Math.min(capacity, batchSize * 16));
+            for (OutboxMessage row : due) {
+                // Не поместившиеся строки отправятся после истечения аренды
+                if (!queue.offer(toPending(row))) {
+                    break;
+                }
+            }
+            if (!due.isEmpty()) {
+                log.info("Из outbox поставлено в отправку событий: {}", due.size());
+            }
+        } catch (Exception e) {
+            log.error("Ошибка чтения outbox", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = daemon(this::run, "lesson-event-publisher");
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            worker.join(shutdownTimeout.toMillis());
+            long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+            while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        retryExecutor.shutdown();
+        if (!queue.isEmpty() || inFlight.get() > 0) {
+            log.warn("Остановка: не отправлено {} событий, без подтверждения {}; они останутся в outbox",
+                    queue.size(), inFlight.get());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Запускается раньше и останавливается позже контейнеров слушателей, которые тоже публикуют события
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 1000;
+    }
+
+    /**
+     * Очередь полна — вызывающий поток ждёт, пока поток отправки её разгрузит. Не дождался —
+     * событие отправит {@link #relay()} после истечения аренды.
+     */
+    private void enqueue(PendingEvent pending) {
+        if (!running) {
+            return;
+        }
+        try {
+            if (!queue.offer(pending, enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                deferred.increment();
+                log.warn("Очередь отправки событий переполнена, событие {} отправится из outbox", pending.id());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<PendingEvent> drained = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                drained.add(first);
+                queue.drainTo(drained, batchSize - 1);
+                if (drained.size() < batchSize && !linger.isZero()) {
+                    // Короткая пауза собирает пачку, пока события идут потоком
+                    Thread.sleep(linger.toMillis(), (int) (linger.toNanos() % 1_000_000));
+                    queue.drainTo(drained, batchSize - drained.size());
+                }
+                dispatch(drained);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Ошибка отправки пачки из {} событий", drained.size(), e);
+                drained.forEach(this::retry);
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+
+    /**
+     * Пачка получает свойства первого сообщения, поэтому вместе собираются только события с одним
+     * адресом, типом содержимого и заголовками формата ({@code event-type}, {@code event-version}):
+     * после смены кодека или версии схемы строки outbox старого формата уходят отдельными пачками.
+     */
+    private void dispatch(List<PendingEvent> events) {
+        Map<BatchKey, List<PendingEvent>> byKey = new LinkedHashMap<>();
+        for (PendingEvent event : events) {
+            MessageProperties properties = event.message().getMessageProperties();
+            BatchKey key = new BatchKey(event.destination(), properties.getContentType(), properties.getHeaders());
+            byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(event);
+        }
+
+        byKey.forEach((key, pending) -> {
+            Destination destination = key.destination();
+            List<PendingEvent> batch = new ArrayList<>();
+            int bytes = 0;
+            for (PendingEvent event : pending) {
+                int size = event.message().getBody().length;
+                if (!batch.isEmpty() && bytes + size > batchBytes) {
+                    publish(destination, batch);
+                    batch = new ArrayList<>();
+                    bytes = 0;
+                }
+                batch.add(event);
+                bytes += size;
+            }
+            if (!batch.isEmpty()) {
+                publish(destination, batch);
+            }
+        });
+    }
+
+    /**
+     * Собирает сообщения в одно сообщение формата Spring AMQP batch; одно сообщение уходит как есть.
+     */
+    private void publish(Destination destination, List<PendingEvent> events) {
+        TracedBatchingStrategy batching = new TracedBatchingStrategy();
+        events.forEach(event -> batching.addToBatch(destination.exchange(), destination.routingKey(), traced(event)));
+        batching.releaseBatches().forEach(batch -> send(destination, batch.getMessage(), events));
+    }
+
+    // Копия: сохранённое сообщение повторно используется при повторах
+    private static Message traced(PendingEvent event) {
+        if (event.trace() == null) {
+            return event.message();
+        }
+        return MessageBuilder.fromMessage(event.message())
+                .setHeader(TraceContext.TRACEPARENT, event.trace().traceparent())
+                .build();
+    }
+
+    private void send(Destination destination, Message message, List<PendingEvent> events) {
+        CorrelationData correlation = new CorrelationData();
+        long sentAt = System.nanoTime();
+        inFlight.addAndGet(events.size());
+        try (TraceContextHolder.Restored ignored = TraceContextHolder.restore(events.get(0).trace())) {
+            rabbitTemplate.send(destination.exchange(), destination.routingKey(), message, correlation);
+        } catch (RuntimeException e) {
+            inFlight.addAndGet(-events.size());
+            log.warn("Не удалось отправить {} событий в {}: {}", events.size(), destination, e.getMessage());
+            events.forEach(this::retry);
+            return;
+        }
+
+        correlation.getFuture().whenComplete((confirm, error) -> {
+            inFlight.addAndGet(-events.size());
+            confirmLatency.record(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS);
+            if (correlation.getReturned() != null) {
+                returned.increment(events.size());
+                log.error("Брокер вернул {} событий: нет очереди для {}", events.size(), destination);
+                postpone(events);
+            } else if (error != null || !confirm.isAck()) {
+                nacked.increment(events.size());
+                log.warn("Брокер не подтвердил {} событий: {}", events.size(),
+                        error != null ? error.getMessage() : confirm.getReason());
+                events.forEach(this::retry);
+            } else {
+                // Подтверждения приходят в поток соединения — запрос к базе выносим из него
+                List<Long> ids = events.stream().map(PendingEvent::id).toList();
+                retryExecutor.execute(() -> delete(ids));
+            }
+        });
+    }
+
+    private void retry(PendingEvent event) {
+        if (event.attempt() >= maxAttempts) {
+            postpone(List.of(event));
+            return;
+        }
+        PendingEvent next = new PendingEvent(event.id(), event.destination(), event.message(),
+                event.attempt() + 1, event.trace());
+        retryExecutor.schedule(() -> {
+            if (!queue.offer(next)) {
+                deferred.increment();
+                log.warn("Очередь отправки событий переполнена, повтор события {} отправится из outbox", next.id());
+            }
+        }, retryDelay.toMillis() * event.attempt(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Откладывает события в таблице: их снова заберёт {@link #relay()}, этот или другой экземпляр.
+     * Если и это не удалось, строки отправятся после истечения аренды.
+     */
+    private void postpone(List<PendingEvent> events) {
+        postponed.increment(events.size());
+        List<Long> ids = events.stream().map(PendingEvent::id).toList();
+        retryExecutor.execute(() -> {
+            try {
+                outbox.postpone(ids, LocalDateTime.now(clock).plus(outboxRetryDelay));
+                log.warn("{} событий не доставлено, повтор из outbox через {}", ids.size(), outboxRetryDelay);
+            } catch (Exception e) {
+                log.error("Не удалось отложить события {} в outbox", ids, e);
+            }
+        });
+    }
+
+    private void delete(List<Long> ids) {
+        try {
+            outbox.deleteByIds(ids);
+        } catch (Exception e) {
+            // Строки отправятся ещё раз после истечения аренды; повтор отсекут получатели
+            log.error("Не удалось удалить подтверждённые события {} из outbox", ids, e);
+        }
+    }
+
+    private PendingEvent toPending(OutboxMessage row) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(row.getContentType());
+        readHeaders(row.getHeaders()).forEach(properties::setHeader);
+        TraceContext trace = row.getTraceparent() != null ? TraceContext.parse(row.getTraceparent()).orElse(null) : null;
+        return new PendingEvent(row.getId(), new Destination(row.getExchange(), row.getRoutingKey()),
+                new Message(row.getBody(), properties), 1, trace);
+    }
+
+    private static String writeHeaders(Map<String, Object> headers) {
+        try {
+            return HEADERS_MAPPER.writeValueAsString(headers);
+        } catch (JsonProcessingException e) {
+            throw new MessageConversionException("Не удалось записать заголовки сообщения", e);
+        }
+    }
+
+    private static Map<String, Object> readHeaders(String headers) {
+        if (headers == null) {
+            return Map.of();
+        }
+        try {
+            return HEADERS_MAPPER.readValue(headers, HEADERS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new MessageConversionException("Не удалось прочитать заголовки сообщения", e);
+        }
+    }
+
+    private static Counter failures(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("lesson.events.publish.failures")
+                .description("Ошибки отправки событий по причинам")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private record Destination(String exchange, String routingKey) {
+    }
+
+    private record BatchKey(Destination destination, String contentType, Map<String, Object> headers) {
+    }
+
+    private record PendingEvent(Long id, Destination destination, Message message, int attempt, TraceContext trace) {
+    }
+}
@@ -0,0 +1,53 @@
+package ru.tutorplatform.lesson.messaging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.tutorplatform.common.messaging.NotificationLane;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Выбор полосы уведомления по шаблону. Любое уведомление об уроке, который начнётся в
+ * пределах {@code lesson.notifications.urgent-window}, срочное: перенос урока через полчаса
+ * важнее очередного письма о создании урока на следующей неделе.
+ */
+@Component
+public class NotificationLaneRouter {
+
+    private static final Map<String, NotificationLane> TEMPLATE_LANES = Map.of(
+            "LESSON_CANCELLED", NotificationLane.URGENT,
+            "LESSON_STARTED", NotificationLane.URGENT,
+            "LESSON_REMINDER_15M", NotificationLane.URGENT,
+            "LESSON_CREATED", NotificationLane.NORMAL,
+            "LESSON_COMPLETED", NotificationLane.NORMAL,
+            "LESSON_REMINDER_24H", NotificationLane.NORMAL,
+            "LESSON_UPDATED", NotificationLane.BULK
+    );
+
+    private final Duration urgentWindow;
+    private final Clock clock;
+
+    public NotificationLaneRouter(@Value("${lesson.notifications.urgent-window:PT2H}") Duration urgentWindow, Clock clock) {
+        this.urgentWindow = urgentWindow;
+        this.clock = clock;
+    }
+
+    public NotificationLane route(String templateId, LocalDateTime scheduledTime) {
+        NotificationLane lane = TEMPLATE_LANES.getOrDefault(templateId, NotificationLane.NORMAL);
+        if (lane != NotificationLane.URGENT && startsSoon(scheduledTime)) {
+            return NotificationLane.URGENT;
+        }
+        return lane;
+    }
+
+    private boolean startsSoon(LocalDateTime scheduledTime) {
+        if (scheduledTime == null) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        return scheduledTime.isAfter(now) && scheduledTime.isBefore(now.plus(urgentWindow));
+    }
+}
@@ -1,26 +1,95 @@
 package ru.tutorplatform.lesson.model;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.ColumnResult;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityResult;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.NamedNativeQuery;
+import jakarta.persistence.SqlResultSetMapping;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "lessons")
+@Table(name = "lessons", indexes = {
+        @Index(name = "idx_lessons_scheduled_time", columnList = "scheduled_time"),
+        @Index(name = "idx_lessons_student_scheduled_time", columnList = "student_id, scheduled_time"),
+        @Index(name = "idx_lessons_tutor_scheduled_time", columnList = "tutor_id, scheduled_time")
+})
+// Переходы статуса одним UPDATE ... RETURNING вместе с прежним статусом урока: исходная строка
+// блокируется подзапросом, её статус возвращается рядом с изменённой строкой. См. LessonRepository
+@SqlResultSetMapping(name = Lesson.TRANSITIONED_MAPPING,
+        entities = @EntityResult(entityClass = Lesson.class),
+        columns = @ColumnResult(name = "previous_status", type = String.class))
+@NamedNativeQuery(name = "Lesson.transitionRows", resultSetMapping = Lesson.TRANSITIONED_MAPPING, query = """
+        UPDATE lessons l
+        SET status = :targetStatus,
+            updated_at = :now,
+            completed_at = CASE WHEN :targetStatus = 'COMPLETED' THEN :now ELSE l.completed_at END,
+            version = l.version + 1
+        FROM (SELECT id, scheduled_time, status
+              FROM lessons
+              WHERE id = :id
+                AND status IN (:sourceStatuses)
+                AND (student_id = :userId OR tutor_id = :userId)
+              FOR UPDATE) previous
+        WHERE l.id = previous.id
+          AND l.scheduled_time = previous.scheduled_time
+        RETURNING l.*, previous.status AS previous_status
+        """)
+@NamedNativeQuery(name = "Lesson.cancelByIdsRows", resultSetMapping = Lesson.TRANSITIONED_MAPPING, query = """
+        UPDATE lessons l
+        SET status = 'CANCELLED',
+            updated_at = :now,
+            version = l.version + 1
+        FROM (SELECT id, scheduled_time, status
+              FROM lessons
+              WHERE id IN (:ids)
+                AND status IN (:sourceStatuses)
+                AND (student_id = :userId OR tutor_id = :userId)
+              ORDER BY id
+              FOR UPDATE) previous
+        WHERE l.id = previous.id
+          AND l.scheduled_time = previous.scheduled_time
+        RETURNING l.*, previous.status AS previous_status
+        """)
+@NamedNativeQuery(name = "Lesson.cancelInRangeRows", resultSetMapping = Lesson.TRANSITIONED_MAPPING, query = """
+        UPDATE lessons l
+        SET status = 'CANCELLED',
+            updated_at = :now,
+            version = l.version + 1
+        FROM (SELECT id, scheduled_time, status
+              FROM lessons
+              WHERE tutor_id = :tutorId
+                AND scheduled_time >= :from
+                AND scheduled_time < :to
+                AND status IN (:sourceStatuses)
+                AND (student_id = :userId OR tutor_id = :userId)
+              ORDER BY id
+              FOR UPDATE) previous
+        WHERE l.id = previous.id
+          AND l.scheduled_time = previous.scheduled_time
+        RETURNING l.*, previous.status AS previous_status
+        """)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Lesson {
 
+    public static final String TRANSITIONED_MAPPING = "TransitionedLesson";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -36,6 +105,24 @@ public class Lesson {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime completedAt;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Битовая маска отправленных напоминаний (ReminderKind). Меняется только условными UPDATE,
+    // поэтому сохранение сущности её не перезаписывает
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private Integer remindersSent = 0;
+
+    // Урок начат планировщиком, а не участником; см. LessonLifecycleService. Меняется только условными UPDATE
+    @Builder.Default
+    @ColumnDefault("false")
+    @Column(nullable = false, updatable = false)
+    private Boolean autoStarted = false;
 }
 
 
@@ -0,0 +1,39 @@
+package ru.tutorplatform.lesson.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Сводка уроков пользователя для главной страницы. Обновляется в транзакции изменения урока,
+ * поэтому чтение сводки — одна строка по первичному ключу.
+ */
+@Entity
+@Table(name = "lesson_summaries")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonSummary {
+
+    @Id
+    private Long userId;
+
+    private Long upcomingCount;      // уроки в статусе SCHEDULED
+    private Long nextLessonId;       // ближайший запланированный урок
+    private LocalDateTime nextLessonTime;
+
+    private LocalDate completedMonth; // первое число месяца, к которому относятся счётчики ниже
+    private Long completedCount;
+    private BigDecimal completedAmount;
+
+    private LocalDateTime updatedAt;
+}
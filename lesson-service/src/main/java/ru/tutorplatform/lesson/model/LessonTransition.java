@@ -0,0 +1,44 @@
+package ru.tutorplatform.lesson.model;
+
+import ru.tutorplatform.common.constants.Constants;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Допустимые переходы между статусами урока.
+ */
+public enum LessonTransition {
+
+    START(Constants.LessonStatus.IN_PROGRESS, Set.of(Constants.LessonStatus.SCHEDULED)),
+    COMPLETE(Constants.LessonStatus.COMPLETED, Set.of(Constants.LessonStatus.IN_PROGRESS)),
+    CANCEL(Constants.LessonStatus.CANCELLED,
+            Set.of(Constants.LessonStatus.SCHEDULED, Constants.LessonStatus.IN_PROGRESS));
+
+    private final String targetStatus;
+    private final Set<String> sourceStatuses;
+
+    LessonTransition(String targetStatus, Set<String> sourceStatuses) {
+        this.targetStatus = targetStatus;
+        this.sourceStatuses = sourceStatuses;
+    }
+
+    public String getTargetStatus() {
+        return targetStatus;
+    }
+
+    public Set<String> getSourceStatuses() {
+        return sourceStatuses;
+    }
+
+    public boolean isAllowedFrom(String status) {
+        return sourceStatuses.contains(status);
+    }
+
+    public static Optional<LessonTransition> toStatus(String targetStatus) {
+        return Arrays.stream(values())
+                .filter(transition -> transition.targetStatus.equals(targetStatus))
+                .findFirst();
+    }
+}
@@ -0,0 +1,57 @@
+package ru.tutorplatform.lesson.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие, ещё не подтверждённое брокером: готовое сообщение и адрес, по которому его отправить.
+ */
+@Entity
+@Table(name = "lesson_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String exchange;
+
+    @Column(nullable = false)
+    private String routingKey;
+
+    private String contentType;
+
+    @Column(columnDefinition = "text")
+    private String headers;     // заголовки сообщения в JSON: тип и версия схемы события
+
+    @Column(nullable = false)
+    private byte[] body;
+
+    @Column(length = 55)
+    private String traceparent; // трасса, в которой событие создано
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,34 @@
+package ru.tutorplatform.lesson.model;
+
+import java.time.Duration;
+
+/**
+ * Напоминания перед уроком. {@code bit} — флаг в {@link Lesson#getRemindersSent()}.
+ */
+public enum ReminderKind {
+
+    DAY_BEFORE(Duration.ofHours(24), 1, "LESSON_REMINDER_24H"),
+    SOON(Duration.ofMinutes(15), 2, "LESSON_REMINDER_15M");
+
+    private final Duration beforeLesson;
+    private final int bit;
+    private final String templateId;
+
+    ReminderKind(Duration beforeLesson, int bit, String templateId) {
+        this.beforeLesson = beforeLesson;
+        this.bit = bit;
+        this.templateId = templateId;
+    }
+
+    public Duration getBeforeLesson() {
+        return beforeLesson;
+    }
+
+    public int getBit() {
+        return bit;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+}
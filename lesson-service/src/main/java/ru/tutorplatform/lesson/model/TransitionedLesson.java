@@ -0,0 +1,12 @@
+package ru.tutorplatform.lesson.model;
+
+/**
+ * Урок после условного перехода и статус, из которого он ушёл. Строка запроса с отображением
+ * {@value Lesson#TRANSITIONED_MAPPING}: урок и столбец {@code previous_status}.
+ */
+public record TransitionedLesson(Lesson lesson, String previousStatus) {
+
+    public static TransitionedLesson of(Object[] row) {
+        return new TransitionedLesson((Lesson) row[0], (String) row[1]);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.tutorplatform.lesson.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+/**
+ * Элемент недельного шаблона рабочего времени репетитора.
+ */
+@Entity
+@Table(name = "tutor_working_hours",
+        indexes = @Index(name = "idx_tutor_working_hours_tutor_id", columnList = "tutor_id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TutorWorkingHours {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long tutorId;
+    private Integer dayOfWeek; // 1 — понедельник ... 7 — воскресенье (ISO-8601)
+    private LocalTime startTime;
+    private LocalTime endTime;
+}
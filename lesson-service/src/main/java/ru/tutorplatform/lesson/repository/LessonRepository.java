@@ -1,14 +1,354 @@
 package ru.tutorplatform.lesson.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.tutorplatform.lesson.dto.CalendarEventDTO;
+import ru.tutorplatform.lesson.dto.LessonDTO;
 import ru.tutorplatform.lesson.model.Lesson;
+import ru.tutorplatform.lesson.model.TransitionedLesson;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface LessonRepository extends JpaRepository<Lesson, Long> {
-}
 
+    /**
+     * Переход статуса одним условным UPDATE: строка меняется, только если урок принадлежит
+     * пользователю и находится в одном из исходных статусов. Пустой результат — переход не выполнен.
+     * Вместе с уроком возвращается статус, из которого он ушёл.
+     */
+    default Optional<TransitionedLesson> transition(Long id, Long userId, Collection<String> sourceStatuses,
+                                                    String targetStatus, LocalDateTime now) {
+        return transitionRows(id, userId, sourceStatuses, targetStatus, now).stream()
+                .map(TransitionedLesson::of)
+                .findFirst();
+    }
+
+    /**
+     * Групповая отмена уроков из любого исходного статуса отмены одним UPDATE. Условие на участника
+     * урока — часть UPDATE, поэтому чужие уроки не меняются и не читаются отдельно.
+     */
+    default List<TransitionedLesson> cancelByIds(Collection<Long> ids, Long userId,
+                                                 Collection<String> sourceStatuses, LocalDateTime now) {
+        return cancelByIdsRows(ids, userId, sourceStatuses, now).stream()
+                .map(TransitionedLesson::of)
+                .toList();
+    }
+
+    default List<TransitionedLesson> cancelInRange(Long tutorId, LocalDateTime from, LocalDateTime to, Long userId,
+                                                   Collection<String> sourceStatuses, LocalDateTime now) {
+        return cancelInRangeRows(tutorId, from, to, userId, sourceStatuses, now).stream()
+                .map(TransitionedLesson::of)
+                .toList();
+    }
+
+    // Именованные запросы с отображением TransitionedLesson объявлены в Lesson
+    List<Object[]> transitionRows(@Param("id") Long id,
+                                  @Param("userId") Long userId,
+                                  @Param("sourceStatuses") Collection<String> sourceStatuses,
+                                  @Param("targetStatus") String targetStatus,
+                                  @Param("now") LocalDateTime now);
+
+    List<Object[]> cancelByIdsRows(@Param("ids") Collection<Long> ids,
+                                   @Param("userId") Long userId,
+                                   @Param("sourceStatuses") Collection<String> sourceStatuses,
+                                   @Param("now") LocalDateTime now);
+
+    List<Object[]> cancelInRangeRows(@Param("tutorId") Long tutorId,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("userId") Long userId,
+                                     @Param("sourceStatuses") Collection<String> sourceStatuses,
+                                     @Param("now") LocalDateTime now);
+
+    /**
+     * Групповой перенос запланированных уроков на {@code shiftMinutes}. Уроки, которые оказались бы
+     * в прошлом, не меняются. Напоминания для нового времени отправляются заново.
+     */
+    @Query(value = """
+            UPDATE lessons
+            SET scheduled_time = scheduled_time + make_interval(mins => :shiftMinutes),
+                reminders_sent = 0,
+                updated_at = :now,
+                version = version + 1
+            WHERE id IN (:ids)
+              AND status = 'SCHEDULED'
+              AND scheduled_time + make_interval(mins => :shiftMinutes) > :now
+              AND (student_id = :userId OR tutor_id = :userId)
+            RETURNING *
+            """, nativeQuery = true)
+    List<Lesson> rescheduleByIds(@Param("ids") Collection<Long> ids,
+                                 @Param("userId") Long userId,
+                                 @Param("shiftMinutes") int shiftMinutes,
+                                 @Param("now") LocalDateTime now);
+
+    @Query(value = """
+            UPDATE lessons
+            SET scheduled_time = scheduled_time + make_interval(mins => :shiftMinutes),
+                reminders_sent = 0,
+                updated_at = :now,
+                version = version + 1
+            WHERE tutor_id = :tutorId
+              AND scheduled_time >= :from
+              AND scheduled_time < :to
+              AND status = 'SCHEDULED'
+              AND scheduled_time + make_interval(mins => :shiftMinutes) > :now
+              AND (student_id = :userId OR tutor_id = :userId)
+            RETURNING *
+            """, nativeQuery = true)
+    List<Lesson> rescheduleInRange(@Param("tutorId") Long tutorId,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to,
+                                   @Param("userId") Long userId,
+                                   @Param("shiftMinutes") int shiftMinutes,
+                                   @Param("now") LocalDateTime now);
+
+    /**
+     * Участник подтверждает урок, начатый планировщиком: после этого урок завершается с оплатой.
+     */
+    @Query(value = """
+            UPDATE lessons
+            SET auto_started = FALSE,
+                updated_at = :now,
+                version = version + 1
+            WHERE id = :id
+              AND status = 'IN_PROGRESS'
+              AND auto_started
+              AND (student_id = :userId OR tutor_id = :userId)
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<Lesson> confirmStart(@Param("id") Long id,
+                                  @Param("userId") Long userId,
+                                  @Param("now") LocalDateTime now);
 
+    /**
+     * Переводит наступившие уроки из SCHEDULED в IN_PROGRESS с отметкой {@code auto_started}. SKIP LOCKED
+     * позволяет нескольким экземплярам сервиса выполнять запрос одновременно, не блокируя друг друга
+     * и не задваивая переходы.
+     */
+    @Query(value = """
+            UPDATE lessons
+            SET status = 'IN_PROGRESS',
+                auto_started = TRUE,
+                updated_at = :now,
+                version = version + 1
+            WHERE (id, scheduled_time) IN (
+                SELECT id, scheduled_time FROM lessons
+                WHERE status = 'SCHEDULED'
+                  AND scheduled_time <= :now
+                ORDER BY scheduled_time
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED)
+              AND status = 'SCHEDULED'
+              AND scheduled_time <= :now
+            RETURNING *
+            """, nativeQuery = true)
+    List<Lesson> startDueLessons(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
 
+    /**
+     * Завершает уроки, которые идут дольше запланированного на {@code graceMinutes}. Только уроки,
+     * начатые или подтверждённые участником: неподтверждённые отменяет {@link #expireUnattendedLessons}.
+     */
+    @Query(value = """
+            UPDATE lessons
+            SET status = 'COMPLETED',
+                updated_at = :now,
+                completed_at = :now,
+                version = version + 1
+            WHERE (id, scheduled_time) IN (
+                SELECT id, scheduled_time FROM lessons
+                WHERE status = 'IN_PROGRESS'
+                  AND NOT auto_started
+                  AND scheduled_time <= :now
+                  AND scheduled_time + make_interval(mins => duration_minutes + :graceMinutes) <= :now
+                ORDER BY scheduled_time
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED)
+              AND status = 'IN_PROGRESS'
+              AND NOT auto_started
+              AND scheduled_time <= :now
+            RETURNING *
+            """, nativeQuery = true)
+    List<Lesson> completeOverdueLessons(@Param("now") LocalDateTime now,
+                                        @Param("graceMinutes") int graceMinutes,
+                                        @Param("batchSize") int batchSize);
 
+    /**
+     * Отменяет просроченные уроки, которые начал планировщик и не подтвердил ни один участник:
+     * урок, на который никто не пришёл, не оплачивается.
+     */
+    @Query(value = """
+            UPDATE lessons
+            SET status = 'CANCELLED',
+                updated_at = :now,
+                version = version + 1
+            WHERE (id, scheduled_time) IN (
+                SELECT id, scheduled_time FROM lessons
+                WHERE status = 'IN_PROGRESS'
+                  AND auto_started
+                  AND scheduled_time <= :now
+                  AND scheduled_time + make_interval(mins => duration_minutes + :graceMinutes) <= :now
+                ORDER BY scheduled_time
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED)
+              AND status = 'IN_PROGRESS'
+              AND auto_started
+              AND scheduled_time <= :now
+            RETURNING *
+            """, nativeQuery = true)
+    List<Lesson> expireUnattendedLessons(@Param("now") LocalDateTime now,
+                                         @Param("graceMinutes") int graceMinutes,
+                                         @Param("batchSize") int batchSize);
 
+    /**
+     * Отмечает напоминание отправленным сразу для пачки уроков. Строка меняется, только если урок всё
+     * ещё запланирован на то же время и этот бит не выставлен, — так напоминание уходит один раз даже
+     * при нескольких экземплярах сервиса и после перезапуска. Пары (id, время урока) передаются
+     * параллельными массивами одинаковой длины; время урока заодно отсекает лишние секции.
+     */
+    @Query(value = """
+            UPDATE lessons
+            SET reminders_sent = reminders_sent | :bit
+            WHERE (id, scheduled_time) IN (
+                SELECT * FROM unnest(CAST(:ids AS BIGINT[]), CAST(:scheduledTimes AS TIMESTAMP[])))
+              AND status = 'SCHEDULED'
+              AND (reminders_sent & :bit) = 0
+            RETURNING *
+            """, nativeQuery = true)
+    List<Lesson> markRemindersSent(@Param("ids") Long[] ids,
+                                   @Param("scheduledTimes") LocalDateTime[] scheduledTimes,
+                                   @Param("bit") int bit);
 
+    @Modifying
+    @Query(value = "UPDATE lessons SET reminders_sent = 0 WHERE id = :id", nativeQuery = true)
+    void resetReminders(@Param("id") Long id);
 
+    @Query("""
+            select l from Lesson l
+            where l.status = :status
+              and l.scheduledTime >= :from
+              and l.scheduledTime < :to
+            """)
+    List<Lesson> findByStatusInRange(@Param("status") String status,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+
+    @Query("""
+            select l from Lesson l
+            where l.tutorId in :tutorIds
+              and l.status <> :excludedStatus
+              and l.scheduledTime >= :from
+              and l.scheduledTime < :to
+            """)
+    List<Lesson> findTutorLessonsInRange(@Param("tutorIds") Collection<Long> tutorIds,
+                                         @Param("excludedStatus") String excludedStatus,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
+
+    @Query("""
+            select new ru.tutorplatform.lesson.dto.CalendarEventDTO(
+                l.id, l.studentId, l.tutorId, l.subjectId, l.scheduledTime, l.durationMinutes, l.status)
+            from Lesson l
+            where (l.studentId = :userId or l.tutorId = :userId)
+              and l.scheduledTime >= :start
+              and l.scheduledTime < :end
+            order by l.scheduledTime
+            """)
+    List<CalendarEventDTO> findCalendarEvents(@Param("userId") Long userId,
+                                              @Param("start") LocalDateTime start,
+                                              @Param("end") LocalDateTime end);
+
+    /**
+     * Список уроков сразу в DTO: строки не попадают в контекст персистентности и не требуют снимков
+     * для проверки изменений. Пустой фильтр не ограничивает выборку; {@code userId} — ограничение
+     * доступа, для администратора передаётся {@code null}. Пустой параметр времени PostgreSQL
+     * получает без типа, поэтому в проверке на {@code null} он приведён явно.
+     */
+    @Query("""
+            select new ru.tutorplatform.lesson.dto.LessonDTO(
+                l.id, l.studentId, l.tutorId, l.subjectId, l.scheduledTime, l.durationMinutes, l.price,
+                l.status, l.meetingUrl, l.createdAt, l.updatedAt, l.completedAt)
+            from Lesson l
+            where (:studentId is null or l.studentId = :studentId)
+              and (:tutorId is null or l.tutorId = :tutorId)
+              and (:status is null or l.status = :status)
+              and (cast(:from as LocalDateTime) is null or l.scheduledTime >= :from)
+              and (cast(:to as LocalDateTime) is null or l.scheduledTime < :to)
+              and (:userId is null or l.studentId = :userId or l.tutorId = :userId)
+            order by l.scheduledTime
+            """)
+    List<LessonDTO> findLessonViews(@Param("studentId") Long studentId,
+                                    @Param("tutorId") Long tutorId,
+                                    @Param("status") String status,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to,
+                                    @Param("userId") Long userId);
+
+    @Query(value = """
+            SELECT * FROM lessons
+            WHERE (student_id = :userId OR tutor_id = :userId)
+              AND status = 'SCHEDULED'
+            ORDER BY scheduled_time
+            LIMIT 1
+            """, nativeQuery = true)
+    Optional<Lesson> findNextScheduled(@Param("userId") Long userId);
+
+    /**
+     * Переносит пачку завершённых и отменённых уроков старше {@code before} в {@code lessons_archive}.
+     * Условие на время отсекает будущие секции, SKIP LOCKED — пачки параллельных экземпляров.
+     * Удаление и вставка — один оператор: если какую-то строку не удалось вставить (например,
+     * её id уже есть в архиве), оператор падает целиком и уроки остаются в {@code lessons}.
+     */
+    @Modifying
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM lessons
+                WHERE (id, scheduled_time) IN (
+                    SELECT id, scheduled_time FROM lessons
+                    WHERE status IN ('COMPLETED', 'CANCELLED')
+                      AND scheduled_time < :before
+                    ORDER BY scheduled_time
+                    LIMIT :batchSize
+                    FOR UPDATE SKIP LOCKED)
+                  AND scheduled_time < :before
+                RETURNING *)
+            INSERT INTO lessons_archive (id, student_id, tutor_id, subject_id, scheduled_time, duration_minutes,
+                                         price, status, meeting_url, created_at, updated_at, completed_at,
+                                         version, reminders_sent, auto_started)
+            SELECT id, student_id, tutor_id, subject_id, scheduled_time, duration_minutes,
+                   price, status, meeting_url, created_at, updated_at, completed_at,
+                   version, reminders_sent, auto_started
+            FROM moved
+            """, nativeQuery = true)
+    int archiveFinished(@Param("before") LocalDateTime before, @Param("batchSize") int batchSize);
+
+    @Query(value = """
+            SELECT id, student_id, tutor_id, subject_id, scheduled_time, duration_minutes,
+                   price, status, meeting_url, created_at, updated_at, completed_at,
+                   version, reminders_sent, auto_started
+            FROM lessons_archive
+            WHERE id = :id
+            """, nativeQuery = true)
+    Optional<Lesson> findArchivedById(@Param("id") Long id);
+
+    /**
+     * Создаёт секцию уроков за месяц {@code month}, если её нет. См. V2__partition_lessons.sql.
+     *
+     * @return {@code true}, если секция создана
+     */
+    @Query(value = "SELECT lessons_ensure_partition(:month)", nativeQuery = true)
+    boolean ensurePartition(@Param("month") LocalDate month);
+
+    /**
+     * Удаляет пустые месячные секции, целиком лежащие раньше {@code before}.
+     *
+     * @return число удалённых секций
+     */
+    @Query(value = "SELECT lessons_drop_empty_partitions(:before)", nativeQuery = true)
+    int dropEmptyPartitions(@Param("before") LocalDateTime before);
+}
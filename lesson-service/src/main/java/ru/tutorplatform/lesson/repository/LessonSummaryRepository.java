@@ -0,0 +1,57 @@
+package ru.tutorplatform.lesson.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.tutorplatform.lesson.model.LessonSummary;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface LessonSummaryRepository extends JpaRepository<LessonSummary, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from LessonSummary s where s.userId = :userId")
+    Optional<LessonSummary> findForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Строит сводку пользователя по таблице уроков, если её ещё нет. Возвращает 0, если строку
+     * уже создала другая транзакция: её снимок не видел изменений текущей.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO lesson_summaries (user_id, upcoming_count, next_lesson_id, next_lesson_time,
+                                          completed_month, completed_count, completed_amount, updated_at)
+            SELECT :userId,
+                   (SELECT count(*) FROM lessons
+                    WHERE (student_id = :userId OR tutor_id = :userId) AND status = 'SCHEDULED'),
+                   upcoming.id,
+                   upcoming.scheduled_time,
+                   :month,
+                   (SELECT count(*) FROM lessons
+                    WHERE (student_id = :userId OR tutor_id = :userId) AND status = 'COMPLETED'
+                      AND completed_at >= :from AND completed_at < :to),
+                   (SELECT coalesce(sum(price), 0) FROM lessons
+                    WHERE (student_id = :userId OR tutor_id = :userId) AND status = 'COMPLETED'
+                      AND completed_at >= :from AND completed_at < :to),
+                   :now
+            FROM (SELECT 1) AS one
+            LEFT JOIN LATERAL (
+                SELECT id, scheduled_time FROM lessons
+                WHERE (student_id = :userId OR tutor_id = :userId) AND status = 'SCHEDULED'
+                ORDER BY scheduled_time
+                LIMIT 1) AS upcoming ON true
+            ON CONFLICT (user_id) DO NOTHING
+            """, nativeQuery = true)
+    int build(@Param("userId") Long userId,
+              @Param("month") LocalDate month,
+              @Param("from") LocalDateTime from,
+              @Param("to") LocalDateTime to,
+              @Param("now") LocalDateTime now);
+}
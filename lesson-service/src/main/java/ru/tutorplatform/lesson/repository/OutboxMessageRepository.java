@@ -0,0 +1,48 @@
+package ru.tutorplatform.lesson.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.tutorplatform.lesson.model.OutboxMessage;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Забирает на отправку события с истёкшим сроком и продлевает их аренду до {@code leaseUntil}.
+     * SKIP LOCKED не даёт двум экземплярам взять одну строку.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE lesson_outbox
+            SET next_attempt_at = :leaseUntil
+            WHERE id IN (
+                SELECT id FROM lesson_outbox
+                WHERE next_attempt_at <= :now
+                ORDER BY next_attempt_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED)
+            RETURNING *
+            """, nativeQuery = true)
+    List<OutboxMessage> claimDue(@Param("now") LocalDateTime now,
+                                 @Param("leaseUntil") LocalDateTime leaseUntil,
+                                 @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxMessage m where m.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Откладывает события, которые брокер не принял, до {@code nextAttemptAt}.
+     */
+    @Transactional
+    @Modifying
+    @Query("update OutboxMessage m set m.attempts = m.attempts + 1, m.nextAttemptAt = :nextAttemptAt where m.id in :ids")
+    int postpone(@Param("ids") Collection<Long> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+}
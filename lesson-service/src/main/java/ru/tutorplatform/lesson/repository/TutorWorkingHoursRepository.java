@@ -0,0 +1,21 @@
+package ru.tutorplatform.lesson.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.tutorplatform.lesson.model.TutorWorkingHours;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TutorWorkingHoursRepository extends JpaRepository<TutorWorkingHours, Long> {
+
+    List<TutorWorkingHours> findByTutorIdOrderByDayOfWeekAscStartTimeAsc(Long tutorId);
+
+    List<TutorWorkingHours> findByTutorIdIn(Collection<Long> tutorIds);
+
+    @Modifying
+    @Query("delete from TutorWorkingHours w where w.tutorId = :tutorId")
+    void deleteByTutorId(@Param("tutorId") Long tutorId);
+}
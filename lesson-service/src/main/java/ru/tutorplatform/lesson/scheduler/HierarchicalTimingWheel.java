@@ -0,0 +1,146 @@
+package ru.tutorplatform.lesson.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Иерархическое колесо таймеров.
+ * <p>
+ * Уровень {@code i} делится на {@code wheelSize} ячеек по {@code baseTick * wheelSize^i} мс.
+ * Таймер кладётся в ячейку самого мелкого уровня, который покрывает его срок, поэтому
+ * постановка и отмена стоят O(1). Когда время доходит до ячейки верхнего уровня, её таймеры
+ * перекладываются на уровни ниже, а срабатывают из ячеек нижнего уровня с точностью до одного тика.
+ * <p>
+ * Потокобезопасен; обработчики срабатываний вызываются вне блокировки.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long[] tickMillis;
+    private final int wheelSize;
+    private final List<List<Timeout<T>>[]> levels = new ArrayList<>();
+    private final List<Timeout<T>> due = new ArrayList<>();
+    private long currentTime;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long baseTickMillis, int wheelSize, int levelCount, long startMillis) {
+        this.wheelSize = wheelSize;
+        this.tickMillis = new long[levelCount];
+        long tick = baseTickMillis;
+        for (int level = 0; level < levelCount; level++) {
+            tickMillis[level] = tick;
+            levels.add(new List[wheelSize]);
+            tick = Math.multiplyExact(tick, wheelSize);
+        }
+        this.currentTime = startMillis - startMillis % baseTickMillis;
+    }
+
+    /**
+     * Максимальный срок таймера относительно текущего времени колеса: верхний уровень
+     * без текущей, уже частично пройденной ячейки.
+     */
+    public long horizonMillis() {
+        return tickMillis[tickMillis.length - 1] * (wheelSize - 1);
+    }
+
+    public synchronized Timeout<T> schedule(T payload, long deadlineMillis) {
+        if (deadlineMillis - currentTime > horizonMillis()) {
+            throw new IllegalArgumentException("Срок таймера за горизонтом колеса");
+        }
+        Timeout<T> timeout = new Timeout<>(payload, deadlineMillis);
+        place(timeout);
+        return timeout;
+    }
+
+    /**
+     * Продвигает колесо до {@code nowMillis} и передаёт обработчику наступившие таймеры.
+     */
+    public void advance(long nowMillis, Consumer<T> onExpired) {
+        List<Timeout<T>> expired;
+        synchronized (this) {
+            while (currentTime + tickMillis[0] <= nowMillis) {
+                currentTime += tickMillis[0];
+                // Сначала перекладываем верхние уровни, затем срабатывает ячейка нижнего
+                for (int level = tickMillis.length - 1; level > 0; level--) {
+                    if (currentTime % tickMillis[level] == 0) {
+                        List<Timeout<T>> bucket = takeBucket(level, currentTime / tickMillis[level]);
+                        if (bucket != null) {
+                            bucket.forEach(this::place);
+                        }
+                    }
+                }
+                List<Timeout<T>> bucket = takeBucket(0, currentTime / tickMillis[0]);
+                if (bucket != null) {
+                    bucket.forEach(this::place);
+                }
+            }
+            expired = new ArrayList<>(due);
+            due.clear();
+        }
+
+        for (Timeout<T> timeout : expired) {
+            if (!timeout.isCancelled()) {
+                onExpired.accept(timeout.getPayload());
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        if (timeout.isCancelled()) {
+            return;
+        }
+        if (timeout.getDeadline() < currentTime + tickMillis[0]) {
+            due.add(timeout);
+            return;
+        }
+        for (int level = 0; level < tickMillis.length; level++) {
+            long levelStart = currentTime - currentTime % tickMillis[level];
+            if (timeout.getDeadline() < levelStart + tickMillis[level] * wheelSize) {
+                int slot = (int) ((timeout.getDeadline() / tickMillis[level]) % wheelSize);
+                List<Timeout<T>>[] buckets = levels.get(level);
+                if (buckets[slot] == null) {
+                    buckets[slot] = new ArrayList<>();
+                }
+                buckets[slot].add(timeout);
+                return;
+            }
+        }
+        throw new IllegalStateException("Срок таймера за горизонтом колеса");
+    }
+
+    private List<Timeout<T>> takeBucket(int level, long virtualTick) {
+        List<Timeout<T>>[] buckets = levels.get(level);
+        int slot = (int) (virtualTick % wheelSize);
+        List<Timeout<T>> bucket = buckets[slot];
+        buckets[slot] = null;
+        return bucket;
+    }
+
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadline;
+        private volatile boolean cancelled;
+
+        private Timeout(T payload, long deadline) {
+            this.payload = payload;
+            this.deadline = deadline;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        // Отменённый таймер остаётся в ячейке и отбрасывается, когда до неё дойдёт колесо
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
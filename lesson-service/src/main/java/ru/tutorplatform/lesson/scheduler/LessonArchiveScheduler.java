@@ -0,0 +1,57 @@
+package ru.tutorplatform.lesson.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.tutorplatform.lesson.service.LessonArchiveService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "lesson.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class LessonArchiveScheduler {
+
+    private final LessonArchiveService lessonArchiveService;
+    private final Clock clock;
+
+    @Value("${lesson.archive.after:P180D}")
+    private Duration archiveAfter;
+
+    @Value("${lesson.archive.months-ahead:12}")
+    private int monthsAhead;
+
+    @Scheduled(fixedDelayString = "${lesson.archive.interval:PT1H}",
+            initialDelayString = "${lesson.archive.initial-delay:PT1M}")
+    public void run() {
+        try {
+            // Секции создаются заранее, чтобы новые уроки не попадали в секцию по умолчанию
+            YearMonth month = YearMonth.now(clock);
+            for (int i = 0; i <= monthsAhead; i++) {
+                lessonArchiveService.ensurePartition(month.plusMonths(i).atDay(1));
+            }
+
+            LocalDateTime before = LocalDateTime.now(clock).minus(archiveAfter);
+            long archived = 0;
+            int batch;
+            do {
+                batch = lessonArchiveService.archiveBatch(before);
+                archived += batch;
+            } while (batch >= lessonArchiveService.getBatchSize());
+            if (archived > 0) {
+                log.info("Перенесено в архив уроков старше {}: {}", before, archived);
+            }
+
+            lessonArchiveService.dropEmptyPartitions(before);
+        } catch (Exception e) {
+            log.error("Ошибка архивации уроков", e);
+        }
+    }
+}
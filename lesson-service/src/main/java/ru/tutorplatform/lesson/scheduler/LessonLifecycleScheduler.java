@@ -0,0 +1,29 @@
+package ru.tutorplatform.lesson.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.tutorplatform.lesson.service.LessonLifecycleService;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "lesson.lifecycle.enabled", havingValue = "true", matchIfMissing = true)
+public class LessonLifecycleScheduler {
+
+    private final LessonLifecycleService lessonLifecycleService;
+
+    @Scheduled(fixedDelayString = "${lesson.lifecycle.tick:PT30S}",
+            initialDelayString = "${lesson.lifecycle.initial-delay:PT10S}")
+    public void tick() {
+        try {
+            lessonLifecycleService.startDueLessons();
+            lessonLifecycleService.completeOverdueLessons();
+            lessonLifecycleService.expireUnattendedLessons();
+        } catch (Exception e) {
+            log.error("Ошибка автоматической смены статусов уроков", e);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package ru.tutorplatform.lesson.scheduler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.tutorplatform.lesson.model.Lesson;
+import ru.tutorplatform.lesson.model.ReminderKind;
+import ru.tutorplatform.lesson.service.LessonReminderService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Напоминания об уроках за 24 часа и за 15 минут.
+ * <p>
+ * Уроки ближайших {@code lesson.reminders.horizon} часов держатся в {@link HierarchicalTimingWheel}:
+ * при старте и раз в {@code reload-interval} они загружаются одним запросом по диапазону времени,
+ * а между загрузками колесо обновляется по событиям изменения урока. Повторную отправку
+ * (несколько экземпляров, перезапуск) отсекает флаг напоминания в строке урока.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(value = "lesson.reminders.enabled", havingValue = "true", matchIfMissing = true)
+public class LessonReminderScheduler {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 3;
+    private static final long RETRY_DELAY_MILLIS = 30_000;
+
+    private final LessonReminderService lessonReminderService;
+    private final Clock clock;
+    private final HierarchicalTimingWheel<Reminder> wheel;
+    private final Map<Long, LessonTimers> timers = new ConcurrentHashMap<>();
+    private final Duration horizon;
+    private final Duration lateTolerance;
+
+    public LessonReminderScheduler(LessonReminderService lessonReminderService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${lesson.reminders.horizon:PT26H}") Duration horizon,
+                                   @Value("${lesson.reminders.late-tolerance:PT10M}") Duration lateTolerance,
+                                   Clock clock) {
+        this.wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, WHEEL_SIZE, WHEEL_LEVELS, clock.millis());
+        if (horizon.toMillis() + TICK_MILLIS * WHEEL_SIZE > wheel.horizonMillis()) {
+            throw new IllegalStateException("lesson.reminders.horizon больше горизонта колеса таймеров");
+        }
+        this.lessonReminderService = lessonReminderService;
+        this.clock = clock;
+        this.horizon = horizon;
+        this.lateTolerance = lateTolerance;
+        Gauge.builder("lesson.reminders.scheduled", timers, Map::size)
+                .description("Уроки с запланированными напоминаниями")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${lesson.reminders.reload-interval:PT1H}",
+            initialDelayString = "${lesson.reminders.reload-interval:PT1H}")
+    public void reload() {
+        try {
+            LocalDateTime now = LocalDateTime.now(clock);
+            List<Lesson> lessons = lessonReminderService.findUpcomingLessons(now, now.plus(horizon));
+            lessons.forEach(lesson -> schedule(lesson.getId(), lesson.getScheduledTime(), lesson.getRemindersSent()));
+
+            // Прошедшие уроки, по которым уже нечего отправлять
+            timers.values().removeIf(lessonTimers -> lessonTimers.scheduledTime().isBefore(now));
+            log.debug("Загружено уроков для напоминаний: {}, в колесе: {}", lessons.size(), timers.size());
+        } catch (Exception e) {
+            log.error("Ошибка загрузки уроков для напоминаний", e);
+        }
+    }
+
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void tick() {
+        Map<ReminderKind, Map<Long, LocalDateTime>> due = new EnumMap<>(ReminderKind.class);
+        wheel.advance(clock.millis(), reminder -> due
+                .computeIfAbsent(reminder.kind(), kind -> new HashMap<>())
+                .put(reminder.lessonId(), reminder.scheduledTime()));
+
+        due.forEach((kind, lessons) -> {
+            try {
+                lessonReminderService.sendReminders(kind, lessons);
+            } catch (Exception e) {
+                log.error("Ошибка отправки напоминаний {}, повтор через {} мс", kind, RETRY_DELAY_MILLIS, e);
+                lessons.forEach((lessonId, scheduledTime) -> retry(new Reminder(lessonId, scheduledTime, kind)));
+            }
+            if (kind == ReminderKind.SOON) {
+                // Последнее напоминание отправлено — урок больше не нужно держать в колесе
+                lessons.forEach((lessonId, scheduledTime) -> timers.computeIfPresent(lessonId,
+                        (id, lessonTimers) -> lessonTimers.scheduledTime().equals(scheduledTime) ? null : lessonTimers));
+            }
+        });
+    }
+
+    /**
+     * Ставит напоминания урока, заменяя поставленные на другое время.
+     */
+    public void schedule(Long lessonId, LocalDateTime scheduledTime) {
+        schedule(lessonId, scheduledTime, 0);
+    }
+
+    public void cancel(Long lessonId) {
+        LessonTimers removed = timers.remove(lessonId);
+        if (removed != null) {
+            removed.cancel();
+        }
+    }
+
+    private void schedule(Long lessonId, LocalDateTime scheduledTime, int remindersSent) {
+        timers.compute(lessonId, (id, existing) -> {
+            if (existing != null) {
+                if (existing.scheduledTime().equals(scheduledTime)) {
+                    return existing;
+                }
+                existing.cancel();
+            }
+
+            long now = clock.millis();
+            List<HierarchicalTimingWheel.Timeout<Reminder>> timeouts = new ArrayList<>();
+            for (ReminderKind kind : ReminderKind.values()) {
+                if ((remindersSent & kind.getBit()) != 0) {
+                    continue;
+                }
+                long deadline = toEpochMillis(scheduledTime.minus(kind.getBeforeLesson()));
+                // Слишком поздно — напоминание уже не имеет смысла; слишком рано — подхватит следующая загрузка
+                if (deadline < now - lateTolerance.toMillis() || deadline > now + horizon.toMillis()) {
+                    continue;
+                }
+                timeouts.add(wheel.schedule(new Reminder(id, scheduledTime, kind), deadline));
+            }
+            return timeouts.isEmpty() ? null : new LessonTimers(scheduledTime, timeouts);
+        });
+    }
+
+    private void retry(Reminder reminder) {
+        long deadline = clock.millis() + RETRY_DELAY_MILLIS;
+        long remindAt = toEpochMillis(reminder.scheduledTime().minus(reminder.kind().getBeforeLesson()));
+        if (deadline - remindAt <= lateTolerance.toMillis()) {
+            wheel.schedule(reminder, deadline);
+        }
+    }
+
+    // Время урока — местное время пояса платформы, см. SchedulingConfig
+    private long toEpochMillis(LocalDateTime time) {
+        return time.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private record Reminder(Long lessonId, LocalDateTime scheduledTime, ReminderKind kind) {
+    }
+
+    private record LessonTimers(LocalDateTime scheduledTime, List<HierarchicalTimingWheel.Timeout<Reminder>> timeouts) {
+
+        void cancel() {
+            timeouts.forEach(HierarchicalTimingWheel.Timeout::cancel);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package ru.tutorplatform.lesson.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.lesson.dto.TimeSlotDTO;
+import ru.tutorplatform.lesson.dto.TutorAvailabilityDTO;
+import ru.tutorplatform.lesson.dto.WorkingHoursDTO;
+import ru.tutorplatform.lesson.exception.UnauthorizedAccessException;
+import ru.tutorplatform.lesson.model.Lesson;
+import ru.tutorplatform.lesson.model.TutorWorkingHours;
+import ru.tutorplatform.lesson.repository.LessonRepository;
+import ru.tutorplatform.lesson.repository.TutorWorkingHoursRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск свободного времени репетиторов.
+ * <p>
+ * Окно поиска делится на слоты по {@value #SLOT_MINUTES} минут, и для каждого репетитора
+ * строятся два битовых массива: рабочее время по недельному шаблону и занятость по урокам.
+ * Месячное окно занимает около трёх тысяч бит, поэтому поиск сводится к паре запросов
+ * в БД и побитовым операциям в памяти.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityService {
+
+    public static final int SLOT_MINUTES = 15;
+
+    private static final int MAX_WINDOW_DAYS = 62;
+    private static final int MAX_TUTORS_PER_REQUEST = 200;
+    // Урок, начавшийся до окна поиска, всё ещё может его занимать
+    private static final Duration LESSON_LOOKBEHIND = Duration.ofHours(24);
+
+    private final TutorWorkingHoursRepository workingHoursRepository;
+    private final LessonRepository lessonRepository;
+    private final Clock clock;
+
+    @Transactional(readOnly = true)
+    public List<WorkingHoursDTO> getWorkingHours(Long tutorId) {
+        return workingHoursRepository.findByTutorIdOrderByDayOfWeekAscStartTimeAsc(tutorId).stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    @Transactional
+    public List<WorkingHoursDTO> replaceWorkingHours(Long tutorId,
+                                                     List<WorkingHoursDTO> intervals,
+                                                     Long userId,
+                                                     String role) {
+        if (!"ADMIN".equalsIgnoreCase(role) && !tutorId.equals(userId)) {
+            throw new UnauthorizedAccessException("Нет доступа к расписанию репетитора");
+        }
+        intervals.forEach(interval -> {
+            if (!interval.getStartTime().isBefore(interval.getEndTime())) {
+                throw new IllegalArgumentException("Начало рабочего интервала должно быть раньше окончания");
+            }
+        });
+
+        workingHoursRepository.deleteByTutorId(tutorId);
+        List<TutorWorkingHours> saved = workingHoursRepository.saveAll(intervals.stream()
+                .map(interval -> TutorWorkingHours.builder()
+                        .tutorId(tutorId)
+                        .dayOfWeek(interval.getDayOfWeek())
+                        .startTime(interval.getStartTime())
+                        .endTime(interval.getEndTime())
+                        .build())
+                .toList());
+
+        log.info("Расписание репетитора {} обновлено: {} интервалов", tutorId, saved.size());
+        return saved.stream().map(this::toDTO).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<TutorAvailabilityDTO> findFreeSlots(List<Long> tutorIds,
+                                                    LocalDateTime from,
+                                                    LocalDateTime to,
+                                                    int durationMinutes) {
+        validateSearch(tutorIds, from, to, durationMinutes);
+
+        LocalDateTime windowStart = ceilToSlot(max(from, LocalDateTime.now(clock)));
+        LocalDateTime windowEnd = floorToSlot(to);
+        if (!windowStart.isBefore(windowEnd)) {
+            return tutorIds.stream()
+                    .map(tutorId -> new TutorAvailabilityDTO(tutorId, Collections.emptyList()))
+                    .toList();
+        }
+
+        int slotCount = (int) (ChronoUnit.MINUTES.between(windowStart, windowEnd) / SLOT_MINUTES);
+        int slotsNeeded = (durationMinutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        List<Long> distinctTutorIds = List.copyOf(new LinkedHashSet<>(tutorIds));
+
+        Map<Long, List<TutorWorkingHours>> templates = workingHoursRepository.findByTutorIdIn(distinctTutorIds)
+                .stream()
+                .collect(Collectors.groupingBy(TutorWorkingHours::getTutorId));
+        Map<Long, List<Lesson>> lessons = lessonRepository.findTutorLessonsInRange(
+                        distinctTutorIds,
+                        Constants.LessonStatus.CANCELLED,
+                        windowStart.minus(LESSON_LOOKBEHIND),
+                        windowEnd)
+                .stream()
+                .collect(Collectors.groupingBy(Lesson::getTutorId));
+
+        List<TutorAvailabilityDTO> result = new ArrayList<>(distinctTutorIds.size());
+        for (Long tutorId : distinctTutorIds) {
+            BitSet free = workingSlots(templates.getOrDefault(tutorId, List.of()), windowStart, windowEnd, slotCount);
+            free.andNot(busySlots(lessons.getOrDefault(tutorId, List.of()), windowStart, slotCount));
+            result.add(new TutorAvailabilityDTO(tutorId, collectRuns(free, slotsNeeded, windowStart)));
+        }
+        return result;
+    }
+
+    private BitSet workingSlots(List<TutorWorkingHours> template,
+                                LocalDateTime windowStart,
+                                LocalDateTime windowEnd,
+                                int slotCount) {
+        BitSet slots = new BitSet(slotCount);
+        if (template.isEmpty()) {
+            return slots;
+        }
+
+        for (LocalDate day = windowStart.toLocalDate(); !day.isAfter(windowEnd.toLocalDate()); day = day.plusDays(1)) {
+            int dayOfWeek = day.getDayOfWeek().getValue();
+            for (TutorWorkingHours hours : template) {
+                if (hours.getDayOfWeek() != dayOfWeek) {
+                    continue;
+                }
+                // Рабочий интервал округляется внутрь, чтобы не предлагать время за его пределами
+                int start = Math.max(0, ceilSlot(windowStart, day.atTime(hours.getStartTime())));
+                int end = Math.min(slotCount, floorSlot(windowStart, day.atTime(hours.getEndTime())));
+                if (start < end) {
+                    slots.set(start, end);
+                }
+            }
+        }
+        return slots;
+    }
+
+    private BitSet busySlots(List<Lesson> lessons, LocalDateTime windowStart, int slotCount) {
+        BitSet slots = new BitSet(slotCount);
+        for (Lesson lesson : lessons) {
+            LocalDateTime lessonEnd = lesson.getScheduledTime().plusMinutes(lesson.getDurationMinutes());
+            // Урок округляется наружу, чтобы частично занятый слот не считался свободным
+            int start = Math.max(0, floorSlot(windowStart, lesson.getScheduledTime()));
+            int end = Math.min(slotCount, ceilSlot(windowStart, lessonEnd));
+            if (start < end) {
+                slots.set(start, end);
+            }
+        }
+        return slots;
+    }
+
+    private List<TimeSlotDTO> collectRuns(BitSet free, int slotsNeeded, LocalDateTime windowStart) {
+        List<TimeSlotDTO> runs = new ArrayList<>();
+        int start = free.nextSetBit(0);
+        while (start >= 0) {
+            int end = free.nextClearBit(start);
+            if (end - start >= slotsNeeded) {
+                runs.add(new TimeSlotDTO(
+                        windowStart.plusMinutes((long) start * SLOT_MINUTES),
+                        windowStart.plusMinutes((long) end * SLOT_MINUTES)));
+            }
+            start = free.nextSetBit(end);
+        }
+        return runs;
+    }
+
+    private void validateSearch(List<Long> tutorIds, LocalDateTime from, LocalDateTime to, int durationMinutes) {
+        if (tutorIds == null || tutorIds.isEmpty()) {
+            throw new IllegalArgumentException("Не указаны репетиторы");
+        }
+        if (tutorIds.size() > MAX_TUTORS_PER_REQUEST) {
+            throw new IllegalArgumentException(
+                    "Слишком много репетиторов в запросе, максимум " + MAX_TUTORS_PER_REQUEST);
+        }
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Некорректный интервал поиска");
+        }
+        if (Duration.between(from, to).toDays() > MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Интервал поиска не может превышать " + MAX_WINDOW_DAYS + " дней");
+        }
+        if (durationMinutes < SLOT_MINUTES) {
+            throw new IllegalArgumentException("Длительность урока не может быть меньше " + SLOT_MINUTES + " минут");
+        }
+    }
+
+    private static int floorSlot(LocalDateTime windowStart, LocalDateTime time) {
+        return (int) Math.floorDiv(ChronoUnit.MINUTES.between(windowStart, time), SLOT_MINUTES);
+    }
+
+    private static int ceilSlot(LocalDateTime windowStart, LocalDateTime time) {
+        return (int) -Math.floorDiv(-ChronoUnit.MINUTES.between(windowStart, time), SLOT_MINUTES);
+    }
+
+    private static LocalDateTime floorToSlot(LocalDateTime time) {
+        LocalDateTime minutes = time.truncatedTo(ChronoUnit.MINUTES);
+        return minutes.minusMinutes(minutes.getMinute() % SLOT_MINUTES);
+    }
+
+    private static LocalDateTime ceilToSlot(LocalDateTime time) {
+        LocalDateTime floor = floorToSlot(time);
+        return floor.isEqual(time) ? floor : floor.plusMinutes(SLOT_MINUTES);
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private WorkingHoursDTO toDTO(TutorWorkingHours hours) {
+        return WorkingHoursDTO.builder()
+                .dayOfWeek(hours.getDayOfWeek())
+                .startTime(hours.getStartTime())
+                .endTime(hours.getEndTime())
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package ru.tutorplatform.lesson.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.tutorplatform.lesson.cache.CalendarEventCache;
+import ru.tutorplatform.lesson.cache.CalendarEventCache.WeekBucket;
+import ru.tutorplatform.lesson.dto.CalendarEventDTO;
+import ru.tutorplatform.lesson.repository.LessonRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class CalendarService {
+
+    private static final int MAX_RANGE_DAYS = 62;
+
+    private final LessonRepository lessonRepository;
+    private final CalendarEventCache calendarEventCache;
+
+    /**
+     * Уроки пользователя с началом в [start, end). Диапазон раскладывается на недели,
+     * недостающие в кэше недели загружаются одним запросом по индексу на scheduled_time.
+     */
+    @Transactional(readOnly = true)
+    public List<CalendarEventDTO> getEvents(Long userId, LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Некорректный интервал календаря");
+        }
+        if (Duration.between(start, end).toDays() > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Интервал календаря не может превышать " + MAX_RANGE_DAYS + " дней");
+        }
+
+        Set<WeekBucket> buckets = new LinkedHashSet<>();
+        LocalDate lastWeek = CalendarEventCache.weekStart(end.minusNanos(1).toLocalDate());
+        for (LocalDate week = CalendarEventCache.weekStart(start.toLocalDate());
+             !week.isAfter(lastWeek);
+             week = week.plusWeeks(1)) {
+            buckets.add(new WeekBucket(userId, week));
+        }
+
+        Map<WeekBucket, List<CalendarEventDTO>> weeks = new HashMap<>(calendarEventCache.getAll(buckets));
+        if (weeks.size() < buckets.size()) {
+            Map<WeekBucket, List<CalendarEventDTO>> loaded = loadMissingWeeks(userId, buckets, weeks.keySet());
+            calendarEventCache.putAll(loaded);
+            weeks.putAll(loaded);
+        }
+
+        List<CalendarEventDTO> events = new ArrayList<>();
+        for (WeekBucket bucket : buckets) {
+            for (CalendarEventDTO event : weeks.get(bucket)) {
+                if (!event.getStart().isBefore(start) && event.getStart().isBefore(end)) {
+                    events.add(event);
+                }
+            }
+        }
+        return events;
+    }
+
+    private Map<WeekBucket, List<CalendarEventDTO>> loadMissingWeeks(Long userId,
+                                                                     Set<WeekBucket> buckets,
+                                                                     Set<WeekBucket> cached) {
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        Map<WeekBucket, List<CalendarEventDTO>> loaded = new HashMap<>();
+        for (WeekBucket bucket : buckets) {
+            if (!cached.contains(bucket)) {
+                firstMissing = firstMissing == null ? bucket.weekStart() : firstMissing;
+                lastMissing = bucket.weekStart();
+                loaded.put(bucket, new ArrayList<>());
+            }
+        }
+
+        List<CalendarEventDTO> events = lessonRepository.findCalendarEvents(
+                userId,
+                firstMissing.atStartOfDay(),
+                lastMissing.plusWeeks(1).atStartOfDay());
+        for (CalendarEventDTO event : events) {
+            // Между первой и последней недостающей неделей могут оказаться уже закэшированные
+            List<CalendarEventDTO> week = loaded.get(
+                    new WeekBucket(userId, CalendarEventCache.weekStart(event.getStart().toLocalDate())));
+            if (week != null) {
+                week.add(event);
+            }
+        }
+
+        loaded.replaceAll((bucket, week) -> List.copyOf(week));
+        return loaded;
+    }
+}
@@ -0,0 +1,168 @@
+package ru.tutorplatform.lesson.service;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.GetResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.common.messaging.RetryTopology;
+import ru.tutorplatform.lesson.dto.DeadLetterReplayDTO;
+import ru.tutorplatform.lesson.dto.DeadLetterStatusDTO;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Возврат сообщений из {@code dead.letter.queue} в исходные очереди с ограничением скорости.
+ * <p>
+ * Повтор идёт в фоне, одновременно — не больше одного. Сообщение сначала публикуется в исходную
+ * очередь, брокер подтверждает публикацию (publisher confirm), и только потом сообщение
+ * подтверждается в DLQ, поэтому при сбое оно может повториться, но не потеряется. Счётчик попыток
+ * сбрасывается: вернувшееся сообщение снова проходит все ступени задержки.
+ * <p>
+ * Ход повтора публикуется неизменяемыми снимками {@link DeadLetterReplayDTO} через {@code lastReplay}:
+ * поток повтора не меняет уже опубликованный объект, а кладёт новый.
+ */
+@Service
+@Slf4j
+public class DeadLetterReplayService {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final double maxRatePerSecond;
+    private final Duration confirmTimeout;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dead-letter-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<DeadLetterReplayDTO> lastReplay = new AtomicReference<>();
+
+    public DeadLetterReplayService(RabbitTemplate rabbitTemplate,
+                                   @Value("${messaging.dead-letters.max-replay-rate:200}") double maxRatePerSecond,
+                                   @Value("${messaging.dead-letters.confirm-timeout:PT5S}") Duration confirmTimeout) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.maxRatePerSecond = maxRatePerSecond;
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    public DeadLetterStatusDTO getStatus() {
+        Long waiting = rabbitTemplate.execute(channel -> channel.messageCount(Constants.QueueNames.DEAD_LETTER_QUEUE));
+        return DeadLetterStatusDTO.builder()
+                .waiting(waiting)
+                .lastReplay(lastReplay.get())
+                .build();
+    }
+
+    /**
+     * @return описание запущенного повтора или {@code null}, если предыдущий ещё идёт
+     */
+    public DeadLetterReplayDTO startReplay(String queue, int limit, double ratePerSecond) {
+        if (limit <= 0 || ratePerSecond <= 0) {
+            throw new IllegalArgumentException("limit и rate должны быть положительными");
+        }
+        DeadLetterReplayDTO previous = lastReplay.get();
+        if (previous != null && previous.getRunning()) {
+            return null;
+        }
+        DeadLetterReplayDTO replay = DeadLetterReplayDTO.builder()
+                .queue(queue)
+                .limit(limit)
+                .ratePerSecond(Math.min(ratePerSecond, maxRatePerSecond))
+                .replayed(0)
+                .skipped(0)
+                .running(true)
+                .startedAt(LocalDateTime.now())
+                .build();
+        if (!lastReplay.compareAndSet(previous, replay)) {
+            return null;
+        }
+        executor.execute(() -> replay(replay));
+        return replay;
+    }
+
+    private void replay(DeadLetterReplayDTO replay) {
+        log.info("Повтор сообщений из {}: очередь {}, не больше {}, {} в секунду",
+                Constants.QueueNames.DEAD_LETTER_QUEUE, replay.getQueue(), replay.getLimit(), replay.getRatePerSecond());
+        int replayed = 0;
+        int skipped = 0;
+        String error = null;
+        try {
+            // Пропущенные сообщения уходят в конец DLQ, поэтому просматриваем не больше, чем было в начале
+            long waiting = Objects.requireNonNull(getStatus().getWaiting());
+            long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / replay.getRatePerSecond());
+            long nextAt = System.nanoTime();
+            for (long seen = 0; seen < waiting && replayed < replay.getLimit(); seen++) {
+                LockSupport.parkNanos(nextAt - System.nanoTime());
+                Outcome outcome = replayNext(replay.getQueue());
+                if (outcome == Outcome.EMPTY) {
+                    break;
+                }
+                if (outcome == Outcome.REPLAYED) {
+                    replayed++;
+                    nextAt += intervalNanos;
+                } else {
+                    skipped++;
+                }
+                lastReplay.set(replay.toBuilder().replayed(replayed).skipped(skipped).build());
+            }
+        } catch (Exception e) {
+            log.error("Ошибка повтора сообщений из {}", Constants.QueueNames.DEAD_LETTER_QUEUE, e);
+            error = e.getMessage();
+        } finally {
+            lastReplay.set(replay.toBuilder()
+                    .replayed(replayed)
+                    .skipped(skipped)
+                    .error(error)
+                    .running(false)
+                    .finishedAt(LocalDateTime.now())
+                    .build());
+            log.info("Повтор завершён: возвращено {}, пропущено {}", replayed, skipped);
+        }
+    }
+
+    private Outcome replayNext(String queueFilter) {
+        return rabbitTemplate.execute(channel -> {
+            channel.confirmSelect();
+            GetResponse response = channel.basicGet(Constants.QueueNames.DEAD_LETTER_QUEUE, false);
+            if (response == null) {
+                return Outcome.EMPTY;
+            }
+            AMQP.BasicProperties properties = response.getProps();
+            Map<String, Object> headers = properties.getHeaders() != null
+                    ? new HashMap<>(properties.getHeaders())
+                    : new HashMap<>();
+            Object originalQueue = headers.get(RetryTopology.ORIGINAL_QUEUE_HEADER);
+            String target = originalQueue != null ? originalQueue.toString() : null;
+
+            Outcome outcome;
+            if (target == null || (queueFilter != null && !queueFilter.equals(target))) {
+                channel.basicPublish("", Constants.QueueNames.DEAD_LETTER_QUEUE, properties, response.getBody());
+                outcome = Outcome.SKIPPED;
+            } else {
+                headers.remove(RetryTopology.ATTEMPT_HEADER);
+                headers.remove(RetryTopology.EXCEPTION_HEADER);
+                channel.basicPublish("", target, properties.builder().headers(headers).build(), response.getBody());
+                outcome = Outcome.REPLAYED;
+            }
+            // Без подтверждения брокера сообщение остаётся в DLQ: при таймауте или nack канал
+            // закрывается, и неподтверждённое сообщение возвращается в очередь
+            channel.waitForConfirmsOrDie(confirmTimeout.toMillis());
+            channel.basicAck(response.getEnvelope().getDeliveryTag(), false);
+            return outcome;
+        });
+    }
+
+    private enum Outcome {
+        REPLAYED, SKIPPED, EMPTY
+    }
+}
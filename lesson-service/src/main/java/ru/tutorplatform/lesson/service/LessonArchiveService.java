@@ -0,0 +1,59 @@
+package ru.tutorplatform.lesson.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.tutorplatform.lesson.repository.LessonRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Обслуживание секционированной таблицы уроков: перенос старых завершённых и отменённых уроков
+ * в архив, создание секций на будущие месяцы и удаление опустевших старых секций.
+ * Каждый шаг выполняется в своей короткой транзакции.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonArchiveService {
+
+    private final LessonRepository lessonRepository;
+
+    @Getter
+    @Value("${lesson.archive.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * @return число перенесённых уроков; меньше размера пачки — архивировать больше нечего
+     */
+    @Transactional
+    public int archiveBatch(LocalDateTime before) {
+        int archived = lessonRepository.archiveFinished(before, batchSize);
+        if (archived > 0) {
+            log.debug("Перенесено в архив уроков: {}", archived);
+        }
+        return archived;
+    }
+
+    @Transactional
+    public boolean ensurePartition(LocalDate month) {
+        boolean created = lessonRepository.ensurePartition(month.withDayOfMonth(1));
+        if (created) {
+            log.info("Создана секция уроков за {}", month.withDayOfMonth(1));
+        }
+        return created;
+    }
+
+    @Transactional
+    public int dropEmptyPartitions(LocalDateTime before) {
+        int dropped = lessonRepository.dropEmptyPartitions(before);
+        if (dropped > 0) {
+            log.info("Удалено пустых секций уроков: {}", dropped);
+        }
+        return dropped;
+    }
+}
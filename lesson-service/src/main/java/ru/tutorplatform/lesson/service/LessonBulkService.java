@@ -0,0 +1,161 @@
+package ru.tutorplatform.lesson.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.lesson.cache.CalendarEventCache;
+import ru.tutorplatform.lesson.cache.LessonCache;
+import ru.tutorplatform.lesson.dto.BulkLessonRequest;
+import ru.tutorplatform.lesson.dto.BulkLessonResultDTO;
+import ru.tutorplatform.lesson.model.Lesson;
+import ru.tutorplatform.lesson.model.LessonTransition;
+import ru.tutorplatform.lesson.model.TransitionedLesson;
+import ru.tutorplatform.lesson.repository.LessonRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Групповые отмена и перенос уроков: один UPDATE ... RETURNING вместо чтения, сохранения и
+ * публикации по каждому уроку. События уходят пачкой после изменения.
+ * Уроки, которые не удалось изменить, дочитываются одним запросом, чтобы вернуть причину по каждому id.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonBulkService {
+
+    private final LessonRepository lessonRepository;
+    private final LessonEventPublisher lessonEventPublisher;
+    private final CalendarEventCache calendarEventCache;
+    private final LessonCache lessonCache;
+    private final LessonSummaryService lessonSummaryService;
+    private final Clock clock;
+
+    @Value("${lesson.bulk.max-range:P31D}")
+    private Duration maxRange;
+
+    @Transactional
+    public BulkLessonResultDTO cancelLessons(BulkLessonRequest request, Long userId) {
+        Set<Long> ids = validate(request);
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        Set<String> sourceStatuses = LessonTransition.CANCEL.getSourceStatuses();
+        List<TransitionedLesson> transitioned = ids != null
+                ? lessonRepository.cancelByIds(ids, userId, sourceStatuses, now)
+                : lessonRepository.cancelInRange(request.getTutorId(), request.getFrom(), request.getTo(),
+                userId, sourceStatuses, now);
+        lessonSummaryService.transitioned(transitioned);
+        List<Lesson> cancelled = transitioned.stream().map(TransitionedLesson::lesson).toList();
+
+        cancelled.forEach(lesson -> {
+            calendarEventCache.evict(lesson);
+            lessonCache.evict(lesson.getId());
+        });
+        lessonEventPublisher.sendNotificationBatch("LESSON_CANCELLED", cancelled);
+        lessonEventPublisher.sendLessonChangedBatch("LESSON_CANCELLED", cancelled);
+        log.info("Групповая отмена: отменено уроков {}. Причина: {}", cancelled.size(), request.getReason());
+
+        return result(ids, cancelled, userId, lesson -> BulkLessonResultDTO.INVALID_STATE);
+    }
+
+    @Transactional
+    public BulkLessonResultDTO rescheduleLessons(BulkLessonRequest request, Long userId) {
+        Set<Long> ids = validate(request);
+        int shiftMinutes = request.getShiftMinutes() != null ? request.getShiftMinutes() : 0;
+        if (shiftMinutes == 0) {
+            throw new IllegalArgumentException("Не указан сдвиг времени уроков");
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        List<Lesson> rescheduled = ids != null
+                ? lessonRepository.rescheduleByIds(ids, userId, shiftMinutes, now)
+                : lessonRepository.rescheduleInRange(request.getTutorId(), request.getFrom(), request.getTo(),
+                userId, shiftMinutes, now);
+        lessonSummaryService.rescheduled(rescheduled, shiftMinutes);
+
+        rescheduled.forEach(lesson -> {
+            calendarEventCache.evict(lesson, lesson.getScheduledTime().minusMinutes(shiftMinutes));
+            calendarEventCache.evict(lesson);
+            lessonCache.evict(lesson.getId());
+        });
+        lessonEventPublisher.sendNotificationBatch("LESSON_UPDATED", rescheduled);
+        lessonEventPublisher.sendLessonChangedBatch("LESSON_UPDATED", rescheduled);
+        log.info("Групповой перенос на {} мин: перенесено уроков {}", shiftMinutes, rescheduled.size());
+
+        return result(ids, rescheduled, userId, lesson ->
+                Constants.LessonStatus.SCHEDULED.equals(lesson.getStatus())
+                        ? BulkLessonResultDTO.INVALID_TIME
+                        : BulkLessonResultDTO.INVALID_STATE);
+    }
+
+    // null — выборка по фильтру
+    private Set<Long> validate(BulkLessonRequest request) {
+        boolean byIds = request.getLessonIds() != null && !request.getLessonIds().isEmpty();
+        boolean byFilter = request.getTutorId() != null || request.getFrom() != null || request.getTo() != null;
+        if (byIds == byFilter) {
+            throw new IllegalArgumentException("Укажите либо список уроков, либо репетитора и период");
+        }
+        if (byIds) {
+            return request.getLessonIds().stream()
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+        if (request.getTutorId() == null || request.getFrom() == null || request.getTo() == null
+                || !request.getFrom().isBefore(request.getTo())) {
+            throw new IllegalArgumentException("Для фильтра нужны репетитор и период: from раньше to");
+        }
+        if (Duration.between(request.getFrom(), request.getTo()).compareTo(maxRange) > 0) {
+            throw new IllegalArgumentException("Период групповой операции больше " + maxRange.toDays() + " дней");
+        }
+        return null;
+    }
+
+    private BulkLessonResultDTO result(Collection<Long> ids,
+                                       List<Lesson> updated,
+                                       Long userId,
+                                       Function<Lesson, String> rejectionReason) {
+        List<BulkLessonResultDTO.Item> results = new ArrayList<>();
+        updated.forEach(lesson -> results.add(item(lesson.getId(), BulkLessonResultDTO.UPDATED, lesson)));
+
+        if (ids != null && updated.size() < ids.size()) {
+            Set<Long> updatedIds = updated.stream().map(Lesson::getId).collect(Collectors.toSet());
+            List<Long> rejectedIds = ids.stream().filter(id -> !updatedIds.contains(id)).toList();
+            Map<Long, Lesson> rejected = lessonRepository.findAllById(rejectedIds).stream()
+                    .collect(Collectors.toMap(Lesson::getId, Function.identity()));
+            for (Long id : rejectedIds) {
+                Lesson lesson = rejected.get(id);
+                if (lesson == null) {
+                    results.add(item(id, BulkLessonResultDTO.NOT_FOUND, null));
+                } else if (!Objects.equals(lesson.getStudentId(), userId) && !Objects.equals(lesson.getTutorId(), userId)) {
+                    results.add(item(id, BulkLessonResultDTO.FORBIDDEN, null));
+                } else {
+                    results.add(item(id, rejectionReason.apply(lesson), lesson));
+                }
+            }
+        }
+        return new BulkLessonResultDTO(updated.size(), results);
+    }
+
+    private static BulkLessonResultDTO.Item item(Long lessonId, String result, Lesson lesson) {
+        return BulkLessonResultDTO.Item.builder()
+                .lessonId(lessonId)
+                .result(result)
+                .status(lesson != null ? lesson.getStatus() : null)
+                .scheduledTime(lesson != null ? lesson.getScheduledTime() : null)
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package ru.tutorplatform.lesson.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.common.event.LessonChangedEvent;
+import ru.tutorplatform.common.event.NotificationEvent;
+import ru.tutorplatform.common.event.PaymentEvent;
+import ru.tutorplatform.common.event.payload.LessonNotificationPayload;
+import ru.tutorplatform.common.messaging.NotificationLane;
+import ru.tutorplatform.lesson.messaging.AsyncEventPublisher;
+import ru.tutorplatform.lesson.messaging.NotificationLaneRouter;
+import ru.tutorplatform.lesson.model.Lesson;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Публикация событий урока в RabbitMQ. Методы не ждут брокер: события уходят через {@link AsyncEventPublisher}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LessonEventPublisher {
+
+    private final AsyncEventPublisher asyncEventPublisher;
+    private final NotificationLaneRouter notificationLaneRouter;
+
+    public void sendPaymentEvent(Lesson lesson) {
+        asyncEventPublisher.publish("", Constants.QueueNames.PAYMENT_QUEUE, paymentEvent(lesson));
+
+        log.info("Событие оплаты поставлено в отправку для урока {}", lesson.getId());
+    }
+
+    /**
+     * Уведомление уходит в полосу по срочности; ключ шарда — ученик, чтобы его уведомления
+     * обрабатывались по порядку.
+     */
+    public void sendNotification(String type, Lesson lesson) {
+        NotificationLane lane = notificationLaneRouter.route(type, lesson.getScheduledTime());
+        asyncEventPublisher.publish(lane.exchangeName(), recipientKey(lesson), notificationEvent(type, lesson));
+    }
+
+    public void sendLessonChanged(String changeType, Lesson lesson) {
+        asyncEventPublisher.publish(Constants.ExchangeNames.LESSON_EVENTS, "", lessonChangedEvent(changeType, lesson));
+    }
+
+    /**
+     * События по группе завершённых уроков: оплата, уведомление и изменение урока.
+     * Соседние события в один адрес {@link AsyncEventPublisher} отправит пачкой.
+     */
+    public void sendCompletedBatch(List<Lesson> lessons) {
+        if (lessons.isEmpty()) {
+            return;
+        }
+        for (Lesson lesson : lessons) {
+            asyncEventPublisher.publish("", Constants.QueueNames.PAYMENT_QUEUE, paymentEvent(lesson));
+        }
+        for (Lesson lesson : lessons) {
+            sendNotification("LESSON_COMPLETED", lesson);
+            sendLessonChanged("LESSON_COMPLETED", lesson);
+        }
+
+        log.info("События оплаты поставлены в отправку для {} уроков", lessons.size());
+    }
+
+    public void sendLessonChangedBatch(String changeType, List<Lesson> lessons) {
+        lessons.forEach(lesson -> sendLessonChanged(changeType, lesson));
+    }
+
+    public void sendNotificationBatch(String type, List<Lesson> lessons) {
+        lessons.forEach(lesson -> sendNotification(type, lesson));
+    }
+
+    private String recipientKey(Lesson lesson) {
+        return String.valueOf(lesson.getStudentId() != null ? lesson.getStudentId() : lesson.getId());
+    }
+
+    private PaymentEvent paymentEvent(Lesson lesson) {
+        PaymentEvent event = new PaymentEvent();
+        event.setEventId(UUID.randomUUID().toString());
+        event.setLessonId(lesson.getId());
+        event.setStudentId(lesson.getStudentId());
+        event.setTutorId(lesson.getTutorId());
+        event.setAmount(lesson.getPrice());
+        event.setCurrency("RUB");
+        event.setStatus(Constants.PaymentStatus.PENDING);
+        event.setEventTime(LocalDateTime.now());
+        event.setPaymentMethod("PLATFORM");
+        event.setSubjectId(lesson.getSubjectId());
+        return event;
+    }
+
+    private NotificationEvent notificationEvent(String type, Lesson lesson) {
+        NotificationEvent event = new NotificationEvent();
+        event.setEventId(UUID.randomUUID().toString());
+        event.setType("EMAIL");
+        event.setTemplateId(type);
+        event.setEventTime(LocalDateTime.now());
+        event.setPayload(new LessonNotificationPayload(
+                lesson.getId(),
+                lesson.getScheduledTime(),
+                lesson.getDurationMinutes(),
+                lesson.getSubjectId()
+        ));
+        return event;
+    }
+
+    private LessonChangedEvent lessonChangedEvent(String changeType, Lesson lesson) {
+        LessonChangedEvent event = new LessonChangedEvent();
+        event.setEventId(UUID.randomUUID().toString());
+        event.setChangeType(changeType);
+        event.setLessonId(lesson.getId());
+        event.setStudentId(lesson.getStudentId());
+        event.setTutorId(lesson.getTutorId());
+        event.setStatus(lesson.getStatus());
+        event.setScheduledTime(lesson.getScheduledTime());
+        event.setDurationMinutes(lesson.getDurationMinutes());
+        event.setEventTime(LocalDateTime.now());
+        return event;
+    }
+}
@@ -0,0 +1,91 @@
+package ru.tutorplatform.lesson.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.lesson.cache.CalendarEventCache;
+import ru.tutorplatform.lesson.cache.LessonCache;
+import ru.tutorplatform.lesson.model.Lesson;
+import ru.tutorplatform.lesson.repository.LessonRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Автоматические переходы статусов по времени: начало наступивших уроков
+ * и завершение просроченных. Каждый шаг — один UPDATE на пачку уроков.
+ * <p>
+ * Урок, начатый планировщиком, оплачивается, только если участник его подтвердил (начал или
+ * завершил сам). Неподтверждённый урок по истечении времени отменяется без события оплаты.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonLifecycleService {
+
+    private final LessonRepository lessonRepository;
+    private final LessonEventPublisher lessonEventPublisher;
+    private final CalendarEventCache calendarEventCache;
+    private final LessonCache lessonCache;
+    private final LessonSummaryService lessonSummaryService;
+    private final Clock clock;
+
+    @Value("${lesson.lifecycle.batch-size:500}")
+    private int batchSize;
+
+    @Value("${lesson.lifecycle.auto-complete-grace:PT15M}")
+    private Duration autoCompleteGrace;
+
+    @Transactional
+    public int startDueLessons() {
+        List<Lesson> started = lessonRepository.startDueLessons(LocalDateTime.now(clock), batchSize);
+        if (started.isEmpty()) {
+            return 0;
+        }
+
+        started.forEach(calendarEventCache::evict);
+        started.forEach(lesson -> lessonCache.evict(lesson.getId()));
+        lessonSummaryService.transitioned(started, Constants.LessonStatus.SCHEDULED);
+        lessonEventPublisher.sendLessonChangedBatch("LESSON_STARTED", started);
+        log.info("Автоматически начато уроков: {}", started.size());
+        return started.size();
+    }
+
+    @Transactional
+    public int completeOverdueLessons() {
+        List<Lesson> completed = lessonRepository.completeOverdueLessons(
+                LocalDateTime.now(clock), (int) autoCompleteGrace.toMinutes(), batchSize);
+        if (completed.isEmpty()) {
+            return 0;
+        }
+
+        completed.forEach(calendarEventCache::evict);
+        completed.forEach(lesson -> lessonCache.evict(lesson.getId()));
+        lessonSummaryService.transitioned(completed, Constants.LessonStatus.IN_PROGRESS);
+        lessonEventPublisher.sendCompletedBatch(completed);
+        log.info("Автоматически завершено уроков: {}", completed.size());
+        return completed.size();
+    }
+
+    @Transactional
+    public int expireUnattendedLessons() {
+        List<Lesson> expired = lessonRepository.expireUnattendedLessons(
+                LocalDateTime.now(clock), (int) autoCompleteGrace.toMinutes(), batchSize);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        expired.forEach(calendarEventCache::evict);
+        expired.forEach(lesson -> lessonCache.evict(lesson.getId()));
+        lessonSummaryService.transitioned(expired, Constants.LessonStatus.IN_PROGRESS);
+        lessonEventPublisher.sendNotificationBatch("LESSON_CANCELLED", expired);
+        lessonEventPublisher.sendLessonChangedBatch("LESSON_CANCELLED", expired);
+        log.info("Отменено уроков, начатых автоматически и не подтверждённых участниками: {}", expired.size());
+        return expired.size();
+    }
+}
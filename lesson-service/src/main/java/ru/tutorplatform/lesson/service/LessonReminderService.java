@@ -0,0 +1,55 @@
+package ru.tutorplatform.lesson.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.lesson.model.Lesson;
+import ru.tutorplatform.lesson.model.ReminderKind;
+import ru.tutorplatform.lesson.repository.LessonRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonReminderService {
+
+    private final LessonRepository lessonRepository;
+    private final LessonEventPublisher lessonEventPublisher;
+
+    @Transactional(readOnly = true)
+    public List<Lesson> findUpcomingLessons(LocalDateTime from, LocalDateTime to) {
+        return lessonRepository.findByStatusInRange(Constants.LessonStatus.SCHEDULED, from, to);
+    }
+
+    /**
+     * Отмечает и отправляет напоминания одним UPDATE на пачку. Уроки, которые успели перенести,
+     * отменить или уже получили это напоминание, пропускаются условием UPDATE.
+     *
+     * @param lessons идентификатор урока → время урока, для которого ставилось напоминание
+     */
+    @Transactional
+    public int sendReminders(ReminderKind kind, Map<Long, LocalDateTime> lessons) {
+        if (lessons.isEmpty()) {
+            return 0;
+        }
+        Long[] ids = new Long[lessons.size()];
+        LocalDateTime[] scheduledTimes = new LocalDateTime[lessons.size()];
+        int i = 0;
+        for (Map.Entry<Long, LocalDateTime> lesson : lessons.entrySet()) {
+            ids[i] = lesson.getKey();
+            scheduledTimes[i++] = lesson.getValue();
+        }
+        List<Lesson> marked = lessonRepository.markRemindersSent(ids, scheduledTimes, kind.getBit());
+
+        lessonEventPublisher.sendNotificationBatch(kind.getTemplateId(), marked);
+        if (!marked.isEmpty()) {
+            log.info("Отправлено напоминаний {}: {}", kind, marked.size());
+        }
+        return marked.size();
+    }
+}
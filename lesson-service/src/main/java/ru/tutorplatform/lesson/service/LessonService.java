@@ -2,28 +2,28 @@ package ru.tutorplatform.lesson.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.tutorplatform.common.constants.Constants;
-import ru.tutorplatform.common.event.NotificationEvent;
-import ru.tutorplatform.common.event.PaymentEvent;
+import ru.tutorplatform.lesson.cache.CalendarEventCache;
+import ru.tutorplatform.lesson.cache.LessonCache;
 import ru.tutorplatform.lesson.dto.CreateLessonRequest;
 import ru.tutorplatform.lesson.dto.LessonDTO;
 import ru.tutorplatform.lesson.dto.UpdateLessonRequest;
+import ru.tutorplatform.lesson.exception.InvalidLessonStateException;
 import ru.tutorplatform.lesson.exception.LessonNotFoundException;
 import ru.tutorplatform.lesson.exception.UnauthorizedAccessException;
 import ru.tutorplatform.lesson.mapper.LessonMapper;
 import ru.tutorplatform.lesson.model.Lesson;
+import ru.tutorplatform.lesson.model.LessonTransition;
+import ru.tutorplatform.lesson.model.TransitionedLesson;
 import ru.tutorplatform.lesson.repository.LessonRepository;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -32,11 +32,12 @@ public class LessonService {
 
     private final LessonRepository lessonRepository;
     private final LessonMapper lessonMapper;
-    private final RabbitTemplate rabbitTemplate;
+    private final LessonEventPublisher lessonEventPublisher;
     private final VideoConferenceService videoConferenceService;
-
-    @Value("${app.timezone:Europe/Moscow}")
-    private String timezone;
+    private final CalendarEventCache calendarEventCache;
+    private final LessonCache lessonCache;
+    private final LessonSummaryService lessonSummaryService;
+    private final Clock clock;
 
     @Transactional
     public LessonDTO createLesson(CreateLessonRequest request, Long userId) {
@@ -50,8 +51,8 @@ public class LessonService {
                 .durationMinutes(request.getDurationMinutes())
                 .price(request.getPrice())
                 .status(Constants.LessonStatus.SCHEDULED)
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now(clock))
+                .updatedAt(LocalDateTime.now(clock))
                 .build();
 
         lesson = lessonRepository.save(lesson);
@@ -63,15 +64,19 @@ public class LessonService {
         );
         lesson.setMeetingUrl(meetingUrl);
         lesson = lessonRepository.save(lesson);
+        calendarEventCache.evict(lesson);
+        lessonCache.evict(lesson.getId());
+        lessonSummaryService.created(lesson);
 
-        sendNotification("LESSON_CREATED", lesson);
+        lessonEventPublisher.sendNotification("LESSON_CREATED", lesson);
+        lessonEventPublisher.sendLessonChanged("LESSON_CREATED", lesson);
 
         return lessonMapper.toDTO(lesson);
     }
 
-    @Transactional(readOnly = true)
+    // Без транзакции: попадание в кэш не занимает соединение из пула
     public LessonDTO getLesson(Long id, Long userId) {
-        Lesson lesson = findLessonWithAuthorization(id, userId);
+        Lesson lesson = findCachedLessonWithAuthorization(id, userId);
         return lessonMapper.toDTO(lesson);
     }
 
@@ -82,25 +87,19 @@ public class LessonService {
                                       LocalDate date,
                                       Long userId,
                                       String role) {
-        List<Lesson> lessons = lessonRepository.findAll();
-
-        return lessons.stream()
-                .filter(lesson -> studentId == null || Objects.equals(lesson.getStudentId(), studentId))
-                .filter(lesson -> tutorId == null || Objects.equals(lesson.getTutorId(), tutorId))
-                .filter(lesson -> status == null || Objects.equals(lesson.getStatus(), status))
-                .filter(lesson -> date == null || (lesson.getScheduledTime() != null &&
-                        lesson.getScheduledTime().toLocalDate().isEqual(date)))
-                // Простая проверка доступа: если не ADMIN, то возвращаем только свои уроки
-                .filter(lesson -> "ADMIN".equalsIgnoreCase(role) ||
-                        Objects.equals(lesson.getStudentId(), userId) ||
-                        Objects.equals(lesson.getTutorId(), userId))
-                .map(lessonMapper::toDTO)
-                .toList();
+        // Фильтры и проверка доступа — в запросе, а не в памяти после чтения всей таблицы
+        LocalDateTime from = date != null ? date.atStartOfDay() : null;
+        LocalDateTime to = date != null ? date.plusDays(1).atStartOfDay() : null;
+        Long accessUserId = "ADMIN".equalsIgnoreCase(role) ? null : userId;
+        return lessonRepository.findLessonViews(studentId, tutorId, status, from, to, accessUserId);
     }
 
     @Transactional
     public LessonDTO updateLesson(Long id, UpdateLessonRequest request, Long userId) {
         Lesson lesson = findLessonWithAuthorization(id, userId);
+        LessonSummaryService.LessonState before = LessonSummaryService.LessonState.of(lesson);
+        LocalDateTime previousScheduledTime = lesson.getScheduledTime();
+        boolean completed = false;
 
         if (request.getScheduledTime() != null) {
             validateLessonTime(request.getScheduledTime());
@@ -112,51 +111,76 @@ public class LessonService {
         if (request.getPrice() != null) {
             lesson.setPrice(request.getPrice());
         }
-        if (request.getStatus() != null) {
-            lesson.setStatus(request.getStatus());
+        if (request.getStatus() != null && !request.getStatus().equals(lesson.getStatus())) {
+            // Параллельную смену статуса отсечёт проверка версии при сохранении
+            LessonTransition transition = LessonTransition.toStatus(request.getStatus())
+                    .filter(candidate -> candidate.isAllowedFrom(lesson.getStatus()))
+                    .orElseThrow(() -> new InvalidLessonStateException(id, lesson.getStatus(), request.getStatus()));
+            lesson.setStatus(transition.getTargetStatus());
+            if (transition == LessonTransition.COMPLETE) {
+                lesson.setCompletedAt(LocalDateTime.now(clock));
+                completed = true;
+            }
         }
 
-        lesson.setUpdatedAt(LocalDateTime.now());
-        lesson = lessonRepository.save(lesson);
+        lesson.setUpdatedAt(LocalDateTime.now(clock));
+        Lesson saved = lessonRepository.save(lesson);
+        if (!Objects.equals(previousScheduledTime, saved.getScheduledTime())) {
+            // Урок перенесён: напоминания для нового времени отправляются заново
+            lessonRepository.resetReminders(saved.getId());
+        }
+        calendarEventCache.evict(saved, previousScheduledTime);
+        calendarEventCache.evict(saved);
+        lessonCache.evict(saved.getId());
+        lessonSummaryService.updated(before, saved);
 
-        sendNotification("LESSON_UPDATED", lesson);
-        return lessonMapper.toDTO(lesson);
+        if (completed) {
+            lessonEventPublisher.sendPaymentEvent(saved);
+        }
+        lessonEventPublisher.sendNotification("LESSON_UPDATED", saved);
+        lessonEventPublisher.sendLessonChanged("LESSON_UPDATED", saved);
+        return lessonMapper.toDTO(saved);
     }
 
+    // Урок, уже начатый планировщиком, участник подтверждает — иначе он не будет оплачен
     @Transactional
-    public LessonDTO completeLesson(Long lessonId, Long userId) {
-        Lesson lesson = findLessonWithAuthorization(lessonId, userId);
+    public LessonDTO startLesson(Long lessonId, Long userId) {
+        Lesson lesson = lessonRepository.confirmStart(lessonId, userId, LocalDateTime.now(clock))
+                .orElseGet(() -> applyTransition(lessonId, userId, LessonTransition.START));
+        calendarEventCache.evict(lesson);
+        lessonCache.evict(lessonId);
 
-        if (!Constants.LessonStatus.IN_PROGRESS.equals(lesson.getStatus())) {
-            throw new IllegalStateException("Урок должен быть в статусе IN_PROGRESS");
-        }
+        lessonEventPublisher.sendLessonChanged("LESSON_STARTED", lesson);
+        return lessonMapper.toDTO(lesson);
+    }
 
-        lesson.setStatus(Constants.LessonStatus.COMPLETED);
-        lesson.setCompletedAt(LocalDateTime.now());
-        lesson.setUpdatedAt(LocalDateTime.now());
-        lesson = lessonRepository.save(lesson);
+    @Transactional
+    public LessonDTO completeLesson(Long lessonId, Long userId) {
+        Lesson lesson = applyTransition(lessonId, userId, LessonTransition.COMPLETE);
+        calendarEventCache.evict(lesson);
+        lessonCache.evict(lessonId);
 
-        sendPaymentEvent(lesson);
-        sendNotification("LESSON_COMPLETED", lesson);
+        lessonEventPublisher.sendPaymentEvent(lesson);
+        lessonEventPublisher.sendNotification("LESSON_COMPLETED", lesson);
+        lessonEventPublisher.sendLessonChanged("LESSON_COMPLETED", lesson);
 
         return lessonMapper.toDTO(lesson);
     }
 
     @Transactional
     public LessonDTO cancelLesson(Long lessonId, String reason, Long userId) {
-        Lesson lesson = findLessonWithAuthorization(lessonId, userId);
-        lesson.setStatus(Constants.LessonStatus.CANCELLED);
-        lesson.setUpdatedAt(LocalDateTime.now());
-        lesson = lessonRepository.save(lesson);
+        Lesson lesson = applyTransition(lessonId, userId, LessonTransition.CANCEL);
+        calendarEventCache.evict(lesson);
+        lessonCache.evict(lessonId);
 
-        sendNotification("LESSON_CANCELLED", lesson);
+        lessonEventPublisher.sendNotification("LESSON_CANCELLED", lesson);
+        lessonEventPublisher.sendLessonChanged("LESSON_CANCELLED", lesson);
         log.info("Урок {} отменён. Причина: {}", lessonId, reason);
         return lessonMapper.toDTO(lesson);
     }
 
-    @Transactional(readOnly = true)
     public String generateJoinUrl(Long lessonId, Long userId) {
-        Lesson lesson = findLessonWithAuthorization(lessonId, userId);
+        Lesson lesson = findCachedLessonWithAuthorization(lessonId, userId);
         if (lesson.getMeetingUrl() != null) {
             return lesson.getMeetingUrl();
         }
@@ -168,64 +192,51 @@ public class LessonService {
         );
     }
 
+    /**
+     * Выполняет переход одним условным UPDATE ... RETURNING, который возвращает и прежний статус
+     * урока для сводки. Урок читается отдельно только при неудаче, чтобы вернуть точную причину.
+     */
+    private Lesson applyTransition(Long lessonId, Long userId, LessonTransition transition) {
+        TransitionedLesson transitioned = lessonRepository.transition(lessonId, userId,
+                transition.getSourceStatuses(), transition.getTargetStatus(), LocalDateTime.now(clock)).orElse(null);
+        if (transitioned == null) {
+            Lesson current = findLessonWithAuthorization(lessonId, userId);
+            throw new InvalidLessonStateException(lessonId, current.getStatus(), transition.getTargetStatus());
+        }
+        lessonSummaryService.transitioned(List.of(transitioned));
+        return transitioned.lesson();
+    }
+
     private void validateLessonTime(LocalDateTime scheduledTime) {
         if (scheduledTime == null) {
             throw new IllegalArgumentException("Время урока не указано");
         }
-        if (scheduledTime.isBefore(LocalDateTime.now())) {
+        if (scheduledTime.isBefore(LocalDateTime.now(clock))) {
             throw new IllegalArgumentException("Время урока не может быть в прошлом");
         }
     }
 
-    private void sendPaymentEvent(Lesson lesson) {
-        PaymentEvent event = new PaymentEvent();
-        event.setEventId(UUID.randomUUID().toString());
-        event.setLessonId(lesson.getId());
-        event.setStudentId(lesson.getStudentId());
-        event.setTutorId(lesson.getTutorId());
-        event.setAmount(lesson.getPrice());
-        event.setCurrency("RUB");
-        event.setStatus(Constants.PaymentStatus.PENDING);
-        event.setEventTime(LocalDateTime.now());
-        event.setPaymentMethod("PLATFORM");
-
-        rabbitTemplate.convertAndSend(
-                Constants.QueueNames.PAYMENT_QUEUE,
-                event
-        );
-
-        log.info("Событие оплаты отправлено для урока {}", lesson.getId());
-    }
-
-    private void sendNotification(String type, Lesson lesson) {
-        NotificationEvent event = new NotificationEvent();
-        event.setEventId(UUID.randomUUID().toString());
-        event.setType("EMAIL");
-        event.setTemplateId(type);
-        event.setEventTime(LocalDateTime.now());
-
-        event.setParameters(Map.of(
-                "lessonId", lesson.getId(),
-                "date", lesson.getScheduledTime(),
-                "duration", lesson.getDurationMinutes(),
-                "subject", "Математика"
-        ));
-
-        rabbitTemplate.convertAndSend(
-                Constants.QueueNames.NOTIFICATION_QUEUE,
-                event
-        );
-    }
-
     public Lesson findLessonWithAuthorization(Long lessonId, Long userId) {
         Lesson lesson = lessonRepository.findById(lessonId)
                 .orElseThrow(() -> new LessonNotFoundException(lessonId));
+        checkAccess(lesson, userId);
+        return lesson;
+    }
+
+    // Для чтения: возвращённый урок общий для запросов и не должен изменяться.
+    // Уроки, перенесённые в архив, доступны только на чтение
+    private Lesson findCachedLessonWithAuthorization(Long lessonId, Long userId) {
+        Lesson lesson = lessonCache.get(lessonId, id -> lessonRepository.findById(id)
+                        .or(() -> lessonRepository.findArchivedById(id)))
+                .orElseThrow(() -> new LessonNotFoundException(lessonId));
+        checkAccess(lesson, userId);
+        return lesson;
+    }
 
+    private void checkAccess(Lesson lesson, Long userId) {
         if (!lesson.getStudentId().equals(userId) &&
                 !lesson.getTutorId().equals(userId)) {
             throw new UnauthorizedAccessException("Нет доступа к уроку");
         }
-
-        return lesson;
     }
 }
\ No newline at end of file
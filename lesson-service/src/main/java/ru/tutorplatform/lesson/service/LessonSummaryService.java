@@ -0,0 +1,246 @@
+package ru.tutorplatform.lesson.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.lesson.dto.LessonSummaryDTO;
+import ru.tutorplatform.lesson.model.Lesson;
+import ru.tutorplatform.lesson.model.LessonSummary;
+import ru.tutorplatform.lesson.model.TransitionedLesson;
+import ru.tutorplatform.lesson.repository.LessonRepository;
+import ru.tutorplatform.lesson.repository.LessonSummaryRepository;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Сводка уроков пользователя для главной страницы: число запланированных уроков, ближайший урок,
+ * завершённые за месяц и их сумма.
+ * <p>
+ * Сводка меняется приращениями в транзакции, которая меняет урок, поэтому не расходится с уроками
+ * при сбоях. Ближайший урок ищется индексным запросом, только когда текущий ближайший урок
+ * начался, отменён или перенесён на более позднее время. Строка пользователя, которой ещё нет,
+ * строится по таблице уроков при первом обращении.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonSummaryService {
+
+    private final LessonSummaryRepository lessonSummaryRepository;
+    private final LessonRepository lessonRepository;
+    private final Clock clock;
+
+    public LessonSummaryDTO getSummary(Long userId) {
+        LessonSummary summary = lessonSummaryRepository.findById(userId)
+                .orElseGet(() -> {
+                    build(userId, LocalDateTime.now(clock));
+                    return lessonSummaryRepository.findById(userId).orElseThrow();
+                });
+
+        // Счётчики прошлого месяца на чтении обнуляются, строка перепишется при следующем изменении
+        boolean currentMonth = YearMonth.now(clock).atDay(1).equals(summary.getCompletedMonth());
+        return LessonSummaryDTO.builder()
+                .userId(userId)
+                .upcomingCount(summary.getUpcomingCount())
+                .nextLessonId(summary.getNextLessonId())
+                .nextLessonTime(summary.getNextLessonTime())
+                .completedThisMonth(currentMonth ? summary.getCompletedCount() : 0)
+                .earningsThisMonth(currentMonth ? summary.getCompletedAmount() : BigDecimal.ZERO)
+                .build();
+    }
+
+    public void created(Lesson lesson) {
+        apply(List.of(new Change(null, LessonState.of(lesson))));
+    }
+
+    public void updated(LessonState before, Lesson after) {
+        apply(List.of(new Change(before, LessonState.of(after))));
+    }
+
+    /**
+     * Уроки, переведённые условным UPDATE из статуса {@code previousStatus}.
+     */
+    public void transitioned(List<Lesson> lessons, String previousStatus) {
+        transitioned(lessons.stream()
+                .map(lesson -> new TransitionedLesson(lesson, previousStatus))
+                .toList());
+    }
+
+    /**
+     * Уроки, переведённые условным UPDATE, каждый из своего прежнего статуса.
+     */
+    public void transitioned(List<TransitionedLesson> lessons) {
+        apply(lessons.stream()
+                .map(transitioned -> {
+                    LessonState after = LessonState.of(transitioned.lesson());
+                    return new Change(after.withStatus(transitioned.previousStatus()), after);
+                })
+                .toList());
+    }
+
+    /**
+     * Запланированные уроки, перенесённые на {@code shiftMinutes}.
+     */
+    public void rescheduled(List<Lesson> lessons, int shiftMinutes) {
+        apply(lessons.stream()
+                .map(LessonState::of)
+                .map(after -> new Change(after.withScheduledTime(after.scheduledTime().minusMinutes(shiftMinutes)), after))
+                .toList());
+    }
+
+    // Строки блокируются по возрастанию userId, чтобы параллельные транзакции не взаимоблокировались
+    private void apply(List<Change> changes) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        YearMonth month = YearMonth.from(now);
+        Map<Long, UserDelta> deltas = new TreeMap<>();
+        for (Change change : changes) {
+            for (Long userId : change.after().participants()) {
+                deltas.computeIfAbsent(userId, id -> new UserDelta()).add(change, month);
+            }
+        }
+        deltas.forEach((userId, delta) -> apply(userId, delta, month, now));
+    }
+
+    private void apply(Long userId, UserDelta delta, YearMonth month, LocalDateTime now) {
+        LessonSummary summary = lessonSummaryRepository.findForUpdate(userId).orElse(null);
+        if (summary == null) {
+            if (build(userId, now)) {
+                return; // строка построена в этой транзакции и уже учитывает изменение
+            }
+            summary = lessonSummaryRepository.findForUpdate(userId).orElseThrow();
+        }
+
+        LocalDate monthStart = month.atDay(1);
+        if (!monthStart.equals(summary.getCompletedMonth())) {
+            summary.setCompletedMonth(monthStart);
+            summary.setCompletedCount(0L);
+            summary.setCompletedAmount(BigDecimal.ZERO);
+        }
+        summary.setUpcomingCount(Math.max(0, summary.getUpcomingCount() + delta.upcoming));
+        summary.setCompletedCount(Math.max(0, summary.getCompletedCount() + delta.completed));
+        summary.setCompletedAmount(summary.getCompletedAmount().add(delta.amount));
+
+        if (summary.getNextLessonId() != null && delta.departed.contains(summary.getNextLessonId())) {
+            Lesson next = lessonRepository.findNextScheduled(userId).orElse(null);
+            summary.setNextLessonId(next != null ? next.getId() : null);
+            summary.setNextLessonTime(next != null ? next.getScheduledTime() : null);
+        } else if (delta.earliest != null && (summary.getNextLessonTime() == null
+                || delta.earliest.scheduledTime().isBefore(summary.getNextLessonTime()))) {
+            summary.setNextLessonId(delta.earliest.id());
+            summary.setNextLessonTime(delta.earliest.scheduledTime());
+        }
+        summary.setUpdatedAt(now);
+        lessonSummaryRepository.save(summary);
+    }
+
+    /**
+     * @return {@code true}, если строку создала эта транзакция
+     */
+    private boolean build(Long userId, LocalDateTime now) {
+        YearMonth month = YearMonth.from(now);
+        boolean built = lessonSummaryRepository.build(userId, month.atDay(1),
+                month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay(), now) > 0;
+        if (built) {
+            log.debug("Сводка уроков пользователя {} построена по таблице уроков", userId);
+        }
+        return built;
+    }
+
+    /**
+     * Поля урока, от которых зависит сводка.
+     */
+    public record LessonState(Long id,
+                              Long studentId,
+                              Long tutorId,
+                              String status,
+                              LocalDateTime scheduledTime,
+                              BigDecimal price,
+                              LocalDateTime completedAt) {
+
+        public static LessonState of(Lesson lesson) {
+            return new LessonState(lesson.getId(), lesson.getStudentId(), lesson.getTutorId(), lesson.getStatus(),
+                    lesson.getScheduledTime(), lesson.getPrice(), lesson.getCompletedAt());
+        }
+
+        // Переходы в сводке ведут только из незавершённых статусов
+        LessonState withStatus(String previousStatus) {
+            return new LessonState(id, studentId, tutorId, previousStatus, scheduledTime, price, null);
+        }
+
+        LessonState withScheduledTime(LocalDateTime previousScheduledTime) {
+            return new LessonState(id, studentId, tutorId, status, previousScheduledTime, price, completedAt);
+        }
+
+        boolean isUpcoming() {
+            return Constants.LessonStatus.SCHEDULED.equals(status) && scheduledTime != null;
+        }
+
+        boolean isCompletedIn(YearMonth month) {
+            return Constants.LessonStatus.COMPLETED.equals(status)
+                    && completedAt != null
+                    && YearMonth.from(completedAt).equals(month);
+        }
+
+        BigDecimal amount() {
+            return price != null ? price : BigDecimal.ZERO;
+        }
+
+        Set<Long> participants() {
+            Set<Long> participants = new HashSet<>();
+            if (studentId != null) {
+                participants.add(studentId);
+            }
+            if (tutorId != null) {
+                participants.add(tutorId);
+            }
+            return participants;
+        }
+    }
+
+    private record Change(LessonState before, LessonState after) {
+    }
+
+    private static class UserDelta {
+
+        private long upcoming;
+        private long completed;
+        private BigDecimal amount = BigDecimal.ZERO;
+        // Уроки, которые больше не запланированы или сдвинуты позже: если один из них был ближайшим, его ищем заново
+        private final Set<Long> departed = new HashSet<>();
+        private LessonState earliest;
+
+        void add(Change change, YearMonth month) {
+            LessonState before = change.before();
+            LessonState after = change.after();
+
+            boolean wasUpcoming = before != null && before.isUpcoming();
+            upcoming += (after.isUpcoming() ? 1 : 0) - (wasUpcoming ? 1 : 0);
+
+            if (before != null && before.isCompletedIn(month)) {
+                completed--;
+                amount = amount.subtract(before.amount());
+            }
+            if (after.isCompletedIn(month)) {
+                completed++;
+                amount = amount.add(after.amount());
+            }
+
+            if (wasUpcoming && (!after.isUpcoming() || after.scheduledTime().isAfter(before.scheduledTime()))) {
+                departed.add(after.id());
+            }
+            if (after.isUpcoming() && (earliest == null || after.scheduledTime().isBefore(earliest.scheduledTime()))) {
+                earliest = after;
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+-- Схема, которую раньше создавал Hibernate (ddl-auto: update). Существующая база получает
+-- baseline версии 0, поэтому скрипт выполняется и на ней: он только добавляет недостающее.
+
+CREATE TABLE IF NOT EXISTS lessons (
+    id               BIGSERIAL PRIMARY KEY,
+    student_id       BIGINT,
+    tutor_id         BIGINT,
+    subject_id       BIGINT,
+    scheduled_time   TIMESTAMP(6),
+    duration_minutes INTEGER,
+    price            NUMERIC(38, 2),
+    status           VARCHAR(255),
+    meeting_url      VARCHAR(255),
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6),
+    completed_at     TIMESTAMP(6),
+    version          BIGINT  DEFAULT 0 NOT NULL,
+    reminders_sent   INTEGER DEFAULT 0 NOT NULL
+);
+
+ALTER TABLE lessons ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE lessons ADD COLUMN IF NOT EXISTS reminders_sent INTEGER DEFAULT 0 NOT NULL;
+
+CREATE TABLE IF NOT EXISTS tutor_working_hours (
+    id          BIGSERIAL PRIMARY KEY,
+    tutor_id    BIGINT,
+    day_of_week INTEGER,
+    start_time  TIME(6),
+    end_time    TIME(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_tutor_working_hours_tutor_id ON tutor_working_hours (tutor_id);
+
+CREATE TABLE IF NOT EXISTS lesson_summaries (
+    user_id          BIGINT PRIMARY KEY,
+    upcoming_count   BIGINT,
+    next_lesson_id   BIGINT,
+    next_lesson_time TIMESTAMP(6),
+    completed_month  DATE,
+    completed_count  BIGINT,
+    completed_amount NUMERIC(38, 2),
+    updated_at       TIMESTAMP(6)
+);
@@ -0,0 +1,128 @@
+-- Таблица уроков секционируется по месяцам scheduled_time. Запросы с условием на время урока
+-- читают только нужные секции; уроки вне созданных секций попадают в lessons_default.
+
+ALTER TABLE lessons RENAME TO lessons_unpartitioned;
+ALTER TABLE lessons_unpartitioned RENAME CONSTRAINT lessons_pkey TO lessons_unpartitioned_pkey;
+DROP INDEX IF EXISTS idx_lessons_scheduled_time;
+DROP INDEX IF EXISTS idx_lessons_student_scheduled_time;
+DROP INDEX IF EXISTS idx_lessons_tutor_scheduled_time;
+
+CREATE TABLE lessons (
+    id               BIGINT       NOT NULL,
+    student_id       BIGINT,
+    tutor_id         BIGINT,
+    subject_id       BIGINT,
+    scheduled_time   TIMESTAMP(6) NOT NULL,
+    duration_minutes INTEGER,
+    price            NUMERIC(38, 2),
+    status           VARCHAR(255),
+    meeting_url      VARCHAR(255),
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6),
+    completed_at     TIMESTAMP(6),
+    version          BIGINT  DEFAULT 0 NOT NULL,
+    reminders_sent   INTEGER DEFAULT 0 NOT NULL,
+    -- Ключ секционирования обязан входить в первичный ключ; уникальность id обеспечивает последовательность
+    PRIMARY KEY (id, scheduled_time)
+) PARTITION BY RANGE (scheduled_time);
+
+CREATE TABLE lessons_default PARTITION OF lessons DEFAULT;
+
+CREATE INDEX idx_lessons_scheduled_time ON lessons (scheduled_time);
+CREATE INDEX idx_lessons_student_scheduled_time ON lessons (student_id, scheduled_time);
+CREATE INDEX idx_lessons_tutor_scheduled_time ON lessons (tutor_id, scheduled_time);
+-- Автоматические переходы ищут уроки по статусу без нижней границы времени:
+-- в старых секциях эти индексы пусты, и их просмотр ничего не стоит
+CREATE INDEX idx_lessons_scheduled_due ON lessons (scheduled_time) WHERE status = 'SCHEDULED';
+CREATE INDEX idx_lessons_in_progress_due ON lessons (scheduled_time) WHERE status = 'IN_PROGRESS';
+
+/*
+ * Создаёт месячную секцию, если её нет. Уроки этого месяца, уже попавшие в секцию по умолчанию,
+ * переносятся в новую секцию до подключения. Параллельные вызовы из нескольких экземпляров
+ * сервиса сериализуются рекомендательной блокировкой.
+ */
+CREATE FUNCTION lessons_ensure_partition(month_start DATE) RETURNS BOOLEAN
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    from_ts        TIMESTAMP := date_trunc('month', month_start);
+    to_ts          TIMESTAMP := date_trunc('month', month_start) + INTERVAL '1 month';
+    partition_name TEXT      := 'lessons_p' || to_char(month_start, 'YYYYMM');
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('lessons_partitions'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE lessons INCLUDING DEFAULTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM lessons_default
+                                   WHERE scheduled_time >= $1 AND scheduled_time < $2
+                                   RETURNING *)
+                    INSERT INTO %I SELECT * FROM moved', partition_name) USING from_ts, to_ts;
+    EXECUTE format('ALTER TABLE lessons ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, from_ts, to_ts);
+    RETURN TRUE;
+END;
+$$;
+
+/*
+ * Удаляет месячные секции, которые целиком старше before и пусты после архивации.
+ */
+CREATE FUNCTION lessons_drop_empty_partitions(before TIMESTAMP) RETURNS INTEGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    partition_name TEXT;
+    dropped        INTEGER := 0;
+    is_empty       BOOLEAN;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('lessons_partitions'));
+    FOR partition_name IN
+        SELECT child.relname
+        FROM pg_inherits
+                 JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                 JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+        WHERE parent.relname = 'lessons'
+          AND child.relname ~ '^lessons_p[0-9]{6}$'
+          AND to_date(substring(child.relname FROM 10), 'YYYYMM') + INTERVAL '1 month' <= before
+        LOOP
+            EXECUTE format('SELECT NOT EXISTS (SELECT 1 FROM %I)', partition_name) INTO is_empty;
+            IF is_empty THEN
+                EXECUTE format('ALTER TABLE lessons DETACH PARTITION %I', partition_name);
+                EXECUTE format('DROP TABLE %I', partition_name);
+                dropped := dropped + 1;
+            END IF;
+        END LOOP;
+    RETURN dropped;
+END;
+$$;
+
+-- Секции от первого урока до года вперёд, затем перенос данных
+DO
+$$
+DECLARE
+    month_start DATE;
+BEGIN
+    FOR month_start IN
+        SELECT generate_series(
+                       date_trunc('month', coalesce((SELECT min(scheduled_time) FROM lessons_unpartitioned), LOCALTIMESTAMP)),
+                       date_trunc('month', LOCALTIMESTAMP) + INTERVAL '12 months',
+                       INTERVAL '1 month')::DATE
+        LOOP
+            PERFORM lessons_ensure_partition(month_start);
+        END LOOP;
+END;
+$$;
+
+INSERT INTO lessons (id, student_id, tutor_id, subject_id, scheduled_time, duration_minutes, price, status,
+                     meeting_url, created_at, updated_at, completed_at, version, reminders_sent)
+SELECT id, student_id, tutor_id, subject_id, scheduled_time, duration_minutes, price, status,
+       meeting_url, created_at, updated_at, completed_at, version, reminders_sent
+FROM lessons_unpartitioned;
+
+-- Вместе со старой таблицей удаляется и её последовательность (serial или identity)
+DROP TABLE lessons_unpartitioned;
+
+CREATE SEQUENCE lessons_id_seq OWNED BY lessons.id;
+SELECT setval('lessons_id_seq', coalesce((SELECT max(id) FROM lessons), 0) + 1, false);
+ALTER TABLE lessons ALTER COLUMN id SET DEFAULT nextval('lessons_id_seq');
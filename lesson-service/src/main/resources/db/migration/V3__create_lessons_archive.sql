@@ -0,0 +1,24 @@
+-- Архив завершённых и отменённых уроков, вынесенных из горячих секций. Строки только
+-- дописываются, поэтому страницы заполняются полностью, а по времени хватает BRIN-индекса.
+
+CREATE TABLE lessons_archive (
+    id               BIGINT       NOT NULL PRIMARY KEY,
+    student_id       BIGINT,
+    tutor_id         BIGINT,
+    subject_id       BIGINT,
+    scheduled_time   TIMESTAMP(6) NOT NULL,
+    duration_minutes INTEGER,
+    price            NUMERIC(38, 2),
+    status           VARCHAR(255),
+    meeting_url      VARCHAR(255),
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6),
+    completed_at     TIMESTAMP(6),
+    version          BIGINT  DEFAULT 0 NOT NULL,
+    reminders_sent   INTEGER DEFAULT 0 NOT NULL,
+    archived_at      TIMESTAMP(6) DEFAULT now() NOT NULL
+) WITH (fillfactor = 100);
+
+CREATE INDEX idx_lessons_archive_scheduled_time ON lessons_archive USING brin (scheduled_time);
+CREATE INDEX idx_lessons_archive_student_id ON lessons_archive (student_id);
+CREATE INDEX idx_lessons_archive_tutor_id ON lessons_archive (tutor_id);
@@ -0,0 +1,5 @@
+-- Урок переведён в IN_PROGRESS планировщиком, а не участником. Такой урок по истечении времени
+-- не завершается с оплатой, а отменяется, если никто из участников не подтвердил начало.
+
+ALTER TABLE lessons ADD COLUMN auto_started BOOLEAN DEFAULT FALSE NOT NULL;
+ALTER TABLE lessons_archive ADD COLUMN auto_started BOOLEAN DEFAULT FALSE NOT NULL;
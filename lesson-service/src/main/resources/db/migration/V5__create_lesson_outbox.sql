@@ -0,0 +1,18 @@
+-- Исходящие события. Строка пишется в транзакции изменения урока и удаляется после подтверждения
+-- брокера; до этого next_attempt_at — аренда экземпляра, который её отправляет. Строку с истёкшей
+-- арендой (экземпляр упал, брокер не принял) забирает на отправку любой экземпляр.
+
+CREATE TABLE lesson_outbox (
+    id              BIGSERIAL    NOT NULL PRIMARY KEY,
+    exchange        VARCHAR(255) NOT NULL,
+    routing_key     VARCHAR(255) NOT NULL,
+    content_type    VARCHAR(255),
+    headers         TEXT,
+    body            BYTEA        NOT NULL,
+    traceparent     VARCHAR(55),
+    attempts        INTEGER      DEFAULT 0 NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_lesson_outbox_next_attempt_at ON lesson_outbox (next_attempt_at);
@@ -0,0 +1,300 @@
+package ru.tutorplatform.lesson.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.tutorplatform.common.codec.EventMessageConverter;
+import ru.tutorplatform.common.event.LessonChangedEvent;
+import ru.tutorplatform.common.messaging.TracedBatchingStrategy;
+import ru.tutorplatform.common.tracing.TraceContext;
+import ru.tutorplatform.common.tracing.TraceContextHolder;
+import ru.tutorplatform.lesson.model.OutboxMessage;
+import ru.tutorplatform.lesson.repository.OutboxMessageRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsyncEventPublisherTest {
+
+    private static final String EXCHANGE = "lesson.events";
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final OutboxMessageRepository outbox = mock(OutboxMessageRepository.class);
+    private final EventMessageConverter converter = EventMessageConverter.forFormat("binary");
+    private final Map<Long, OutboxMessage> rows = new ConcurrentHashMap<>();
+    private final List<Sent> sent = new CopyOnWriteArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private AsyncEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        when(rabbitTemplate.getMessageConverter()).thenReturn(converter);
+        when(outbox.save(any())).thenAnswer(invocation -> {
+            OutboxMessage row = invocation.getArgument(0);
+            row.setId(ids.incrementAndGet());
+            rows.put(row.getId(), row);
+            return row;
+        });
+        doAnswer(invocation -> {
+            sent.add(new Sent(invocation.getArgument(2), invocation.getArgument(3)));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.stop();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void batchesEventsToOneDestinationAndDeletesThemOnAck() {
+        publisher = start(10, 3, Duration.ofMillis(50));
+
+        for (long lessonId = 1; lessonId <= 3; lessonId++) {
+            publisher.publish(EXCHANGE, "", event(lessonId));
+        }
+
+        awaitSent(1);
+        Message batch = sent.get(0).message();
+        SimpleBatchingStrategy batching = new SimpleBatchingStrategy(0, 0, 0);
+        assertThat(batching.canDebatch(batch.getMessageProperties())).isTrue();
+        List<Object> events = new ArrayList<>();
+        batching.deBatch(batch, fragment -> events.add(converter.fromMessage(fragment)));
+        assertThat(events).extracting("lessonId").containsExactly(1L, 2L, 3L);
+
+        ack(0);
+        verify(outbox, timeout(1000)).deleteByIds(List.of(1L, 2L, 3L));
+        verify(outbox, never()).postpone(any(), any());
+    }
+
+    @Test
+    void carriesTraceOfEachBatchedEvent() {
+        publisher = start(10, 3, Duration.ofMillis(50));
+        List<TraceContext> traces = List.of(TraceContext.root(true), TraceContext.root(false), TraceContext.root(true));
+
+        for (int i = 0; i < traces.size(); i++) {
+            try (TraceContextHolder.Restored ignored = TraceContextHolder.restore(traces.get(i))) {
+                publisher.publish(EXCHANGE, "", event(i + 1));
+            }
+        }
+
+        awaitSent(1);
+        List<String> fragmentTraceparents = new ArrayList<>();
+        List<TraceContext> listenerTraces = new ArrayList<>();
+        new TracedBatchingStrategy().deBatch(sent.get(0).message(), fragment -> {
+            fragmentTraceparents.add(fragment.getMessageProperties().getHeader(TraceContext.TRACEPARENT));
+            listenerTraces.add(TraceContextHolder.current());
+        });
+        assertThat(fragmentTraceparents).containsExactlyElementsOf(traces.stream().map(TraceContext::traceparent).toList());
+        assertThat(listenerTraces).containsExactlyElementsOf(traces);
+        assertThat(TraceContextHolder.current()).isNull();
+    }
+
+    @Test
+    void batchesOnlyEventsOfOneFormat() throws Exception {
+        publisher = start(10, 3, Duration.ofMillis(200));
+        EventMessageConverter json = EventMessageConverter.forFormat("json");
+        List<OutboxMessage> due = List.of(row(converter, event(1)), row(json, event(2)), row(converter, event(3)));
+        when(outbox.claimDue(any(), any(), anyInt())).thenReturn(due);
+
+        publisher.relay();
+
+        awaitSent(2);
+        assertThat(sent).hasSize(2);
+        SimpleBatchingStrategy batching = new SimpleBatchingStrategy(0, 0, 0);
+        List<Object> binaryEvents = new ArrayList<>();
+        batching.deBatch(sent.get(0).message(), fragment -> binaryEvents.add(converter.fromMessage(fragment)));
+        assertThat(binaryEvents).extracting("lessonId").containsExactly(1L, 3L);
+        Message jsonMessage = sent.get(1).message();
+        assertThat(batching.canDebatch(jsonMessage.getMessageProperties())).isFalse();
+        assertThat(jsonMessage.getMessageProperties().getContentType())
+                .isEqualTo(json.toMessage(event(2), new MessageProperties()).getMessageProperties().getContentType());
+        assertThat(json.fromMessage(jsonMessage)).extracting("lessonId").isEqualTo(2L);
+    }
+
+    @Test
+    void retriesNackedEvents() {
+        publisher = start(10, 3, Duration.ZERO);
+
+        publisher.publish(EXCHANGE, "", event(1));
+        awaitSent(1);
+        nack(0);
+        awaitSent(2);
+        ack(1);
+
+        verify(outbox, timeout(1000)).deleteByIds(List.of(1L));
+        verify(outbox, never()).postpone(any(), any());
+    }
+
+    @Test
+    void postponesEventsInOutboxAfterLastAttempt() {
+        publisher = start(10, 2, Duration.ZERO);
+
+        publisher.publish(EXCHANGE, "", event(1));
+        awaitSent(1);
+        nack(0);
+        awaitSent(2);
+        nack(1);
+
+        verify(outbox, timeout(1000)).postpone(eq(List.of(1L)), any());
+        verify(outbox, never()).deleteByIds(any());
+    }
+
+    @Test
+    void postponesReturnedEvents() {
+        publisher = start(10, 3, Duration.ZERO);
+
+        publisher.publish("notification.urgent", "42", event(1));
+        awaitSent(1);
+        CorrelationData correlation = sent.get(0).correlation();
+        correlation.setReturned(new ReturnedMessage(sent.get(0).message(), 312, "NO_ROUTE", "notification.urgent", "42"));
+        correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        verify(outbox, timeout(1000)).postpone(eq(List.of(1L)), any());
+        verify(outbox, never()).deleteByIds(any());
+        assertThat(sent).hasSize(1);
+    }
+
+    @Test
+    void leavesEventInOutboxWhenQueueStaysFullAndRelaysItLater() throws InterruptedException {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sent.add(new Sent(invocation.getArgument(2), invocation.getArgument(3)));
+            if (sent.size() == 1) {
+                sending.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        publisher = start(1, 3, Duration.ZERO);
+
+        publisher.publish(EXCHANGE, "", event(1));
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+        publisher.publish(EXCHANGE, "", event(2)); // занимает единственное место в очереди
+        long startedAt = System.nanoTime();
+        publisher.publish(EXCHANGE, "", event(3)); // ждёт места и остаётся в outbox
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+        verify(outbox, times(3)).save(any());
+
+        release.countDown();
+        awaitSent(2);
+        when(outbox.claimDue(any(), any(), anyInt())).thenReturn(List.of(rows.get(3L)));
+        publisher.relay();
+
+        awaitSent(3);
+        assertThat(converter.fromMessage(sent.get(2).message())).extracting("lessonId").isEqualTo(3L);
+    }
+
+    @Test
+    void enqueuesOnlyAfterCommit() {
+        publisher = start(10, 3, Duration.ZERO);
+        TransactionSynchronizationManager.initSynchronization();
+
+        publisher.publish(EXCHANGE, "", event(1));
+
+        verify(outbox).save(any());
+        verify(rabbitTemplate, after(200).never()).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        awaitSent(1);
+    }
+
+    @Test
+    void doesNotSendRolledBackEvents() {
+        publisher = start(10, 3, Duration.ZERO);
+        TransactionSynchronizationManager.initSynchronization();
+
+        publisher.publish(EXCHANGE, "", event(1));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(rabbitTemplate, after(200).never()).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    private AsyncEventPublisher start(int queueCapacity, int maxAttempts, Duration linger) {
+        AsyncEventPublisher started = new AsyncEventPublisher(rabbitTemplate, outbox, Clock.systemDefaultZone(),
+                new SimpleMeterRegistry(), queueCapacity, 32, 65536, linger, Duration.ofMillis(50), maxAttempts,
+                Duration.ofMillis(10), Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofSeconds(1));
+        started.start();
+        return started;
+    }
+
+    private void awaitSent(int count) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sent.size() < count && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(sent).hasSizeGreaterThanOrEqualTo(count);
+    }
+
+    private void ack(int index) {
+        sent.get(index).correlation().getFuture().complete(new CorrelationData.Confirm(true, null));
+    }
+
+    private void nack(int index) {
+        sent.get(index).correlation().getFuture().complete(new CorrelationData.Confirm(false, "test"));
+    }
+
+    // Строка outbox, записанная этим кодеком, как её сохраняет publish
+    private OutboxMessage row(EventMessageConverter codec, Object event) throws Exception {
+        Message message = codec.toMessage(event, new MessageProperties());
+        OutboxMessage row = OutboxMessage.builder()
+                .id(ids.incrementAndGet())
+                .exchange(EXCHANGE)
+                .routingKey("")
+                .contentType(message.getMessageProperties().getContentType())
+                .headers(new ObjectMapper().writeValueAsString(message.getMessageProperties().getHeaders()))
+                .body(message.getBody())
+                .build();
+        rows.put(row.getId(), row);
+        return row;
+    }
+
+    private static LessonChangedEvent event(long lessonId) {
+        LessonChangedEvent event = new LessonChangedEvent();
+        event.setEventId("event-" + lessonId);
+        event.setChangeType("LESSON_UPDATED");
+        event.setLessonId(lessonId);
+        return event;
+    }
+
+    private record Sent(Message message, CorrelationData correlation) {
+    }
+}
@@ -0,0 +1,84 @@
+package ru.tutorplatform.lesson.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final long START = 1_000_000;
+
+    @Test
+    void firesTimersOfEveryLevelAtTickOfDeadline() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, 8, 3, START);
+        // Ячейки уровней: 10, 80 и 640 мс; горизонт — 4480 мс
+        List<Long> deadlines = List.of(START + 5, START + 79, START + 75, START + 333, START + 700, START + 4400);
+        deadlines.forEach(deadline -> wheel.schedule(deadline, deadline));
+
+        Map<Long, Long> firedAt = new LinkedHashMap<>();
+        for (long now = START; now <= START + 4500; now += TICK) {
+            long time = now;
+            wheel.advance(now, deadline -> firedAt.put(deadline, time));
+        }
+
+        assertThat(firedAt).containsOnlyKeys(deadlines);
+        // Таймер срабатывает в начале тика, в который попадает его срок
+        firedAt.forEach((deadline, time) -> assertThat(time).isEqualTo(deadline - deadline % TICK));
+    }
+
+    @Test
+    void firesInDeadlineOrderWhenAdvancedInOneJump() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, 8, 3, START);
+        wheel.schedule(START + 900L, START + 900);
+        wheel.schedule(START + 30L, START + 30);
+        wheel.schedule(START + 200L, START + 200);
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(START + 1000, fired::add);
+
+        assertThat(fired).containsExactly(START + 30, START + 200, START + 900);
+    }
+
+    @Test
+    void doesNotFireCancelledTimer() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 8, 3, START);
+        HierarchicalTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", START + 300);
+        wheel.schedule("kept", START + 300);
+
+        cancelled.cancel();
+        List<String> fired = new ArrayList<>();
+        wheel.advance(START + 400, fired::add);
+
+        assertThat(fired).containsExactly("kept");
+    }
+
+    @Test
+    void firesOverdueTimerOnNextAdvance() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 8, 3, START);
+        wheel.advance(START + 100, ignored -> {
+        });
+        wheel.schedule("overdue", START + 50);
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(START + 100, fired::add);
+
+        assertThat(fired).containsExactly("overdue");
+    }
+
+    @Test
+    void rejectsDeadlineBeyondHorizon() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 8, 3, START);
+
+        assertThat(wheel.horizonMillis()).isEqualTo(640 * 7);
+        wheel.schedule("edge", START + wheel.horizonMillis());
+        assertThatThrownBy(() -> wheel.schedule("late", START + wheel.horizonMillis() + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,109 @@
+package ru.tutorplatform.lesson.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.lesson.cache.CalendarEventCache;
+import ru.tutorplatform.lesson.cache.LessonCache;
+import ru.tutorplatform.lesson.model.Lesson;
+import ru.tutorplatform.lesson.repository.LessonRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Автоматические переходы: урок, начатый планировщиком, оплачивается, только если его подтвердил участник.
+ */
+class LessonLifecycleServiceTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-03-14T12:00:00Z"), ZoneId.of("Europe/Moscow"));
+    private static final LocalDateTime NOW = LocalDateTime.now(CLOCK);
+
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final LessonEventPublisher lessonEventPublisher = mock(LessonEventPublisher.class);
+    private final LessonSummaryService lessonSummaryService = mock(LessonSummaryService.class);
+    private LessonLifecycleService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LessonLifecycleService(lessonRepository, lessonEventPublisher, mock(CalendarEventCache.class),
+                mock(LessonCache.class), lessonSummaryService, CLOCK);
+        ReflectionTestUtils.setField(service, "batchSize", 100);
+        ReflectionTestUtils.setField(service, "autoCompleteGrace", Duration.ofMinutes(15));
+    }
+
+    @Test
+    void startsDueLessonsWithoutCharging() {
+        List<Lesson> started = List.of(lesson(1, Constants.LessonStatus.IN_PROGRESS, true));
+        when(lessonRepository.startDueLessons(NOW, 100)).thenReturn(started);
+
+        assertThat(service.startDueLessons()).isEqualTo(1);
+
+        verify(lessonSummaryService).transitioned(started, Constants.LessonStatus.SCHEDULED);
+        verify(lessonEventPublisher).sendLessonChangedBatch("LESSON_STARTED", started);
+        verify(lessonEventPublisher, never()).sendCompletedBatch(anyList());
+    }
+
+    @Test
+    void chargesOnlyConfirmedOverdueLessons() {
+        List<Lesson> completed = List.of(lesson(1, Constants.LessonStatus.COMPLETED, false));
+        when(lessonRepository.completeOverdueLessons(NOW, 15, 100)).thenReturn(completed);
+
+        assertThat(service.completeOverdueLessons()).isEqualTo(1);
+
+        verify(lessonEventPublisher).sendCompletedBatch(completed);
+        verify(lessonSummaryService).transitioned(completed, Constants.LessonStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void cancelsUnattendedLessonsWithoutPaymentEvent() {
+        List<Lesson> expired = List.of(lesson(2, Constants.LessonStatus.CANCELLED, true),
+                lesson(3, Constants.LessonStatus.CANCELLED, true));
+        when(lessonRepository.expireUnattendedLessons(NOW, 15, 100)).thenReturn(expired);
+
+        assertThat(service.expireUnattendedLessons()).isEqualTo(2);
+
+        verify(lessonEventPublisher).sendNotificationBatch("LESSON_CANCELLED", expired);
+        verify(lessonEventPublisher).sendLessonChangedBatch("LESSON_CANCELLED", expired);
+        verify(lessonEventPublisher, never()).sendCompletedBatch(anyList());
+        verify(lessonEventPublisher, never()).sendPaymentEvent(any());
+        verify(lessonSummaryService).transitioned(expired, Constants.LessonStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void publishesNothingWhenNoLessonIsDue() {
+        when(lessonRepository.expireUnattendedLessons(eq(NOW), eq(15), eq(100))).thenReturn(List.of());
+
+        assertThat(service.expireUnattendedLessons()).isZero();
+
+        verify(lessonEventPublisher, never()).sendNotificationBatch(anyString(), anyList());
+        verify(lessonEventPublisher, never()).sendLessonChangedBatch(anyString(), anyList());
+    }
+
+    static Lesson lesson(long id, String status, boolean autoStarted) {
+        return Lesson.builder()
+                .id(id)
+                .studentId(7L)
+                .tutorId(9L)
+                .status(status)
+                .scheduledTime(NOW.minusHours(2))
+                .durationMinutes(60)
+                .autoStarted(autoStarted)
+                .build();
+    }
+}
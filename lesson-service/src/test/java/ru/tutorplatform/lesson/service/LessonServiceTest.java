@@ -0,0 +1,126 @@
+package ru.tutorplatform.lesson.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.lesson.cache.CalendarEventCache;
+import ru.tutorplatform.lesson.cache.LessonCache;
+import ru.tutorplatform.lesson.exception.InvalidLessonStateException;
+import ru.tutorplatform.lesson.mapper.LessonMapper;
+import ru.tutorplatform.lesson.model.Lesson;
+import ru.tutorplatform.lesson.model.LessonTransition;
+import ru.tutorplatform.lesson.model.TransitionedLesson;
+import ru.tutorplatform.lesson.repository.LessonRepository;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ru.tutorplatform.lesson.service.LessonLifecycleServiceTest.lesson;
+
+/**
+ * Переходы урока по действиям участника.
+ */
+class LessonServiceTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-03-14T12:00:00Z"), ZoneId.of("Europe/Moscow"));
+    private static final LocalDateTime NOW = LocalDateTime.now(CLOCK);
+    private static final long STUDENT_ID = 7L;
+
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final LessonEventPublisher lessonEventPublisher = mock(LessonEventPublisher.class);
+    private final LessonSummaryService lessonSummaryService = mock(LessonSummaryService.class);
+    private LessonService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LessonService(lessonRepository, mock(LessonMapper.class), lessonEventPublisher,
+                mock(VideoConferenceService.class), mock(CalendarEventCache.class), mock(LessonCache.class),
+                lessonSummaryService, CLOCK);
+    }
+
+    @Test
+    void startConfirmsLessonStartedByScheduler() {
+        Lesson confirmed = lesson(1, Constants.LessonStatus.IN_PROGRESS, false);
+        when(lessonRepository.confirmStart(1L, STUDENT_ID, NOW)).thenReturn(Optional.of(confirmed));
+
+        service.startLesson(1L, STUDENT_ID);
+
+        verify(lessonRepository, never()).transition(anyLong(), anyLong(), any(), any(), any());
+        verify(lessonSummaryService, never()).transitioned(any());
+        verify(lessonEventPublisher).sendLessonChanged("LESSON_STARTED", confirmed);
+    }
+
+    @Test
+    void startMovesScheduledLessonToInProgress() {
+        Lesson started = lesson(1, Constants.LessonStatus.IN_PROGRESS, false);
+        when(lessonRepository.confirmStart(1L, STUDENT_ID, NOW)).thenReturn(Optional.empty());
+        when(lessonRepository.transition(1L, STUDENT_ID, Set.of(Constants.LessonStatus.SCHEDULED),
+                Constants.LessonStatus.IN_PROGRESS, NOW))
+                .thenReturn(Optional.of(new TransitionedLesson(started, Constants.LessonStatus.SCHEDULED)));
+
+        service.startLesson(1L, STUDENT_ID);
+
+        verify(lessonSummaryService).transitioned(List.of(new TransitionedLesson(started, Constants.LessonStatus.SCHEDULED)));
+        verify(lessonEventPublisher).sendLessonChanged("LESSON_STARTED", started);
+    }
+
+    @Test
+    void completeChargesLesson() {
+        Lesson completed = lesson(1, Constants.LessonStatus.COMPLETED, false);
+        when(lessonRepository.transition(1L, STUDENT_ID, Set.of(Constants.LessonStatus.IN_PROGRESS),
+                Constants.LessonStatus.COMPLETED, NOW))
+                .thenReturn(Optional.of(new TransitionedLesson(completed, Constants.LessonStatus.IN_PROGRESS)));
+
+        service.completeLesson(1L, STUDENT_ID);
+
+        verify(lessonEventPublisher).sendPaymentEvent(completed);
+    }
+
+    @Test
+    void cancelUsesOneStatementAndReportsPreviousStatus() {
+        Lesson cancelled = lesson(1, Constants.LessonStatus.CANCELLED, false);
+        TransitionedLesson transitioned = new TransitionedLesson(cancelled, Constants.LessonStatus.IN_PROGRESS);
+        when(lessonRepository.transition(1L, STUDENT_ID, LessonTransition.CANCEL.getSourceStatuses(),
+                Constants.LessonStatus.CANCELLED, NOW)).thenReturn(Optional.of(transitioned));
+
+        service.cancelLesson(1L, "болезнь", STUDENT_ID);
+
+        verify(lessonRepository).transition(anyLong(), anyLong(), any(), any(), any());
+        verify(lessonSummaryService).transitioned(List.of(transitioned));
+        verify(lessonEventPublisher).sendLessonChanged("LESSON_CANCELLED", cancelled);
+    }
+
+    @Test
+    void completeRejectsLessonThatWasNotStarted() {
+        Lesson scheduled = lesson(1, Constants.LessonStatus.SCHEDULED, false);
+        when(lessonRepository.transition(anyLong(), anyLong(), any(), any(), any())).thenReturn(Optional.empty());
+        when(lessonRepository.findById(1L)).thenReturn(Optional.of(scheduled));
+
+        assertThatThrownBy(() -> service.completeLesson(1L, STUDENT_ID))
+                .isInstanceOf(InvalidLessonStateException.class);
+        verify(lessonEventPublisher, never()).sendPaymentEvent(any());
+    }
+
+    @Test
+    void transitionsAllowOnlyForwardMoves() {
+        assertThat(LessonTransition.START.isAllowedFrom(Constants.LessonStatus.SCHEDULED)).isTrue();
+        assertThat(LessonTransition.START.isAllowedFrom(Constants.LessonStatus.COMPLETED)).isFalse();
+        assertThat(LessonTransition.COMPLETE.isAllowedFrom(Constants.LessonStatus.SCHEDULED)).isFalse();
+        assertThat(LessonTransition.CANCEL.isAllowedFrom(Constants.LessonStatus.IN_PROGRESS)).isTrue();
+        assertThat(LessonTransition.CANCEL.isAllowedFrom(Constants.LessonStatus.COMPLETED)).isFalse();
+        assertThat(LessonTransition.toStatus(Constants.LessonStatus.COMPLETED)).contains(LessonTransition.COMPLETE);
+    }
+}
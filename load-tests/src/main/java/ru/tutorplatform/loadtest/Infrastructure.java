@@ -0,0 +1,93 @@
+package ru.tutorplatform.loadtest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.utility.MountableFile;
+
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Локальные заменители внешних зависимостей: PostgreSQL и RabbitMQ в контейнерах,
+ * WireMock вместо OAuth и API встреч Zoom.
+ */
+@Slf4j
+public class Infrastructure implements AutoCloseable {
+
+    private final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withUsername("tutor")
+            .withPassword("tutor123")
+            .withInitScript("load-test/init-databases.sql");
+
+    // Тот же список плагинов, что и в docker-compose: брокер включает их при старте
+    private final RabbitMQContainer rabbitmq = new RabbitMQContainer("rabbitmq:3.12-management-alpine")
+            .withCopyFileToContainer(MountableFile.forClasspathResource("load-test/rabbitmq-enabled-plugins"),
+                    "/etc/rabbitmq/enabled_plugins");
+
+    private final WireMockServer zoom = new WireMockServer(options().dynamicPort().containerThreads(64));
+
+    public void start(Duration zoomLatency) {
+        postgres.start();
+        rabbitmq.start();
+        zoom.start();
+
+        zoom.stubFor(post(urlPathEqualTo("/oauth/token"))
+                .willReturn(okJson("{\"access_token\":\"load-test-token\",\"token_type\":\"bearer\",\"expires_in\":3600}")));
+        // Задержка как у настоящего Zoom: создание урока ждёт встречу синхронно
+        zoom.stubFor(post(urlPathEqualTo("/v2/users/me/meetings"))
+                .willReturn(aResponse()
+                        .withStatus(201)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"id\":1,\"join_url\":\"https://zoom.us/j/load-test\"}")
+                        .withFixedDelay((int) zoomLatency.toMillis())));
+
+        log.info("Инфраструктура запущена: postgres {}, rabbitmq {}, zoom {}",
+                postgres.getMappedPort(5432), rabbitmq.getAmqpPort(), zoom.port());
+    }
+
+    public String jdbcUrl(String database) {
+        return "jdbc:postgresql://" + postgres.getHost() + ":" + postgres.getMappedPort(5432) + "/" + database;
+    }
+
+    public String databaseUsername() {
+        return postgres.getUsername();
+    }
+
+    public String databasePassword() {
+        return postgres.getPassword();
+    }
+
+    public String rabbitHost() {
+        return rabbitmq.getHost();
+    }
+
+    public int rabbitPort() {
+        return rabbitmq.getAmqpPort();
+    }
+
+    public String rabbitUsername() {
+        return rabbitmq.getAdminUsername();
+    }
+
+    public String rabbitPassword() {
+        return rabbitmq.getAdminPassword();
+    }
+
+    public String zoomUrl() {
+        return zoom.baseUrl();
+    }
+
+    @Override
+    public void close() {
+        zoom.stop();
+        rabbitmq.stop();
+        postgres.stop();
+    }
+}
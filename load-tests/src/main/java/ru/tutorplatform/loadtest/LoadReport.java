@@ -0,0 +1,114 @@
+package ru.tutorplatform.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Итог прогона: задержки p50/p90/p99 и пропускная способность по каждому эндпоинту сценария.
+ * JSON-форма стабильна по составу и порядку полей, чтобы прогоны разных версий можно было сравнивать diff'ом.
+ */
+public record LoadReport(String generatedAt, Map<String, Object> parameters, List<ScenarioReport> scenarios) {
+
+    public record ScenarioReport(String name, long durationMillis, long failedIterations, List<EndpointReport> endpoints) {
+    }
+
+    public record EndpointReport(String endpoint, long requests, long errors, double throughputPerSecond,
+                                 double p50Millis, double p90Millis, double p99Millis, double maxMillis) {
+    }
+
+    public static LoadReport of(LoadTestConfig config, LoadTestConfig.ThreadMode threadMode, List<Scenario> scenarios) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("threadMode", threadMode.key());
+        parameters.put("students", config.students());
+        parameters.put("tutors", config.tutors());
+        parameters.put("concurrency", config.concurrency());
+        parameters.put("zoomLatencyMillis", config.zoomLatency().toMillis());
+        parameters.put("serviceJavaOpts", config.serviceJavaOpts());
+
+        List<ScenarioReport> reports = scenarios.stream()
+                .map(scenario -> new ScenarioReport(
+                        scenario.getName(),
+                        scenario.getElapsed().toMillis(),
+                        scenario.getFailedIterations(),
+                        scenario.getEndpoints().entrySet().stream()
+                                .map(entry -> endpointReport(entry.getKey(), entry.getValue(), scenario))
+                                .toList()))
+                .toList();
+        return new LoadReport(OffsetDateTime.now().toString(), parameters, reports);
+    }
+
+    private static EndpointReport endpointReport(String endpoint, EndpointStats stats, Scenario scenario) {
+        double seconds = Math.max(scenario.getElapsed().toNanos(), 1) / 1e9;
+        return new EndpointReport(
+                endpoint,
+                stats.requests(),
+                stats.errors(),
+                round(stats.requests() / seconds),
+                round(stats.percentileMillis(50)),
+                round(stats.percentileMillis(90)),
+                round(stats.percentileMillis(99)),
+                round(stats.maxMillis()));
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-22s %-34s %9s %7s %10s %10s %10s %10s %10s%n",
+                "Сценарий", "Эндпоинт", "Запросы", "Ошибки", "RPS", "p50, мс", "p90, мс", "p99, мс", "max, мс");
+        for (ScenarioReport scenario : scenarios) {
+            for (EndpointReport endpoint : scenario.endpoints()) {
+                out.printf("%-22s %-34s %9d %7d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                        scenario.name(), endpoint.endpoint(), endpoint.requests(), endpoint.errors(),
+                        endpoint.throughputPerSecond(), endpoint.p50Millis(), endpoint.p90Millis(),
+                        endpoint.p99Millis(), endpoint.maxMillis());
+            }
+        }
+    }
+
+    /**
+     * Изменение пропускной способности и p99 второго прогона относительно первого по общим эндпоинтам.
+     */
+    public static void printComparison(LoadReport baseline, LoadReport candidate, PrintStream out) {
+        out.printf("%nСравнение: %s -> %s%n", baseline.parameters().get("threadMode"), candidate.parameters().get("threadMode"));
+        out.printf("%-22s %-34s %10s %10s %8s %10s %10s %8s%n",
+                "Сценарий", "Эндпоинт", "RPS", "RPS", "Δ, %", "p99, мс", "p99, мс", "Δ, %");
+        for (ScenarioReport scenario : candidate.scenarios()) {
+            Map<String, EndpointReport> before = baseline.scenarios().stream()
+                    .filter(previous -> previous.name().equals(scenario.name()))
+                    .flatMap(previous -> previous.endpoints().stream())
+                    .collect(LinkedHashMap::new, (map, endpoint) -> map.put(endpoint.endpoint(), endpoint), Map::putAll);
+            for (EndpointReport endpoint : scenario.endpoints()) {
+                EndpointReport previous = before.get(endpoint.endpoint());
+                if (previous == null) {
+                    continue;
+                }
+                out.printf("%-22s %-34s %10.1f %10.1f %8.1f %10.2f %10.2f %8.1f%n",
+                        scenario.name(), endpoint.endpoint(),
+                        previous.throughputPerSecond(), endpoint.throughputPerSecond(),
+                        change(previous.throughputPerSecond(), endpoint.throughputPerSecond()),
+                        previous.p99Millis(), endpoint.p99Millis(),
+                        change(previous.p99Millis(), endpoint.p99Millis()));
+            }
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file.toFile(), this);
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : round((after - before) / before * 100);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
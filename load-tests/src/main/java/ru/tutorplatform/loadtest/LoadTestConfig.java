@@ -0,0 +1,58 @@
+package ru.tutorplatform.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Параметры прогона из системных свойств {@code loadtest.*}.
+ */
+public record LoadTestConfig(
+        Path servicesDir,
+        Path outputDir,
+        int students,
+        int tutors,
+        int concurrency,
+        int loginRequests,
+        int lessonRequests,
+        int dashboardRequests,
+        Duration zoomLatency,
+        Duration startupTimeout,
+        String serviceJavaOpts,
+        List<ThreadMode> threadModes) {
+
+    /**
+     * Режим потоков сервисов: прогон повторяется для каждого режима на чистой инфраструктуре.
+     */
+    public enum ThreadMode {
+        PLATFORM,
+        VIRTUAL;
+
+        public String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Path.of(property("services-dir", "load-tests/target/services")),
+                Path.of(property("output-dir", "load-tests/target/load-test")),
+                Integer.parseInt(property("students", "200")),
+                Integer.parseInt(property("tutors", "20")),
+                Integer.parseInt(property("concurrency", "32")),
+                Integer.parseInt(property("login-requests", "5000")),
+                Integer.parseInt(property("lesson-requests", "2000")),
+                Integer.parseInt(property("dashboard-requests", "10000")),
+                Duration.parse(property("zoom-latency", "PT0.15S")),
+                Duration.parse(property("startup-timeout", "PT3M")),
+                property("service-java-opts", "-Xmx512m"),
+                Arrays.stream(property("thread-modes", "platform").split(","))
+                        .map(mode -> ThreadMode.valueOf(mode.trim().toUpperCase()))
+                        .toList());
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+}
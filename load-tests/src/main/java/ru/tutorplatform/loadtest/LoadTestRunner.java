@@ -0,0 +1,127 @@
+package ru.tutorplatform.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Сквозной нагрузочный прогон: шлюз, user-service и lesson-service против PostgreSQL и RabbitMQ
+ * в Testcontainers и WireMock вместо Zoom. Запуск: {@code mvn -B -Pload-test verify -DskipTests}.
+ * С {@code -Dloadtest.thread-modes=platform,virtual} прогон повторяется в обоих режимах потоков
+ * и завершается сравнением.
+ */
+@Slf4j
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Files.createDirectories(config.outputDir());
+        if (config.threadModes().contains(LoadTestConfig.ThreadMode.VIRTUAL) && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Режим virtual требует JDK 21, прогон запущен на " + Runtime.version());
+        }
+
+        List<LoadReport> reports = new ArrayList<>();
+        for (LoadTestConfig.ThreadMode threadMode : config.threadModes()) {
+            LoadReport report = LoadReport.of(config, threadMode, run(config, threadMode));
+            report.print(System.out);
+            Path reportFile = config.outputDir().resolve("load-test-report-" + threadMode.key() + ".json");
+            report.write(reportFile);
+            log.info("Отчёт сохранён: {}", reportFile);
+            reports.add(report);
+        }
+        if (reports.size() > 1) {
+            LoadReport.printComparison(reports.get(0), reports.get(reports.size() - 1), System.out);
+        }
+    }
+
+    // Каждый режим — на своей инфраструктуре: данные и прогретые кэши прошлого прогона не искажают сравнение
+    private static List<Scenario> run(LoadTestConfig config, LoadTestConfig.ThreadMode threadMode) throws Exception {
+        Path logDir = config.outputDir().resolve("logs").resolve(threadMode.key());
+        try (Infrastructure infrastructure = new Infrastructure()) {
+            infrastructure.start(config.zoomLatency());
+
+            int userServicePort = ServiceProcess.freePort();
+            int lessonServicePort = ServiceProcess.freePort();
+            int gatewayPort = ServiceProcess.freePort();
+
+            try (ServiceProcess userService = ServiceProcess.start("user-service",
+                         config.servicesDir().resolve("user-service.jar"), userServicePort,
+                         withThreadMode(userServiceProperties(infrastructure), threadMode), config.serviceJavaOpts(), logDir);
+                 ServiceProcess lessonService = ServiceProcess.start("lesson-service",
+                         config.servicesDir().resolve("lesson-service.jar"), lessonServicePort,
+                         withThreadMode(lessonServiceProperties(infrastructure), threadMode), config.serviceJavaOpts(), logDir);
+                 ServiceProcess gateway = ServiceProcess.start("api-gateway",
+                         config.servicesDir().resolve("api-gateway.jar"), gatewayPort,
+                         gatewayProperties(userServicePort, lessonServicePort), config.serviceJavaOpts(), logDir)) {
+
+                userService.awaitHealthy(config.startupTimeout());
+                lessonService.awaitHealthy(config.startupTimeout());
+                gateway.awaitHealthy(config.startupTimeout());
+
+                return new LoadTestScenarios(config, gateway.url()).runAll();
+            }
+        }
+    }
+
+    // Шлюз на WebFlux, режим потоков касается только сервисов на Spring MVC
+    private static List<String> withThreadMode(List<String> properties, LoadTestConfig.ThreadMode threadMode) {
+        if (threadMode == LoadTestConfig.ThreadMode.PLATFORM) {
+            return properties;
+        }
+        return concat(properties, List.of("spring.profiles.active=virtual-threads"));
+    }
+
+    private static List<String> commonProperties() {
+        return List.of(
+                "eureka.client.enabled=false",
+                "spring.jpa.show-sql=false",
+                // DEBUG-логи из application.yml сервисов искажают замеры
+                "logging.level.root=INFO",
+                "logging.level.ru.tutorplatform=INFO",
+                "logging.level.org.springframework.amqp=INFO",
+                "logging.level.org.springframework.security=INFO",
+                "logging.level.org.springframework.cloud.gateway=INFO",
+                "logging.level.reactor.netty=INFO");
+    }
+
+    private static List<String> backendProperties(Infrastructure infrastructure, String database) {
+        return concat(commonProperties(), List.of(
+                "spring.datasource.url=" + infrastructure.jdbcUrl(database),
+                "spring.datasource.username=" + infrastructure.databaseUsername(),
+                "spring.datasource.password=" + infrastructure.databasePassword(),
+                "spring.rabbitmq.host=" + infrastructure.rabbitHost(),
+                "spring.rabbitmq.port=" + infrastructure.rabbitPort(),
+                "spring.rabbitmq.username=" + infrastructure.rabbitUsername(),
+                "spring.rabbitmq.password=" + infrastructure.rabbitPassword()));
+    }
+
+    private static List<String> userServiceProperties(Infrastructure infrastructure) {
+        // Миграции user-service не покрывают все колонки сущности User, validate на чистой базе не проходит
+        return concat(backendProperties(infrastructure, "userdb"), List.of(
+                "spring.jpa.hibernate.ddl-auto=update"));
+    }
+
+    private static List<String> lessonServiceProperties(Infrastructure infrastructure) {
+        return concat(backendProperties(infrastructure, "lessondb"), List.of(
+                "video.zoom.base-url=" + infrastructure.zoomUrl() + "/v2",
+                "video.zoom.oauth-url=" + infrastructure.zoomUrl() + "/oauth/token"));
+    }
+
+    private static List<String> gatewayProperties(int userServicePort, int lessonServicePort) {
+        // Без Eureka маршруты lb:// разрешаются через простой DiscoveryClient
+        return concat(commonProperties(), List.of(
+                "spring.cloud.discovery.client.simple.instances.user-service[0].uri=http://localhost:" + userServicePort,
+                "spring.cloud.discovery.client.simple.instances.lesson-service[0].uri=http://localhost:" + lessonServicePort));
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        return Stream.concat(first.stream(), second.stream()).toList();
+    }
+}
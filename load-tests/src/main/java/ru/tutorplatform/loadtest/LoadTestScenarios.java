@@ -0,0 +1,145 @@
+package ru.tutorplatform.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Сценарии, которые гоняются через шлюз: заведение пользователей, шторм логинов,
+ * массовое создание уроков и открытие дашборда (список уроков и календарь недели).
+ */
+public class LoadTestScenarios {
+
+    private static final String PASSWORD = "load-test-password";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestConfig config;
+    private final String gatewayUrl;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLongArray studentIds;
+    private final AtomicLongArray tutorIds;
+    private final LocalDateTime firstLessonTime = LocalDate.now().plusDays(1).atTime(8, 0);
+
+    public LoadTestScenarios(LoadTestConfig config, String gatewayUrl) {
+        this.config = config;
+        this.gatewayUrl = gatewayUrl;
+        this.studentIds = new AtomicLongArray(config.students());
+        this.tutorIds = new AtomicLongArray(config.tutors());
+    }
+
+    public List<Scenario> runAll() throws InterruptedException {
+        return List.of(
+                scenario("seed-users").run(config.concurrency(), config.students() + config.tutors(), this::createUser),
+                scenario("login-storm").run(config.concurrency(), config.loginRequests(), this::login),
+                scenario("bulk-lesson-creation").run(config.concurrency(), config.lessonRequests(), this::createLesson),
+                scenario("dashboard").run(config.concurrency(), config.dashboardRequests(), this::openDashboard));
+    }
+
+    private Scenario scenario(String name) {
+        return new Scenario(name, httpClient);
+    }
+
+    private void createUser(Scenario scenario, int iteration) throws IOException, InterruptedException {
+        boolean student = iteration < config.students();
+        int index = student ? iteration : iteration - config.students();
+        String role = student ? "STUDENT" : "TUTOR";
+
+        HttpResponse<String> response = scenario.call("POST /api/users", post("/api/users", Map.of(
+                "username", role.toLowerCase() + index,
+                "password", PASSWORD,
+                "role", role,
+                "email", email(role, index),
+                "firstName", "Load",
+                "lastName", "Test")));
+        long id = data(response).path("id").asLong();
+        (student ? studentIds : tutorIds).set(index, id);
+    }
+
+    private void login(Scenario scenario, int iteration) throws IOException, InterruptedException {
+        int index = ThreadLocalRandom.current().nextInt(config.students());
+        HttpResponse<String> response = scenario.call("POST /api/auth/login", post("/api/auth/login", Map.of(
+                "email", email("STUDENT", index),
+                "password", PASSWORD)));
+        data(response);
+    }
+
+    private void createLesson(Scenario scenario, int iteration) throws IOException, InterruptedException {
+        long studentId = studentIds.get(iteration % config.students());
+        long tutorId = tutorIds.get(iteration % config.tutors());
+        // У каждого репетитора уроки идут подряд, без пересечений
+        LocalDateTime scheduledTime = firstLessonTime.plusHours(iteration / config.tutors());
+
+        HttpRequest request = jsonRequest("/api/lessons")
+                .header("X-User-Id", String.valueOf(studentId))
+                .POST(body(Map.of(
+                        "studentId", studentId,
+                        "tutorId", tutorId,
+                        "subjectId", 1 + iteration % 5,
+                        "scheduledTime", scheduledTime.toString(),
+                        "durationMinutes", 60,
+                        "price", 1500)))
+                .build();
+        data(scenario.call("POST /api/lessons", request));
+    }
+
+    private void openDashboard(Scenario scenario, int iteration) throws IOException, InterruptedException {
+        long studentId = studentIds.get(ThreadLocalRandom.current().nextInt(config.students()));
+        LocalDateTime weekStart = firstLessonTime.toLocalDate().atStartOfDay();
+
+        HttpRequest lessons = jsonRequest("/api/lessons?studentId=" + studentId)
+                .header("X-User-Id", String.valueOf(studentId))
+                .header("X-User-Role", "STUDENT")
+                .GET()
+                .build();
+        data(scenario.call("GET /api/lessons", lessons));
+
+        HttpRequest calendar = jsonRequest("/api/calendar/events?start=" + weekStart + "&end=" + weekStart.plusDays(7))
+                .header("X-User-Id", String.valueOf(studentId))
+                .GET()
+                .build();
+        data(scenario.call("GET /api/calendar/events", calendar));
+    }
+
+    private HttpRequest post(String path, Map<String, Object> payload) throws IOException {
+        return jsonRequest(path).POST(body(payload)).build();
+    }
+
+    private HttpRequest.Builder jsonRequest(String path) {
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher body(Map<String, Object> payload) throws IOException {
+        return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(payload));
+    }
+
+    private JsonNode data(HttpResponse<String> response) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(response.request().method() + " " + response.request().uri().getPath()
+                    + " вернул " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body()).path("data");
+    }
+
+    private static String email(String role, int index) {
+        return role.toLowerCase() + index + "@load.test";
+    }
+}
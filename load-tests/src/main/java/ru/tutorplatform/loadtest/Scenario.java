@@ -0,0 +1,105 @@
+package ru.tutorplatform.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сценарий нагрузки: {@code requests} итераций шага, выполняемых {@code concurrency} потоками
+ * (замкнутая модель — следующий запрос потока уходит после ответа на предыдущий).
+ */
+@Slf4j
+public class Scenario {
+
+    private final String name;
+    private final HttpClient httpClient;
+    private final Map<String, EndpointStats> endpoints = new ConcurrentSkipListMap<>();
+    private final AtomicLong failedIterations = new AtomicLong();
+    private Duration elapsed = Duration.ZERO;
+
+    public Scenario(String name, HttpClient httpClient) {
+        this.name = name;
+        this.httpClient = httpClient;
+    }
+
+    @FunctionalInterface
+    public interface Step {
+        void execute(Scenario scenario, int iteration) throws Exception;
+    }
+
+    public Scenario run(int concurrency, int requests, Step step) throws InterruptedException {
+        log.info("Сценарий {}: {} итераций в {} потоков", name, requests, concurrency);
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long started = System.nanoTime();
+
+        for (int worker = 0; worker < concurrency; worker++) {
+            workers.execute(() -> {
+                int iteration;
+                while ((iteration = next.getAndIncrement()) < requests) {
+                    try {
+                        step.execute(this, iteration);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        if (failedIterations.incrementAndGet() == 1) {
+                            log.warn("Сценарий {}: ошибка итерации {}", name, iteration, e);
+                        }
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.HOURS);
+
+        elapsed = Duration.ofNanos(System.nanoTime() - started);
+        log.info("Сценарий {} завершён за {} мс, неудачных итераций: {}",
+                name, elapsed.toMillis(), failedIterations.get());
+        return this;
+    }
+
+    /**
+     * Выполняет запрос и записывает задержку в статистику эндпоинта.
+     * Ответ не из 2xx считается ошибкой, но возвращается вызывающему.
+     */
+    public HttpResponse<String> call(String endpoint, HttpRequest request) throws IOException, InterruptedException {
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            stats.record(System.nanoTime() - started, response.statusCode() / 100 == 2);
+            return response;
+        } catch (IOException e) {
+            stats.record(System.nanoTime() - started, false);
+            throw e;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, EndpointStats> getEndpoints() {
+        return endpoints;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public long getFailedIterations() {
+        return failedIterations.get();
+    }
+}
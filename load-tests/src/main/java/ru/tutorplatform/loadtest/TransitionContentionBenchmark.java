@@ -0,0 +1,353 @@
+package ru.tutorplatform.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.common.jdbc.JdbcMetricsAutoConfiguration;
+import ru.tutorplatform.lesson.model.Lesson;
+import ru.tutorplatform.lesson.model.LessonTransition;
+import ru.tutorplatform.lesson.repository.LessonRepository;
+
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Гонка переходов статуса урока: на каждый урок в IN_PROGRESS одновременно приходят завершение
+ * и отмена, как при двойном клике или автоматическом завершении во время отмены пользователем.
+ * Схему создают миграции lesson-service (секционированная таблица {@code lessons}), уроки читаются
+ * и пишутся через его {@link LessonRepository}. Сравниваются три способа перехода:
+ * <ul>
+ *     <li>{@code read-modify-write} — прежний, в сервисе его больше нет: {@code findById}, проверка
+ *     статуса в памяти и UPDATE без проверки версии;</li>
+ *     <li>{@code optimistic} — {@code findById} и сохранение сущности с проверкой {@code version},
+ *     как {@code LessonService.updateLesson};</li>
+ *     <li>{@code conditional} — {@link LessonRepository#transition}, как переходы {@code LessonService}.</li>
+ * </ul>
+ * Каждый переход — своя транзакция. Потерянное обновление — переход, который вызывающий счёл
+ * успешным, хотя итоговый статус урока другой: например, событие оплаты ушло, а урок в итоге отменён.
+ * Запросы считаются метриками {@code db.query} ({@link JdbcMetricsAutoConfiguration}) на один
+ * запрошенный переход; COMMIT в них не входит. Записи сводок и outbox, которые {@code LessonService}
+ * делает после перехода, одинаковы для всех способов и здесь не измеряются.
+ * <p>
+ * Запуск: {@code mvn -B -pl load-tests -am -Pcontention-benchmark verify -DskipTests}. Нужен Docker или
+ * готовая пустая база: {@code -Dcontention.jdbc-url=jdbc:postgresql://localhost:5432/contention}
+ * с {@code contention.username} и {@code contention.password}.
+ */
+@Slf4j
+public final class TransitionContentionBenchmark {
+
+    private static final long TUTOR_ID = 1L;
+    private static final long STUDENT_ID = 2L;
+
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final int lessons;
+    private final int contenders;
+    private final int threads;
+
+    private TransitionContentionBenchmark(String jdbcUrl, String username, String password,
+                                          int lessons, int contenders, int threads) {
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.lessons = lessons;
+        this.contenders = contenders;
+        this.threads = threads;
+    }
+
+    public record StrategyReport(String strategy, long transitions, long succeeded, long conflicts,
+                                 long lostUpdates, double queriesPerTransition,
+                                 double throughputPerSecond, long durationMillis) {
+    }
+
+    public record Report(String generatedAt, Map<String, Object> parameters, List<StrategyReport> strategies) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int lessons = Integer.parseInt(System.getProperty("contention.lessons", "2000"));
+        int contenders = Integer.parseInt(System.getProperty("contention.contenders", "4"));
+        int threads = Integer.parseInt(System.getProperty("contention.threads", "32"));
+        Path outputDir = Path.of(System.getProperty("contention.output-dir", "load-tests/target/load-test"));
+        String jdbcUrl = System.getProperty("contention.jdbc-url");
+
+        Report report;
+        if (jdbcUrl != null) {
+            report = new TransitionContentionBenchmark(jdbcUrl,
+                    System.getProperty("contention.username", "tutor"),
+                    System.getProperty("contention.password", "tutor123"),
+                    lessons, contenders, threads).run();
+        } else {
+            try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")) {
+                postgres.start();
+                report = new TransitionContentionBenchmark(postgres.getJdbcUrl(), postgres.getUsername(),
+                        postgres.getPassword(), lessons, contenders, threads).run();
+            }
+        }
+
+        print(report, System.out);
+        Files.createDirectories(outputDir);
+        Path reportFile = outputDir.resolve("contention-report.json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile.toFile(), report);
+        log.info("Отчёт сохранён: {}", reportFile);
+    }
+
+    private Report run() throws Exception {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("lessons", lessons);
+        parameters.put("contendersPerLesson", contenders);
+        parameters.put("threads", threads);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LessonStore.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + jdbcUrl,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        "--spring.datasource.hikari.maximum-pool-size=" + (threads + 1))) {
+            Lessons store = new Lessons(context);
+            List<StrategyReport> reports = new ArrayList<>();
+            for (Strategy strategy : Strategy.values()) {
+                List<Long> ids = store.prepare(lessons);
+                reports.add(measure(store, strategy, ids));
+            }
+            return new Report(OffsetDateTime.now().toString(), parameters, reports);
+        }
+    }
+
+    private StrategyReport measure(Lessons store, Strategy strategy, List<Long> ids) throws Exception {
+        // Участники гонки за урок чередуются: чётные завершают, нечётные отменяют
+        List<long[]> tasks = new ArrayList<>();
+        for (Long id : ids) {
+            for (int contender = 0; contender < contenders; contender++) {
+                tasks.add(new long[]{id, contender});
+            }
+        }
+
+        Map<Long, List<String>> claimed = new ConcurrentHashMap<>();
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        // Задачи одного урока идут подряд, поэтому разные потоки берут их почти одновременно
+        for (long[] task : tasks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                LessonTransition transition = task[1] % 2 == 0 ? LessonTransition.COMPLETE : LessonTransition.CANCEL;
+                if (store.apply(strategy, task[0], transition)) {
+                    succeeded.incrementAndGet();
+                    claimed.computeIfAbsent(task[0], id -> new CopyOnWriteArrayList<>()).add(transition.getTargetStatus());
+                } else {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long queriesBefore = store.queries();
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        long queries = store.queries() - queriesBefore;
+        executor.shutdown();
+
+        long lost = lostUpdates(store.statuses(ids), claimed);
+        double seconds = Math.max(elapsed, 1) / 1e9;
+        StrategyReport report = new StrategyReport(strategy.key, tasks.size(), succeeded.get(), conflicts.get(), lost,
+                round((double) queries / tasks.size()), round(tasks.size() / seconds), elapsed / 1_000_000);
+        log.info("{}: {}", strategy.key, report);
+        return report;
+    }
+
+    /**
+     * На урок засчитывается один успех с итоговым статусом; остальные успехи — потерянные обновления.
+     */
+    private static long lostUpdates(Map<Long, String> finalStatuses, Map<Long, List<String>> claimed) {
+        long lost = 0;
+        for (Map.Entry<Long, List<String>> entry : claimed.entrySet()) {
+            List<String> claims = entry.getValue();
+            lost += claims.size() - (claims.contains(finalStatuses.get(entry.getKey())) ? 1 : 0);
+        }
+        return lost;
+    }
+
+    private static void print(Report report, PrintStream out) {
+        out.printf("%-18s %10s %10s %10s %10s %14s %10s%n",
+                "Способ", "Переходы", "Успешно", "Отказы", "Потеряно", "Запросов/пер.", "пер./с");
+        for (StrategyReport strategy : report.strategies()) {
+            out.printf("%-18s %10d %10d %10d %10d %14.2f %10.1f%n",
+                    strategy.strategy(), strategy.transitions(), strategy.succeeded(), strategy.conflicts(),
+                    strategy.lostUpdates(), strategy.queriesPerTransition(), strategy.throughputPerSecond());
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private enum Strategy {
+
+        READ_MODIFY_WRITE("read-modify-write"),
+        OPTIMISTIC("optimistic"),
+        CONDITIONAL("conditional");
+
+        private final String key;
+
+        Strategy(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Хранилище уроков lesson-service: источник данных, миграции, JPA и метрики запросов из его
+     * настроек ({@code application.yml} лежит в его jar). Веб, RabbitMQ и планировщики не поднимаются.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, FlywayAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class,
+            JdbcMetricsAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Lesson.class)
+    @EnableJpaRepositories(basePackageClasses = LessonRepository.class)
+    static class LessonStore {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    private static final class Lessons {
+
+        private final LessonRepository repository;
+        private final EntityManager entityManager;
+        private final TransactionTemplate transactions;
+        private final MeterRegistry meterRegistry;
+
+        private Lessons(ConfigurableApplicationContext context) {
+            this.repository = context.getBean(LessonRepository.class);
+            this.entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                    context.getBean(EntityManagerFactory.class));
+            this.transactions = context.getBean(TransactionTemplate.class);
+            this.meterRegistry = context.getBean(MeterRegistry.class);
+        }
+
+        private List<Long> prepare(int count) {
+            repository.deleteAllInBatch();
+            LocalDateTime now = LocalDateTime.now();
+            List<Lesson> created = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                created.add(Lesson.builder()
+                        .studentId(STUDENT_ID)
+                        .tutorId(TUTOR_ID)
+                        .scheduledTime(now.minusMinutes(30))
+                        .durationMinutes(60)
+                        .price(new BigDecimal("1000.00"))
+                        .status(Constants.LessonStatus.IN_PROGRESS)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build());
+            }
+            return repository.saveAll(created).stream().map(Lesson::getId).toList();
+        }
+
+        private boolean apply(Strategy strategy, long id, LessonTransition transition) {
+            try {
+                return Boolean.TRUE.equals(transactions.execute(status -> switch (strategy) {
+                    case READ_MODIFY_WRITE -> readModifyWrite(id, transition);
+                    case OPTIMISTIC -> optimistic(id, transition);
+                    case CONDITIONAL -> repository.transition(id, TUTOR_ID, transition.getSourceStatuses(),
+                            transition.getTargetStatus(), LocalDateTime.now()).isPresent();
+                }));
+            } catch (ObjectOptimisticLockingFailureException e) {
+                return false;
+            }
+        }
+
+        private boolean readModifyWrite(long id, LessonTransition transition) {
+            Lesson lesson = repository.findById(id).orElse(null);
+            if (lesson == null || !transition.isAllowedFrom(lesson.getStatus())) {
+                return false;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            return entityManager.createQuery("""
+                            UPDATE Lesson l
+                            SET l.status = :status, l.price = :price, l.updatedAt = :now, l.completedAt = :completedAt
+                            WHERE l.id = :id
+                            """)
+                    .setParameter("status", transition.getTargetStatus())
+                    .setParameter("price", lesson.getPrice())
+                    .setParameter("now", now)
+                    .setParameter("completedAt", transition == LessonTransition.COMPLETE ? now : null)
+                    .setParameter("id", id)
+                    .executeUpdate() == 1;
+        }
+
+        private boolean optimistic(long id, LessonTransition transition) {
+            Lesson lesson = repository.findById(id).orElse(null);
+            if (lesson == null || !transition.isAllowedFrom(lesson.getStatus())) {
+                return false;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            lesson.setStatus(transition.getTargetStatus());
+            lesson.setUpdatedAt(now);
+            if (transition == LessonTransition.COMPLETE) {
+                lesson.setCompletedAt(now);
+            }
+            repository.saveAndFlush(lesson);
+            return true;
+        }
+
+        private Map<Long, String> statuses(List<Long> ids) {
+            return repository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Lesson::getId, Lesson::getStatus));
+        }
+
+        private long queries() {
+            return meterRegistry.find("db.query").timers().stream()
+                    .mapToLong(Timer::count)
+                    .sum();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.tutorplatform.notification.config;
+
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+
+@Configuration
+@EnableScheduling
+public class LiveUpdateConfig {
+
+    // Потоки только дописывают буферы подключений в сокет; простаивающие подключения потоков не держат
+    @Bean
+    public ThreadPoolTaskExecutor liveUpdateExecutor(@Value("${live-updates.sender-threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("live-update-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Запись в сокет держит поток пула, пока клиент не примет данные. Tomcat ограничивает блокирующую
+    // запись тайм-аутом соединения: медленный клиент получает ошибку записи и отключается, а поток
+    // освобождается не позже чем через send-timeout. Простаивающий SSE-поток этот тайм-аут не закрывает
+    @Bean
+    public TomcatConnectorCustomizer liveUpdateSendTimeout(@Value("${live-updates.send-timeout:PT10S}") Duration sendTimeout) {
+        return connector -> {
+            if (connector.getProtocolHandler() instanceof AbstractProtocol<?> protocol) {
+                protocol.setConnectionTimeout((int) sendTimeout.toMillis());
+            }
+        };
+    }
+}
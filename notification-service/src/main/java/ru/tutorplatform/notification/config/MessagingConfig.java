@@ -1,22 +1,119 @@
 package ru.tutorplatform.notification.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.DirectRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.DirectRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import ru.tutorplatform.common.codec.EventMessageConverter;
 import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.common.messaging.NotificationLaneTopology;
+import ru.tutorplatform.common.messaging.RetryTopology;
+import ru.tutorplatform.common.messaging.TieredRetryRecoverer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Configuration
 public class MessagingConfig {
 
+    @Bean
+    public MessageConverter eventMessageConverter(@Value("${messaging.codec:binary}") String codec,
+                                                  @Value("#{${messaging.schema-versions:{:}}}") Map<String, Integer> schemaVersions) {
+        return EventMessageConverter.forFormat(codec, schemaVersions);
+    }
+
+    // Общая очередь прежних версий lesson-service: дочитываем её, пока в ней есть сообщения
     @Bean
     public Queue notificationQueue() {
         return new Queue(Constants.QueueNames.NOTIFICATION_QUEUE, true);
     }
-}
 
+    @Bean
+    public Declarables notificationQueueRetry(@Value("${messaging.retry.delays:PT5S,PT30S,PT5M}") List<Duration> retryDelays) {
+        return RetryTopology.forQueue(Constants.QueueNames.NOTIFICATION_QUEUE, retryDelays);
+    }
 
+    // Те же очереди объявляет lesson-service: сообщения не теряются, какой бы сервис ни поднялся первым
+    @Bean
+    public NotificationLaneTopology notificationLanes(Environment environment) {
+        return NotificationLaneTopology.fromProperties(environment);
+    }
 
+    @Bean
+    public Declarables notificationLanesTopology(NotificationLaneTopology notificationLanes) {
+        return notificationLanes.declarables();
+    }
 
+    // Повтор возвращает сообщение в тот же шард, но уже после более поздних уведомлений получателя
+    @Bean
+    public Declarables notificationLanesRetry(NotificationLaneTopology notificationLanes,
+                                              @Value("${messaging.retry.delays:PT5S,PT30S,PT5M}") List<Duration> retryDelays) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (String queue : notificationLanes.allQueues()) {
+            declarables.addAll(RetryTopology.forQueue(queue, retryDelays).getDeclarables());
+        }
+        return new Declarables(declarables);
+    }
 
+    /**
+     * Слушатели полос: отдельный потребитель на каждую шард-очередь. Настройки, включая повтор,
+     * берутся из {@code spring.rabbitmq.listener.direct}.
+     */
+    @Bean
+    public DirectRabbitListenerContainerFactory notificationLaneContainerFactory(DirectRabbitListenerContainerFactoryConfigurer configurer,
+                                                                                 ConnectionFactory connectionFactory) {
+        DirectRabbitListenerContainerFactory factory = new DirectRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setConsumersPerQueue(1);
+        return factory;
+    }
 
+    @Bean
+    public Queue deadLetterQueue() {
+        return RetryTopology.deadLetterQueue();
+    }
+
+    @Bean
+    public MessageRecoverer messageRecoverer(RabbitTemplate rabbitTemplate,
+                                             NotificationLaneTopology notificationLanes,
+                                             @Value("${messaging.retry.delays:PT5S,PT30S,PT5M}") List<Duration> retryDelays) {
+        Set<String> retriedQueues = new HashSet<>(notificationLanes.allQueues());
+        retriedQueues.add(Constants.QueueNames.NOTIFICATION_QUEUE);
+        return new TieredRetryRecoverer(rabbitTemplate, retryDelays, retriedQueues);
+    }
+
+    @Bean
+    public FanoutExchange lessonEventsExchange() {
+        return new FanoutExchange(Constants.ExchangeNames.LESSON_EVENTS, true, false);
+    }
+
+    // Своя временная очередь у каждого экземпляра: живые подключения распределены по экземплярам,
+    // поэтому каждый должен видеть все изменения уроков
+    @Bean
+    public Queue lessonUpdatesQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("notification.lesson-updates."));
+    }
 
+    @Bean
+    public Binding lessonUpdatesBinding(Queue lessonUpdatesQueue, FanoutExchange lessonEventsExchange) {
+        return BindingBuilder.bind(lessonUpdatesQueue).to(lessonEventsExchange);
+    }
+}
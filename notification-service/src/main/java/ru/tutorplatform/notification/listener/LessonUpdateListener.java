@@ -0,0 +1,33 @@
+package ru.tutorplatform.notification.listener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+import ru.tutorplatform.common.event.LessonChangedEvent;
+import ru.tutorplatform.notification.service.LiveUpdateService;
+import ru.tutorplatform.notification.service.ProcessedEvents;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LessonUpdateListener {
+
+    private final LiveUpdateService liveUpdateService;
+    private final ProcessedEvents processedEvents;
+
+    @RabbitListener(queues = "#{lessonUpdatesQueue.name}")
+    public void handleLessonChanged(LessonChangedEvent event) {
+        if (!processedEvents.accept(event.getEventId())) {
+            log.debug("Повторная доставка изменения урока пропущена: {}", event.getEventId());
+            return;
+        }
+        log.debug("Изменение урока для живых подключений: {}", event);
+        try {
+            liveUpdateService.publish(event);
+        } catch (RuntimeException e) {
+            processedEvents.release(event.getEventId());
+            throw e;
+        }
+    }
+}
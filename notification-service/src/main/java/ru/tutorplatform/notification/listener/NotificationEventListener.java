@@ -6,16 +6,34 @@ import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 import ru.tutorplatform.common.constants.Constants;
 import ru.tutorplatform.common.event.NotificationEvent;
+import ru.tutorplatform.notification.service.ProcessedEvents;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationEventListener {
 
+    private final ProcessedEvents processedEvents;
+
+    @RabbitListener(id = "notification-lane-urgent", queues = "#{@notificationLanes.queues('URGENT')}",
+            containerFactory = "notificationLaneContainerFactory")
+    @RabbitListener(id = "notification-lane-normal", queues = "#{@notificationLanes.queues('NORMAL')}",
+            containerFactory = "notificationLaneContainerFactory")
+    @RabbitListener(id = "notification-lane-bulk", queues = "#{@notificationLanes.queues('BULK')}",
+            containerFactory = "notificationLaneContainerFactory")
     @RabbitListener(queues = Constants.QueueNames.NOTIFICATION_QUEUE)
     public void handleNotification(NotificationEvent event) {
-        // Заглушка отправки уведомлений
-        log.info("Отправляю уведомление: {}", event);
+        if (!processedEvents.accept(event.getEventId())) {
+            log.debug("Повторная доставка уведомления пропущена: {}", event.getEventId());
+            return;
+        }
+        try {
+            // Заглушка отправки уведомлений
+            log.info("Отправляю уведомление: {}", event);
+        } catch (RuntimeException e) {
+            processedEvents.release(event.getEventId());
+            throw e;
+        }
     }
 }
 
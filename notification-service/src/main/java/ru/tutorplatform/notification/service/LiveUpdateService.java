@@ -0,0 +1,129 @@
+package ru.tutorplatform.notification.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.tutorplatform.common.event.LessonChangedEvent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Рассылка изменений уроков по открытым SSE-подключениям пользователей.
+ */
+@Service
+@Slf4j
+public class LiveUpdateService {
+
+    private static final long RECONNECT_MILLIS = 3000;
+
+    private final Map<Long, Set<SseConnection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final Executor executor;
+    private final Counter droppedConnections;
+    private final int bufferSize;
+    private final Duration timeout;
+
+    public LiveUpdateService(@Qualifier("liveUpdateExecutor") Executor executor,
+                             MeterRegistry meterRegistry,
+                             @Value("${live-updates.buffer-size:64}") int bufferSize,
+                             @Value("${live-updates.timeout:PT30M}") Duration timeout) {
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        Gauge.builder("notification.live.connections", connectionCount, AtomicInteger::get)
+                .description("Открытые SSE-подключения")
+                .register(meterRegistry);
+        this.droppedConnections = Counter.builder("notification.live.dropped")
+                .description("Подключения, закрытые из-за переполнения буфера")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter connect(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        SseConnection connection = new SseConnection(userId, emitter, bufferSize, executor);
+
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+
+        connections.compute(userId, (id, userConnections) -> {
+            Set<SseConnection> result = userConnections != null ? userConnections : ConcurrentHashMap.newKeySet();
+            result.add(connection);
+            return result;
+        });
+        connectionCount.incrementAndGet();
+
+        connection.offer(SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("connected"));
+        log.debug("Пользователь {} подключился к потоку обновлений", userId);
+        return emitter;
+    }
+
+    public void publish(LessonChangedEvent event) {
+        deliver(event.getStudentId(), event);
+        if (!Objects.equals(event.getStudentId(), event.getTutorId())) {
+            deliver(event.getTutorId(), event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${live-updates.heartbeat-interval:PT25S}")
+    public void sendHeartbeats() {
+        // Переполненный буфер здесь не повод закрывать подключение — это решит следующее событие
+        connections.values().forEach(userConnections -> userConnections.forEach(
+                connection -> connection.offer(SseEmitter.event().comment("ping"))));
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        connections.values().forEach(userConnections -> userConnections.forEach(SseConnection::close));
+    }
+
+    private void deliver(Long userId, LessonChangedEvent event) {
+        if (userId == null) {
+            return;
+        }
+        Set<SseConnection> userConnections = connections.get(userId);
+        if (userConnections == null) {
+            return;
+        }
+
+        for (SseConnection connection : userConnections) {
+            SseEmitter.SseEventBuilder sseEvent = SseEmitter.event()
+                    .id(event.getEventId())
+                    .name("lesson")
+                    .data(event);
+            if (!connection.offer(sseEvent)) {
+                if (!connection.isClosed()) {
+                    // Клиент не успевает читать: закрываем. Поток не возобновляется с места разрыва,
+                    // пропущенные события клиент увидит только при следующей загрузке данных
+                    log.warn("Буфер подключения пользователя {} переполнен, подключение закрыто", userId);
+                    droppedConnections.increment();
+                    connection.close();
+                }
+                remove(connection);
+            }
+        }
+    }
+
+    private void remove(SseConnection connection) {
+        connection.markClosed();
+        connections.computeIfPresent(connection.getUserId(), (id, userConnections) -> {
+            if (userConnections.remove(connection)) {
+                connectionCount.decrementAndGet();
+            }
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+}
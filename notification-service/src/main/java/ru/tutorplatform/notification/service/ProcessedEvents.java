@@ -0,0 +1,45 @@
+package ru.tutorplatform.notification.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Недавно принятые события по {@code eventId}: отсекает повторные доставки (lesson-service
+ * отправляет события «хотя бы один раз»). Экземпляр помнит последние {@code messaging.dedupe-capacity}
+ * событий в памяти, поэтому повтор, пришедший на другой экземпляр, после перезапуска или после
+ * вытеснения, обработается ещё раз — для уведомлений и живых обновлений это допустимо.
+ */
+@Component
+public class ProcessedEvents {
+
+    private final Map<String, Boolean> recent;
+
+    public ProcessedEvents(@Value("${messaging.dedupe-capacity:50000}") int capacity) {
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Отмечает событие принятым. {@code false} — событие уже принималось, его нужно пропустить.
+     * События без {@code eventId} принимаются всегда.
+     */
+    public synchronized boolean accept(String eventId) {
+        return eventId == null || recent.putIfAbsent(eventId, Boolean.TRUE) == null;
+    }
+
+    /**
+     * Забывает событие, обработка которого упала: повторная доставка обработает его снова.
+     */
+    public synchronized void release(String eventId) {
+        if (eventId != null) {
+            recent.remove(eventId);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ru.tutorplatform.notification.service;
+
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Одно SSE-подключение с ограниченным буфером исходящих событий.
+ * <p>
+ * Событие кладётся в буфер без блокировки, а запись в сокет выполняет общий пул;
+ * одновременно буфер разбирает не больше одного потока, поэтому порядок событий сохраняется.
+ * Запись медленному клиенту ограничена {@code live-updates.send-timeout} (см. LiveUpdateConfig):
+ * по истечении send бросает IOException, и подключение закрывается.
+ */
+class SseConnection {
+
+    @Getter
+    private final Long userId;
+    @Getter
+    private final SseEmitter emitter;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+    private final Executor executor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    SseConnection(Long userId, SseEmitter emitter, int bufferSize, Executor executor) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.executor = executor;
+    }
+
+    /**
+     * @return {@code false}, если подключение закрыто или буфер переполнен
+     */
+    boolean offer(SseEmitter.SseEventBuilder event) {
+        if (closed || !buffer.offer(event)) {
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void close() {
+        if (!closed) {
+            closed = true;
+            buffer.clear();
+            emitter.complete();
+        }
+    }
+
+    void markClosed() {
+        closed = true;
+        buffer.clear();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!closed && (event = buffer.poll()) != null) {
+                emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Клиент отключился или не принял запись за send-timeout; SseEmitter сам вызовет onError/onCompletion
+            markClosed();
+        } finally {
+            draining.set(false);
+            if (!closed && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
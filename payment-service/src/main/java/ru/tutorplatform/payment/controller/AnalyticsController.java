@@ -0,0 +1,79 @@
+package ru.tutorplatform.payment.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.tutorplatform.common.dto.ApiResponse;
+import ru.tutorplatform.payment.dto.AnalyticsRebuildDTO;
+import ru.tutorplatform.payment.dto.EarningsRowDTO;
+import ru.tutorplatform.payment.dto.TutorEarningsDTO;
+import ru.tutorplatform.payment.service.AnalyticsRebuildService;
+import ru.tutorplatform.payment.service.PaymentAnalyticsService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/api/payments/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Аналитика", description = "Начисления репетиторам по дням и предметам")
+public class AnalyticsController {
+
+    private final PaymentAnalyticsService paymentAnalyticsService;
+    private final AnalyticsRebuildService analyticsRebuildService;
+
+    @GetMapping("/tutors/{tutorId}")
+    @Operation(summary = "Начисления репетитора за период: итог, по дням и по предметам")
+    public ResponseEntity<ApiResponse<TutorEarningsDTO>> getTutorEarnings(
+            @PathVariable Long tutorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader("X-User-Id") Long userId,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        if (!isAdmin(role) && !Objects.equals(tutorId, userId)) {
+            return forbidden();
+        }
+        return ResponseEntity.ok(ApiResponse.success(paymentAnalyticsService.getTutorEarnings(tutorId, from, to)));
+    }
+
+    @GetMapping("/tutors")
+    @Operation(summary = "Начисления всех репетиторов за период, по убыванию суммы")
+    public ResponseEntity<ApiResponse<List<EarningsRowDTO>>> getEarningsByTutor(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        if (!isAdmin(role)) {
+            return forbidden();
+        }
+        return ResponseEntity.ok(ApiResponse.success(paymentAnalyticsService.getEarningsByTutor(from, to)));
+    }
+
+    @PostMapping("/rebuild")
+    @Operation(summary = "Перестроить агрегаты по журналу событий оплаты")
+    public ResponseEntity<ApiResponse<AnalyticsRebuildDTO>> rebuild(
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        if (!isAdmin(role)) {
+            return forbidden();
+        }
+        AnalyticsRebuildDTO rebuild = analyticsRebuildService.rebuild();
+        if (rebuild == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("Перестроение агрегатов уже выполняется", "REBUILD_IN_PROGRESS"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(rebuild));
+    }
+
+    private static boolean isAdmin(String role) {
+        return "ADMIN".equalsIgnoreCase(role);
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(ApiResponse.error("Нет доступа к аналитике", "ACCESS_DENIED"));
+    }
+}
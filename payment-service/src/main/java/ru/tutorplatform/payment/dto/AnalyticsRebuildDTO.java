@@ -0,0 +1,16 @@
+package ru.tutorplatform.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsRebuildDTO {
+    private int partitions;
+    private long rollups;
+    private long durationMs;
+}
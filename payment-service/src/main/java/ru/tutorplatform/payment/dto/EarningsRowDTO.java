@@ -0,0 +1,25 @@
+package ru.tutorplatform.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Строка агрегата начислений. Поля, по которым строка не группировалась, пустые.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EarningsRowDTO {
+    private LocalDate day;
+    private Long tutorId;
+    private Long subjectId;
+    private String currency;
+    private long lessons;
+    private BigDecimal amount;
+}
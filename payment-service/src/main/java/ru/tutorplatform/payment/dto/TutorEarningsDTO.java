@@ -0,0 +1,22 @@
+package ru.tutorplatform.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TutorEarningsDTO {
+    private Long tutorId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<EarningsRowDTO> totals;    // по валютам
+    private List<EarningsRowDTO> byDay;
+    private List<EarningsRowDTO> bySubject;
+}
@@ -6,17 +6,21 @@ import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 import ru.tutorplatform.common.constants.Constants;
 import ru.tutorplatform.common.event.PaymentEvent;
+import ru.tutorplatform.payment.service.PaymentAnalyticsService;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentEventListener {
 
+    private final PaymentAnalyticsService paymentAnalyticsService;
+
     @RabbitListener(queues = Constants.QueueNames.PAYMENT_QUEUE)
     public void handlePayment(PaymentEvent event) {
         // Заглушка обработки платежа
         log.info("Обрабатываю событие платежа: {}", event);
         // Здесь можно добавить имитацию запроса к платежному провайдеру
+        paymentAnalyticsService.record(event);
     }
 }
 
@@ -0,0 +1,41 @@
+package ru.tutorplatform.payment.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Журнал принятых событий оплаты: по {@code eventId} отсекаются повторные доставки,
+ * и по нему же заново строятся агрегаты аналитики.
+ */
+@Entity
+@Table(name = "payment_facts",
+        indexes = @Index(name = "idx_payment_facts_tutor_day", columnList = "tutor_id, day"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentFact {
+
+    @Id
+    private String eventId;
+
+    private Long lessonId;
+    private Long studentId;
+    private Long tutorId;
+    private Long subjectId;
+    private LocalDate day;
+    private BigDecimal amount;
+    private String currency;
+    private String status;
+    private LocalDateTime eventTime;
+}
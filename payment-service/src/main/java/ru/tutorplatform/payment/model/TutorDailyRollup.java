@@ -0,0 +1,60 @@
+package ru.tutorplatform.payment.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Агрегат начислений за день по репетитору, предмету и валюте. Узкая строка фиксированных
+ * полей без вложенных данных: запрос за период суммирует по строке на день и предмет,
+ * сколько бы уроков ни было в истории.
+ */
+@Entity
+@Table(name = "tutor_daily_rollups",
+        indexes = @Index(name = "idx_tutor_daily_rollups_tutor_day", columnList = "tutor_id, day"))
+@IdClass(TutorDailyRollup.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TutorDailyRollup {
+
+    public static final long UNKNOWN_SUBJECT = 0L; // события версии 1 не содержат предмета
+
+    @Id
+    private LocalDate day;
+
+    @Id
+    private Long tutorId;
+
+    @Id
+    private Long subjectId;
+
+    @Id
+    @Column(length = 3)
+    private String currency;
+
+    private Long lessons;
+    private BigDecimal amount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private Long tutorId;
+        private Long subjectId;
+        private String currency;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.tutorplatform.payment.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.tutorplatform.payment.model.PaymentFact;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public interface PaymentFactRepository extends JpaRepository<PaymentFact, String> {
+
+    /**
+     * Записывает событие, если его ещё нет. 0 — повторная доставка уже учтённого события.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO payment_facts (event_id, lesson_id, student_id, tutor_id, subject_id, day,
+                                       amount, currency, status, event_time)
+            VALUES (:eventId, :lessonId, :studentId, :tutorId, :subjectId, :day,
+                    :amount, :currency, :status, :eventTime)
+            ON CONFLICT (event_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") String eventId,
+                       @Param("lessonId") Long lessonId,
+                       @Param("studentId") Long studentId,
+                       @Param("tutorId") Long tutorId,
+                       @Param("subjectId") Long subjectId,
+                       @Param("day") LocalDate day,
+                       @Param("amount") BigDecimal amount,
+                       @Param("currency") String currency,
+                       @Param("status") String status,
+                       @Param("eventTime") LocalDateTime eventTime);
+}
@@ -0,0 +1,84 @@
+package ru.tutorplatform.payment.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.tutorplatform.payment.model.TutorDailyRollup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TutorDailyRollupRepository extends JpaRepository<TutorDailyRollup, TutorDailyRollup.Key> {
+
+    int PARTITION_LOCK_KEY = 0x414E4C54; // "ANLT"
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO tutor_daily_rollups AS r (day, tutor_id, subject_id, currency, lessons, amount)
+            VALUES (:day, :tutorId, :subjectId, :currency, :lessons, :amount)
+            ON CONFLICT (day, tutor_id, subject_id, currency)
+            DO UPDATE SET lessons = r.lessons + EXCLUDED.lessons,
+                          amount = r.amount + EXCLUDED.amount
+            """, nativeQuery = true)
+    void add(@Param("day") LocalDate day,
+             @Param("tutorId") Long tutorId,
+             @Param("subjectId") Long subjectId,
+             @Param("currency") String currency,
+             @Param("lessons") long lessons,
+             @Param("amount") BigDecimal amount);
+
+    @Query("""
+            select r from TutorDailyRollup r
+            where r.tutorId = :tutorId
+              and r.day >= :from
+              and r.day <= :to
+            order by r.day
+            """)
+    List<TutorDailyRollup> findTutorDays(@Param("tutorId") Long tutorId,
+                                         @Param("from") LocalDate from,
+                                         @Param("to") LocalDate to);
+
+    // [tutorId, currency, lessons, amount]
+    @Query("""
+            select r.tutorId, r.currency, sum(r.lessons), sum(r.amount)
+            from TutorDailyRollup r
+            where r.day >= :from
+              and r.day <= :to
+            group by r.tutorId, r.currency
+            order by sum(r.amount) desc
+            """)
+    List<Object[]> sumByTutor(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Часть перестроения и приращения её репетиторов сериализуются рекомендательной блокировкой
+     * части до конца транзакции: приращения берут её разделяемой, перестроение — исключительной.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(:lockKey, CAST(mod(:tutorId, :partitions) AS integer))",
+            nativeQuery = true)
+    int lockPartitionShared(@Param("lockKey") int lockKey,
+                            @Param("tutorId") long tutorId,
+                            @Param("partitions") int partitions);
+
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:lockKey, :partition)", nativeQuery = true)
+    int lockPartition(@Param("lockKey") int lockKey, @Param("partition") int partition);
+
+    @Modifying
+    @Query(value = "DELETE FROM tutor_daily_rollups WHERE mod(tutor_id, :partitions) = :partition", nativeQuery = true)
+    int deletePartition(@Param("partitions") int partitions, @Param("partition") int partition);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO tutor_daily_rollups (day, tutor_id, subject_id, currency, lessons, amount)
+            SELECT day, tutor_id, coalesce(subject_id, 0), currency, count(*), coalesce(sum(amount), 0)
+            FROM payment_facts
+            WHERE status = :status
+              AND tutor_id IS NOT NULL
+              AND mod(tutor_id, :partitions) = :partition
+            GROUP BY day, tutor_id, coalesce(subject_id, 0), currency
+            """, nativeQuery = true)
+    int rebuildPartition(@Param("status") String status,
+                         @Param("partitions") int partitions,
+                         @Param("partition") int partition);
+}
@@ -0,0 +1,90 @@
+package ru.tutorplatform.payment.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.tutorplatform.payment.dto.AnalyticsRebuildDTO;
+import ru.tutorplatform.payment.repository.TutorDailyRollupRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Перестраивает агрегаты аналитики по журналу {@code payment_facts}. Репетиторы делятся на
+ * {@code partitions} частей по остатку от id; каждая часть удаляется и пересчитывается одной
+ * транзакцией, части считаются параллельно. Приращения от новых событий на время транзакции
+ * части ждут её блокировку и ложатся поверх пересчитанных строк.
+ */
+@Service
+@Slf4j
+public class AnalyticsRebuildService {
+
+    private final TutorDailyRollupRepository tutorDailyRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int partitions;
+    private final int parallelism;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public AnalyticsRebuildService(TutorDailyRollupRepository tutorDailyRollupRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${analytics.rebuild.partitions:16}") int partitions,
+                                   @Value("${analytics.rebuild.parallelism:4}") int parallelism) {
+        this.tutorDailyRollupRepository = tutorDailyRollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitions = partitions;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return {@code null}, если перестроение уже выполняется
+     */
+    public AnalyticsRebuildDTO rebuild() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        long started = System.nanoTime();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                runnable -> new Thread(runnable, "analytics-rebuild-" + threadNumber.incrementAndGet()));
+        try {
+            List<Future<Integer>> results = new ArrayList<>(partitions);
+            for (int partition = 0; partition < partitions; partition++) {
+                int current = partition;
+                results.add(executor.submit(() -> rebuildPartition(current)));
+            }
+            long rollups = 0;
+            for (Future<Integer> result : results) {
+                rollups += result.get();
+            }
+            long durationMs = (System.nanoTime() - started) / 1_000_000;
+            log.info("Агрегаты аналитики перестроены: частей {}, строк {}, {} мс", partitions, rollups, durationMs);
+            return new AnalyticsRebuildDTO(partitions, rollups, durationMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Перестроение агрегатов прервано", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка перестроения агрегатов аналитики", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    private int rebuildPartition(int partition) {
+        Integer rollups = transactionTemplate.execute(status -> {
+            tutorDailyRollupRepository.lockPartition(TutorDailyRollupRepository.PARTITION_LOCK_KEY, partition);
+            tutorDailyRollupRepository.deletePartition(partitions, partition);
+            return tutorDailyRollupRepository.rebuildPartition(
+                    PaymentAnalyticsService.ACCRUAL_STATUS, partitions, partition);
+        });
+        return rollups != null ? rollups : 0;
+    }
+}
@@ -0,0 +1,117 @@
+package ru.tutorplatform.payment.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.tutorplatform.common.constants.Constants;
+import ru.tutorplatform.common.event.PaymentEvent;
+import ru.tutorplatform.payment.dto.EarningsRowDTO;
+import ru.tutorplatform.payment.dto.TutorEarningsDTO;
+import ru.tutorplatform.payment.model.TutorDailyRollup;
+import ru.tutorplatform.payment.repository.PaymentFactRepository;
+import ru.tutorplatform.payment.repository.TutorDailyRollupRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Аналитика начислений репетиторам. Завершение урока порождает ровно одно событие оплаты
+ * в статусе {@code PENDING}: оно и есть начисление. Событие записывается в журнал
+ * {@code payment_facts} и в той же транзакции прибавляется к агрегату за день по репетитору,
+ * предмету и валюте, поэтому запрос за период не зависит от объёма истории.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentAnalyticsService {
+
+    static final String ACCRUAL_STATUS = Constants.PaymentStatus.PENDING;
+    private static final String DEFAULT_CURRENCY = "RUB";
+
+    private final PaymentFactRepository paymentFactRepository;
+    private final TutorDailyRollupRepository tutorDailyRollupRepository;
+
+    @Value("${analytics.rebuild.partitions:16}")
+    private int partitions;
+
+    @Transactional
+    public void record(PaymentEvent event) {
+        LocalDateTime eventTime = event.getEventTime() != null ? event.getEventTime() : LocalDateTime.now();
+        LocalDate day = eventTime.toLocalDate();
+        String currency = event.getCurrency() != null ? event.getCurrency() : DEFAULT_CURRENCY;
+        BigDecimal amount = event.getAmount() != null ? event.getAmount() : BigDecimal.ZERO;
+
+        int inserted = paymentFactRepository.insertIfAbsent(event.getEventId(), event.getLessonId(),
+                event.getStudentId(), event.getTutorId(), event.getSubjectId(), day, amount, currency,
+                event.getStatus(), eventTime);
+        if (inserted == 0) {
+            log.debug("Событие оплаты {} уже учтено", event.getEventId());
+            return;
+        }
+        if (!ACCRUAL_STATUS.equals(event.getStatus()) || event.getTutorId() == null) {
+            return;
+        }
+
+        long subjectId = event.getSubjectId() != null ? event.getSubjectId() : TutorDailyRollup.UNKNOWN_SUBJECT;
+        tutorDailyRollupRepository.lockPartitionShared(TutorDailyRollupRepository.PARTITION_LOCK_KEY,
+                event.getTutorId(), partitions);
+        tutorDailyRollupRepository.add(day, event.getTutorId(), subjectId, currency, 1, amount);
+    }
+
+    @Transactional(readOnly = true)
+    public TutorEarningsDTO getTutorEarnings(Long tutorId, LocalDate from, LocalDate to) {
+        List<TutorDailyRollup> rollups = tutorDailyRollupRepository.findTutorDays(tutorId, from, to);
+
+        return TutorEarningsDTO.builder()
+                .tutorId(tutorId)
+                .from(from)
+                .to(to)
+                .totals(fold(rollups, rollup -> List.of(rollup.getCurrency()),
+                        rollup -> EarningsRowDTO.builder().tutorId(tutorId)))
+                .byDay(fold(rollups, rollup -> List.of(rollup.getDay(), rollup.getCurrency()),
+                        rollup -> EarningsRowDTO.builder().tutorId(tutorId).day(rollup.getDay())))
+                .bySubject(fold(rollups, rollup -> List.of(rollup.getSubjectId(), rollup.getCurrency()),
+                        rollup -> EarningsRowDTO.builder().tutorId(tutorId).subjectId(rollup.getSubjectId()))
+                        .stream()
+                        .sorted(Comparator.comparing(EarningsRowDTO::getAmount).reversed())
+                        .toList())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public List<EarningsRowDTO> getEarningsByTutor(LocalDate from, LocalDate to) {
+        return tutorDailyRollupRepository.sumByTutor(from, to).stream()
+                .map(row -> EarningsRowDTO.builder()
+                        .tutorId((Long) row[0])
+                        .currency((String) row[1])
+                        .lessons(((Number) row[2]).longValue())
+                        .amount((BigDecimal) row[3])
+                        .build())
+                .toList();
+    }
+
+    // Строк агрегата не больше, чем дней периода на число предметов; порядок — как в выборке (по дням)
+    private static List<EarningsRowDTO> fold(List<TutorDailyRollup> rollups,
+                                             Function<TutorDailyRollup, List<?>> key,
+                                             Function<TutorDailyRollup, EarningsRowDTO.EarningsRowDTOBuilder> row) {
+        Map<List<?>, EarningsRowDTO> folded = new LinkedHashMap<>();
+        for (TutorDailyRollup rollup : rollups) {
+            EarningsRowDTO target = folded.computeIfAbsent(key.apply(rollup), k -> row.apply(rollup)
+                    .currency(rollup.getCurrency())
+                    .amount(BigDecimal.ZERO)
+                    .build());
+            target.setLessons(target.getLessons() + rollup.getLessons());
+            target.setAmount(target.getAmount().add(rollup.getAmount()));
+        }
+        return new ArrayList<>(folded.values());
+    }
+}
@@ -3,6 +3,7 @@ package ru.tutorplatform.user.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.*;
 import ru.tutorplatform.common.dto.ApiResponse;
 import ru.tutorplatform.user.dto.LoginRequest;
@@ -25,6 +26,8 @@ public class AuthController {
         try {
             LoginResponse response = authService.login(request);
             return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (CannotCreateTransactionException e) {
+            throw e; // перегрузка базы — 503, а не ошибка входа
         } catch (RuntimeException e) {
             return ResponseEntity.status(401)
                     .body(ApiResponse.error(e.getMessage(), "UNAUTHORIZED"));
@@ -36,6 +39,8 @@ public class AuthController {
         try {
             LoginResponse response = authService.refreshToken(request.getRefreshToken());
             return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (CannotCreateTransactionException e) {
+            throw e; // перегрузка базы — 503, а не ошибка входа
         } catch (RuntimeException e) {
             return ResponseEntity.status(401)
                     .body(ApiResponse.error(e.getMessage(), "UNAUTHORIZED"));
@@ -59,6 +64,8 @@ public class AuthController {
             String email = jwtUtil.extractEmail(token);
             UserDto user = authService.getCurrentUser(email);
             return ResponseEntity.ok(ApiResponse.success(user));
+        } catch (CannotCreateTransactionException e) {
+            throw e; // перегрузка базы — 503, а не ошибка входа
         } catch (RuntimeException e) {
             return ResponseEntity.status(401)
                     .body(ApiResponse.error(e.getMessage(), "UNAUTHORIZED"));
@@ -1,6 +1,9 @@
 package ru.tutorplatform.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.tutorplatform.user.dto.UserDto;
 import ru.tutorplatform.user.model.User;
 
 import java.util.List;
@@ -9,7 +12,26 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
-    List<User> findByRole(String role);
+
+    /**
+     * Профили для ответов API сразу в DTO: без хеша пароля и без сущностей в контексте персистентности.
+     */
+    @Query("""
+            select new ru.tutorplatform.user.dto.UserDto(
+                u.id, u.username, u.email, u.firstName, u.lastName, u.role, u.bio, u.subjects, u.experienceYears)
+            from User u
+            where u.role = :role
+            order by u.id
+            """)
+    List<UserDto> findDtosByRole(@Param("role") String role);
+
+    @Query("""
+            select new ru.tutorplatform.user.dto.UserDto(
+                u.id, u.username, u.email, u.firstName, u.lastName, u.role, u.bio, u.subjects, u.experienceYears)
+            from User u
+            where u.id = :id
+            """)
+    Optional<UserDto> findDtoById(@Param("id") Long id);
 }
 
 
@@ -38,33 +38,28 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public UserDto getUser(Long id) {
-        return userRepository.findById(id)
-                .map(this::toDto)
-                .orElse(null);
+        return userRepository.findDtoById(id).orElse(null);
     }
 
     @Transactional(readOnly = true)
     public List<UserDto> getTutors(String subject, Integer minRating) {
-        List<User> tutors = userRepository.findByRole("TUTOR");
-        return tutors.stream()
-                .map(this::toDto)
-                .toList();
+        return userRepository.findDtosByRole("TUTOR");
     }
 
     private UserDto toDto(User user) {
         if (user == null) {
             return null;
         }
-        return UserDto.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .role(user.getRole())
-                .bio(user.getBio())
-                .subjects(user.getSubjects())
-                .experienceYears(user.getExperienceYears())
-                .build();
+        return new UserDto(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getRole(),
+                user.getBio(),
+                user.getSubjects(),
+                user.getExperienceYears()
+        );
     }
 }